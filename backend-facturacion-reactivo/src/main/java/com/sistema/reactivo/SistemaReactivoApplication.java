@@ -0,0 +1,20 @@
+package com.sistema.reactivo;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+
+/**
+ * Variante reactiva (WebFlux + R2DBC) de la API de boletas.
+ * Comparte base de datos y DTOs con backend-facturacion, que sigue siendo
+ * el dueño del esquema (Flyway) y del procesamiento del outbox.
+ * Sin usuarios en memoria: solo se autentica con el JWT del backend servlet.
+ * @autor Paulo
+ */
+@SpringBootApplication(exclude = ReactiveUserDetailsServiceAutoConfiguration.class)
+public class SistemaReactivoApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(SistemaReactivoApplication.class, args);
+    }
+}
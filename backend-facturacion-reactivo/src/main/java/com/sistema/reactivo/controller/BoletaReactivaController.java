@@ -0,0 +1,134 @@
+package com.sistema.reactivo.controller;
+
+import com.sistema.backend.dto.request.BoletaRequest;
+import com.sistema.backend.dto.response.BoletaResponse;
+import com.sistema.backend.dto.response.BoletaSummary;
+import com.sistema.backend.dto.response.MessageResponse;
+import com.sistema.reactivo.service.BoletaReactivaService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador REST reactivo de boletas: mismas rutas y DTOs que BoletaController.
+ * Los listados se pueden pedir como JSON, NDJSON (application/x-ndjson) o SSE
+ * (text/event-stream); en los dos últimos cada boleta se escribe al leerla,
+ * con contrapresión hasta la base de datos.
+ * 
+ * @author Paulo
+ */
+@RestController
+@RequestMapping("/api/boletas")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequiredArgsConstructor
+@Slf4j
+public class BoletaReactivaController {
+
+    private final BoletaReactivaService boletaService;
+
+    /**
+     * POST /api/boletas
+     * Crear nueva boleta (checkout)
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @PostMapping
+    public Mono<ResponseEntity<BoletaResponse>> crearBoleta(
+            @Valid @RequestBody BoletaRequest request,
+            Authentication authentication) {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
+
+        log.info("📝 Creando boleta para usuario ID: {}", idUsuario);
+
+        return boletaService.procesarBoleta(request, idUsuario)
+                .map(response -> ResponseEntity
+                        .status(response.isSuccess() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST)
+                        .body(response));
+    }
+
+    /**
+     * GET /api/boletas
+     * Obtener todas las boletas del usuario autenticado
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<BoletaSummary> obtenerMisBoletas(Authentication authentication) {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
+
+        log.info("📋 Obteniendo boletas del usuario ID: {}", idUsuario);
+
+        return boletaService.getResumenesByUserId(idUsuario, false);
+    }
+
+    /**
+     * GET /api/boletas/ordenadas
+     * Obtener boletas ordenadas por fecha descendente
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping(path = "/ordenadas", produces = { MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<BoletaSummary> obtenerMisBoletasOrdenadas(Authentication authentication) {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
+
+        log.info("📋 Obteniendo boletas ordenadas del usuario ID: {}", idUsuario);
+
+        return boletaService.getResumenesByUserId(idUsuario, true);
+    }
+
+    /**
+     * GET /api/boletas/{id}
+     * Obtener una boleta específica por ID
+     * 
+     * PROTEGIDO - Requiere JWT y verifica propiedad
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Object>> obtenerBoletaPorId(
+            @PathVariable Integer id,
+            Authentication authentication) {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
+
+        log.info("🔍 Buscando boleta ID: {} para usuario ID: {}", id, idUsuario);
+
+        return boletaService.getBoletaDetalladaByIdAndUser(id, idUsuario)
+                .map(boleta -> ResponseEntity.ok((Object) boleta))
+                .defaultIfEmpty(noEncontrada());
+    }
+
+    /**
+     * GET /api/boletas/{id}/detalles
+     * Obtener detalles de una boleta específica
+     * 
+     * PROTEGIDO - Requiere JWT y verifica propiedad
+     */
+    @GetMapping("/{id}/detalles")
+    public Mono<ResponseEntity<Object>> obtenerDetallesBoleta(
+            @PathVariable Integer id,
+            Authentication authentication) {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
+
+        log.info("🔍 Obteniendo detalles de boleta ID: {}", id);
+
+        // Toda boleta tiene al menos una línea: vacío = no existe o es ajena
+        return boletaService.getDetallesByBoletaIdAndUser(id, idUsuario)
+                .collectList()
+                .filter(detalles -> !detalles.isEmpty())
+                .map(detalles -> ResponseEntity.ok((Object) detalles))
+                .defaultIfEmpty(noEncontrada());
+    }
+
+    private ResponseEntity<Object> noEncontrada() {
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(new MessageResponse("Boleta no encontrada", false));
+    }
+}
@@ -0,0 +1,130 @@
+package com.sistema.reactivo.repository;
+
+import com.sistema.backend.dto.response.BoletaDetailsResponse;
+import com.sistema.backend.dto.response.BoletaDetailsResponse.DetalleBoletaDTO;
+import com.sistema.backend.dto.response.BoletaDetailsResponse.UsuarioDTO;
+import com.sistema.backend.dto.response.BoletaSummary;
+import com.sistema.backend.dto.response.NumeroBoleta;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lecturas de boletas con R2DBC (SQL explícito, mapeado directo a los DTOs compartidos).
+ * Las consultas están acotadas por (id_boleta, id_usuario): una boleta ajena no existe.
+ * @autor Paulo
+ */
+@Repository
+@RequiredArgsConstructor
+public class BoletaReactivaRepository {
+
+    private static final String SQL_RESUMENES =
+            "SELECT id_boleta, id_usuario, fecha_creacion, total, nombre_cliente, documento_cliente, "
+            + "cantidad_items, unidades_totales, serie, correlativo FROM boletas WHERE id_usuario = $1";
+
+    private static final String SQL_CABECERA =
+            "SELECT b.id_boleta, b.id_usuario, b.fecha_creacion, b.total, b.nombre_cliente, b.documento_cliente, "
+            + "b.email_cliente, b.serie, b.correlativo, u.nombres, u.apellidos, u.numero_documento "
+            + "FROM boletas b LEFT JOIN usuarios u ON u.id_usuario = b.id_usuario "
+            + "WHERE b.id_boleta = $1 AND b.id_usuario = $2";
+
+    private static final String SQL_DETALLES =
+            "SELECT d.id_detalle, d.id_producto, d.producto, d.precio_unitario, d.cantidad, d.subtotal "
+            + "FROM detalle_boleta d JOIN boletas b ON b.id_boleta = d.id_boleta "
+            + "WHERE d.id_boleta = $1 AND b.id_usuario = $2 ORDER BY d.id_detalle";
+
+    private final DatabaseClient db;
+
+    // Filas pedidas al servidor por vez: el Flux solo lee más cuando el cliente consume
+    @Value("${app.reactivo.fetch-size:256}")
+    private int fetchSize = 256;
+
+    /**
+     * Listado ligero de boletas del usuario, en streaming y con contrapresión
+     */
+    public Flux<BoletaSummary> resumenes(Integer idUsuario, boolean ordenadas) {
+        String sql = ordenadas ? SQL_RESUMENES + " ORDER BY fecha_creacion DESC" : SQL_RESUMENES;
+        return db.sql(sql)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind(0, idUsuario)
+                .map(fila -> new BoletaSummary(
+                        fila.get("id_boleta", Integer.class),
+                        fila.get("id_usuario", Integer.class),
+                        fila.get("fecha_creacion", LocalDateTime.class),
+                        fila.get("total", BigDecimal.class),
+                        fila.get("nombre_cliente", String.class),
+                        fila.get("documento_cliente", String.class),
+                        fila.get("cantidad_items", Integer.class),
+                        fila.get("unidades_totales", Integer.class),
+                        fila.get("serie", String.class),
+                        fila.get("correlativo", Integer.class)))
+                .all();
+    }
+
+    /**
+     * Cabecera y vendedor de la boleta del usuario (sin detalles); vacío si no existe o es ajena
+     */
+    public Mono<BoletaDetailsResponse> cabecera(Integer idBoleta, Integer idUsuario) {
+        return db.sql(SQL_CABECERA)
+                .bind(0, idBoleta)
+                .bind(1, idUsuario)
+                .map(this::mapearCabecera)
+                .one();
+    }
+
+    /**
+     * Detalles de la boleta del usuario; vacío si no existe o es ajena
+     */
+    public Flux<DetalleBoletaDTO> detalles(Integer idBoleta, Integer idUsuario) {
+        return db.sql(SQL_DETALLES)
+                .bind(0, idBoleta)
+                .bind(1, idUsuario)
+                .map(fila -> DetalleBoletaDTO.builder()
+                        .idDetalle(fila.get("id_detalle", Integer.class))
+                        .idProducto(fila.get("id_producto", Integer.class))
+                        .producto(fila.get("producto", String.class))
+                        .precio_unitario(fila.get("precio_unitario", BigDecimal.class))
+                        .cantidad(fila.get("cantidad", Integer.class))
+                        .subtotal(fila.get("subtotal", BigDecimal.class))
+                        .build())
+                .all();
+    }
+
+    private BoletaDetailsResponse mapearCabecera(Readable fila) {
+        Integer idUsuario = fila.get("id_usuario", Integer.class);
+        String nombres = fila.get("nombres", String.class);
+        // Mismo valor por defecto que UsuarioService.construirUsuarioDTO
+        UsuarioDTO vendedor = nombres != null
+                ? UsuarioDTO.builder()
+                        .id(idUsuario)
+                        .nombres(nombres)
+                        .apellidos(fila.get("apellidos", String.class))
+                        .numero_documento(fila.get("numero_documento", String.class))
+                        .build()
+                : UsuarioDTO.builder()
+                        .id(idUsuario)
+                        .nombres("Vendedor Desconocido")
+                        .apellidos("")
+                        .numero_documento("N/A")
+                        .build();
+
+        return BoletaDetailsResponse.builder()
+                .idBoleta(fila.get("id_boleta", Integer.class))
+                .numero(NumeroBoleta.formatear(fila.get("serie", String.class), fila.get("correlativo", Integer.class)))
+                .fecha_creacion(fila.get("fecha_creacion", LocalDateTime.class).toString())
+                .total(fila.get("total", BigDecimal.class))
+                .idUsuario(idUsuario)
+                .nombreCliente(fila.get("nombre_cliente", String.class))
+                .documentoCliente(fila.get("documento_cliente", String.class))
+                .emailCliente(fila.get("email_cliente", String.class))
+                .usuarioVendedor(vendedor)
+                .build();
+    }
+}
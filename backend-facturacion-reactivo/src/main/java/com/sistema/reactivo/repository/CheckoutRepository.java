@@ -0,0 +1,197 @@
+package com.sistema.reactivo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Escrituras del checkout con R2DBC. Mismas sentencias que el backend servlet
+ * (BoletaService, StockRepository, OutboxService, NumeracionRepository, NotificacionesPostgres), para que
+ * ambas variantes puedan atender a la vez sobre la misma base.
+ * Todas deben ejecutarse dentro de la transacción del checkout.
+ * @autor Paulo
+ */
+@Repository
+@RequiredArgsConstructor
+public class CheckoutRepository {
+
+    private static final String SQL_PRODUCTOS =
+            "SELECT id_producto, nombre, precio, activo, controla_stock FROM productos WHERE id_producto = ANY($1)";
+
+    // Mismo criterio que CatalogoSnapshot.buscarPorNombre (sin mayúsculas ni espacios extremos)
+    private static final String SQL_HOMONIMOS =
+            "SELECT nombre FROM productos WHERE lower(btrim(nombre)) = ANY($1)";
+
+    private static final String SQL_INSERTAR_BOLETA =
+            "INSERT INTO boletas (id_usuario, total, fecha_creacion, nombre_cliente, documento_cliente, "
+            + "email_cliente, cantidad_items, unidades_totales) VALUES ($1, $2, $3, $4, $5, $6, $7, $8) "
+            + "RETURNING id_boleta";
+
+    private static final String SQL_DESCONTAR =
+            "UPDATE stock_productos SET disponible = disponible - $1, fecha_actualizacion = now() "
+            + "WHERE id_producto = $2 AND disponible >= $1";
+
+    private static final String SQL_OUTBOX =
+            "INSERT INTO outbox_eventos (tipo, id_agregado, id_usuario, payload, fecha_creacion) "
+            + "VALUES ($1, $2, $3, $4, $5)";
+
+    // Igual que NotificacionesPostgres: se entrega a los LISTEN solo si la transacción confirma
+    private static final String SQL_NOTIFICAR = "SELECT pg_notify($1, $2)";
+
+    // Igual que NumeracionRepository: serie y boleta en un viaje; la fila de la serie queda bloqueada hasta el commit
+    private static final String SQL_NUMERAR =
+            "WITH siguiente AS ("
+            + "  UPDATE series_boleta SET ultimo_correlativo = ultimo_correlativo + 1 "
+            + "  WHERE serie = $1 RETURNING ultimo_correlativo) "
+            + "UPDATE boletas b SET serie = $1, correlativo = s.ultimo_correlativo "
+            + "FROM siguiente s WHERE b.id_boleta = $2 "
+            + "RETURNING b.correlativo";
+
+    private final DatabaseClient db;
+
+    /**
+     * Productos de catálogo del carrito, en una sola consulta
+     */
+    public Flux<ProductoCheckout> productos(Collection<Integer> ids) {
+        return db.sql(SQL_PRODUCTOS)
+                .bind(0, ids.toArray(Integer[]::new))
+                .map(fila -> new ProductoCheckout(
+                        fila.get("id_producto", Integer.class),
+                        fila.get("nombre", String.class),
+                        fila.get("precio", BigDecimal.class),
+                        Boolean.TRUE.equals(fila.get("activo", Boolean.class)),
+                        Boolean.TRUE.equals(fila.get("controla_stock", Boolean.class))))
+                .all();
+    }
+
+    /**
+     * Nombres de productos del catálogo que coinciden con los de líneas libres (ya normalizados)
+     */
+    public Flux<String> homonimos(Collection<String> nombresNormalizados) {
+        return db.sql(SQL_HOMONIMOS)
+                .bind(0, nombresNormalizados.toArray(String[]::new))
+                .map(fila -> fila.get("nombre", String.class))
+                .all();
+    }
+
+    /**
+     * Inserta la cabecera y devuelve el id generado
+     */
+    public Mono<Integer> insertarBoleta(Integer idUsuario, BigDecimal total, LocalDateTime fechaCreacion,
+            String nombreCliente, String documentoCliente, String emailCliente, int cantidadItems, int unidadesTotales) {
+        DatabaseClient.GenericExecuteSpec spec = db.sql(SQL_INSERTAR_BOLETA)
+                .bind(0, idUsuario)
+                .bind(1, total)
+                .bind(2, fechaCreacion)
+                .bind(3, nombreCliente);
+        spec = documentoCliente != null ? spec.bind(4, documentoCliente) : spec.bindNull(4, String.class);
+        spec = emailCliente != null ? spec.bind(5, emailCliente) : spec.bindNull(5, String.class);
+        return spec.bind(6, cantidadItems)
+                .bind(7, unidadesTotales)
+                .map(fila -> fila.get("id_boleta", Integer.class))
+                .one();
+    }
+
+    /**
+     * Inserta todas las líneas con un único INSERT multi-fila
+     */
+    public Mono<Long> insertarDetalles(Integer idBoleta, List<LineaCheckout> lineas) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO detalle_boleta (id_boleta, id_producto, producto, precio_unitario, cantidad, subtotal) VALUES ");
+        for (int i = 0; i < lineas.size(); i++) {
+            int p = i * 5;
+            sql.append(i == 0 ? "" : ", ")
+                    .append("($1, $").append(p + 2).append(", $").append(p + 3).append(", $").append(p + 4)
+                    .append(", $").append(p + 5).append(", $").append(p + 6).append(')');
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = db.sql(sql.toString()).bind(0, idBoleta);
+        for (int i = 0; i < lineas.size(); i++) {
+            LineaCheckout linea = lineas.get(i);
+            int p = i * 5 + 1;
+            spec = linea.idProducto() != null ? spec.bind(p, linea.idProducto()) : spec.bindNull(p, Integer.class);
+            // Nombre al momento de la venta, también en líneas de catálogo (igual que BoletaService)
+            spec = spec.bind(p + 1, linea.nombre())
+                    .bind(p + 2, linea.precioUnitario())
+                    .bind(p + 3, linea.cantidad())
+                    .bind(p + 4, linea.subtotal());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * Descuenta unidades si alcanzan; devuelve false si no hay stock suficiente
+     */
+    public Mono<Boolean> descontarStock(Integer idProducto, int cantidad) {
+        return db.sql(SQL_DESCONTAR)
+                .bind(0, cantidad)
+                .bind(1, idProducto)
+                .fetch()
+                .rowsUpdated()
+                .map(filas -> filas > 0);
+    }
+
+    /**
+     * Registra el evento en el outbox; lo publica el relay del backend servlet
+     */
+    public Mono<Long> registrarEvento(String tipo, Integer idAgregado, Integer idUsuario, String payload) {
+        return db.sql(SQL_OUTBOX)
+                .bind(0, tipo)
+                .bind(1, idAgregado)
+                .bind(2, idUsuario)
+                .bind(3, payload)
+                .bind(4, LocalDateTime.now())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * NOTIFY en la transacción del checkout (canal y payload como en el backend servlet)
+     */
+    public Mono<Void> notificar(String canal, String payload) {
+        return db.sql(SQL_NOTIFICAR)
+                .bind(0, canal)
+                .bind(1, payload)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    /**
+     * Asigna el siguiente correlativo de la serie a la boleta y lo devuelve
+     */
+    public Mono<Integer> numerar(String serie, Integer idBoleta) {
+        return db.sql(SQL_NUMERAR)
+                .bind(0, serie)
+                .bind(1, idBoleta)
+                .map(fila -> fila.get("correlativo", Integer.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "No se pudo numerar la boleta " + idBoleta + " en la serie " + serie)));
+    }
+
+    /**
+     * Producto de catálogo tal como lo necesita el checkout
+     */
+    public record ProductoCheckout(Integer idProducto, String nombre, BigDecimal precio, boolean activo,
+            boolean controlaStock) {
+    }
+
+    /**
+     * Línea ya validada, lista para insertar
+     */
+    public record LineaCheckout(Integer idProducto, String nombre, BigDecimal precioUnitario, int cantidad,
+            boolean controlaStock) {
+
+        public BigDecimal subtotal() {
+            return precioUnitario.multiply(BigDecimal.valueOf(cantidad));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.sistema.reactivo.repository;
+
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Estado de sesiones que mantiene el backend servlet: tokens revocados
+ * (tokens_revocados), versión de tokens por usuario (usuarios.token_version) y
+ * sus avisos por LISTEN/NOTIFY. Mismas consultas que TokenRevocadoRepository y
+ * UsuarioRepository.findTokenVersion.
+ * @autor Paulo
+ */
+@Repository
+public class SesionesRepository {
+
+    private static final String SQL_REVOCADOS =
+            "SELECT jti, expira_en FROM tokens_revocados WHERE expira_en > now()";
+
+    private static final String SQL_TOKEN_VERSION =
+            "SELECT token_version FROM usuarios WHERE id_usuario = $1";
+
+    private final DatabaseClient db;
+    // Fuera del pool: la conexión de LISTEN es de larga duración y debe ser de PostgreSQL
+    private final ConnectionFactory conexionesEscucha;
+
+    public SesionesRepository(DatabaseClient db, R2dbcProperties propiedades) {
+        this.db = db;
+        ConnectionFactoryOptions.Builder opciones = ConnectionFactoryOptions.parse(propiedades.getUrl()).mutate();
+        if (propiedades.getUsername() != null) {
+            opciones.option(ConnectionFactoryOptions.USER, propiedades.getUsername());
+        }
+        if (propiedades.getPassword() != null) {
+            opciones.option(ConnectionFactoryOptions.PASSWORD, propiedades.getPassword());
+        }
+        this.conexionesEscucha = ConnectionFactories.get(opciones.build());
+    }
+
+    /**
+     * Tokens revocados que aún no expiran
+     */
+    public Flux<Revocado> revocadosVigentes() {
+        return db.sql(SQL_REVOCADOS)
+                .map(fila -> new Revocado(
+                        fila.get("jti", UUID.class),
+                        // TIMESTAMP sin zona escrito en la hora local del servlet (Timestamp.from)
+                        fila.get("expira_en", LocalDateTime.class)
+                                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()))
+                .all();
+    }
+
+    /**
+     * Versión de tokens vigente del usuario (vacío si no existe)
+     */
+    public Mono<Integer> tokenVersion(Integer idUsuario) {
+        return db.sql(SQL_TOKEN_VERSION)
+                .bind(0, idUsuario)
+                .map(fila -> fila.get("token_version", Integer.class))
+                .one();
+    }
+
+    /**
+     * Escucha los canales con una conexión propia. alEscuchar se ejecuta una vez
+     * activos los LISTEN y ya suscritos a las notificaciones, así que nada de lo
+     * confirmado después se pierde. Termina (o falla) si la conexión se cierra.
+     */
+    public Flux<Notificacion> escuchar(Collection<String> canales, Mono<Void> alEscuchar) {
+        return Flux.usingWhen(
+                Mono.from(conexionesEscucha.create()).cast(PostgresqlConnection.class),
+                conexion -> Flux.fromIterable(canales)
+                        .concatMap(canal -> conexion.createStatement("LISTEN " + canal).execute()
+                                .flatMap(PostgresqlResult::getRowsUpdated))
+                        .thenMany(Flux.merge(
+                                conexion.getNotifications()
+                                        .map(n -> new Notificacion(n.getName(), n.getParameter())),
+                                alEscuchar.then(Mono.<Notificacion>empty()))),
+                Connection::close);
+    }
+
+    public record Revocado(UUID jti, long expira) {
+    }
+
+    public record Notificacion(String canal, String payload) {
+    }
+}
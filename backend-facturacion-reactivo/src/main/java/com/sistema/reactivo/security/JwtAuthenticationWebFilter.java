@@ -0,0 +1,65 @@
+package com.sistema.reactivo.security;
+
+import com.sistema.reactivo.security.JwtVerificador.TokenVerificado;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Equivalente reactivo de JwtAuthenticationFilter: si el header Authorization trae
+ * un token válido, no revocado y de la versión vigente del usuario (SesionesVigentes),
+ * el ID del usuario queda como principal en el contexto de Reactor.
+ * Sin token (o inválido) la petición sigue anónima y la rechaza la autorización.
+ * No es un bean: como WebFilter global correría también fuera de la cadena de seguridad.
+ * @autor Paulo
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtVerificador jwtVerificador;
+    private final SesionesVigentes sesionesVigentes;
+
+    public JwtAuthenticationWebFilter(JwtVerificador jwtVerificador, SesionesVigentes sesionesVigentes) {
+        this.jwtVerificador = jwtVerificador;
+        this.sesionesVigentes = sesionesVigentes;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String jwt = getJwtFromRequest(exchange);
+        TokenVerificado token = jwt != null ? jwtVerificador.verificar(jwt) : null;
+        if (token == null) {
+            return chain.filter(exchange);
+        }
+
+        return sesionesVigentes.esVigente(token.idUsuario(), token.jti(), token.version())
+                .flatMap(vigente -> {
+                    if (!vigente) {
+                        return chain.filter(exchange);
+                    }
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(token.idUsuario(), null, List.of());
+                    return chain.filter(exchange)
+                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+                });
+    }
+
+    /**
+     * Extrae el token JWT del header Authorization
+     */
+    private String getJwtFromRequest(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+
+        return null;
+    }
+}
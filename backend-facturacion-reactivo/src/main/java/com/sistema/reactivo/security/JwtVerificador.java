@@ -0,0 +1,55 @@
+package com.sistema.reactivo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Verificación de los tokens JWT emitidos por el backend servlet (JwtUtil).
+ * Es solo cálculo (HMAC), sin E/S: se ejecuta en el event loop sin bloquearlo.
+ * El parser se construye una vez y es inmutable.
+ * @autor Paulo
+ */
+@Component
+public class JwtVerificador {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtVerificador.class);
+
+    private final JwtParser parser;
+
+    public JwtVerificador(
+            @Value("${jwt.secret:jamasDescifrarasEstaClaveSeguraPorqueJWT2024EstaEsMuyLarga}") String jwtSecret) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    // Mismo claim que JwtUtil.CLAIM_VERSION del backend servlet
+    static final String CLAIM_VERSION = "ver";
+
+    /**
+     * Datos del token, o null si el token no es válido (firma, expiración o formato).
+     * La revocación y la versión las comprueba SesionesVigentes.
+     */
+    public TokenVerificado verificar(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return new TokenVerificado(Integer.valueOf(claims.getSubject()), claims.getId(),
+                    claims.get(CLAIM_VERSION, Integer.class));
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Token JWT rechazado: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public record TokenVerificado(Integer idUsuario, String jti, Integer version) {
+    }
+}
@@ -0,0 +1,186 @@
+package com.sistema.reactivo.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.reactivo.repository.SesionesRepository;
+import com.sistema.reactivo.repository.SesionesRepository.Notificacion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Equivalente reactivo de ListaRevocacion y VersionesToken: rechaza los tokens
+ * revocados (logout) y los de una versión anterior del usuario (cierre de todas
+ * las sesiones) que emite y registra el backend servlet.
+ *
+ * Los revocados vigentes se cargan de tokens_revocados y las versiones se leen
+ * por usuario la primera vez (R2DBC, sin bloquear); después ambos se mantienen
+ * escuchando los mismos canales que el servlet. Al reconectar se recarga la
+ * denylist y se descartan las versiones, porque lo notificado mientras tanto se
+ * perdió. Hasta la primera carga ningún token se acepta.
+ * @autor Paulo
+ */
+@Component
+@Slf4j
+public class SesionesVigentes {
+
+    // Mismos canales y región que ListaRevocacion, BusInvalidacion y UsuarioService del backend servlet
+    static final String CANAL_REVOCADOS = "tokens_revocados";
+    static final String CANAL_INVALIDACION = "cache_invalidacion";
+    static final String REGION_USUARIOS = "usuarios";
+    private static final String TODO = "*";
+
+    // Usuario inexistente: ningún token coincide
+    private static final Integer SIN_USUARIO = -1;
+
+    // jti -> expiración del token (epoch ms)
+    private final Map<UUID, Long> revocados = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> versiones = new ConcurrentHashMap<>();
+    // Cambia con cada invalidación: una lectura en curso no guarda una versión ya descartada
+    private final AtomicLong generacion = new AtomicLong();
+    private final SesionesRepository sesionesRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxUsuarios;
+    private final Duration reconexion;
+    private volatile boolean cargado;
+    private Disposable escucha;
+
+    public SesionesVigentes(SesionesRepository sesionesRepository,
+            ObjectMapper objectMapper,
+            @Value("${jwt.versiones.max-usuarios:10000}") int maxUsuarios,
+            @Value("${app.notificaciones.reconexion-ms:5000}") long reconexionMs) {
+        this.sesionesRepository = sesionesRepository;
+        this.objectMapper = objectMapper;
+        this.maxUsuarios = maxUsuarios;
+        this.reconexion = Duration.ofMillis(reconexionMs);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        escucha = Flux.defer(() -> sesionesRepository.escuchar(
+                        List.of(CANAL_REVOCADOS, CANAL_INVALIDACION), alEscuchar()))
+                .doOnNext(this::alNotificar)
+                .doOnError(e -> log.warn("⚠️ Se perdió la escucha de sesiones: {}", e.getMessage()))
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, reconexion))
+                .repeatWhen(fin -> fin.delayElements(reconexion))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (escucha != null) {
+            escucha.dispose();
+        }
+    }
+
+    /**
+     * true si el token no fue revocado y su versión es la vigente del usuario.
+     * Un jti ausente o con otro formato cuenta como revocado, igual que en el servlet.
+     */
+    public Mono<Boolean> esVigente(Integer idUsuario, String jti, Integer version) {
+        if (version == null || estaRevocado(jti)) {
+            return Mono.just(false);
+        }
+        Integer actual = versiones.get(idUsuario);
+        if (actual != null) {
+            return Mono.just(version.equals(actual));
+        }
+        long leidaEn = generacion.get();
+        return sesionesRepository.tokenVersion(idUsuario)
+                .defaultIfEmpty(SIN_USUARIO)
+                .doOnNext(vigente -> guardarVersion(idUsuario, vigente, leidaEn))
+                .map(version::equals);
+    }
+
+    boolean estaRevocado(String jti) {
+        if (!cargado || jti == null) {
+            return true;
+        }
+        try {
+            Long expira = revocados.get(UUID.fromString(jti));
+            return expira != null && expira >= System.currentTimeMillis();
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Carga los revocados vigentes (al escuchar por primera vez y tras cada reconexión)
+     */
+    Mono<Void> cargar() {
+        return sesionesRepository.revocadosVigentes()
+                .doOnNext(revocado -> revocados.put(revocado.jti(), revocado.expira()))
+                .then(Mono.fromRunnable(() -> {
+                    cargado = true;
+                    log.info("🔒 Tokens revocados vigentes cargados: {}", revocados.size());
+                }));
+    }
+
+    void alNotificar(Notificacion notificacion) {
+        try {
+            if (CANAL_REVOCADOS.equals(notificacion.canal())) {
+                Revocacion revocacion = objectMapper.readValue(notificacion.payload(), Revocacion.class);
+                revocados.put(revocacion.jti(), revocacion.expira());
+                long ahora = System.currentTimeMillis();
+                revocados.values().removeIf(expira -> expira < ahora);
+            } else if (CANAL_INVALIDACION.equals(notificacion.canal())) {
+                LoteInvalidacion lote = objectMapper.readValue(notificacion.payload(), LoteInvalidacion.class);
+                Set<String> usuarios = lote.regiones() != null ? lote.regiones().get(REGION_USUARIOS) : null;
+                if (usuarios != null) {
+                    invalidarVersiones(usuarios);
+                }
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("⚠️ Notificación inválida en {}: {}", notificacion.canal(), notificacion.payload());
+        }
+    }
+
+    private Mono<Void> alEscuchar() {
+        return Mono.defer(() -> {
+            invalidarVersiones(Set.of(TODO));
+            log.info("📡 Escuchando revocaciones de tokens y cambios de usuarios");
+            return cargar();
+        });
+    }
+
+    private void invalidarVersiones(Set<String> usuarios) {
+        generacion.incrementAndGet();
+        if (usuarios.contains(TODO)) {
+            versiones.clear();
+        } else {
+            usuarios.forEach(id -> versiones.remove(Integer.valueOf(id)));
+        }
+    }
+
+    private void guardarVersion(Integer idUsuario, Integer vigente, long leidaEn) {
+        // Cota simple: al llenarse se vuelven a leer (una consulta por usuario activo)
+        if (versiones.size() >= maxUsuarios) {
+            versiones.clear();
+        }
+        versiones.put(idUsuario, vigente);
+        if (generacion.get() != leidaEn) {
+            versiones.remove(idUsuario);
+        }
+    }
+
+    // Payloads del backend servlet (ListaRevocacion.Revocacion y BusInvalidacion.LoteInvalidacion)
+    record Revocacion(UUID jti, long expira) {
+    }
+
+    record LoteInvalidacion(String nodo, Map<String, Set<String>> regiones) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.sistema.reactivo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.backend.dto.request.BoletaRequest;
+import com.sistema.backend.dto.request.DetalleRequest;
+import com.sistema.backend.dto.response.BoletaDetailsResponse;
+import com.sistema.backend.dto.response.BoletaDetailsResponse.DetalleBoletaDTO;
+import com.sistema.backend.dto.response.BoletaResponse;
+import com.sistema.backend.dto.response.BoletaSummary;
+import com.sistema.backend.dto.response.NumeroBoleta;
+import com.sistema.reactivo.repository.BoletaReactivaRepository;
+import com.sistema.reactivo.repository.CheckoutRepository;
+import com.sistema.reactivo.repository.CheckoutRepository.LineaCheckout;
+import com.sistema.reactivo.repository.CheckoutRepository.ProductoCheckout;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Boletas sobre R2DBC: lecturas en streaming y checkout en una transacción reactiva.
+ * El checkout sigue los mismos pasos y reglas que BoletaService del backend servlet
+ * (precios del catálogo, stock en orden de id, outbox, numeración al final y
+ * NOTIFY del feed en vivo).
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class BoletaReactivaService {
+
+    // Tipo del evento BoletaCreadaEvent del backend servlet
+    private static final String TIPO_BOLETA_CREADA = "BOLETA_CREADA";
+    // Canal de BoletaFeedService: los nodos servlet publican la boleta en el feed SSE del usuario
+    private static final String CANAL_FEED = "boletas_creadas";
+    // Distinto de cualquier nodo servlet, para que todos la publiquen
+    private static final String NODO = "reactivo-" + UUID.randomUUID();
+
+    private final BoletaReactivaRepository boletaRepository;
+    private final CheckoutRepository checkoutRepository;
+    private final TransactionalOperator transaccion;
+    private final ObjectMapper objectMapper;
+    private final List<String> series;
+    private final boolean permitirLineasLibres;
+    private final AtomicInteger turno = new AtomicInteger();
+
+    public BoletaReactivaService(BoletaReactivaRepository boletaRepository,
+            CheckoutRepository checkoutRepository,
+            TransactionalOperator transaccion,
+            ObjectMapper objectMapper,
+            @Value("${app.numeracion.series:B001}") List<String> series,
+            @Value("${app.catalogo.permitir-lineas-libres:false}") boolean permitirLineasLibres) {
+        this.boletaRepository = boletaRepository;
+        this.checkoutRepository = checkoutRepository;
+        this.transaccion = transaccion;
+        this.objectMapper = objectMapper;
+        this.series = List.copyOf(series);
+        this.permitirLineasLibres = permitirLineasLibres;
+    }
+
+    /**
+     * Listado ligero (sin detalles) de las boletas de un usuario
+     */
+    public Flux<BoletaSummary> getResumenesByUserId(Integer idUsuario, boolean ordenadas) {
+        return boletaRepository.resumenes(idUsuario, ordenadas);
+    }
+
+    /**
+     * Boleta con detalles y vendedor; vacío si no existe o es de otro usuario
+     */
+    public Mono<BoletaDetailsResponse> getBoletaDetalladaByIdAndUser(Integer idBoleta, Integer idUsuario) {
+        return boletaRepository.cabecera(idBoleta, idUsuario)
+                .flatMap(boleta -> boletaRepository.detalles(idBoleta, idUsuario)
+                        .collectList()
+                        .map(detalles -> {
+                            boleta.setDetalles(detalles);
+                            return boleta;
+                        }));
+    }
+
+    /**
+     * Detalles de la boleta del usuario; vacío si no existe o es ajena
+     */
+    public Flux<DetalleBoletaDTO> getDetallesByBoletaIdAndUser(Integer idBoleta, Integer idUsuario) {
+        return boletaRepository.detalles(idBoleta, idUsuario);
+    }
+
+    /**
+     * Checkout: todo o nada en una transacción R2DBC. Los rechazos de negocio
+     * (carrito inválido, precio cambiado, sin stock) se devuelven como BoletaResponse.error.
+     */
+    public Mono<BoletaResponse> procesarBoleta(BoletaRequest request, Integer idUsuario) {
+        if (request.getCartItems() == null || request.getCartItems().isEmpty()) {
+            return Mono.just(BoletaResponse.error("El carrito está vacío"));
+        }
+
+        Mono<BoletaResponse> checkout = resolverLineas(request.getCartItems())
+                .flatMap(lineas -> guardar(request, idUsuario, lineas));
+
+        return transaccion.transactional(checkout)
+                .doOnNext(respuesta -> log.info("✅ Boleta {} procesada exitosamente", respuesta.getBoletaId()))
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.warn("⚠️ Carrito rechazado: {}", e.getMessage());
+                    return Mono.just(BoletaResponse.error(e.getMessage()));
+                })
+                .onErrorResume(e -> {
+                    log.error("❌ Error al procesar boleta", e);
+                    return Mono.just(BoletaResponse.error("Error al procesar la boleta: " + e.getMessage()));
+                });
+    }
+
+    private Mono<BoletaResponse> guardar(BoletaRequest request, Integer idUsuario, List<LineaCheckout> lineas) {
+        BigDecimal total = lineas.stream().map(LineaCheckout::subtotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.compareTo(request.getTotal()) != 0) {
+            log.warn("Total enviado ({}) no coincide con total calculado ({})", request.getTotal(), total);
+        }
+        LocalDateTime fecha = LocalDateTime.now();
+        int unidades = lineas.stream().mapToInt(LineaCheckout::cantidad).sum();
+        String serie = series.get(Math.floorMod(turno.getAndIncrement(), series.size()));
+
+        return checkoutRepository.insertarBoleta(idUsuario, total, fecha, request.getNombreCliente(),
+                        request.getDocumentoCliente(), request.getEmailCliente(), lineas.size(), unidades)
+                .flatMap(idBoleta -> checkoutRepository.insertarDetalles(idBoleta, lineas)
+                        .then(checkoutRepository.registrarEvento(TIPO_BOLETA_CREADA, idBoleta, idUsuario,
+                                serializar(new BoletaCreada(idBoleta, idUsuario, total, fecha))))
+                        // Stock y numeración al final: los bloqueos de fila solo se sostienen hasta el commit
+                        .then(descontarStock(lineas))
+                        .then(checkoutRepository.numerar(serie, idBoleta))
+                        .flatMap(correlativo -> checkoutRepository.notificar(CANAL_FEED,
+                                        serializar(new AvisoBoleta(NODO, idBoleta, idUsuario)))
+                                .thenReturn(correlativo))
+                        .map(correlativo -> BoletaResponse.builder()
+                                .success(true)
+                                .mensaje("Boleta creada exitosamente")
+                                .boletaId(idBoleta.longValue())
+                                .numero(NumeroBoleta.formatear(serie, correlativo))
+                                .build()));
+    }
+
+    /**
+     * Resuelve las líneas contra el catálogo (una consulta). El precio de las líneas de catálogo es el del servidor.
+     */
+    private Mono<List<LineaCheckout>> resolverLineas(List<DetalleRequest> items) {
+        List<Integer> ids = items.stream()
+                .map(DetalleRequest::getIdProducto)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Mono<Map<Integer, ProductoCheckout>> catalogo = ids.isEmpty()
+                ? Mono.just(Map.of())
+                : checkoutRepository.productos(ids).collectMap(ProductoCheckout::idProducto, Function.identity());
+
+        // Un producto del catálogo no se vende como línea libre con precio del cliente
+        List<String> libres = !permitirLineasLibres ? List.of() : items.stream()
+                .filter(item -> item.getIdProducto() == null && item.getNombreProducto() != null)
+                .map(item -> normalizar(item.getNombreProducto()))
+                .distinct()
+                .toList();
+        Mono<Map<String, String>> homonimos = libres.isEmpty()
+                ? Mono.just(Map.of())
+                : checkoutRepository.homonimos(libres).collectMap(BoletaReactivaService::normalizar);
+
+        return Mono.zip(catalogo, homonimos).map(resueltos -> {
+            Map<Integer, ProductoCheckout> productos = resueltos.getT1();
+            List<LineaCheckout> lineas = new ArrayList<>(items.size());
+            for (DetalleRequest item : items) {
+                if (item.getIdProducto() != null) {
+                    ProductoCheckout producto = productos.get(item.getIdProducto());
+                    if (producto == null || !producto.activo()) {
+                        throw new IllegalArgumentException("El producto " + item.getIdProducto() + " no existe o no está disponible");
+                    }
+                    if (item.getPrecioUnitario() != null && item.getPrecioUnitario().compareTo(producto.precio()) != 0) {
+                        throw new IllegalArgumentException("El precio de " + producto.nombre() + " cambió a S/ " + producto.precio());
+                    }
+                    lineas.add(new LineaCheckout(producto.idProducto(), producto.nombre(), producto.precio(),
+                            item.getCantidad(), producto.controlaStock()));
+                } else if (permitirLineasLibres && item.getNombreProducto() != null && item.getPrecioUnitario() != null) {
+                    String homonimo = resueltos.getT2().get(normalizar(item.getNombreProducto()));
+                    if (homonimo != null) {
+                        throw new IllegalArgumentException(homonimo + " es un producto del catálogo: indique su idProducto");
+                    }
+                    lineas.add(new LineaCheckout(null, item.getNombreProducto(), item.getPrecioUnitario(),
+                            item.getCantidad(), false));
+                } else {
+                    throw new IllegalArgumentException("Cada producto del carrito debe indicar idProducto");
+                }
+            }
+            return lineas;
+        });
+    }
+
+    private static String normalizar(String nombre) {
+        return nombre.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Descuenta stock en orden de id de producto (sin interbloqueos entre checkouts concurrentes),
+     * sumando las unidades de un producto repetido en el carrito
+     */
+    private Mono<Void> descontarStock(List<LineaCheckout> lineas) {
+        Map<Integer, Integer> cantidades = lineas.stream()
+                .filter(LineaCheckout::controlaStock)
+                .collect(Collectors.toMap(LineaCheckout::idProducto, LineaCheckout::cantidad, Integer::sum, TreeMap::new));
+
+        return Flux.fromIterable(cantidades.entrySet())
+                .concatMap(entrada -> checkoutRepository.descontarStock(entrada.getKey(), entrada.getValue())
+                        .filter(Boolean::booleanValue)
+                        .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(
+                                "Stock insuficiente para el producto " + entrada.getKey()))))
+                .then();
+    }
+
+    private String serializar(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + payload, e);
+        }
+    }
+
+    // Mismo JSON que BoletaCreadaEvent: lo consumen los OutboxHandler del backend servlet
+    private record BoletaCreada(Integer idBoleta, Integer idUsuario, BigDecimal total, LocalDateTime fechaCreacion) {
+    }
+
+    // Mismo JSON que BoletaFeedService.AvisoBoleta
+    private record AvisoBoleta(String nodo, Integer idBoleta, Integer idUsuario) {
+    }
+}
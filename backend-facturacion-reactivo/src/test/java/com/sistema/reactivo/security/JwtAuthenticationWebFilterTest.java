@@ -0,0 +1,126 @@
+package com.sistema.reactivo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.reactivo.repository.SesionesRepository;
+import com.sistema.reactivo.repository.SesionesRepository.Notificacion;
+import com.sistema.reactivo.repository.SesionesRepository.Revocado;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * El filtro reactivo acepta los tokens del backend servlet y deja anónimos los inválidos,
+ * los revocados y los de una versión anterior del usuario
+ */
+class JwtAuthenticationWebFilterTest {
+
+    private static final String SECRETO = "jamasDescifrarasEstaClaveSeguraPorqueJWT2024EstaEsMuyLarga";
+    private static final UUID REVOCADO = UUID.randomUUID();
+
+    private final SesionesRepository sesionesRepository = mock(SesionesRepository.class);
+    private final SesionesVigentes sesiones = new SesionesVigentes(sesionesRepository, new ObjectMapper(), 100, 1000);
+    private final JwtAuthenticationWebFilter filtro =
+            new JwtAuthenticationWebFilter(new JwtVerificador(SECRETO), sesiones);
+
+    @BeforeEach
+    void cargarSesiones() {
+        when(sesionesRepository.revocadosVigentes())
+                .thenReturn(Flux.just(new Revocado(REVOCADO, System.currentTimeMillis() + 3_600_000)));
+        when(sesionesRepository.tokenVersion(42)).thenReturn(Mono.just(3));
+        sesiones.cargar().block();
+    }
+
+    @Test
+    void tokenValidoDejaAlUsuarioComoPrincipal() {
+        assertThat(principal(token(SECRETO, 3_600_000, UUID.randomUUID(), 3))).isEqualTo(42);
+        assertThat(principal(token(SECRETO, 3_600_000, UUID.randomUUID(), 3))).isEqualTo(42);
+
+        // La versión se lee una vez por usuario
+        verify(sesionesRepository, times(1)).tokenVersion(42);
+    }
+
+    @Test
+    void tokenExpiradoOConOtraFirmaQuedaAnonimo() {
+        assertThat(principal(token(SECRETO, -1_000, UUID.randomUUID(), 3))).isNull();
+        assertThat(principal(token(SECRETO + "-con-otra-clave", 3_600_000, UUID.randomUUID(), 3))).isNull();
+        assertThat(principal("no-es-un-jwt")).isNull();
+    }
+
+    @Test
+    void tokenRevocadoQuedaAnonimo() {
+        assertThat(principal(token(SECRETO, 3_600_000, REVOCADO, 3))).isNull();
+
+        // Logout en el servlet después de arrancar: llega por NOTIFY
+        UUID jti = UUID.randomUUID();
+        String token = token(SECRETO, 3_600_000, jti, 3);
+        assertThat(principal(token)).isEqualTo(42);
+        sesiones.alNotificar(new Notificacion(SesionesVigentes.CANAL_REVOCADOS,
+                "{\"jti\":\"" + jti + "\",\"expira\":" + (System.currentTimeMillis() + 3_600_000) + "}"));
+        assertThat(principal(token)).isNull();
+    }
+
+    @Test
+    void tokenDeVersionAnteriorQuedaAnonimo() {
+        String token = token(SECRETO, 3_600_000, UUID.randomUUID(), 3);
+        assertThat(principal(token)).isEqualTo(42);
+        assertThat(principal(token(SECRETO, 3_600_000, UUID.randomUUID(), 2))).isNull();
+        assertThat(principal(token(SECRETO, 3_600_000, UUID.randomUUID(), null))).isNull();
+
+        // cerrar-sesiones en el servlet: sube la versión e invalida el usuario en el bus
+        when(sesionesRepository.tokenVersion(42)).thenReturn(Mono.just(4));
+        sesiones.alNotificar(new Notificacion(SesionesVigentes.CANAL_INVALIDACION,
+                "{\"nodo\":\"otro\",\"regiones\":{\"usuarios\":[\"42\"]}}"));
+        assertThat(principal(token)).isNull();
+        assertThat(principal(token(SECRETO, 3_600_000, UUID.randomUUID(), 4))).isEqualTo(42);
+    }
+
+    @Test
+    void antesDeCargarLaDenylistNingunTokenSeAcepta() {
+        SesionesVigentes sinCargar = new SesionesVigentes(sesionesRepository, new ObjectMapper(), 100, 1000);
+
+        assertThat(sinCargar.esVigente(42, UUID.randomUUID().toString(), 3).block()).isFalse();
+    }
+
+    private Object principal(String token) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/boletas")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        AtomicReference<Object> principal = new AtomicReference<>();
+        filtro.filter(exchange, ex -> ReactiveSecurityContextHolder.getContext()
+                        .doOnNext(contexto -> principal.set(contexto.getAuthentication().getPrincipal()))
+                        .then())
+                .block();
+        return principal.get();
+    }
+
+    // Mismo formato que JwtUtil.generateToken del backend servlet
+    private String token(String secreto, long vigenciaMs, UUID jti, Integer version) {
+        Date ahora = new Date();
+        return Jwts.builder()
+                .id(jti.toString())
+                .subject("42")
+                .claim("email", "vendedor@test.local")
+                .claim("ver", version)
+                .issuedAt(ahora)
+                .expiration(new Date(ahora.getTime() + vigenciaMs))
+                .signWith(Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+# ===================================
+# BENCHMARK DE ARRANQUE
+# Arranca el backend en varias variantes y mide, desde el lanzamiento del proceso:
+#   primera_peticion_ms  primera respuesta 200 de GET /api/usuarios/verificar-email/{email}
+#                        (endpoint público que consulta la base)
+#   readiness_ms         /actuator/health/readiness en UP (calentamiento terminado)
+#
+# Variantes:
+#   jvm          jar normal, perfil por defecto (Flyway + ddl-auto=validate)
+#   arranque     perfil "arranque" (sin Flyway ni metadatos JDBC, repositorios diferidos)
+#   lazy         perfiles "arranque,lazy"
+#   aot-cds      target/arranque con Spring AOT + AppCDS (solo si existe application.jsa)
+#
+# Requisitos: PostgreSQL local (application.properties) con el esquema ya migrado, curl.
+#   mvn -B package -DskipTests            (variantes jvm, arranque y lazy)
+#   mvn -B package -DskipTests -Parranque (además, la variante aot-cds)
+#
+# Uso: scripts/arranque-benchmark.sh [repeticiones] [variantes]
+#   scripts/arranque-benchmark.sh 5 "jvm arranque lazy aot-cds"
+# ===================================
+set -euo pipefail
+
+REPETICIONES=${1:-5}
+VARIANTES=${2:-"jvm arranque lazy aot-cds"}
+PUERTO=${PUERTO:-8080}
+BASE="http://localhost:${PUERTO}"
+JAR=$(ls target/backend-*.jar | grep -v -- -dto.jar | head -1)
+COMUNES="--server.port=${PUERTO} --spring.jpa.show-sql=false --logging.level.root=WARN --logging.level.com.sistema.backend=WARN"
+
+ahora_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+esperar() {
+    # $1 = URL; imprime el instante (ms) de la primera respuesta 200
+    for _ in $(seq 1 2400); do
+        if curl -sf -o /dev/null "$1"; then
+            ahora_ms
+            return 0
+        fi
+        sleep 0.05
+    done
+    echo "Sin respuesta de $1" >&2
+    exit 1
+}
+
+lanzar() {
+    case "$1" in
+        jvm)      exec java -jar "${JAR}" ${COMUNES} ;;
+        arranque) exec java -jar "${JAR}" --spring.profiles.active=arranque ${COMUNES} ;;
+        lazy)     exec java -jar "${JAR}" --spring.profiles.active=arranque,lazy ${COMUNES} ;;
+        aot-cds)  cd target/arranque && exec java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+                      -jar "$(basename "${JAR}")" --spring.profiles.active=arranque ${COMUNES} ;;
+    esac
+}
+
+printf "%-10s %-20s %-14s\n" "variante" "primera_peticion_ms" "readiness_ms"
+
+for VARIANTE in ${VARIANTES}; do
+    if [ "${VARIANTE}" = "aot-cds" ] && [ ! -f target/arranque/application.jsa ]; then
+        echo "${VARIANTE}: falta target/arranque/application.jsa (compilar con -Parranque)" >&2
+        continue
+    fi
+    SUMA_PETICION=0
+    SUMA_READINESS=0
+    for _ in $(seq 1 "${REPETICIONES}"); do
+        INICIO=$(ahora_ms)
+        lanzar "${VARIANTE}" > /dev/null 2>&1 &
+        PID=$!
+        trap 'kill ${PID} 2>/dev/null || true' EXIT
+
+        PETICION=$(esperar "${BASE}/api/usuarios/verificar-email/arranque@test.local")
+        READINESS=$(esperar "${BASE}/actuator/health/readiness")
+        SUMA_PETICION=$((SUMA_PETICION + PETICION - INICIO))
+        SUMA_READINESS=$((SUMA_READINESS + READINESS - INICIO))
+
+        kill "${PID}"
+        wait "${PID}" 2>/dev/null || true
+    done
+    printf "%-10s %-20s %-14s\n" "${VARIANTE}" \
+        "$((SUMA_PETICION / REPETICIONES))" "$((SUMA_READINESS / REPETICIONES))"
+done
@@ -0,0 +1,110 @@
+#!/usr/bin/env bash
+# ===================================
+# PRUEBA DEL BUS DE INVALIDACIÓN CON DOS NODOS
+# Arranca dos instancias del backend (8080 y 8082) sobre la misma base, con la
+# recarga periódica del catálogo desactivada en la práctica (1 h), y comprueba:
+#   1. Un producto creado y luego modificado en el nodo A se ve al instante en B.
+#   2. Al cortar la conexión de LISTEN (pg_terminate_backend) los nodos reconectan,
+#      vacían sus cachés y lo cuentan en invalidacion.huecos.
+#
+# Requisitos: PostgreSQL local (application.properties), curl, jq y psql.
+#   Compilar antes con: mvn -B package -DskipTests
+#
+# Uso: scripts/invalidacion-dos-nodos.sh
+#
+# Variables opcionales:
+#   PSQL  comando psql contra la misma base (por defecto el de application.properties)
+# ===================================
+set -euo pipefail
+
+NODO_A="http://localhost:8080"
+NODO_B="http://localhost:8082"
+JAR=$(ls target/backend-*.jar | grep -v -- -dto.jar | head -1)
+PSQL=${PSQL:-"env PGPASSWORD=admin psql -h localhost -U postgres -d sistema_factura -qtA"}
+
+EMAIL="invalidacion@test.local"
+PASSWORD="invalidacion123"
+CODIGO="INV-$(date +%s)"
+
+arrancar() {
+    java -jar "${JAR}" --server.port="$1" \
+        --app.catalogo.recarga-ms=3600000 \
+        --app.notificaciones.reconexion-ms=1000 \
+        --spring.jpa.show-sql=false --logging.level.root=WARN > "/tmp/invalidacion-$1.log" 2>&1 &
+    echo $!
+}
+
+esperar_arranque() {
+    for _ in $(seq 1 120); do
+        if curl -sf "$1/actuator/health" > /dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "El nodo $1 no arrancó" >&2
+    exit 1
+}
+
+obtener_token() {
+    curl -s -X POST "${NODO_A}/api/usuarios/registro" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\",\"nombres\":\"Prueba\",\"apellidos\":\"Invalidacion\"}" > /dev/null || true
+    curl -s -X POST "${NODO_A}/api/usuarios/login" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\"}" | jq -r .token
+}
+
+precio_en() {
+    # Precio en céntimos; espera hasta 2 s a que el nodo tenga el esperado ($3) e imprime el último leído
+    local precio=""
+    for _ in $(seq 1 20); do
+        precio=$(curl -s -H "Authorization: Bearer ${TOKEN}" "$1/api/productos/$2" | jq -r 'if .precio then .precio * 100 | round else empty end')
+        if [ "${precio}" = "$3" ]; then
+            break
+        fi
+        sleep 0.1
+    done
+    echo "${precio}"
+}
+
+huecos_en() {
+    curl -s -H "Authorization: Bearer ${TOKEN}" "$1/actuator/metrics/invalidacion.huecos" \
+        | jq -r '.measurements[] | select(.statistic == "COUNT") | .value | round'
+}
+
+comprobar() {
+    # $1 = descripción, $2 = obtenido, $3 = esperado
+    if [ "$2" = "$3" ]; then
+        echo "OK    $1 ($2)"
+    else
+        echo "FALLO $1: se esperaba '$3' y se obtuvo '$2'"
+        FALLOS=$((FALLOS + 1))
+    fi
+}
+
+FALLOS=0
+PID_A=$(arrancar 8080)
+PID_B=$(arrancar 8082)
+trap 'kill ${PID_A} ${PID_B} 2>/dev/null || true' EXIT
+esperar_arranque "${NODO_A}"
+esperar_arranque "${NODO_B}"
+TOKEN=$(obtener_token)
+
+# 1. Cambios del catálogo hechos en A, leídos desde la instantánea de B
+ID=$(curl -s -X POST "${NODO_A}/api/productos" -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: application/json' \
+    -d "{\"codigo\":\"${CODIGO}\",\"nombre\":\"Prueba invalidación\",\"precio\":10.00}" | jq -r .idProducto)
+comprobar "producto creado en A visible en B" "$(precio_en "${NODO_B}" "${ID}" 1000)" "1000"
+
+curl -s -X PUT "${NODO_A}/api/productos/${ID}" -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: application/json' \
+    -d "{\"codigo\":\"${CODIGO}\",\"nombre\":\"Prueba invalidación\",\"precio\":12.50}" > /dev/null
+comprobar "precio modificado en A visible en B" "$(precio_en "${NODO_B}" "${ID}" 1250)" "1250"
+
+# 2. Hueco: se corta la conexión de LISTEN de ambos nodos
+HUECOS_B=$(huecos_en "${NODO_B}")
+${PSQL} -c "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = 'pg-listen'" > /dev/null
+sleep 3
+comprobar "B detectó el hueco al reconectar" "$(huecos_en "${NODO_B}")" "$((HUECOS_B + 1))"
+
+curl -s -X PUT "${NODO_A}/api/productos/${ID}" -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: application/json' \
+    -d "{\"codigo\":\"${CODIGO}\",\"nombre\":\"Prueba invalidación\",\"precio\":15.00}" > /dev/null
+comprobar "tras reconectar B sigue recibiendo invalidaciones" "$(precio_en "${NODO_B}" "${ID}" 1500)" "1500"
+
+exit "${FALLOS}"
@@ -0,0 +1,100 @@
+#!/usr/bin/env bash
+# ===================================
+# PRUEBAS DE HUMO DE LA IMAGEN NATIVA
+# Arranca el binario nativo (perfil "arranque": el esquema ya debe estar migrado)
+# y recorre las rutas que dependen de reflexión o recursos en tiempo de ejecución:
+# JSON de peticiones/respuestas, firma y lectura de JWT (jjwt + Jackson), Spring
+# Security, Hibernate con caché L2 (JCache/Caffeine), la boleta con su outbox
+# (comprobante UBL firmado) y el PDF (fuentes de OpenPDF).
+#
+# Requisitos: PostgreSQL local con el esquema migrado, curl y jq.
+#   mvn -B -Pnative package -DskipTests            (genera target/backend)
+#   java -jar target/backend-*.jar --spring.profiles.active=migracion
+#
+# Uso: scripts/native-smoke-test.sh [comando]
+#   scripts/native-smoke-test.sh                                  (target/backend)
+#   scripts/native-smoke-test.sh "java -jar target/backend-0.0.1-SNAPSHOT.jar"
+# ===================================
+set -euo pipefail
+
+COMANDO=${1:-target/backend}
+PUERTO=${PUERTO:-8080}
+BASE="http://localhost:${PUERTO}"
+
+EMAIL="humo.nativo@test.local"
+PASSWORD="humo1234"
+
+esperar_arranque() {
+    for _ in $(seq 1 120); do
+        if curl -sf "${BASE}/actuator/health/readiness" > /dev/null; then
+            return 0
+        fi
+        sleep 0.5
+    done
+    echo "El backend no arrancó (ver /tmp/native-smoke.log)" >&2
+    exit 1
+}
+
+comprobar() {
+    # $1 = descripción, $2 = obtenido, $3 = esperado
+    if [ "$2" = "$3" ]; then
+        echo "OK    $1"
+    else
+        echo "FALLO $1: se esperaba '$3' y se obtuvo '$2'"
+        FALLOS=$((FALLOS + 1))
+    fi
+}
+
+FALLOS=0
+${COMANDO} --server.port="${PUERTO}" --spring.profiles.active=arranque > /tmp/native-smoke.log 2>&1 &
+PID=$!
+trap 'kill ${PID} 2>/dev/null || true' EXIT
+esperar_arranque
+
+# Autenticación: BCrypt, DTOs y JWT
+curl -s -X POST "${BASE}/api/usuarios/registro" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\",\"nombres\":\"Humo\",\"apellidos\":\"Nativo\"}" > /dev/null || true
+LOGIN=$(curl -s -X POST "${BASE}/api/usuarios/login" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\"}")
+TOKEN=$(echo "${LOGIN}" | jq -r .token)
+REFRESH=$(echo "${LOGIN}" | jq -r .refreshToken)
+comprobar "login emite token de acceso" "$(echo "${LOGIN}" | jq -r '.token | length > 0')" "true"
+
+comprobar "verificar-token lee los claims" \
+    "$(curl -s -X POST "${BASE}/api/usuarios/verificar-token" -H "Authorization: Bearer ${TOKEN}" | jq -r .nombreCompleto)" \
+    "Humo Nativo"
+comprobar "ruta protegida sin token responde 401" \
+    "$(curl -s -o /dev/null -w '%{http_code}' "${BASE}/api/boletas")" "401"
+comprobar "perfil del usuario (Hibernate + caché L2)" \
+    "$(curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE}/api/usuarios/perfil" | jq -r .email)" "${EMAIL}"
+
+# Boleta: procesarBoleta + outbox (comprobante UBL) y PDF
+# Producto de catálogo (el checkout no acepta líneas libres por defecto); ya existe si se repite la prueba
+curl -s -X POST "${BASE}/api/productos" -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: application/json' \
+    -d '{"codigo":"HUMO-001","nombre":"Humo","precio":10.00}' > /dev/null || true
+PRODUCTO=$(curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE}/api/productos" | jq -r 'map(select(.codigo == "HUMO-001")) | .[0].idProducto')
+BOLETA=$(curl -s -X POST "${BASE}/api/boletas" -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: application/json' \
+    -d "{\"cartItems\":[{\"idProducto\":${PRODUCTO},\"cantidad\":2}],\"total\":20.00,\"subtotal\":20.00,\"nombreCliente\":\"Cliente Humo\"}")
+ID=$(echo "${BOLETA}" | jq -r .boletaId)
+comprobar "crear boleta" "$(echo "${BOLETA}" | jq -r .success)" "true"
+comprobar "listar boletas" \
+    "$(curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE}/api/boletas" | jq -r "map(select(.idBoleta == ${ID})) | length")" "1"
+comprobar "detalles de la boleta" \
+    "$(curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE}/api/boletas/${ID}/detalles" | jq -r 'length')" "1"
+comprobar "PDF de la boleta" \
+    "$(curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE}/api/boletas/${ID}/pdf" | head -c 5)" "%PDF-"
+
+# Sesión: rotación del refresh token y logout (denylist)
+NUEVO=$(curl -s -X POST "${BASE}/api/usuarios/refrescar-token" -H 'Content-Type: application/json' \
+    -d "{\"refreshToken\":\"${REFRESH}\"}" | jq -r .token)
+comprobar "refrescar token" "$([ -n "${NUEVO}" ] && [ "${NUEVO}" != "null" ] && echo si)" "si"
+curl -s -X POST "${BASE}/api/usuarios/logout" -H "Authorization: Bearer ${NUEVO}" > /dev/null
+comprobar "token revocado tras logout" \
+    "$(curl -s -o /dev/null -w '%{http_code}' -H "Authorization: Bearer ${NUEVO}" "${BASE}/api/boletas")" "401"
+
+if grep -q "ClassNotFoundException\|MissingReflectionRegistrationError\|MissingResourceException" /tmp/native-smoke.log; then
+    echo "FALLO el log tiene errores de reflexión o recursos (ver /tmp/native-smoke.log)"
+    FALLOS=$((FALLOS + 1))
+fi
+
+exit "${FALLOS}"
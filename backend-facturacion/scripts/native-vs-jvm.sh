@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+# ===================================
+# INFORME JVM vs IMAGEN NATIVA
+# Para cada variante mide, con el perfil "arranque":
+#   arranque_ms   lanzamiento -> /actuator/health/readiness en UP
+#   rss_mb        memoria residente tras arrancar y tras la carga
+#   req/s         throughput de GET /api/boletas con "hey"
+#
+# Requisitos: PostgreSQL local con el esquema migrado, curl, jq, ps y "hey"
+#   (https://github.com/rakyll/hey).
+#   mvn -B package -DskipTests && mvn -B -Pnative package -DskipTests
+#
+# Uso: scripts/native-vs-jvm.sh [concurrencia] [duración]
+#   scripts/native-vs-jvm.sh 50 30s
+# ===================================
+set -euo pipefail
+
+CONCURRENCIA=${1:-50}
+DURACION=${2:-30s}
+PUERTO=${PUERTO:-8080}
+BASE="http://localhost:${PUERTO}"
+JAR=$(ls target/backend-*.jar | grep -v -- -dto.jar | head -1)
+
+EMAIL="carga.nativo@test.local"
+PASSWORD="carga123"
+
+ahora_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+esperar_readiness() {
+    for _ in $(seq 1 2400); do
+        if curl -sf -o /dev/null "${BASE}/actuator/health/readiness"; then
+            return 0
+        fi
+        sleep 0.05
+    done
+    echo "El backend no arrancó" >&2
+    exit 1
+}
+
+obtener_token() {
+    curl -s -X POST "${BASE}/api/usuarios/registro" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\",\"nombres\":\"Carga\",\"apellidos\":\"Nativo\"}" > /dev/null || true
+    curl -s -X POST "${BASE}/api/usuarios/login" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\"}" | jq -r .token
+}
+
+rss_mb() {
+    echo $(( $(ps -o rss= -p "$1") / 1024 ))
+}
+
+printf "%-8s %-12s %-16s %-16s %-10s\n" "variante" "arranque_ms" "rss_inicio_mb" "rss_carga_mb" "req/s"
+
+for VARIANTE in jvm nativo; do
+    if [ "${VARIANTE}" = "nativo" ] && [ ! -x target/backend ]; then
+        echo "nativo: falta target/backend (compilar con -Pnative)" >&2
+        continue
+    fi
+    INICIO=$(ahora_ms)
+    if [ "${VARIANTE}" = "jvm" ]; then
+        java -jar "${JAR}" --server.port="${PUERTO}" --spring.profiles.active=arranque \
+            --logging.level.root=WARN > /dev/null 2>&1 &
+    else
+        target/backend --server.port="${PUERTO}" --spring.profiles.active=arranque \
+            --logging.level.root=WARN > /dev/null 2>&1 &
+    fi
+    PID=$!
+    trap 'kill ${PID} 2>/dev/null || true' EXIT
+
+    esperar_readiness
+    ARRANQUE=$(( $(ahora_ms) - INICIO ))
+    RSS_INICIO=$(rss_mb "${PID}")
+    TOKEN=$(obtener_token)
+
+    RPS=$(hey -z "${DURACION}" -c "${CONCURRENCIA}" -H "Authorization: Bearer ${TOKEN}" "${BASE}/api/boletas" \
+        | awk '/Requests\/sec/ {print $2}')
+    RSS_CARGA=$(rss_mb "${PID}")
+
+    printf "%-8s %-12s %-16s %-16s %-10s\n" "${VARIANTE}" "${ARRANQUE}" "${RSS_INICIO}" "${RSS_CARGA}" "${RPS}"
+
+    kill "${PID}"
+    wait "${PID}" 2>/dev/null || true
+done
@@ -0,0 +1,89 @@
+#!/usr/bin/env bash
+# ===================================
+# PRUEBA DE CARGA DEL POOL DE CONEXIONES
+# Arranca el backend con distintos tamaños de pool, lanza carga concurrente
+# contra GET ${ENDPOINT} y muestra el tiempo de espera por conexión
+# (hikaricp.connections.acquire) y el uso (hikaricp.connections.usage).
+#
+# Requisitos: PostgreSQL local (application.properties), curl, jq y "hey"
+#   (https://github.com/rakyll/hey). Compilar antes con: mvn -B package -DskipTests
+#
+# Uso: scripts/pool-load-test.sh [tamaños] [concurrencia] [duración]
+#   scripts/pool-load-test.sh "2 5 10 20 40" 100 30s
+#
+# Variables opcionales:
+#   ENDPOINT    ruta a cargar (por defecto /api/boletas), p.ej. /api/boletas/1
+#   EXTRA_ARGS  argumentos extra para el backend. "uso_medio_ms" es el tiempo que
+#               cada petición retiene la conexión; para comparar open-in-view:
+#     EXTRA_ARGS="--spring.jpa.open-in-view=true" scripts/pool-load-test.sh 10
+# ===================================
+set -euo pipefail
+
+TAMANOS=${1:-"2 5 10 20 40"}
+CONCURRENCIA=${2:-100}
+DURACION=${3:-30s}
+PUERTO=${PUERTO:-8080}
+ENDPOINT=${ENDPOINT:-/api/boletas}
+EXTRA_ARGS=${EXTRA_ARGS:-}
+BASE="http://localhost:${PUERTO}"
+JAR=$(ls target/backend-*.jar | grep -v -- -dto.jar | head -1)
+
+EMAIL="carga.pool@test.local"
+PASSWORD="carga123"
+
+esperar_arranque() {
+    for _ in $(seq 1 120); do
+        if curl -sf "${BASE}/actuator/health" > /dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "El backend no arrancó" >&2
+    exit 1
+}
+
+obtener_token() {
+    curl -s -X POST "${BASE}/api/usuarios/registro" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\",\"nombres\":\"Carga\",\"apellidos\":\"Pool\"}" > /dev/null || true
+    curl -s -X POST "${BASE}/api/usuarios/login" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\"}" | jq -r .token
+}
+
+metrica() {
+    # $1 = nombre de la métrica, $2 = estadística (TOTAL_TIME, COUNT, MAX, VALUE)
+    curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE}/actuator/metrics/$1?tag=pool:primario" \
+        | jq -r ".measurements[] | select(.statistic == \"$2\") | .value"
+}
+
+printf "%-6s %-10s %-14s %-14s %-14s\n" "pool" "req/s" "espera_media_ms" "espera_max_ms" "uso_medio_ms"
+
+for TAMANO in ${TAMANOS}; do
+    java -jar "${JAR}" --server.port="${PUERTO}" \
+        --app.datasource.pool.auto-size=false \
+        --spring.datasource.hikari.maximum-pool-size="${TAMANO}" \
+        --spring.datasource.hikari.minimum-idle="${TAMANO}" \
+        --spring.jpa.show-sql=false --logging.level.root=WARN \
+        --logging.level.com.sistema.backend=WARN ${EXTRA_ARGS} > /dev/null 2>&1 &
+    PID=$!
+    trap 'kill ${PID} 2>/dev/null || true' EXIT
+
+    esperar_arranque
+    TOKEN=$(obtener_token)
+
+    RPS=$(hey -z "${DURACION}" -c "${CONCURRENCIA}" -H "Authorization: Bearer ${TOKEN}" "${BASE}${ENDPOINT}" \
+        | awk '/Requests\/sec/ {print $2}')
+
+    TOTAL=$(metrica hikaricp.connections.acquire TOTAL_TIME)
+    CUENTA=$(metrica hikaricp.connections.acquire COUNT)
+    MAXIMO=$(metrica hikaricp.connections.acquire MAX)
+    USO_TOTAL=$(metrica hikaricp.connections.usage TOTAL_TIME)
+    USO_CUENTA=$(metrica hikaricp.connections.usage COUNT)
+
+    printf "%-6s %-10s %-14.3f %-14.3f %-14.3f\n" "${TAMANO}" "${RPS}" \
+        "$(echo "${TOTAL} * 1000 / ${CUENTA}" | bc -l)" \
+        "$(echo "${MAXIMO} * 1000" | bc -l)" \
+        "$(echo "${USO_TOTAL} / ${USO_CUENTA}" | bc -l)"
+
+    kill "${PID}"
+    wait "${PID}" 2>/dev/null || true
+done
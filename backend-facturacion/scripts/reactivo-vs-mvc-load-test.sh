@@ -0,0 +1,108 @@
+#!/usr/bin/env bash
+# ===================================
+# PRUEBA DE CARGA: MVC + JPA FRENTE A WEBFLUX + R2DBC
+# Arranca el backend servlet (8080) y el reactivo (8081) sobre la misma base y
+# carga cada uno por separado con la misma concurrencia (5000 conexiones por
+# defecto): listado de boletas (JSON y NDJSON), detalle y checkout.
+# Muestra req/s, latencia p50/p99, respuestas no 2xx, hilos y memoria de cada proceso.
+#
+# Requisitos: PostgreSQL local (application.properties), curl, jq y "hey"
+#   (https://github.com/rakyll/hey). Compilar antes:
+#     (cd backend-facturacion && mvn -B install -DskipTests)
+#     (cd backend-facturacion-reactivo && mvn -B package -DskipTests)
+#
+# Uso: scripts/reactivo-vs-mvc-load-test.sh [concurrencia] [duración]
+#   scripts/reactivo-vs-mvc-load-test.sh 5000 60s
+#
+# Variables opcionales:
+#   ID_BOLETA   boleta del usuario de carga para /api/boletas/{id} (por defecto la primera que cree)
+#   MVC_ARGS    argumentos extra para el backend servlet, p.ej. "--server.tomcat.threads.max=400"
+#   REACTIVO_ARGS argumentos extra para el backend reactivo
+# ===================================
+set -euo pipefail
+
+CONCURRENCIA=${1:-5000}
+DURACION=${2:-60s}
+MVC_ARGS=${MVC_ARGS:-}
+REACTIVO_ARGS=${REACTIVO_ARGS:-}
+MVC="http://localhost:8080"
+REACTIVO="http://localhost:8081"
+JAR_MVC=$(ls target/backend-*.jar | grep -v -- -dto.jar | head -1)
+JAR_REACTIVO=$(ls ../backend-facturacion-reactivo/target/backend-reactivo-*.jar | head -1)
+
+EMAIL="carga.reactivo@test.local"
+PASSWORD="carga123"
+
+# 5000 conexiones abiertas del lado del cliente y de cada servidor
+ulimit -n 65535
+
+esperar_arranque() {
+    for _ in $(seq 1 120); do
+        if curl -sf "$1/actuator/health" > /dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "El backend $1 no arrancó" >&2
+    exit 1
+}
+
+obtener_token() {
+    curl -s -X POST "${MVC}/api/usuarios/registro" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\",\"nombres\":\"Carga\",\"apellidos\":\"Reactivo\"}" > /dev/null || true
+    curl -s -X POST "${MVC}/api/usuarios/login" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\"}" | jq -r .token
+}
+
+# $1 = nombre, $2 = PID, $3.. = argumentos de hey
+cargar() {
+    local NOMBRE=$1 PID=$2
+    shift 2
+    local SALIDA
+    SALIDA=$(hey -z "${DURACION}" -c "${CONCURRENCIA}" -H "Authorization: Bearer ${TOKEN}" "$@")
+    printf "%-34s %-10s %-10s %-10s %-8s %-8s %-8s\n" "${NOMBRE}" \
+        "$(echo "${SALIDA}" | awk '/Requests\/sec/ {print $2}')" \
+        "$(echo "${SALIDA}" | awk '/ 50%/ {printf "%.1f", $3 * 1000}')" \
+        "$(echo "${SALIDA}" | awk '/ 99%/ {printf "%.1f", $3 * 1000}')" \
+        "$(echo "${SALIDA}" | awk '/\[[0-9]+\]/ && $1 !~ /\[2/ {n += $2} END {print n + 0}')" \
+        "$(ps -o nlwp= -p "${PID}" | tr -d ' ')" \
+        "$(( $(ps -o rss= -p "${PID}") / 1024 ))"
+}
+
+java -jar "${JAR_MVC}" --spring.jpa.show-sql=false --logging.level.root=WARN \
+    --logging.level.com.sistema.backend=WARN ${MVC_ARGS} > /dev/null 2>&1 &
+PID_MVC=$!
+java -jar "${JAR_REACTIVO}" --logging.level.root=WARN \
+    --logging.level.com.sistema.reactivo=WARN ${REACTIVO_ARGS} > /dev/null 2>&1 &
+PID_REACTIVO=$!
+trap 'kill ${PID_MVC} ${PID_REACTIVO} 2>/dev/null || true' EXIT
+
+esperar_arranque "${MVC}"
+esperar_arranque "${REACTIVO}"
+TOKEN=$(obtener_token)
+
+# Producto de catálogo para el carrito (el checkout no acepta líneas libres por defecto)
+curl -s -X POST "${MVC}/api/productos" -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: application/json' \
+    -d '{"codigo":"CARGA-001","nombre":"Carga","precio":1.00}' > /dev/null || true
+PRODUCTO=$(curl -s -H "Authorization: Bearer ${TOKEN}" "${MVC}/api/productos" | jq -r 'map(select(.codigo == "CARGA-001")) | .[0].idProducto')
+CARRITO="{\"cartItems\":[{\"idProducto\":${PRODUCTO},\"cantidad\":1}],\"total\":1.00,\"nombreCliente\":\"Carga\"}"
+
+# Algunas boletas para que los listados tengan contenido
+for _ in $(seq 1 20); do
+    curl -s -X POST "${MVC}/api/boletas" -H "Authorization: Bearer ${TOKEN}" \
+        -H 'Content-Type: application/json' -d "${CARRITO}" > /dev/null
+done
+ID_BOLETA=${ID_BOLETA:-$(curl -s -H "Authorization: Bearer ${TOKEN}" "${MVC}/api/boletas" | jq -r '.[0].idBoleta')}
+
+printf "%-34s %-10s %-10s %-10s %-8s %-8s %-8s\n" "escenario" "req/s" "p50_ms" "p99_ms" "no_2xx" "hilos" "rss_mb"
+
+for LADO in mvc reactivo; do
+    if [ "${LADO}" = mvc ]; then BASE=${MVC}; PID=${PID_MVC}; else BASE=${REACTIVO}; PID=${PID_REACTIVO}; fi
+
+    cargar "${LADO} GET /api/boletas" "${PID}" "${BASE}/api/boletas"
+    if [ "${LADO}" = reactivo ]; then
+        cargar "${LADO} GET /api/boletas (ndjson)" "${PID}" -H "Accept: application/x-ndjson" "${BASE}/api/boletas"
+    fi
+    cargar "${LADO} GET /api/boletas/${ID_BOLETA}" "${PID}" "${BASE}/api/boletas/${ID_BOLETA}"
+    cargar "${LADO} POST /api/boletas" "${PID}" -m POST -T application/json -d "${CARRITO}" "${BASE}/api/boletas"
+done
@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# ===================================
+# PRUEBA DE CARGA DE LA VERIFICACIÓN DE TOKENS
+# Arranca el backend, lanza carga concurrente contra POST /api/usuarios/verificar-token
+# y muestra el throughput y las conexiones del pool pedidas por petición
+# (delta de hikaricp.connections.acquire COUNT / peticiones). Con la versión de
+# tokens en memoria y los datos del usuario en los claims debería quedar en ~0.
+#
+# Para comparar con el commit anterior: compilar ese commit, ejecutar el script,
+# volver a este commit, compilar y ejecutarlo de nuevo con los mismos argumentos.
+#
+# Requisitos: PostgreSQL local (application.properties), curl, jq, bc y "hey"
+#   (https://github.com/rakyll/hey). Compilar antes con: mvn -B package -DskipTests
+#
+# Uso: scripts/verificar-token-load-test.sh [concurrencia] [peticiones]
+#   scripts/verificar-token-load-test.sh 100 50000
+# ===================================
+set -euo pipefail
+
+CONCURRENCIA=${1:-100}
+PETICIONES=${2:-50000}
+PUERTO=${PUERTO:-8080}
+BASE="http://localhost:${PUERTO}"
+JAR=$(ls target/backend-*.jar | grep -v -- -dto.jar | head -1)
+
+EMAIL="carga.token@test.local"
+PASSWORD="carga123"
+
+esperar_arranque() {
+    for _ in $(seq 1 120); do
+        if curl -sf "${BASE}/actuator/health" > /dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "El backend no arrancó" >&2
+    exit 1
+}
+
+obtener_token() {
+    curl -s -X POST "${BASE}/api/usuarios/registro" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\",\"nombres\":\"Carga\",\"apellidos\":\"Token\"}" > /dev/null || true
+    curl -s -X POST "${BASE}/api/usuarios/login" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\"}" | jq -r .token
+}
+
+conexiones_pedidas() {
+    curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE}/actuator/metrics/hikaricp.connections.acquire?tag=pool:primario" \
+        | jq -r '.measurements[] | select(.statistic == "COUNT") | .value'
+}
+
+java -jar "${JAR}" --server.port="${PUERTO}" \
+    --spring.jpa.show-sql=false --logging.level.root=WARN \
+    --logging.level.com.sistema.backend=WARN > /dev/null 2>&1 &
+PID=$!
+trap 'kill ${PID} 2>/dev/null || true' EXIT
+
+esperar_arranque
+TOKEN=$(obtener_token)
+
+# Calentamiento (JIT y primera carga de la versión del usuario), fuera de la medición
+hey -n 2000 -c "${CONCURRENCIA}" -m POST -H "Authorization: Bearer ${TOKEN}" \
+    "${BASE}/api/usuarios/verificar-token" > /dev/null
+
+ANTES=$(conexiones_pedidas)
+RPS=$(hey -n "${PETICIONES}" -c "${CONCURRENCIA}" -m POST -H "Authorization: Bearer ${TOKEN}" \
+    "${BASE}/api/usuarios/verificar-token" | awk '/Requests\/sec/ {print $2}')
+DESPUES=$(conexiones_pedidas)
+
+printf "%-10s %-14s\n" "req/s" "conexiones/petición"
+printf "%-10s %-14.4f\n" "${RPS}" "$(echo "(${DESPUES} - ${ANTES}) / ${PETICIONES}" | bc -l)"
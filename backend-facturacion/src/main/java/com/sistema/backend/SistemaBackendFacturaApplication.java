@@ -1,9 +1,12 @@
 package com.sistema.backend;
 
+import com.sistema.backend.config.nativo.NativoRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativoRuntimeHints.class)
 public class SistemaBackendFacturaApplication {
 
 	public static void main(String[] args) {
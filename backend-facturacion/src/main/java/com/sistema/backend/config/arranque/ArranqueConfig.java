@@ -0,0 +1,122 @@
+package com.sistema.backend.config.arranque;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Arranque rápido: beans diferidos (perfil "lazy"), pasos básicos de
+ * calentamiento y el perfil "migracion" que migra el esquema y termina.
+ * @autor Paulo
+ */
+@Configuration
+public class ArranqueConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArranqueConfig.class);
+
+    /**
+     * Con spring.main.lazy-initialization=true siguen creándose al arrancar los beans
+     * con efectos propios (@PostConstruct, @Scheduled, ciclo de vida): si se difirieran
+     * no escucharían LISTEN/NOTIFY ni ejecutarían sus tareas hasta el primer uso.
+     */
+    @Bean
+    @Profile("!migracion")
+    static LazyInitializationExcludeFilter beansConEfectosAlArrancar() {
+        return (nombre, definicion, tipo) -> tieneEfectosAlArrancar(tipo);
+    }
+
+    static boolean tieneEfectosAlArrancar(Class<?> tipo) {
+        if (tipo == null) {
+            return false;
+        }
+        if (SmartLifecycle.class.isAssignableFrom(tipo)) {
+            return true;
+        }
+        AtomicBoolean efectos = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(tipo,
+                metodo -> efectos.set(true),
+                metodo -> AnnotatedElementUtils.hasAnnotation(metodo, PostConstruct.class)
+                        || AnnotatedElementUtils.hasAnnotation(metodo, Scheduled.class));
+        return efectos.get();
+    }
+
+    /**
+     * Crea en segundo plano los beans que el perfil "lazy" dejó pendientes, antes de
+     * aceptar tráfico (si no, el coste se paga en las primeras peticiones)
+     */
+    @Bean
+    @Order(0)
+    PasoCalentamiento pasoBeansDiferidos(ConfigurableListableBeanFactory beanFactory, Environment environment) {
+        return PasoCalentamiento.de("beans-diferidos", () -> {
+            if (!environment.getProperty("spring.main.lazy-initialization", Boolean.class, false)) {
+                return;
+            }
+            for (String nombre : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definicion = beanFactory.getBeanDefinition(nombre);
+                if (definicion.isSingleton() && !definicion.isAbstract() && !beanFactory.containsSingleton(nombre)) {
+                    beanFactory.getBean(nombre);
+                }
+            }
+        });
+    }
+
+    /**
+     * Abre el pool (Hikari lo crea con la primera conexión) y valida una conexión
+     */
+    @Bean
+    @Order(10)
+    PasoCalentamiento pasoConexiones(DataSource dataSource) {
+        return PasoCalentamiento.de("conexiones", () -> {
+            try (Connection conexion = dataSource.getConnection()) {
+                if (!conexion.isValid(2)) {
+                    throw new IllegalStateException("Conexión no válida");
+                }
+            }
+        });
+    }
+
+    /**
+     * Perfil "migracion": Flyway + validación del esquema y salida. Se ejecuta una vez
+     * por despliegue, antes de arrancar las instancias con el perfil "arranque".
+     * El perfil difiere todos los beans: pedir el EntityManagerFactory crea solo lo
+     * necesario (pool, Flyway, que va antes, y Hibernate con ddl-auto=validate).
+     */
+    @Bean
+    @Profile("migracion")
+    ApplicationRunner salirTrasMigrar(ConfigurableApplicationContext contexto, EntityManagerFactory entityManagerFactory) {
+        return args -> {
+            logger.info("✅ Esquema migrado y validado");
+            System.exit(SpringApplication.exit(contexto));
+        };
+    }
+
+    /**
+     * Tareas @Scheduled en todos los perfiles salvo "migracion" (el proceso migra y termina)
+     */
+    @Configuration
+    @EnableScheduling
+    @Profile("!migracion")
+    static class ProgramacionConfig {
+    }
+}
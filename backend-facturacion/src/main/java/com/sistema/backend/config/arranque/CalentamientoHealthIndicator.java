@@ -0,0 +1,91 @@
+package com.sistema.backend.config.arranque;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Indicador "calentamiento" del grupo readiness: OUT_OF_SERVICE hasta que
+ * terminan todos los PasoCalentamiento.
+ *
+ * Los pasos corren en un hilo propio al recibir ApplicationReadyEvent, así la
+ * sonda de liveness ya responde mientras tanto y el balanceador no envía tráfico
+ * a una instancia fría. Duración de cada paso: arranque.calentamiento{paso}.
+ * @autor Paulo
+ */
+@Component
+@Slf4j
+public class CalentamientoHealthIndicator implements HealthIndicator {
+
+    private final ObjectProvider<PasoCalentamiento> pasos;
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final List<String> completados = new CopyOnWriteArrayList<>();
+    private final List<String> fallidos = new CopyOnWriteArrayList<>();
+    private volatile boolean terminado;
+    private volatile long duracionMs;
+
+    public CalentamientoHealthIndicator(ObjectProvider<PasoCalentamiento> pasos,
+            MeterRegistry meterRegistry,
+            @Value("${app.calentamiento.habilitado:true}") boolean habilitado) {
+        this.pasos = pasos;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitado) {
+            terminado = true;
+            log.info("Calentamiento deshabilitado");
+            return;
+        }
+        Thread hilo = new Thread(this::calentar, "calentamiento");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    void calentar() {
+        long inicio = System.nanoTime();
+        pasos.orderedStream().forEach(paso -> {
+            long inicioPaso = System.nanoTime();
+            try {
+                paso.ejecutar();
+                completados.add(paso.nombre());
+            } catch (Exception e) {
+                fallidos.add(paso.nombre());
+                log.warn("⚠️ Calentamiento '{}' falló: {}", paso.nombre(), e.getMessage());
+            }
+            Duration duracion = Duration.ofNanos(System.nanoTime() - inicioPaso);
+            Timer.builder("arranque.calentamiento").tag("paso", paso.nombre()).register(meterRegistry).record(duracion);
+            log.info("🔥 Calentamiento '{}' en {} ms", paso.nombre(), duracion.toMillis());
+        });
+        duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        terminado = true;
+        log.info("✅ Calentamiento terminado en {} ms: lista para recibir tráfico", duracionMs);
+    }
+
+    public boolean isTerminado() {
+        return terminado;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = terminado ? Health.up().withDetail("duracionMs", duracionMs) : Health.outOfService();
+        return builder
+                .withDetail("completados", completados)
+                .withDetail("fallidos", fallidos)
+                .build();
+    }
+}
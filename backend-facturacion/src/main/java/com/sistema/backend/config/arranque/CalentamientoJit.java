@@ -0,0 +1,151 @@
+package com.sistema.backend.config.arranque;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.backend.controller.BoletaDtoConverter;
+import com.sistema.backend.dto.response.BoletaDetailsResponse;
+import com.sistema.backend.dto.response.BoletaSummary;
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.DetalleBoleta;
+import com.sistema.backend.entity.Usuario;
+import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.service.BoletaService;
+import com.sistema.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Calentamiento del JIT: ejecuta con datos sintéticos el código caliente de
+ * /api/boletas y /api/usuarios/login (firma y lectura de JWT, conversión a DTO,
+ * serialización Jackson y consultas de los repositorios) para que C1/C2 lo
+ * compilen antes de que la instancia reciba tráfico.
+ *
+ * Las consultas usan ids inexistentes: recorren Hibernate, el driver y las
+ * sentencias preparadas sin leer ni escribir datos reales.
+ * @autor Paulo
+ */
+@Component
+@Order(20)
+@Slf4j
+public class CalentamientoJit implements PasoCalentamiento {
+
+    private static final int ID_SINTETICO = -1;
+    private static final int DETALLES_POR_BOLETA = 10;
+    private static final int BOLETAS_POR_LISTADO = 50;
+
+    private final JwtUtil jwtUtil;
+    private final BoletaDtoConverter boletaDtoConverter;
+    private final ObjectMapper objectMapper;
+    private final BoletaService boletaService;
+    private final UsuarioRepository usuarioRepository;
+    private final int iteraciones;
+    private final int consultas;
+
+    public CalentamientoJit(JwtUtil jwtUtil,
+            BoletaDtoConverter boletaDtoConverter,
+            ObjectMapper objectMapper,
+            BoletaService boletaService,
+            UsuarioRepository usuarioRepository,
+            @Value("${app.calentamiento.iteraciones:5000}") int iteraciones,
+            @Value("${app.calentamiento.consultas:300}") int consultas) {
+        this.jwtUtil = jwtUtil;
+        this.boletaDtoConverter = boletaDtoConverter;
+        this.objectMapper = objectMapper;
+        this.boletaService = boletaService;
+        this.usuarioRepository = usuarioRepository;
+        this.iteraciones = iteraciones;
+        this.consultas = consultas;
+    }
+
+    @Override
+    public String nombre() {
+        return "jit";
+    }
+
+    @Override
+    public void ejecutar() throws Exception {
+        // La imagen nativa ya está compilada: no hay JIT que calentar
+        if (NativeDetector.inNativeImage()) {
+            return;
+        }
+        Usuario usuario = usuarioSintetico();
+        Boleta boleta = boletaSintetica(usuario);
+        List<BoletaSummary> listado = listadoSintetico();
+        long bytes = 0;
+
+        for (int i = 0; i < iteraciones; i++) {
+            // Login y filtro JWT
+            String token = jwtUtil.generateToken(usuario, UUID.randomUUID(), jwtUtil.calcularExpiracion());
+            Claims claims = jwtUtil.getClaimsIfValid(token);
+            if (claims == null || jwtUtil.getVersion(claims) == null) {
+                throw new IllegalStateException("El token sintético no se pudo verificar");
+            }
+
+            // GET /api/boletas/{id} y /api/boletas
+            BoletaDetailsResponse detalle = boletaDtoConverter.convertToBoletaDetailsResponse(boleta);
+            bytes += objectMapper.writeValueAsBytes(detalle).length;
+            bytes += objectMapper.writeValueAsBytes(listado).length;
+        }
+
+        for (int i = 0; i < consultas; i++) {
+            usuarioRepository.findByEmail("calentamiento-" + i + "@invalid");
+            boletaService.getResumenesByUserId(ID_SINTETICO);
+            boletaService.getBoletaDetalladaByIdAndUser(ID_SINTETICO, ID_SINTETICO);
+            boletaService.getDetallesByBoletaIdAndUser(ID_SINTETICO, ID_SINTETICO);
+        }
+        log.debug("Calentamiento JIT: {} iteraciones, {} consultas, {} bytes de JSON", iteraciones, consultas, bytes);
+    }
+
+    private static Usuario usuarioSintetico() {
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(ID_SINTETICO);
+        usuario.setEmail("calentamiento@invalid");
+        usuario.setNombres("Calentamiento");
+        usuario.setApellidos("JIT");
+        usuario.setNumeroDocumento("00000000");
+        return usuario;
+    }
+
+    private static Boleta boletaSintetica(Usuario usuario) {
+        Boleta boleta = new Boleta();
+        boleta.setIdBoleta(ID_SINTETICO);
+        boleta.setIdUsuario(usuario.getIdUsuario());
+        boleta.setUsuario(usuario);
+        boleta.setFechaCreacion(LocalDateTime.now());
+        boleta.setNombreCliente("Cliente sintético");
+        boleta.setDocumentoCliente("00000000");
+        boleta.setEmailCliente("cliente@invalid");
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 1; i <= DETALLES_POR_BOLETA; i++) {
+            DetalleBoleta detalle = new DetalleBoleta();
+            detalle.setIdDetalle(i);
+            detalle.setProducto("Producto " + i);
+            detalle.setPrecioUnitario(BigDecimal.valueOf(i * 150L, 2));
+            detalle.setCantidad(i);
+            detalle.setSubtotal(detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(i)));
+            boleta.agregarDetalle(detalle);
+            total = total.add(detalle.getSubtotal());
+        }
+        boleta.setTotal(total);
+        return boleta;
+    }
+
+    private static List<BoletaSummary> listadoSintetico() {
+        List<BoletaSummary> listado = new ArrayList<>(BOLETAS_POR_LISTADO);
+        for (int i = 1; i <= BOLETAS_POR_LISTADO; i++) {
+            listado.add(new BoletaSummary(i, ID_SINTETICO, LocalDateTime.now(), BigDecimal.valueOf(i * 1000L, 2),
+                    "Cliente " + i, "00000000", 3, 6, "B001", i));
+        }
+        return listado;
+    }
+}
@@ -0,0 +1,33 @@
+package com.sistema.backend.config.arranque;
+
+/**
+ * Paso del calentamiento que se ejecuta tras arrancar y antes de que la sonda
+ * de readiness pase a UP. Los pasos se ejecutan en orden (@Order) y un fallo
+ * no detiene el resto: calentar es una optimización, no un requisito.
+ * @autor Paulo
+ */
+public interface PasoCalentamiento {
+
+    String nombre();
+
+    void ejecutar() throws Exception;
+
+    static PasoCalentamiento de(String nombre, Ejecucion ejecucion) {
+        return new PasoCalentamiento() {
+            @Override
+            public String nombre() {
+                return nombre;
+            }
+
+            @Override
+            public void ejecutar() throws Exception {
+                ejecucion.ejecutar();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface Ejecucion {
+        void ejecutar() throws Exception;
+    }
+}
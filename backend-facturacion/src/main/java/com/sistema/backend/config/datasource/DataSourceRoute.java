@@ -0,0 +1,10 @@
+package com.sistema.backend.config.datasource;
+
+/**
+ * Destinos posibles del DataSource enrutado
+ * @autor Paulo
+ */
+public enum DataSourceRoute {
+    PRIMARIO,
+    REPLICA
+}
@@ -0,0 +1,71 @@
+package com.sistema.backend.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calcula el tamaño de los pools Hikari a partir de los núcleos disponibles
+ * y de la concurrencia esperada, en lugar de usar el valor por defecto (10).
+ *
+ * Fórmula: conexiones = núcleos * 2 + discos efectivos, limitado por la
+ * concurrencia esperada (no sirve tener más conexiones que peticiones en vuelo).
+ * Se desactiva con app.datasource.pool.auto-size=false para usar
+ * spring.datasource.hikari.maximum-pool-size tal cual.
+ * @autor Paulo
+ */
+@Component
+public class HikariPoolSizingPostProcessor implements BeanPostProcessor, EnvironmentAware, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(HikariPoolSizingPostProcessor.class);
+
+    private static final int TAMANO_MINIMO = 2;
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof HikariDataSource dataSource
+                && environment.getProperty("app.datasource.pool.auto-size", Boolean.class, true)) {
+            int nucleos = Runtime.getRuntime().availableProcessors();
+            int discos = environment.getProperty("app.datasource.pool.effective-spindles", Integer.class, 1);
+            int concurrencia = environment.getProperty("app.datasource.pool.expected-concurrency", Integer.class, 0);
+
+            int tamano = calcularTamano(nucleos, discos, concurrencia);
+
+            // Pool de tamaño fijo: evita abrir conexiones justo en los picos
+            dataSource.setMaximumPoolSize(tamano);
+            dataSource.setMinimumIdle(tamano);
+
+            logger.info("🔧 Pool {}: {} conexiones (núcleos={}, discos={}, concurrencia esperada={})",
+                    dataSource.getPoolName() != null ? dataSource.getPoolName() : beanName,
+                    tamano, nucleos, discos, concurrencia);
+        }
+        return bean;
+    }
+
+    /**
+     * Tamaño del pool según núcleos, discos efectivos y concurrencia esperada
+     */
+    static int calcularTamano(int nucleos, int discos, int concurrencia) {
+        int porNucleos = nucleos * 2 + Math.max(discos, 0);
+        int tamano = concurrencia > 0 ? Math.min(porNucleos, concurrencia) : porNucleos;
+        return Math.max(tamano, TAMANO_MINIMO);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,72 @@
+package com.sistema.backend.config.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Garantiza "read-your-writes" cuando las lecturas van a la réplica.
+ * Después de que un usuario escribe (p.ej. crea una boleta), sus lecturas
+ * se envían al primario durante una ventana configurable, para que no vea
+ * datos atrasados por el lag de replicación.
+ * @autor Paulo
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    @Value("${app.datasource.replica.read-your-writes-ms:5000}")
+    private long ventanaMs;
+
+    // idUsuario -> instante (ms) de su última escritura
+    private final Map<Integer, Long> ultimaEscritura = new ConcurrentHashMap<>();
+
+    /**
+     * Registrar que el usuario acaba de escribir en el primario
+     */
+    public void registrarEscritura(Integer idUsuario) {
+        if (idUsuario != null) {
+            ultimaEscritura.put(idUsuario, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Indica si el usuario autenticado en el hilo actual debe leer del primario
+     */
+    public boolean requierePrimario() {
+        Integer idUsuario = usuarioActual();
+        if (idUsuario == null) {
+            return false;
+        }
+        Long instante = ultimaEscritura.get(idUsuario);
+        if (instante == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - instante > ventanaMs) {
+            ultimaEscritura.remove(idUsuario, instante);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Limpia las entradas vencidas para que el mapa no crezca indefinidamente
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.read-your-writes-purge-ms:60000}")
+    public void purgarVencidos() {
+        long limite = System.currentTimeMillis() - ventanaMs;
+        ultimaEscritura.values().removeIf(instante -> instante < limite);
+    }
+
+    private Integer usuarioActual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Integer idUsuario) {
+            return idUsuario;
+        }
+        return null;
+    }
+}
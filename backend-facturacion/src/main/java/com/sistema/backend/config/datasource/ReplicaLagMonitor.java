@@ -0,0 +1,62 @@
+package com.sistema.backend.config.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Mide periódicamente el lag de la réplica.
+ * Si la réplica no responde o su lag supera el máximo permitido,
+ * todas las lecturas vuelven al primario hasta que se recupere.
+ * @autor Paulo
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // En un standby compara lo recibido vs lo aplicado; en un servidor normal devuelve 0
+    private static final String SQL_LAG = "SELECT CASE "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) "
+            + "END";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMs;
+
+    private volatile boolean disponible = true;
+    private volatile long lagMs = 0;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagMs) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-ms:2000}")
+    public void medirLag() {
+        try {
+            Number lag = replicaJdbcTemplate.queryForObject(SQL_LAG, Number.class);
+            lagMs = lag != null ? lag.longValue() : 0;
+            boolean ok = lagMs <= maxLagMs;
+            if (ok != disponible) {
+                logger.warn("⚠️ Réplica {} (lag={} ms, máximo={} ms)", ok ? "recuperada" : "atrasada", lagMs, maxLagMs);
+            }
+            disponible = ok;
+        } catch (Exception e) {
+            if (disponible) {
+                logger.error("❌ Réplica no disponible, leyendo del primario: {}", e.getMessage());
+            }
+            disponible = false;
+        }
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+}
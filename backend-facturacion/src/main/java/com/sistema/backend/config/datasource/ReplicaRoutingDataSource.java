@@ -0,0 +1,34 @@
+package com.sistema.backend.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource que envía las transacciones @Transactional(readOnly = true)
+ * a la réplica y todo lo demás al primario.
+ * Debe envolverse en un LazyConnectionDataSourceProxy para que la conexión
+ * se pida cuando el flag readOnly de la transacción ya está establecido.
+ * @autor Paulo
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReplicaRoutingDataSource(ReadYourWritesTracker readYourWritesTracker,
+            ReplicaLagMonitor replicaLagMonitor) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceRoute.PRIMARIO;
+        }
+        if (!replicaLagMonitor.isDisponible() || readYourWritesTracker.requierePrimario()) {
+            return DataSourceRoute.PRIMARIO;
+        }
+        return DataSourceRoute.REPLICA;
+    }
+}
@@ -0,0 +1,105 @@
+package com.sistema.backend.config.nativo;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Hints de reflexión y recursos para la imagen nativa (perfil Maven "native").
+ *
+ * Spring AOT ya registra las entidades JPA, los repositorios, la configuración de
+ * Spring Security y los tipos de los controladores con firma concreta. Aquí va lo
+ * que no puede deducir: los DTO devueltos como ResponseEntity<?>, los payloads
+ * JSON de NOTIFY/outbox y las librerías que cargan clases por nombre.
+ * @autor Paulo
+ */
+public class NativoRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Serializados por Jackson (respuestas, peticiones y eventos del outbox)
+    private static final List<String> PAQUETES_JSON = List.of(
+            "com.sistema.backend.dto",
+            "com.sistema.backend.event");
+
+    // Payloads de LISTEN/NOTIFY (records privados de cada servicio)
+    private static final List<String> PAYLOADS_NOTIFY = List.of(
+            "com.sistema.backend.service.invalidacion.BusInvalidacion$LoteInvalidacion",
+            "com.sistema.backend.service.feed.BoletaFeedService$AvisoBoleta",
+            "com.sistema.backend.security.ListaRevocacion$Revocacion");
+
+    // jjwt instancia su implementación por nombre (Jwts, Keys) y el serializador por ServiceLoader
+    private static final List<String> JJWT = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    // Proveedores cargados por nombre: JCache (hibernate.javax.cache.provider) y XMLDSig (XmlFirmador)
+    private static final List<String> PROVEEDORES = List.of(
+            "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+            "org.jcp.xml.dsig.internal.dom.XMLDSigRI",
+            "org.jcp.xml.dsig.internal.dom.DOMXMLSignatureFactory",
+            "org.jcp.xml.dsig.internal.dom.DOMKeyInfoFactory");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        for (String paquete : PAQUETES_JSON) {
+            for (Class<?> tipo : clasesDe(paquete, classLoader)) {
+                binding.registerReflectionHints(hints.reflection(), tipo);
+            }
+        }
+        for (String payload : PAYLOADS_NOTIFY) {
+            binding.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(payload, classLoader));
+        }
+
+        for (String tipo : JJWT) {
+            hints.reflection().registerType(TypeReference.of(tipo),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        for (String tipo : PROVEEDORES) {
+            hints.reflection().registerType(TypeReference.of(tipo), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+
+        // Caché L2 (Typesafe Config), fuentes base de OpenPDF y almacén de firma de desarrollo
+        hints.resources()
+                .registerPattern("hibernate-l2-cache.conf")
+                .registerPattern("reference.conf")
+                .registerPattern("com/lowagie/text/pdf/fonts/*.afm")
+                .registerPattern("com/lowagie/text/version.properties")
+                .registerPattern("ubl/*.p12");
+    }
+
+    private static List<Class<?>> clasesDe(String paquete, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definicion) {
+                return definicion.getMetadata().isIndependent();
+            }
+        };
+        escaner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        escaner.addIncludeFilter(new RegexPatternTypeFilter(Pattern.compile(".*")));
+        return escaner.findCandidateComponents(paquete).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .<Class<?>>map(nombre -> ClassUtils.resolveClassName(nombre, classLoader))
+                .toList();
+    }
+}
@@ -0,0 +1,151 @@
+package com.sistema.backend.controller;
+
+import com.sistema.backend.dto.response.MessageResponse;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.service.analitica.AnaliticaNoCargadaException;
+import com.sistema.backend.service.analitica.AnaliticaService;
+import com.sistema.backend.service.analitica.EstadoAnalitica;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Controlador REST de analítica de ventas
+ * Se responde desde la proyección columnar en memoria (no consulta las tablas del checkout);
+ * mientras se carga responde 503
+ * 
+ * @author Paulo
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequiredArgsConstructor
+@Slf4j
+public class AnaliticaController {
+
+    private static final int LIMITE_MAXIMO = 100;
+
+    private final AnaliticaService analiticaService;
+
+    /**
+     * GET /api/analytics/productos/top?desde=&hasta=&limite=10&orden=importe|unidades
+     * Por defecto, los últimos 30 días
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping("/productos/top")
+    public ResponseEntity<?> topProductos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "10") int limite,
+            @RequestParam(defaultValue = "importe") String orden) {
+        try {
+            LocalDateTime fin = hasta != null ? hasta : LocalDateTime.now();
+            LocalDateTime inicio = desde != null ? desde : fin.minusDays(30);
+            return ResponseEntity.ok(analiticaService.topProductos(inicio, fin, limitar(limite), !"unidades".equals(orden)));
+
+        } catch (AnaliticaNoCargadaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (Exception e) {
+            log.error("❌ Error en analítica de productos: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al obtener la analítica", false));
+        }
+    }
+
+    /**
+     * GET /api/analytics/ventas/por-hora?desde=&hasta=
+     * Por defecto, las últimas 24 horas
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping("/ventas/por-hora")
+    public ResponseEntity<?> ventasPorHora(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        try {
+            LocalDateTime fin = hasta != null ? hasta : LocalDateTime.now();
+            LocalDateTime inicio = desde != null ? desde : fin.minusHours(24);
+            return ResponseEntity.ok(analiticaService.ventasPorHora(inicio, fin));
+
+        } catch (AnaliticaNoCargadaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (Exception e) {
+            log.error("❌ Error en analítica por hora: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al obtener la analítica", false));
+        }
+    }
+
+    /**
+     * GET /api/analytics/vendedores/ranking?desde=&hasta=&limite=10
+     * Por defecto, los últimos 30 días
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping("/vendedores/ranking")
+    public ResponseEntity<?> rankingVendedores(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "10") int limite) {
+        try {
+            LocalDateTime fin = hasta != null ? hasta : LocalDateTime.now();
+            LocalDateTime inicio = desde != null ? desde : fin.minusDays(30);
+            return ResponseEntity.ok(analiticaService.rankingVendedores(inicio, fin, limitar(limite)));
+
+        } catch (AnaliticaNoCargadaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (Exception e) {
+            log.error("❌ Error en ranking de vendedores: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al obtener la analítica", false));
+        }
+    }
+
+    /**
+     * GET /api/analytics/estado
+     * Filas cargadas y memoria de la proyección
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping("/estado")
+    public ResponseEntity<EstadoAnalitica> estado() {
+        return ResponseEntity.ok(analiticaService.estado());
+    }
+
+    private int limitar(int limite) {
+        return Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+}
@@ -0,0 +1,143 @@
+package com.sistema.backend.controller;
+
+import com.sistema.backend.dto.request.ArchivoRequest;
+import com.sistema.backend.dto.response.MessageResponse;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.service.archivo.ArchivoBoletaService;
+import com.sistema.backend.service.archivo.ArchivoJob;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Controlador REST para el archivo ZIP de boletas (cierre de mes)
+ * Requiere autenticación JWT en todos los endpoints
+ * 
+ * @author Paulo
+ */
+@RestController
+@RequestMapping("/api/boletas/archivo")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequiredArgsConstructor
+@Slf4j
+public class ArchivoBoletaController {
+
+    private final ArchivoBoletaService archivoBoletaService;
+
+    /**
+     * POST /api/boletas/archivo
+     * Iniciar la generación del ZIP de boletas de un rango de fechas
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @PostMapping
+    public ResponseEntity<?> crearArchivo(
+            @Valid @RequestBody ArchivoRequest request,
+            Authentication authentication) {
+        try {
+            Integer idUsuario = (Integer) authentication.getPrincipal();
+
+            log.info("🗜️ Solicitando archivo de boletas {} a {} para usuario ID: {}",
+                    request.getDesde(), request.getHasta(), idUsuario);
+
+            ArchivoJob job = archivoBoletaService.crearTrabajo(idUsuario, request.getDesde(), request.getHasta());
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toResponse());
+
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ Cola de archivos llena");
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new MessageResponse("Hay demasiados archivos en proceso, intente más tarde", false));
+
+        } catch (Exception e) {
+            log.error("❌ Error al crear archivo: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al crear el archivo", false));
+        }
+    }
+
+    /**
+     * GET /api/boletas/archivo/{jobId}
+     * Estado y progreso del trabajo
+     * 
+     * PROTEGIDO - Requiere JWT y verifica propiedad
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> obtenerEstado(@PathVariable String jobId, Authentication authentication) {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
+
+        Optional<ArchivoJob> job = archivoBoletaService.obtenerTrabajo(jobId, idUsuario);
+        if (job.isEmpty()) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(new MessageResponse("Trabajo no encontrado", false));
+        }
+        return ResponseEntity.ok(job.get().toResponse());
+    }
+
+    /**
+     * GET /api/boletas/archivo/{jobId}/descarga
+     * Descargar el ZIP una vez completado
+     * 
+     * PROTEGIDO - Requiere JWT y verifica propiedad
+     */
+    @GetMapping("/{jobId}/descarga")
+    public ResponseEntity<?> descargar(@PathVariable String jobId, Authentication authentication) {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
+
+        Optional<ArchivoJob> job = archivoBoletaService.obtenerTrabajo(jobId, idUsuario);
+        if (job.isEmpty()) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(new MessageResponse("Trabajo no encontrado", false));
+        }
+        if (job.get().getEstado() != ArchivoJob.Estado.COMPLETADO) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("El archivo aún no está listo", false));
+        }
+
+        FileSystemResource zip = new FileSystemResource(job.get().getArchivo());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"boletas-"
+                        + job.get().getDesde() + "-" + job.get().getHasta() + ".zip\"")
+                .body(zip);
+    }
+
+    /**
+     * DELETE /api/boletas/archivo/{jobId}
+     * Cancelar un trabajo en cola o en proceso
+     * 
+     * PROTEGIDO - Requiere JWT y verifica propiedad
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<?> cancelar(@PathVariable String jobId, Authentication authentication) {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
+
+        Optional<ArchivoJob> job = archivoBoletaService.cancelarTrabajo(jobId, idUsuario);
+        if (job.isEmpty()) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(new MessageResponse("Trabajo no encontrado", false));
+        }
+        return ResponseEntity.ok(job.get().toResponse());
+    }
+}
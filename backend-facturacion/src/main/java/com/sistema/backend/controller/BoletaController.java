@@ -2,26 +2,36 @@ package com.sistema.backend.controller;
 
 import com.sistema.backend.dto.request.BoletaRequest;
 import com.sistema.backend.dto.response.BoletaResponse;
-import com.sistema.backend.dto.response.MessageResponse;
 import com.sistema.backend.dto.response.BoletaDetailsResponse;
+import com.sistema.backend.dto.response.BoletaSummary;
 import com.sistema.backend.entity.Boleta;
 import com.sistema.backend.entity.DetalleBoleta;
+import com.sistema.backend.exception.RecursoNoEncontradoException;
+import com.sistema.backend.exception.RespuestaInterrumpidaException;
 import com.sistema.backend.service.BoletaService;
-import com.sistema.backend.service.UsuarioService;
+import com.sistema.backend.service.feed.BoletaFeedService;
+import com.sistema.backend.service.feed.CursorFeed;
+import com.sistema.backend.service.pdf.BoletaPdfService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * Controlador REST para gestión de boletas
  * Requiere autenticación JWT en todos los endpoints
+ * Los errores de lectura los traduce GlobalExceptionHandler
  * 
  * @author Paulo
  */
@@ -33,7 +43,11 @@ import java.util.stream.Collectors;
 public class BoletaController {
 
     private final BoletaService boletaService;
-    private final UsuarioService usuarioService;
+    private final BoletaDtoConverter boletaDtoConverter;
+    private final BoletaJsonWriter boletaJsonWriter;
+    private final BoletaPdfService boletaPdfService;
+    private final BoletaFeedService boletaFeedService;
+
     /**
      * POST /api/boletas
      * Crear nueva boleta (checkout)
@@ -74,26 +88,18 @@ public class BoletaController {
      * PROTEGIDO - Requiere JWT
      */
     @GetMapping
-    public ResponseEntity<?> obtenerMisBoletas(Authentication authentication) {
-        try {
-            Integer idUsuario = (Integer) authentication.getPrincipal();
-
-            log.info("📋 Obteniendo boletas del usuario ID: {}", idUsuario);
+    public void obtenerMisBoletas(
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
 
-            List<Boleta> boletas = boletaService.getBoletasByUserId(idUsuario);
+        log.info("📋 Obteniendo boletas del usuario ID: {}", idUsuario);
 
-            List<BoletaDetailsResponse> responseList = boletas.stream()
-                    .<BoletaDetailsResponse>map(this::convertToBoletaDetailsResponse)
-                    .collect(Collectors.toList());
+        // Solo cabeceras: los detalles se cargan desde /{id}/detalles
+        List<BoletaSummary> boletas = boletaService.getResumenesByUserId(idUsuario);
 
-            return ResponseEntity.ok(responseList);
-
-        } catch (Exception e) {
-            log.error("❌ Error al obtener boletas: {}", e.getMessage(), e);
-            return ResponseEntity
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new MessageResponse("Error al obtener boletas", false));
-        }
+        // JSON escrito directamente en el stream con el writer precompilado
+        boletaJsonWriter.escribirListado(boletas, response);
     }
 
     /**
@@ -103,26 +109,36 @@ public class BoletaController {
      * PROTEGIDO - Requiere JWT
      */
     @GetMapping("/ordenadas")
-    public ResponseEntity<?> obtenerMisBoletasOrdenadas(Authentication authentication) {
-        try {
-            Integer idUsuario = (Integer) authentication.getPrincipal();
+    public void obtenerMisBoletasOrdenadas(
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
 
-            log.info("📋 Obteniendo boletas ordenadas del usuario ID: {}", idUsuario);
+        log.info("📋 Obteniendo boletas ordenadas del usuario ID: {}", idUsuario);
 
-            List<Boleta> boletas = boletaService.getBoletasByUserIdOrdenadas(idUsuario);
+        // Solo cabeceras: los detalles se cargan desde /{id}/detalles
+        List<BoletaSummary> boletas = boletaService.getResumenesByUserIdOrdenados(idUsuario);
 
-            List<BoletaDetailsResponse> responseList = boletas.stream()
-                    .<BoletaDetailsResponse>map(this::convertToBoletaDetailsResponse)
-                    .collect(Collectors.toList());
+        // JSON escrito directamente en el stream con el writer precompilado
+        boletaJsonWriter.escribirListado(boletas, response);
+    }
 
-            return ResponseEntity.ok(responseList);
+    /**
+     * GET /api/boletas/stream
+     * Feed en vivo (SSE) de las boletas nuevas del usuario; evento "boleta" con un BoletaSummary.
+     * Con el header Last-Event-ID (id del último evento recibido) reenvía primero las perdidas.
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBoletas(
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEvento,
+            Authentication authentication) {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
 
-        } catch (Exception e) {
-            log.error("❌ Error al obtener boletas: {}", e.getMessage(), e);
-            return ResponseEntity
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new MessageResponse("Error al obtener boletas", false));
-        }
+        log.info("📡 Abriendo feed de boletas del usuario ID: {}", idUsuario);
+
+        return boletaFeedService.suscribir(idUsuario, CursorFeed.parsear(ultimoEvento));
     }
 
     /**
@@ -135,97 +151,84 @@ public class BoletaController {
     public ResponseEntity<?> obtenerBoletaPorId(
             @PathVariable Integer id,
             Authentication authentication) {
-        try {
-            Integer idUsuario = (Integer) authentication.getPrincipal();
+        Integer idUsuario = (Integer) authentication.getPrincipal();
 
-            log.info("🔍 Buscando boleta ID: {} para usuario ID: {}", id, idUsuario);
+        log.info("🔍 Buscando boleta ID: {} para usuario ID: {}", id, idUsuario);
 
-            Boleta boleta = boletaService.getBoletaByIdAndUser(id, idUsuario);
-
-            BoletaDetailsResponse response = convertToBoletaDetailsResponse(boleta);
-            return ResponseEntity.ok(response);
-
-        } catch (RuntimeException e) {
-            log.warn("⚠️ {}", e.getMessage());
-            return ResponseEntity
-                    .status(HttpStatus.NOT_FOUND)
-                    .body(new MessageResponse(e.getMessage(), false));
+        // Cabecera + detalles + vendedor en una sola consulta (entity graph), filtrada por usuario
+        Boleta boleta = boletaService.getBoletaDetalladaByIdAndUser(id, idUsuario)
+                .orElseThrow(RecursoNoEncontradoException::boleta);
 
-        } catch (Exception e) {
-            log.error("❌ Error al obtener boleta: {}", e.getMessage(), e);
-            return ResponseEntity
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new MessageResponse("Error al obtener la boleta", false));
-        }
+        return ResponseEntity.ok(boletaDtoConverter.convertToBoletaDetailsResponse(boleta));
     }
 
     /**
      * GET /api/boletas/{id}/detalles
      * Obtener detalles de una boleta específica
      * 
-     * PROTEGIDO - Requiere JWT
+     * PROTEGIDO - Requiere JWT y verifica propiedad
      */
     @GetMapping("/{id}/detalles")
     public ResponseEntity<?> obtenerDetallesBoleta(
             @PathVariable Integer id,
             Authentication authentication) {
-        try {
-            Integer idUsuario = (Integer) authentication.getPrincipal();
+        Integer idUsuario = (Integer) authentication.getPrincipal();
 
-            log.info("🔍 Obteniendo detalles de boleta ID: {}", id);
+        log.info("🔍 Obteniendo detalles de boleta ID: {}", id);
 
-            // Primero verificar que la boleta pertenezca al usuario
-            boletaService.getBoletaByIdAndUser(id, idUsuario);
+        // Propiedad y detalles en una sola consulta: vacío si no existe o es de otro usuario
+        List<DetalleBoleta> detalles = boletaService.getDetallesByBoletaIdAndUser(id, idUsuario);
+        if (detalles.isEmpty()) {
+            throw RecursoNoEncontradoException.boleta();
+        }
 
-            // Obtener los detalles
-            List<DetalleBoleta> detalles = boletaService.getDetallesByBoletaId(id);
+        // Convierte a DTOs para evitar serialización de proxies
+        List<BoletaDetailsResponse.DetalleBoletaDTO> detalleDTOs = detalles.stream()
+                .map(boletaDtoConverter::convertToDetalleDTO)
+                .collect(Collectors.toList());
 
-            // Convierte a DTOs para evitar serialización de proxies
-            List<BoletaDetailsResponse.DetalleBoletaDTO> detalleDTOs = detalles.stream()
-                    .map(this::convertToDetalleDTO) // Usa un método helper
-                    .collect(Collectors.toList());
+        return ResponseEntity.ok(detalleDTOs);
+    }
 
-            return ResponseEntity.ok(detalleDTOs);
+    /**
+     * GET /api/boletas/{id}/pdf
+     * Comprobante imprimible generado en el servidor (se envía en streaming)
+     * 
+     * PROTEGIDO - Requiere JWT y verifica propiedad
+     */
+    @GetMapping("/{id}/pdf")
+    public void descargarPdf(
+            @PathVariable Integer id,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        Integer idUsuario = (Integer) authentication.getPrincipal();
 
-        } catch (RuntimeException e) {
-            log.warn("⚠️ {}", e.getMessage());
-            return ResponseEntity
-                    .status(HttpStatus.NOT_FOUND)
-                    .body(new MessageResponse(e.getMessage(), false));
+        log.info("📄 Generando PDF de boleta ID: {} para usuario ID: {}", id, idUsuario);
 
-        } catch (Exception e) {
-            log.error("❌ Error al obtener detalles: {}", e.getMessage(), e);
-            return ResponseEntity
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new MessageResponse("Error al obtener detalles", false));
-        }
-    }
+        // Verifica propiedad (resuelto desde la caché L2 en boletas ya leídas)
+        Boleta boleta = boletaService.getBoletaDetalladaByIdAndUser(id, idUsuario)
+                .orElseThrow(RecursoNoEncontradoException::boleta);
 
-    // Método helper para convertir entidad a DTO
-    private BoletaDetailsResponse convertToBoletaDetailsResponse(Boleta boleta) {
-        BoletaDetailsResponse response = BoletaDetailsResponse.builder()
-                .idBoleta(boleta.getIdBoleta())
-                .fecha_creacion(boleta.getFechaCreacion().toString())
-                .total(boleta.getTotal())
-                .idUsuario(boleta.getIdUsuario())
-                .nombreCliente(boleta.getNombreCliente())
-                .documentoCliente(boleta.getDocumentoCliente())
-                .emailCliente(boleta.getEmailCliente())
-                .build();
-
-        // Incluye los detalles: asume que boletaService tiene un método para obtenerlos
-        List<DetalleBoleta> detalles = boletaService.getDetallesByBoletaId(boleta.getIdBoleta());
-        response.setDetalles(detalles.stream().map(this::convertToDetalleDTO).collect(Collectors.toList()));
-        response.setUsuarioVendedor(usuarioService.obtenerUsuarioDTO(boleta.getIdUsuario()));
-        return response;
-    }
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"boleta-" + id + ".pdf\"");
 
-    private BoletaDetailsResponse.DetalleBoletaDTO convertToDetalleDTO(DetalleBoleta detalle) {
-        return BoletaDetailsResponse.DetalleBoletaDTO.builder()
-                .idDetalle(detalle.getIdDetalle())
-                .producto(detalle.getProducto())
-                .cantidad(detalle.getCantidad())
-                .precio_unitario(detalle.getPrecioUnitario())
-                .build();
+        try {
+            byte[] pdf = boletaPdfService.obtenerDeCache(id);
+            if (pdf != null) {
+                response.setContentLength(pdf.length);
+                response.getOutputStream().write(pdf);
+            } else {
+                boletaPdfService.generar(boleta, response.getOutputStream());
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!response.isCommitted()) {
+                // Aún no salió nada: GlobalExceptionHandler puede responder con JSON
+                response.reset();
+                throw e;
+            }
+            // Parte del PDF ya se envió: se registra aquí y se aborta la conexión
+            log.error("❌ PDF de boleta {} interrumpido tras empezar el envío: {}", id, e.getMessage(), e);
+            throw new RespuestaInterrumpidaException("PDF de boleta " + id + " interrumpido");
+        }
     }
 }
@@ -0,0 +1,50 @@
+package com.sistema.backend.controller;
+
+import com.sistema.backend.dto.response.BoletaDetailsResponse;
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.DetalleBoleta;
+import com.sistema.backend.service.UsuarioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Conversión de entidades Boleta/DetalleBoleta a los DTO de BoletaController.
+ * Separada del controlador para que el calentamiento ejecute el mismo código.
+ * @autor Paulo
+ */
+@Component
+@RequiredArgsConstructor
+public class BoletaDtoConverter {
+
+    private final UsuarioService usuarioService;
+
+    // La boleta debe venir con detalles y usuario cargados (open-in-view está desactivado).
+    public BoletaDetailsResponse convertToBoletaDetailsResponse(Boleta boleta) {
+        BoletaDetailsResponse response = BoletaDetailsResponse.builder()
+                .idBoleta(boleta.getIdBoleta())
+                .numero(boleta.getNumero())
+                .fecha_creacion(boleta.getFechaCreacion().toString())
+                .total(boleta.getTotal())
+                .idUsuario(boleta.getIdUsuario())
+                .nombreCliente(boleta.getNombreCliente())
+                .documentoCliente(boleta.getDocumentoCliente())
+                .emailCliente(boleta.getEmailCliente())
+                .build();
+
+        response.setDetalles(boleta.getDetalles().stream().map(this::convertToDetalleDTO).collect(Collectors.toList()));
+        response.setUsuarioVendedor(usuarioService.construirUsuarioDTO(boleta.getIdUsuario(), boleta.getUsuario()));
+        return response;
+    }
+
+    public BoletaDetailsResponse.DetalleBoletaDTO convertToDetalleDTO(DetalleBoleta detalle) {
+        return BoletaDetailsResponse.DetalleBoletaDTO.builder()
+                .idDetalle(detalle.getIdDetalle())
+                .idProducto(detalle.getIdProducto())
+                .producto(detalle.getProducto())
+                .cantidad(detalle.getCantidad())
+                .precio_unitario(detalle.getPrecioUnitario())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.sistema.backend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sistema.backend.dto.response.BoletaSummary;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Escribe los listados de boletas directamente en la respuesta.
+ *
+ * El ObjectWriter se arma una sola vez con el tipo List&lt;BoletaSummary&gt; ya
+ * resuelto (sin buscar el serializador por petición ni por elemento) y no cierra
+ * el stream, para que los filtros posteriores sigan pudiendo trabajar.
+ * @autor Paulo
+ */
+@Component
+public class BoletaJsonWriter {
+
+    private final ObjectWriter listadoWriter;
+
+    public BoletaJsonWriter(ObjectMapper objectMapper) {
+        this.listadoWriter = objectMapper
+                .writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, BoletaSummary.class))
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Responde con el listado en JSON (mismo cuerpo que ResponseEntity.ok(boletas))
+     */
+    public void escribirListado(List<BoletaSummary> boletas, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        escribirListado(boletas, response.getOutputStream());
+    }
+
+    public void escribirListado(List<BoletaSummary> boletas, OutputStream salida) throws IOException {
+        listadoWriter.writeValue(salida, boletas);
+    }
+}
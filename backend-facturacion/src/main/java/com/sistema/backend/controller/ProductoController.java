@@ -0,0 +1,151 @@
+package com.sistema.backend.controller;
+
+import com.sistema.backend.dto.request.ProductoRequest;
+import com.sistema.backend.dto.request.StockRequest;
+import com.sistema.backend.dto.response.MessageResponse;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.service.catalogo.CatalogoService;
+import com.sistema.backend.service.catalogo.ProductoCatalogo;
+import com.sistema.backend.service.stock.StockService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para el catálogo de productos
+ * Las lecturas se sirven desde la instantánea en memoria
+ * 
+ * @author Paulo
+ */
+@RestController
+@RequestMapping("/api/productos")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequiredArgsConstructor
+@Slf4j
+public class ProductoController {
+
+    private final CatalogoService catalogoService;
+    private final StockService stockService;
+
+    /**
+     * GET /api/productos
+     * Productos activos ordenados por nombre
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping
+    public ResponseEntity<List<ProductoCatalogo>> listarProductos() {
+        return ResponseEntity.ok(catalogoService.snapshot().getActivos());
+    }
+
+    /**
+     * GET /api/productos/{id}
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getProducto(@PathVariable Integer id) {
+        ProductoCatalogo producto = catalogoService.snapshot().buscar(id);
+        if (producto == null) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(new MessageResponse("Producto no encontrado", false));
+        }
+        return ResponseEntity.ok(producto);
+    }
+
+    /**
+     * POST /api/productos
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @PostMapping
+    public ResponseEntity<?> crearProducto(@Valid @RequestBody ProductoRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(catalogoService.crear(request));
+
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (Exception e) {
+            log.error("❌ Error al crear producto: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al crear el producto", false));
+        }
+    }
+
+    /**
+     * PUT /api/productos/{id}
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<?> actualizarProducto(@PathVariable Integer id, @Valid @RequestBody ProductoRequest request) {
+        try {
+            return ResponseEntity.ok(catalogoService.actualizar(id, request));
+
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (Exception e) {
+            log.error("❌ Error al actualizar producto: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al actualizar el producto", false));
+        }
+    }
+
+    /**
+     * GET /api/productos/{id}/stock
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<?> getStock(@PathVariable Integer id) {
+        ProductoCatalogo producto = catalogoService.snapshot().buscar(id);
+        if (producto == null || !producto.controlaStock()) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(new MessageResponse("El producto no existe o no controla stock", false));
+        }
+        return ResponseEntity.ok(stockService.consultar(id));
+    }
+
+    /**
+     * POST /api/productos/{id}/stock
+     * Reposición (cantidad positiva) o ajuste (negativa)
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @PostMapping("/{id}/stock")
+    public ResponseEntity<?> ajustarStock(@PathVariable Integer id, @Valid @RequestBody StockRequest request) {
+        try {
+            ProductoCatalogo producto = catalogoService.snapshot().buscar(id);
+            if (producto == null || !producto.controlaStock()) {
+                throw new SolicitudInvalidaException("El producto no existe o no controla stock");
+            }
+            return ResponseEntity.ok(stockService.ajustar(id, request.getCantidad()));
+
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (Exception e) {
+            log.error("❌ Error al ajustar stock: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al ajustar el stock", false));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.sistema.backend.controller;
+
+import com.sistema.backend.dto.response.MessageResponse;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.service.reporte.RefrescoVistasService;
+import com.sistema.backend.service.reporte.ReporteService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Controlador REST de reportes de ventas
+ * Se leen desde vistas materializadas; cada respuesta indica su frescura
+ * 
+ * @author Paulo
+ */
+@RestController
+@RequestMapping("/api/reportes")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequiredArgsConstructor
+@Slf4j
+public class ReporteController {
+
+    private static final int LIMITE_MAXIMO = 100;
+
+    private final ReporteService reporteService;
+    private final RefrescoVistasService refrescoVistasService;
+
+    /**
+     * GET /api/reportes/ventas-diarias?desde=&hasta=
+     * Por defecto, los últimos 30 días
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping("/ventas-diarias")
+    public ResponseEntity<?> ventasDiarias(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        try {
+            LocalDate fin = hasta != null ? hasta : LocalDate.now();
+            return ResponseEntity.ok(reporteService.ventasDiarias(desde != null ? desde : fin.minusDays(30), fin));
+
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (Exception e) {
+            log.error("❌ Error en reporte diario: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al obtener el reporte", false));
+        }
+    }
+
+    /**
+     * GET /api/reportes/vendedores?desde=&hasta=&limite=10
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping("/vendedores")
+    public ResponseEntity<?> vendedores(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "10") int limite) {
+        try {
+            LocalDate fin = hasta != null ? hasta : LocalDate.now();
+            return ResponseEntity.ok(reporteService.vendedores(desde != null ? desde : fin.minusDays(30), fin,
+                    limitar(limite)));
+
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (Exception e) {
+            log.error("❌ Error en reporte de vendedores: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al obtener el reporte", false));
+        }
+    }
+
+    /**
+     * GET /api/reportes/productos?desde=&hasta=&limite=10
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @GetMapping("/productos")
+    public ResponseEntity<?> productos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "10") int limite) {
+        try {
+            LocalDate fin = hasta != null ? hasta : LocalDate.now();
+            return ResponseEntity.ok(reporteService.productos(desde != null ? desde : fin.minusDays(30), fin,
+                    limitar(limite)));
+
+        } catch (SolicitudInvalidaException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage(), false));
+
+        } catch (Exception e) {
+            log.error("❌ Error en reporte de productos: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al obtener el reporte", false));
+        }
+    }
+
+    /**
+     * POST /api/reportes/refrescar
+     * Refresca las vistas fuera del horario programado
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @PostMapping("/refrescar")
+    public ResponseEntity<?> refrescar() {
+        try {
+            Map<String, Long> duraciones = refrescoVistasService.refrescar();
+            if (duraciones == null) {
+                return ResponseEntity
+                        .status(HttpStatus.CONFLICT)
+                        .body(new MessageResponse("Ya hay un refresco en curso", false));
+            }
+            return ResponseEntity.ok(duraciones);
+
+        } catch (Exception e) {
+            log.error("❌ Error al refrescar vistas: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al refrescar las vistas", false));
+        }
+    }
+
+    private int limitar(int limite) {
+        return Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+}
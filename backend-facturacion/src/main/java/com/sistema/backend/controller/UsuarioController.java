@@ -11,8 +11,10 @@ import org.springframework.web.bind.annotation.*;
 import com.sistema.backend.dto.response.AuthResponse;
 import com.sistema.backend.dto.request.RegistroRequest;
 import com.sistema.backend.dto.request.LoginRequest;
+import com.sistema.backend.dto.request.RefrescarTokenRequest;
 import com.sistema.backend.dto.response.MessageResponse;
 import com.sistema.backend.dto.response.UsuarioResponse;
+import com.sistema.backend.exception.SolicitudInvalidaException;
 import com.sistema.backend.service.AuthService;
 import com.sistema.backend.service.UsuarioService;
 
@@ -51,7 +53,7 @@ public class UsuarioController {
             logger.info("✅ Usuario registrado exitosamente: {}", request.getEmail());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
-        } catch (IllegalArgumentException e) {
+        } catch (SolicitudInvalidaException e) {
             logger.warn("⚠️ Error de validación en registro: {}", e.getMessage());
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
@@ -81,7 +83,7 @@ public class UsuarioController {
             logger.info("✅ Login exitoso para: {}", request.getEmail());
             return ResponseEntity.ok(response);
 
-        } catch (IllegalArgumentException e) {
+        } catch (SolicitudInvalidaException e) {
             logger.warn("⚠️ Credenciales inválidas para: {}", request.getEmail());
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
@@ -128,23 +130,17 @@ public class UsuarioController {
 
     /**
      * POST /api/usuarios/refrescar-token
-     * Refrescar token JWT
+     * Cambiar el refresh token por un token de acceso y un refresh token nuevos
+     * (el refresh token es de un solo uso: reutilizarlo revoca la sesión)
      * 
-     * PÚBLICO - Útil para renovar tokens antes de que expiren
+     * PÚBLICO - Se usa cuando el token de acceso ya expiró
      */
     @PostMapping("/refrescar-token")
-    public ResponseEntity<?> refrescarToken(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> refrescarToken(@Validated @RequestBody RefrescarTokenRequest request) {
         try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return ResponseEntity
-                        .status(HttpStatus.BAD_REQUEST)
-                        .body(new MessageResponse("Token no proporcionado", false));
-            }
-
-            String token = authHeader.substring(7);
             logger.info("🔄 Refrescando token...");
 
-            AuthResponse response = authService.refrescarToken(token);
+            AuthResponse response = authService.refrescarToken(request.getRefreshToken());
 
             logger.info("✅ Token refrescado exitosamente");
             return ResponseEntity.ok(response);
@@ -157,6 +153,52 @@ public class UsuarioController {
         }
     }
 
+    /**
+     * POST /api/usuarios/logout
+     * Cerrar sesión: revoca el token de acceso y el refresh token enviado
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> cerrarSesion(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestBody(required = false) RefrescarTokenRequest request) {
+        try {
+            String token = authHeader.substring(7);
+            authService.cerrarSesion(token, request != null ? request.getRefreshToken() : null);
+
+            return ResponseEntity.ok(new MessageResponse("Sesión cerrada", true));
+
+        } catch (Exception e) {
+            logger.error("❌ Error al cerrar sesión: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al cerrar sesión", false));
+        }
+    }
+
+    /**
+     * POST /api/usuarios/cerrar-sesiones
+     * Cerrar todas las sesiones del usuario: invalida sus tokens de acceso y refresh tokens
+     * 
+     * PROTEGIDO - Requiere JWT
+     */
+    @PostMapping("/cerrar-sesiones")
+    public ResponseEntity<?> cerrarTodasLasSesiones(Authentication authentication) {
+        try {
+            Integer idUsuario = (Integer) authentication.getPrincipal();
+            authService.cerrarTodasLasSesiones(idUsuario);
+
+            return ResponseEntity.ok(new MessageResponse("Sesiones cerradas", true));
+
+        } catch (Exception e) {
+            logger.error("❌ Error al cerrar sesiones: {}", e.getMessage(), e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Error al cerrar sesiones", false));
+        }
+    }
+
     /**
      * GET /api/usuarios/verificar-email/{email}
      * Verificar si un email ya está registrado
@@ -0,0 +1,24 @@
+package com.sistema.backend.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * DTO para solicitar el archivo ZIP de boletas de un rango de fechas (cierre de mes).
+ * Ambas fechas son inclusivas.
+ * @autor Paulo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivoRequest {
+
+    @NotNull(message = "La fecha inicial es obligatoria")
+    private LocalDate desde;
+
+    @NotNull(message = "La fecha final es obligatoria")
+    private LocalDate hasta;
+}
@@ -9,6 +9,8 @@ import java.math.BigDecimal;
 
 /**
  * DTO que representa un item en un carrito de compras.
+ * Con idProducto el nombre y el precio salen del catálogo (precioUnitario, si
+ * viene, solo se valida). Sin idProducto es una línea de texto libre.
  * @autor Paulo
  */
 @Data
@@ -16,10 +18,10 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class DetalleRequest {
 
-    @NotNull(message = "El nombre del producto es obligatorio")
-    private String nombreProducto;
+    private Integer idProducto;
+
+    private String nombreProducto; // Solo líneas de texto libre
 
-    @NotNull(message = "El precio unitario es obligatorio")
     @Min(value = 0, message = "El precio debe ser mayor a 0")
     private BigDecimal precioUnitario;
 
@@ -0,0 +1,37 @@
+package com.sistema.backend.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * DTO para crear o actualizar un producto del catálogo.
+ * @autor Paulo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoRequest {
+
+    @NotBlank(message = "El código es obligatorio")
+    @Size(max = 30, message = "El código no puede superar 30 caracteres")
+    private String codigo;
+
+    @NotBlank(message = "El nombre es obligatorio")
+    @Size(max = 150, message = "El nombre no puede superar 150 caracteres")
+    private String nombre;
+
+    @NotNull(message = "El precio es obligatorio")
+    @DecimalMin(value = "0.00", message = "El precio no puede ser negativo")
+    private BigDecimal precio;
+
+    private Boolean activo = true;
+
+    // Si es true, el checkout descuenta de stock_productos y rechaza ventas sin stock
+    private Boolean controlaStock = false;
+}
@@ -0,0 +1,19 @@
+package com.sistema.backend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el refresh token para renovar la sesión o cerrarla.
+ * @author Paulo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefrescarTokenRequest {
+
+    @NotBlank(message = "El refresh token es obligatorio")
+    private String refreshToken;
+}
@@ -0,0 +1,20 @@
+package com.sistema.backend.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para reponer o ajustar el stock de un producto.
+ * @autor Paulo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRequest {
+
+    // Unidades a sumar; negativo para ajustes (mermas, conteo físico)
+    @NotNull(message = "La cantidad es obligatoria")
+    private Integer cantidad;
+}
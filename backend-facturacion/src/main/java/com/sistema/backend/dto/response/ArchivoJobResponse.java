@@ -0,0 +1,28 @@
+package com.sistema.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el estado de un trabajo de archivo ZIP de boletas
+ * @autor Paulo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivoJobResponse {
+    private String jobId;
+    private String estado;
+
+    // Progreso
+    private long total;
+    private long procesadas;
+    private int porcentaje;
+
+    private String mensaje;
+    private String fechaInicio;
+    private String fechaFin;
+}
@@ -15,8 +15,10 @@ import lombok.NoArgsConstructor;
 @Builder
 public class AuthResponse {
     
-    // Token personalizados
+    // Token de acceso (corto) y refresh token rotativo (de un solo uso)
     private String token;
+    private String refreshToken;
+    private Long expiraEnSegundos;
 
     // Información del usuario
     private Integer idUsuario;
@@ -1,5 +1,7 @@
 package com.sistema.backend.dto.response;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sistema.backend.dto.response.json.BoletaJsonSerializers;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +11,7 @@ import java.math.BigDecimal;
 
 /**
  * DTO para respuesta detallada de Boleta, incluyendo detalles.
+ * Se serializa con BoletaJsonSerializers (sin reflexión).
  * @author Paulo
  */
 
@@ -16,8 +19,10 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonSerialize(using = BoletaJsonSerializers.Detallada.class)
 public class BoletaDetailsResponse {
     private Integer idBoleta;
+    private String numero; // Serie-correlativo
     private Integer idUsuario;
     private String fecha_creacion;
     private BigDecimal total;
@@ -37,8 +42,10 @@ public class BoletaDetailsResponse {
     @NoArgsConstructor
     @AllArgsConstructor
     @Builder
+    @JsonSerialize(using = BoletaJsonSerializers.Detalle.class)
     public static class DetalleBoletaDTO {
         private Integer idDetalle;
+        private Integer idProducto;
         private String producto;
         private BigDecimal precio_unitario;
         private Integer cantidad;
@@ -50,6 +57,7 @@ public class BoletaDetailsResponse {
     @NoArgsConstructor
     @AllArgsConstructor
     @Builder
+    @JsonSerialize(using = BoletaJsonSerializers.Vendedor.class)
     public static class UsuarioDTO {
         private Integer id;
         private String nombres;
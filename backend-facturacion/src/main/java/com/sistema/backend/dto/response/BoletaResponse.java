@@ -19,6 +19,8 @@ public class BoletaResponse {
     private String mensaje;
     
     private Long boletaId;
+
+    private String numero; // Serie-correlativo, asignado al confirmar la transacción
         
     // Constructor para respuesta de error
     public static BoletaResponse error(String mensaje) {
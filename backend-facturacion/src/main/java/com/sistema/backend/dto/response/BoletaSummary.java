@@ -0,0 +1,46 @@
+package com.sistema.backend.dto.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sistema.backend.dto.response.json.BoletaJsonSerializers;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección ligera de Boleta para los listados.
+ * Se construye directamente desde la consulta JPQL, sin tocar detalle_boleta.
+ * Inmutable; la fecha se guarda tal cual y se formatea al escribir el JSON
+ * ("fecha_creacion", mismo texto que LocalDateTime.toString()).
+ * @autor Paulo
+ */
+@Getter
+@JsonSerialize(using = BoletaJsonSerializers.Resumen.class)
+public final class BoletaSummary {
+    private final Integer idBoleta;
+    private final String numero; // Serie-correlativo
+    private final Integer idUsuario;
+    private final LocalDateTime fechaCreacion;
+    private final BigDecimal total;
+
+    private final String nombreCliente;
+    private final String documentoCliente;
+
+    // Contadores desnormalizados en la cabecera
+    private final Integer cantidadItems;
+    private final Integer unidadesTotales;
+
+    // Constructor usado por "SELECT new" en BoletaRepository
+    public BoletaSummary(Integer idBoleta, Integer idUsuario, LocalDateTime fechaCreacion, BigDecimal total,
+            String nombreCliente, String documentoCliente, Integer cantidadItems, Integer unidadesTotales,
+            String serie, Integer correlativo) {
+        this.idBoleta = idBoleta;
+        this.numero = NumeroBoleta.formatear(serie, correlativo);
+        this.idUsuario = idUsuario;
+        this.fechaCreacion = fechaCreacion;
+        this.total = total;
+        this.nombreCliente = nombreCliente;
+        this.documentoCliente = documentoCliente;
+        this.cantidadItems = cantidadItems;
+        this.unidadesTotales = unidadesTotales;
+    }
+}
@@ -0,0 +1,19 @@
+package com.sistema.backend.dto.response;
+
+/**
+ * Formato del número legal de la boleta (serie-correlativo, p.ej. B001-00001234).
+ * Vive en los DTO para que el módulo reactivo lo comparta sin depender de las entidades.
+ * @autor Paulo
+ */
+public final class NumeroBoleta {
+
+    private NumeroBoleta() {
+    }
+
+    /**
+     * Número formateado, o null si la boleta aún no se confirmó
+     */
+    public static String formatear(String serie, Integer correlativo) {
+        return serie != null && correlativo != null ? serie + "-" + String.format("%08d", correlativo) : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.sistema.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ventas de un día.
+ * @autor Paulo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteDiario {
+    private LocalDate fecha;
+    private Long boletas;
+    private Long unidades;
+    private BigDecimal importe;
+}
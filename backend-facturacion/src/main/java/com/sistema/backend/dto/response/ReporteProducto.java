@@ -0,0 +1,29 @@
+package com.sistema.backend.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Ventas de un producto en un rango de fechas.
+ * @autor Paulo
+ */
+@Data
+@NoArgsConstructor
+public class ReporteProducto {
+    private Integer idProducto; // Null en líneas de texto libre
+    private String producto;
+    private Long unidades;
+    private BigDecimal importe;
+    private Long lineas;
+
+    // Constructor usado por "SELECT new" en VentaProductoDiaRepository
+    public ReporteProducto(Integer idProducto, String producto, Long unidades, BigDecimal importe, Long lineas) {
+        this.idProducto = idProducto != null && idProducto != 0 ? idProducto : null;
+        this.producto = producto;
+        this.unidades = unidades;
+        this.importe = importe;
+        this.lineas = lineas;
+    }
+}
@@ -0,0 +1,22 @@
+package com.sistema.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Respuesta de un reporte sobre vista materializada, con la frescura de los datos.
+ * @autor Paulo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteResponse<T> {
+    private String vista;
+    private LocalDateTime actualizadoAl;  // Último refresco de la vista
+    private Long antiguedadSegundos;      // Segundos desde ese refresco
+    private List<T> datos;
+}
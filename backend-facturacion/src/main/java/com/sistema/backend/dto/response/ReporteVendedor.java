@@ -0,0 +1,28 @@
+package com.sistema.backend.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Ventas de un vendedor en un rango de fechas.
+ * @autor Paulo
+ */
+@Data
+@NoArgsConstructor
+public class ReporteVendedor {
+    private Integer idUsuario;
+    private String nombre;
+    private Long boletas;
+    private Long unidades;
+    private BigDecimal importe;
+
+    // Constructor usado por "SELECT new" en VentaVendedorDiaRepository
+    public ReporteVendedor(Integer idUsuario, Long boletas, Long unidades, BigDecimal importe) {
+        this.idUsuario = idUsuario;
+        this.boletas = boletas;
+        this.unidades = unidades;
+        this.importe = importe;
+    }
+}
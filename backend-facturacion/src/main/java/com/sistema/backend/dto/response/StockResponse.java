@@ -0,0 +1,18 @@
+package com.sistema.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el stock de un producto.
+ * @autor Paulo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockResponse {
+    private Integer idProducto;
+    private Integer disponible;      // En la base
+    private Integer reservadoLocal;  // Retirado por este nodo y aún sin vender
+}
@@ -0,0 +1,209 @@
+package com.sistema.backend.dto.response.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.sistema.backend.dto.response.BoletaDetailsResponse;
+import com.sistema.backend.dto.response.BoletaDetailsResponse.DetalleBoletaDTO;
+import com.sistema.backend.dto.response.BoletaDetailsResponse.UsuarioDTO;
+import com.sistema.backend.dto.response.BoletaSummary;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Serializadores escritos a mano para los DTOs de boletas (listados y detalle).
+ *
+ * Evitan el BeanSerializer reflexivo de Jackson: sin getters invocados por
+ * reflexión, con los nombres de campo ya codificados y la fecha escrita sin
+ * String intermedio. Producen el mismo JSON que la serialización por defecto
+ * (mismos nombres, mismo orden y los null incluidos), así que el frontend no
+ * cambia. Se enlazan con @JsonSerialize en cada DTO, por lo que también los usa
+ * backend-facturacion-reactivo a través del jar de DTOs.
+ * @autor Paulo
+ */
+public final class BoletaJsonSerializers {
+
+    private static final SerializedString ID_BOLETA = new SerializedString("idBoleta");
+    private static final SerializedString NUMERO = new SerializedString("numero");
+    private static final SerializedString ID_USUARIO = new SerializedString("idUsuario");
+    private static final SerializedString FECHA_CREACION = new SerializedString("fecha_creacion");
+    private static final SerializedString TOTAL = new SerializedString("total");
+    private static final SerializedString NOMBRE_CLIENTE = new SerializedString("nombreCliente");
+    private static final SerializedString DOCUMENTO_CLIENTE = new SerializedString("documentoCliente");
+    private static final SerializedString EMAIL_CLIENTE = new SerializedString("emailCliente");
+    private static final SerializedString CANTIDAD_ITEMS = new SerializedString("cantidadItems");
+    private static final SerializedString UNIDADES_TOTALES = new SerializedString("unidadesTotales");
+    private static final SerializedString DETALLES = new SerializedString("detalles");
+    private static final SerializedString USUARIO_VENDEDOR = new SerializedString("usuarioVendedor");
+
+    private static final SerializedString ID_DETALLE = new SerializedString("idDetalle");
+    private static final SerializedString ID_PRODUCTO = new SerializedString("idProducto");
+    private static final SerializedString PRODUCTO = new SerializedString("producto");
+    private static final SerializedString PRECIO_UNITARIO = new SerializedString("precio_unitario");
+    private static final SerializedString CANTIDAD = new SerializedString("cantidad");
+    private static final SerializedString SUBTOTAL = new SerializedString("subtotal");
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NOMBRES = new SerializedString("nombres");
+    private static final SerializedString APELLIDOS = new SerializedString("apellidos");
+    private static final SerializedString NUMERO_DOCUMENTO = new SerializedString("numero_documento");
+
+    private BoletaJsonSerializers() {
+    }
+
+    /**
+     * Fila del listado (GET /api/boletas y feed SSE)
+     */
+    public static final class Resumen extends StdSerializer<BoletaSummary> {
+
+        public Resumen() {
+            super(BoletaSummary.class);
+        }
+
+        @Override
+        public void serialize(BoletaSummary boleta, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(boleta);
+            entero(gen, ID_BOLETA, boleta.getIdBoleta());
+            texto(gen, NUMERO, boleta.getNumero());
+            entero(gen, ID_USUARIO, boleta.getIdUsuario());
+            gen.writeFieldName(FECHA_CREACION);
+            FechaJson.escribir(gen, boleta.getFechaCreacion());
+            decimal(gen, TOTAL, boleta.getTotal());
+            texto(gen, NOMBRE_CLIENTE, boleta.getNombreCliente());
+            texto(gen, DOCUMENTO_CLIENTE, boleta.getDocumentoCliente());
+            entero(gen, CANTIDAD_ITEMS, boleta.getCantidadItems());
+            entero(gen, UNIDADES_TOTALES, boleta.getUnidadesTotales());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Boleta completa con detalles y vendedor (GET /api/boletas/{id})
+     */
+    public static final class Detallada extends StdSerializer<BoletaDetailsResponse> {
+
+        public Detallada() {
+            super(BoletaDetailsResponse.class);
+        }
+
+        @Override
+        public void serialize(BoletaDetailsResponse boleta, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(boleta);
+            entero(gen, ID_BOLETA, boleta.getIdBoleta());
+            texto(gen, NUMERO, boleta.getNumero());
+            entero(gen, ID_USUARIO, boleta.getIdUsuario());
+            texto(gen, FECHA_CREACION, boleta.getFecha_creacion());
+            decimal(gen, TOTAL, boleta.getTotal());
+            texto(gen, NOMBRE_CLIENTE, boleta.getNombreCliente());
+            texto(gen, DOCUMENTO_CLIENTE, boleta.getDocumentoCliente());
+            texto(gen, EMAIL_CLIENTE, boleta.getEmailCliente());
+
+            gen.writeFieldName(DETALLES);
+            List<DetalleBoletaDTO> detalles = boleta.getDetalles();
+            if (detalles == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(detalles, detalles.size());
+                for (DetalleBoletaDTO detalle : detalles) {
+                    if (detalle == null) {
+                        gen.writeNull();
+                    } else {
+                        Detalle.escribir(detalle, gen);
+                    }
+                }
+                gen.writeEndArray();
+            }
+
+            gen.writeFieldName(USUARIO_VENDEDOR);
+            if (boleta.getUsuarioVendedor() == null) {
+                gen.writeNull();
+            } else {
+                Vendedor.escribir(boleta.getUsuarioVendedor(), gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Línea de la boleta (GET /api/boletas/{id}/detalles y dentro de Detallada)
+     */
+    public static final class Detalle extends StdSerializer<DetalleBoletaDTO> {
+
+        public Detalle() {
+            super(DetalleBoletaDTO.class);
+        }
+
+        @Override
+        public void serialize(DetalleBoletaDTO detalle, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            escribir(detalle, gen);
+        }
+
+        static void escribir(DetalleBoletaDTO detalle, JsonGenerator gen) throws IOException {
+            gen.writeStartObject(detalle);
+            entero(gen, ID_DETALLE, detalle.getIdDetalle());
+            entero(gen, ID_PRODUCTO, detalle.getIdProducto());
+            texto(gen, PRODUCTO, detalle.getProducto());
+            decimal(gen, PRECIO_UNITARIO, detalle.getPrecio_unitario());
+            entero(gen, CANTIDAD, detalle.getCantidad());
+            decimal(gen, SUBTOTAL, detalle.getSubtotal());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Vendedor de la boleta
+     */
+    public static final class Vendedor extends StdSerializer<UsuarioDTO> {
+
+        public Vendedor() {
+            super(UsuarioDTO.class);
+        }
+
+        @Override
+        public void serialize(UsuarioDTO usuario, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            escribir(usuario, gen);
+        }
+
+        static void escribir(UsuarioDTO usuario, JsonGenerator gen) throws IOException {
+            gen.writeStartObject(usuario);
+            entero(gen, ID, usuario.getId());
+            texto(gen, NOMBRES, usuario.getNombres());
+            texto(gen, APELLIDOS, usuario.getApellidos());
+            texto(gen, NUMERO_DOCUMENTO, usuario.getNumero_documento());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void entero(JsonGenerator gen, SerializedString campo, Integer valor) throws IOException {
+        gen.writeFieldName(campo);
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(valor.intValue());
+        }
+    }
+
+    private static void texto(JsonGenerator gen, SerializedString campo, String valor) throws IOException {
+        gen.writeFieldName(campo);
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(valor);
+        }
+    }
+
+    // Respeta WRITE_BIGDECIMAL_AS_PLAIN igual que NumberSerializer
+    private static void decimal(JsonGenerator gen, SerializedString campo, BigDecimal valor) throws IOException {
+        gen.writeFieldName(campo);
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(valor);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sistema.backend.dto.response.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Escribe un LocalDateTime con el mismo texto que LocalDateTime.toString()
+ * (el formato que ya consume el frontend), directo al generador y sin crear
+ * el String intermedio.
+ * @autor Paulo
+ */
+final class FechaJson {
+
+    // "yyyy-MM-ddTHH:mm:ss.nnnnnnnnn"
+    private static final int LARGO_MAXIMO = 29;
+
+    private FechaJson() {
+    }
+
+    static void escribir(JsonGenerator gen, LocalDateTime fecha) throws IOException {
+        if (fecha == null) {
+            gen.writeNull();
+            return;
+        }
+        int anio = fecha.getYear();
+        if (anio < 0 || anio > 9999) {
+            // Años con signo: formato poco común, se delega en toString()
+            gen.writeString(fecha.toString());
+            return;
+        }
+        char[] texto = new char[LARGO_MAXIMO];
+        int pos = digitos(texto, 0, anio, 4);
+        texto[pos++] = '-';
+        pos = digitos(texto, pos, fecha.getMonthValue(), 2);
+        texto[pos++] = '-';
+        pos = digitos(texto, pos, fecha.getDayOfMonth(), 2);
+        texto[pos++] = 'T';
+        pos = digitos(texto, pos, fecha.getHour(), 2);
+        texto[pos++] = ':';
+        pos = digitos(texto, pos, fecha.getMinute(), 2);
+
+        // Igual que LocalTime.toString(): segundos y fracción solo si no son cero
+        int segundo = fecha.getSecond();
+        int nano = fecha.getNano();
+        if (segundo > 0 || nano > 0) {
+            texto[pos++] = ':';
+            pos = digitos(texto, pos, segundo, 2);
+            if (nano > 0) {
+                texto[pos++] = '.';
+                if (nano % 1_000_000 == 0) {
+                    pos = digitos(texto, pos, nano / 1_000_000, 3);
+                } else if (nano % 1_000 == 0) {
+                    pos = digitos(texto, pos, nano / 1_000, 6);
+                } else {
+                    pos = digitos(texto, pos, nano, 9);
+                }
+            }
+        }
+        gen.writeString(texto, 0, pos);
+    }
+
+    // Escribe valor con ceros a la izquierda hasta completar ancho
+    private static int digitos(char[] texto, int pos, int valor, int ancho) {
+        for (int i = pos + ancho - 1; i >= pos; i--) {
+            texto[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+        return pos + ancho;
+    }
+}
@@ -1,9 +1,15 @@
 package com.sistema.backend.entity;
 
+import com.sistema.backend.dto.response.NumeroBoleta;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -15,10 +21,24 @@ import java.util.List;
  */
 @Entity
 @Table(name = "boletas")
-@Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "boletas") // Inmutable tras procesarBoleta
+@NamedEntityGraph(name = Boleta.GRAFO_DETALLE, attributeNodes = {
+        @NamedAttributeNode(value = "detalles", subgraph = "detalles"),
+        @NamedAttributeNode("usuario")
+}, subgraphs = {
+        @NamedSubgraph(name = "detalles", attributeNodes = @NamedAttributeNode("productoCatalogo"))
+})
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class Boleta {
+
+    // Plan de carga para la vista de detalle: cabecera + líneas (con producto) + vendedor en una consulta
+    public static final String GRAFO_DETALLE = "Boleta.detalle";
+
     // =========================================
     // IDENTIFICADORES Y RELACIONES
     // =========================================
@@ -30,6 +50,7 @@ public class Boleta {
     @Column(name = "id_usuario", nullable = false)
     private Integer idUsuario; // INT NOT NULL
 
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_usuario", insertable = false, updatable = false)
     private Usuario usuario; // Relación con la entidad Usuario (existente)
@@ -40,6 +61,15 @@ public class Boleta {
     @Column(name = "fecha_creacion", nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
 
+    // =========================================
+    // NUMERACIÓN LEGAL (la asigna NumeracionService al confirmar)
+    // =========================================
+    @Column(name = "serie", length = 4, insertable = false, updatable = false)
+    private String serie;
+
+    @Column(name = "correlativo", insertable = false, updatable = false)
+    private Integer correlativo;
+
     // =========================================
     // DATOS DEL CLIENTE (DESNORMALIZADOS)
     // =========================================
@@ -51,8 +81,20 @@ public class Boleta {
     
     @Column(name = "email_cliente", length = 150)
     private String emailCliente;
+
+    // =========================================
+    // CONTADORES (DESNORMALIZADOS)
+    // =========================================
+    @Column(name = "cantidad_items", nullable = false)
+    private Integer cantidadItems = 0; // Número de líneas de detalle
+
+    @Column(name = "unidades_totales", nullable = false)
+    private Integer unidadesTotales = 0; // Suma de cantidades de todas las líneas
     
     // Relaciones
+    @ToString.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "boletas-detalles")
+    @BatchSize(size = 50) // Al recorrer muchas boletas, carga los detalles de 50 en 50
     @OneToMany(mappedBy = "boleta", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<DetalleBoleta> detalles = new ArrayList<>();
     
@@ -64,8 +106,36 @@ public class Boleta {
         }
     }
 
+    /**
+     * Número legal (B001-00001234), o null si la boleta aún no se confirmó
+     */
+    public String getNumero() {
+        return formatearNumero(serie, correlativo);
+    }
+
+    public static String formatearNumero(String serie, Integer correlativo) {
+        return NumeroBoleta.formatear(serie, correlativo);
+    }
+
     public void agregarDetalle(DetalleBoleta detalle) {
         detalles.add(detalle);
         detalle.setBoleta(this);
     }
+
+    // Igualdad por identificador: no recorre relaciones ni inicializa proxies
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Boleta otra)) {
+            return false;
+        }
+        return idBoleta != null && idBoleta.equals(otra.getIdBoleta());
+    }
+
+    @Override
+    public int hashCode() {
+        return Boleta.class.hashCode();
+    }
 }
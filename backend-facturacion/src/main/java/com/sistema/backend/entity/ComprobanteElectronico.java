@@ -0,0 +1,94 @@
+package com.sistema.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad ComprobanteElectronico: XML UBL 2.1 firmado de una boleta y su estado de envío
+ *
+ * La fila se registra y se reclama con SQL antes de enviar (ver ComprobanteElectronicoRepository);
+ * la versión evita que un worker cuya reserva venció pise el resultado de otro.
+ * @autor Paulo
+ */
+@Entity
+@Table(name = "comprobantes_electronicos")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ComprobanteElectronico {
+
+    public enum Estado {
+        PENDIENTE, // Registrado, aún sin generar
+        ENVIANDO,  // Reclamado por un worker hasta proximoIntento
+        FIRMADO,   // Generado y firmado, pendiente de envío
+        ENVIADO,   // Aceptado por SUNAT (o el stub local)
+        ERROR,     // Falló; se reintentará en proximoIntento
+        FALLIDO    // Agotó los reintentos
+    }
+
+    @Id
+    @Column(name = "id_boleta")
+    private Integer idBoleta;
+
+    @Column(name = "numero", length = 20)
+    private String numero; // Serie-correlativo, p.ej. B001-00001234
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private Estado estado;
+
+    @ToString.Exclude
+    @Column(name = "xml_firmado")
+    private byte[] xmlFirmado;
+
+    @Column(name = "digest", length = 100)
+    private String digest;
+
+    @Column(name = "codigo_respuesta", length = 10)
+    private String codigoRespuesta;
+
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos = 0;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "fecha_generacion")
+    private LocalDateTime fechaGeneracion;
+
+    @Column(name = "fecha_envio")
+    private LocalDateTime fechaEnvio;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public ComprobanteElectronico(Integer idBoleta) {
+        this.idBoleta = idBoleta;
+    }
+
+    // Igualdad por identificador
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ComprobanteElectronico otro)) {
+            return false;
+        }
+        return idBoleta != null && idBoleta.equals(otro.getIdBoleta());
+    }
+
+    @Override
+    public int hashCode() {
+        return ComprobanteElectronico.class.hashCode();
+    }
+}
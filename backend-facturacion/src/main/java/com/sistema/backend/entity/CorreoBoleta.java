@@ -0,0 +1,71 @@
+package com.sistema.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad CorreoBoleta: estado del envío del comprobante al correo del cliente
+ * @autor Paulo
+ */
+@Entity
+@Table(name = "correos_boleta")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class CorreoBoleta {
+
+    public enum Estado {
+        PENDIENTE, // Registrado, aún sin intentos
+        ENVIADO,
+        ERROR,     // Falló; se reintentará en proximoIntento
+        FALLIDO    // Agotó los reintentos; copiado a correos_boleta_fallidos
+    }
+
+    @Id
+    @Column(name = "id_boleta")
+    private Integer idBoleta;
+
+    @Column(name = "destinatario", nullable = false, length = 150)
+    private String destinatario;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private Estado estado;
+
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos = 0;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_envio")
+    private LocalDateTime fechaEnvio;
+
+    // Igualdad por identificador
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CorreoBoleta otro)) {
+            return false;
+        }
+        return idBoleta != null && idBoleta.equals(otro.getIdBoleta());
+    }
+
+    @Override
+    public int hashCode() {
+        return CorreoBoleta.class.hashCode();
+    }
+}
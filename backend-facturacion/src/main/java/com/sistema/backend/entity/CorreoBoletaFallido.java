@@ -0,0 +1,58 @@
+package com.sistema.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad CorreoBoletaFallido: correos que agotaron los reintentos (mensajes muertos)
+ * @autor Paulo
+ */
+@Entity
+@Table(name = "correos_boleta_fallidos")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class CorreoBoletaFallido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "id_boleta", nullable = false)
+    private Integer idBoleta;
+
+    @Column(name = "destinatario", nullable = false, length = 150)
+    private String destinatario;
+
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @Column(name = "fecha_fallo", nullable = false)
+    private LocalDateTime fechaFallo;
+
+    // Igualdad por identificador
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CorreoBoletaFallido otro)) {
+            return false;
+        }
+        return id != null && id.equals(otro.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return CorreoBoletaFallido.class.hashCode();
+    }
+}
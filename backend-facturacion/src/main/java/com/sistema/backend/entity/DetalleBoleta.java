@@ -1,9 +1,13 @@
 package com.sistema.backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import java.math.BigDecimal;
 
 /**
@@ -12,7 +16,11 @@ import java.math.BigDecimal;
  */
 @Entity
 @Table(name = "detalle_boleta")
-@Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "detalle-boleta") // Inmutable tras procesarBoleta
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class DetalleBoleta{
@@ -22,12 +30,18 @@ public class DetalleBoleta{
     @Column(name = "id_detalle")
     private Integer idDetalle;
 
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_boleta", nullable = false)
     private Boleta boleta;
 
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_producto")
+    private Producto productoCatalogo; // Null en líneas anteriores al catálogo
+
     @Column(name = "producto", nullable = false, length = 150)
-    private String producto;
+    private String producto; // Nombre al momento de la venta (del catálogo o texto libre)
 
     @Column(name = "precio_unitario", nullable = false, precision = 10, scale = 2)
     private BigDecimal precioUnitario;
@@ -38,6 +52,13 @@ public class DetalleBoleta{
     @Column(name = "subtotal", nullable = false, precision = 10, scale = 2)
     private BigDecimal subtotal;
 
+    /**
+     * Id del producto de catálogo (no inicializa el proxy)
+     */
+    public Integer getIdProducto() {
+        return productoCatalogo != null ? productoCatalogo.getIdProducto() : null;
+    }
+
     // Método de utilidad para calcular subtotal
     public void calcularSubtotal() {
         if (cantidad != null && precioUnitario != null) {
@@ -50,6 +71,23 @@ public class DetalleBoleta{
     protected void onSave() {
         calcularSubtotal();
     }
+
+    // Igualdad por identificador: no recorre la boleta padre
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DetalleBoleta otro)) {
+            return false;
+        }
+        return idDetalle != null && idDetalle.equals(otro.getIdDetalle());
+    }
+
+    @Override
+    public int hashCode() {
+        return DetalleBoleta.class.hashCode();
+    }
 }
 
 
@@ -0,0 +1,82 @@
+package com.sistema.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad OutboxEvento: evento de dominio escrito en la misma transacción que
+ * el cambio que lo origina y publicado después por el relay del outbox
+ * @autor Paulo
+ */
+@Entity
+@Table(name = "outbox_eventos")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class OutboxEvento {
+
+    public enum Estado {
+        PENDIENTE,
+        PROCESADO,
+        FALLIDO    // Agotó los reintentos; ya no bloquea los eventos siguientes del usuario
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "tipo", nullable = false, length = 50)
+    private String tipo;
+
+    @Column(name = "id_agregado", nullable = false)
+    private Integer idAgregado; // p.ej. id de la boleta
+
+    @Column(name = "id_usuario", nullable = false)
+    private Integer idUsuario; // Clave de orden: los eventos de un usuario se publican en orden
+
+    @ToString.Exclude
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private Estado estado = Estado.PENDIENTE;
+
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos = 0;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_procesado")
+    private LocalDateTime fechaProcesado;
+
+    // Igualdad por identificador
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutboxEvento otro)) {
+            return false;
+        }
+        return id != null && id.equals(otro.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return OutboxEvento.class.hashCode();
+    }
+}
@@ -0,0 +1,76 @@
+package com.sistema.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Producto (catálogo)
+ * Las líneas de boleta guardan el nombre con el que se vendieron, así que
+ * renombrar un producto no altera las boletas ya emitidas.
+ * @autor Paulo
+ */
+@Entity
+@Table(name = "productos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productos")
+@BatchSize(size = 50) // Proxies de las líneas de boleta: se inicializan de 50 en 50
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class Producto {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_producto")
+    private Integer idProducto;
+
+    @Column(name = "codigo", nullable = false, unique = true, length = 30)
+    private String codigo;
+
+    @Column(name = "nombre", nullable = false, length = 150)
+    private String nombre;
+
+    @Column(name = "precio", nullable = false, precision = 10, scale = 2)
+    private BigDecimal precio;
+
+    @Column(name = "activo", nullable = false)
+    private Boolean activo = true;
+
+    @Column(name = "controla_stock", nullable = false)
+    private Boolean controlaStock = false; // El contador vive en stock_productos
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        fechaActualizacion = LocalDateTime.now();
+    }
+
+    // Igualdad por identificador
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Producto otro)) {
+            return false;
+        }
+        return idProducto != null && idProducto.equals(otro.getIdProducto());
+    }
+
+    @Override
+    public int hashCode() {
+        return Producto.class.hashCode();
+    }
+}
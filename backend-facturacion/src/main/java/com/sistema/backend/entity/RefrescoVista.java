@@ -0,0 +1,33 @@
+package com.sistema.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Último refresco de una vista materializada (lo escribe RefrescoVistasService por JDBC)
+ * @autor Paulo
+ */
+@Entity
+@Immutable
+@Table(name = "refrescos_vistas")
+@Getter
+@NoArgsConstructor
+public class RefrescoVista {
+
+    @Id
+    @Column(name = "vista", length = 60)
+    private String vista;
+
+    @Column(name = "ultimo_refresco", nullable = false)
+    private LocalDateTime ultimoRefresco;
+
+    @Column(name = "duracion_ms", nullable = false)
+    private Long duracionMs;
+}
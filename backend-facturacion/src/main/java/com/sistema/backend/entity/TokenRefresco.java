@@ -0,0 +1,77 @@
+package com.sistema.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad TokenRefresco: refresh token rotativo (solo se guarda su hash).
+ * Todos los tokens de una misma sesión comparten familia.
+ * @autor Paulo
+ */
+@Entity
+@Table(name = "tokens_refresco")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class TokenRefresco {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_token")
+    private Long idToken;
+
+    @Column(name = "id_usuario", nullable = false)
+    private Integer idUsuario;
+
+    @ToString.Exclude
+    @JdbcTypeCode(SqlTypes.CHAR) // CHAR(64) en V10: ddl-auto=validate exige el mismo tipo
+    @Column(name = "hash_token", nullable = false, unique = true, length = 64)
+    private String hashToken; // SHA-256 en hexadecimal
+
+    @Column(name = "familia", nullable = false)
+    private UUID familia;
+
+    // Token de acceso emitido junto a este: se revoca con la familia
+    @Column(name = "jti_acceso", nullable = false)
+    private UUID jtiAcceso;
+
+    @Column(name = "acceso_expira_en", nullable = false)
+    private LocalDateTime accesoExpiraEn;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    @Column(name = "usado_en")
+    private LocalDateTime usadoEn;
+
+    @Column(name = "revocado", nullable = false)
+    private boolean revocado;
+
+    // Igualdad por identificador
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TokenRefresco otro)) {
+            return false;
+        }
+        return idToken != null && idToken.equals(otro.getIdToken());
+    }
+
+    @Override
+    public int hashCode() {
+        return TokenRefresco.class.hashCode();
+    }
+}
@@ -1,9 +1,13 @@
 package com.sistema.backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Entidad Usuario
@@ -11,7 +15,11 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Table(name = "usuarios")
-@Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class Usuario {
@@ -39,6 +47,28 @@ public class Usuario {
     @Column(name = "numero_documento", unique = true, length = 20)
     private String numeroDocumento;
 
+    @ToString.Exclude
     @Column(name = "password", nullable = false)
     private String password = "";
+
+    // Se incrementa para invalidar todos los tokens emitidos (va en el JWT)
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion = 0;
+
+    // Igualdad por identificador
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Usuario otro)) {
+            return false;
+        }
+        return idUsuario != null && idUsuario.equals(otro.getIdUsuario());
+    }
+
+    @Override
+    public int hashCode() {
+        return Usuario.class.hashCode();
+    }
 }
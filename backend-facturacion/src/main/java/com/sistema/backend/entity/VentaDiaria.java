@@ -0,0 +1,40 @@
+package com.sistema.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ventas por día (vista materializada mv_ventas_diarias, solo lectura).
+ * Se mapea con @Subselect para que ddl-auto no la trate como tabla.
+ * @autor Paulo
+ */
+@Entity
+@Immutable
+@Subselect("SELECT fecha, boletas, unidades, importe FROM mv_ventas_diarias")
+@Synchronize("mv_ventas_diarias")
+@Getter
+@NoArgsConstructor
+public class VentaDiaria {
+
+    @Id
+    @Column(name = "fecha")
+    private LocalDate fecha;
+
+    @Column(name = "boletas")
+    private Long boletas;
+
+    @Column(name = "unidades")
+    private Long unidades;
+
+    @Column(name = "importe")
+    private BigDecimal importe;
+}
@@ -0,0 +1,61 @@
+package com.sistema.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ventas por producto y día (vista materializada mv_ventas_producto, solo lectura).
+ * idProducto 0 corresponde a las líneas de texto libre.
+ * @autor Paulo
+ */
+@Entity
+@Immutable
+@Subselect("SELECT fecha, id_producto, producto, unidades, importe, lineas FROM mv_ventas_producto")
+@Synchronize("mv_ventas_producto")
+@IdClass(VentaProductoDia.Clave.class)
+@Getter
+@NoArgsConstructor
+public class VentaProductoDia {
+
+    @Id
+    @Column(name = "fecha")
+    private LocalDate fecha;
+
+    @Id
+    @Column(name = "id_producto")
+    private Integer idProducto;
+
+    @Id
+    @Column(name = "producto")
+    private String producto;
+
+    @Column(name = "unidades")
+    private Long unidades;
+
+    @Column(name = "importe")
+    private BigDecimal importe;
+
+    @Column(name = "lineas")
+    private Long lineas;
+
+    @Getter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Clave implements Serializable {
+        private LocalDate fecha;
+        private Integer idProducto;
+        private String producto;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sistema.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ventas por vendedor y día (vista materializada mv_ventas_vendedor, solo lectura)
+ * @autor Paulo
+ */
+@Entity
+@Immutable
+@Subselect("SELECT fecha, id_usuario, boletas, unidades, importe FROM mv_ventas_vendedor")
+@Synchronize("mv_ventas_vendedor")
+@IdClass(VentaVendedorDia.Clave.class)
+@Getter
+@NoArgsConstructor
+public class VentaVendedorDia {
+
+    @Id
+    @Column(name = "fecha")
+    private LocalDate fecha;
+
+    @Id
+    @Column(name = "id_usuario")
+    private Integer idUsuario;
+
+    @Column(name = "boletas")
+    private Long boletas;
+
+    @Column(name = "unidades")
+    private Long unidades;
+
+    @Column(name = "importe")
+    private BigDecimal importe;
+
+    @Getter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Clave implements Serializable {
+        private LocalDate fecha;
+        private Integer idUsuario;
+    }
+}
@@ -0,0 +1,14 @@
+package com.sistema.backend.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Evento registrado en el outbox por procesarBoleta cuando se crea una boleta.
+ * Los OutboxHandler del tipo BOLETA_CREADA lo reciben tras el commit.
+ * @autor Paulo
+ */
+public record BoletaCreadaEvent(Integer idBoleta, Integer idUsuario, BigDecimal total, LocalDateTime fechaCreacion) {
+
+    public static final String TIPO = "BOLETA_CREADA";
+}
@@ -0,0 +1,90 @@
+package com.sistema.backend.exception;
+
+import com.sistema.backend.dto.response.MessageResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Traducción centralizada de excepciones a respuestas HTTP con MessageResponse.
+ * Los controladores solo capturan lo que necesitan responder de otra forma.
+ * @autor Paulo
+ */
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(RecursoNoEncontradoException.class)
+    public ResponseEntity<MessageResponse> noEncontrado(RecursoNoEncontradoException e) {
+        // Sin traza ni warn: los ids sondeados no deben llenar el log
+        log.debug("🔍 {}", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(new MessageResponse(e.getMessage(), false));
+    }
+
+    @ExceptionHandler(SolicitudInvalidaException.class)
+    public ResponseEntity<MessageResponse> solicitudInvalida(SolicitudInvalidaException e) {
+        // Solo reglas del negocio: una IllegalArgumentException cualquiera va a inesperado (500, sin detalle)
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new MessageResponse(e.getMessage(), false));
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<MessageResponse> validacion(MethodArgumentNotValidException e) {
+        FieldError error = e.getBindingResult().getFieldError();
+        String mensaje = error != null
+                ? error.getField() + ": " + error.getDefaultMessage()
+                : "Solicitud inválida";
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new MessageResponse(mensaje, false));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<MessageResponse> cuerpoIlegible(HttpMessageNotReadableException e) {
+        // JSON mal formado: error del cliente, sin traza
+        log.debug("⚠️ Cuerpo ilegible: {}", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new MessageResponse("El cuerpo de la solicitud no es JSON válido", false));
+    }
+
+    @ExceptionHandler(TypeMismatchException.class)
+    public ResponseEntity<MessageResponse> tipoInvalido(TypeMismatchException e) {
+        // p.ej. /api/boletas/abc: ids sondeados, sin traza
+        log.debug("⚠️ Parámetro con tipo inválido: {}", e.getMessage());
+        String parametro = e.getPropertyName() != null ? e.getPropertyName() : "parámetro";
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new MessageResponse("Valor inválido para " + parametro + ": " + e.getValue(), false));
+    }
+
+    @ExceptionHandler(RespuestaInterrumpidaException.class)
+    public void interrumpida(RespuestaInterrumpidaException e) {
+        // Respuesta ya comprometida: se relanza para que el contenedor aborte la conexión
+        throw e;
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<MessageResponse> inesperado(Exception e) {
+        // Excepciones propias de Spring MVC (405, 415, parámetro faltante...): conservan su estado
+        if (e instanceof ErrorResponse respuesta) {
+            return ResponseEntity
+                    .status(respuesta.getStatusCode())
+                    .body(new MessageResponse(respuesta.getBody().getDetail(), false));
+        }
+        log.error("❌ Error no controlado: {}", e.getMessage(), e);
+        return ResponseEntity
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Error interno del servidor", false));
+    }
+}
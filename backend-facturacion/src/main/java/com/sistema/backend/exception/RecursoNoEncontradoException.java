@@ -0,0 +1,19 @@
+package com.sistema.backend.exception;
+
+/**
+ * Recurso inexistente o que no pertenece al usuario autenticado (404).
+ *
+ * No captura la traza de pila: se lanza en cada id sondeado que no existe,
+ * y la traza no aporta nada al diagnóstico.
+ * @autor Paulo
+ */
+public class RecursoNoEncontradoException extends RuntimeException {
+
+    public RecursoNoEncontradoException(String mensaje) {
+        super(mensaje, null, false, false);
+    }
+
+    public static RecursoNoEncontradoException boleta() {
+        return new RecursoNoEncontradoException("Boleta no encontrada");
+    }
+}
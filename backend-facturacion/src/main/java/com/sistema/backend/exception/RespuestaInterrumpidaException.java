@@ -0,0 +1,16 @@
+package com.sistema.backend.exception;
+
+/**
+ * Fallo al escribir una respuesta que ya se empezó a enviar (p.ej. un PDF en streaming).
+ *
+ * Ya no se puede responder con un MessageResponse: GlobalExceptionHandler la deja
+ * pasar para que el contenedor cierre la conexión y el cliente vea la descarga
+ * incompleta. Quien la lanza ya registró la causa, así que no captura traza.
+ * @autor Paulo
+ */
+public class RespuestaInterrumpidaException extends RuntimeException {
+
+    public RespuestaInterrumpidaException(String mensaje) {
+        super(mensaje, null, false, false);
+    }
+}
@@ -0,0 +1,16 @@
+package com.sistema.backend.exception;
+
+/**
+ * Solicitud que viola una regla del negocio (400): el mensaje es para el cliente.
+ *
+ * Los servicios la lanzan en lugar de IllegalArgumentException, que queda para
+ * errores de programación o configuración (500, sin exponer el detalle).
+ * No captura la traza de pila: es un rechazo esperado, no un fallo.
+ * @autor Paulo
+ */
+public class SolicitudInvalidaException extends RuntimeException {
+
+    public SolicitudInvalidaException(String mensaje) {
+        super(mensaje, null, false, false);
+    }
+}
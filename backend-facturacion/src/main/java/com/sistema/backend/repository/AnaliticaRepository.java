@@ -0,0 +1,52 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.service.analitica.VentasColumnares.LineaVenta;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Lectura JDBC de las líneas vendidas para la proyección analítica.
+ * @autor Paulo
+ */
+@Repository
+public class AnaliticaRepository {
+
+    private static final String SQL_LINEAS =
+            "SELECT b.id_boleta, b.fecha_creacion, b.id_usuario, d.id_producto, "
+            + "COALESCE(p.nombre, d.producto), d.cantidad, ROUND(d.subtotal * 100)::BIGINT "
+            + "FROM detalle_boleta d "
+            + "JOIN boletas b ON b.id_boleta = d.id_boleta "
+            + "LEFT JOIN productos p ON p.id_producto = d.id_producto ";
+
+    private static final RowMapper<LineaVenta> MAPPER = (rs, i) -> new LineaVenta(
+            rs.getInt(1),
+            rs.getTimestamp(2).toLocalDateTime(),
+            rs.getInt(3),
+            rs.getObject(4, Integer.class),
+            rs.getString(5),
+            rs.getInt(6),
+            rs.getLong(7));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AnaliticaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Líneas de las siguientes boletas (hasta "boletas") con id mayor que desdeId,
+     * las de cada boleta juntas y en orden de id (carga por rangos de clave)
+     */
+    public List<LineaVenta> lineasPosteriores(int desdeId, int boletas) {
+        return jdbcTemplate.query(SQL_LINEAS
+                + "WHERE d.id_boleta IN (SELECT DISTINCT id_boleta FROM detalle_boleta WHERE id_boleta > ? ORDER BY id_boleta LIMIT ?) "
+                + "ORDER BY d.id_boleta", MAPPER, desdeId, boletas);
+    }
+
+    public List<LineaVenta> lineasDeBoleta(Integer idBoleta) {
+        return jdbcTemplate.query(SQL_LINEAS + "WHERE d.id_boleta = ?", MAPPER, idBoleta);
+    }
+}
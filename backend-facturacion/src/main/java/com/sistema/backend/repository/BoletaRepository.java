@@ -1,8 +1,17 @@
 package com.sistema.backend.repository;
 
+import com.sistema.backend.dto.response.BoletaSummary;
 import com.sistema.backend.entity.Boleta;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +32,24 @@ public interface BoletaRepository extends JpaRepository<Boleta, Integer> {
          */
         Optional<Boleta> findByIdBoleta(Integer idBoleta);
 
+        /**
+         * Busca una boleta con sus detalles y vendedor en una sola consulta (vista de detalle)
+         */
+        @EntityGraph(Boleta.GRAFO_DETALLE)
+        Optional<Boleta> findDetalladaByIdBoleta(Integer idBoleta);
+
+        /**
+         * Igual que findDetalladaByIdBoleta, pero solo si la boleta es del usuario
+         */
+        @EntityGraph(Boleta.GRAFO_DETALLE)
+        Optional<Boleta> findDetalladaByIdBoletaAndIdUsuario(Integer idBoleta, Integer idUsuario);
+
+        /**
+         * Busca varias boletas con sus detalles y vendedor en una sola consulta (procesos por lotes)
+         */
+        @EntityGraph(Boleta.GRAFO_DETALLE)
+        List<Boleta> findDetalladasByIdBoletaIn(Collection<Integer> ids);
+
         /**
          * Busca todas las boletas de un usuario ordenadas por fecha descendente
          * CORREGIDO: Usa fechaCreacion en lugar de fechaBoleta
@@ -33,4 +60,70 @@ public interface BoletaRepository extends JpaRepository<Boleta, Integer> {
          * Verifica si una boleta existe por su ID
          */
         boolean existsByIdBoleta(Integer idBoleta);
+
+        /**
+         * Listado ligero de boletas de un usuario (solo cabecera, sin detalles)
+         */
+        @Query("SELECT new com.sistema.backend.dto.response.BoletaSummary("
+                        + "b.idBoleta, b.idUsuario, b.fechaCreacion, b.total, b.nombreCliente, "
+                        + "b.documentoCliente, b.cantidadItems, b.unidadesTotales, b.serie, b.correlativo) "
+                        + "FROM Boleta b WHERE b.idUsuario = :idUsuario")
+        List<BoletaSummary> findResumenesByIdUsuario(@Param("idUsuario") Integer idUsuario);
+
+        /**
+         * Listado ligero de boletas de un usuario ordenado por fecha descendente
+         */
+        @Query("SELECT new com.sistema.backend.dto.response.BoletaSummary("
+                        + "b.idBoleta, b.idUsuario, b.fechaCreacion, b.total, b.nombreCliente, "
+                        + "b.documentoCliente, b.cantidadItems, b.unidadesTotales, b.serie, b.correlativo) "
+                        + "FROM Boleta b WHERE b.idUsuario = :idUsuario ORDER BY b.fechaCreacion DESC")
+        List<BoletaSummary> findResumenesByIdUsuarioOrdenados(@Param("idUsuario") Integer idUsuario);
+
+        /**
+         * Resumen de una boleta (feed de boletas nuevas)
+         */
+        @Query("SELECT new com.sistema.backend.dto.response.BoletaSummary("
+                        + "b.idBoleta, b.idUsuario, b.fechaCreacion, b.total, b.nombreCliente, "
+                        + "b.documentoCliente, b.cantidadItems, b.unidadesTotales, b.serie, b.correlativo) "
+                        + "FROM Boleta b WHERE b.idBoleta = :idBoleta")
+        Optional<BoletaSummary> findResumenByIdBoleta(@Param("idBoleta") Integer idBoleta);
+
+        /**
+         * Boletas de un usuario en una serie posteriores a un correlativo, en orden de
+         * correlativo, que es el de confirmación (reanudación del feed)
+         */
+        @Query("SELECT new com.sistema.backend.dto.response.BoletaSummary("
+                        + "b.idBoleta, b.idUsuario, b.fechaCreacion, b.total, b.nombreCliente, "
+                        + "b.documentoCliente, b.cantidadItems, b.unidadesTotales, b.serie, b.correlativo) "
+                        + "FROM Boleta b WHERE b.idUsuario = :idUsuario AND b.serie = :serie "
+                        + "AND b.correlativo > :desde ORDER BY b.correlativo")
+        List<BoletaSummary> findResumenesPosteriores(@Param("idUsuario") Integer idUsuario,
+                        @Param("serie") String serie, @Param("desde") Integer desde, Limit limit);
+
+        /**
+         * Cantidad de boletas de un usuario en un rango de fechas [desde, hasta)
+         */
+        long countByIdUsuarioAndFechaCreacionGreaterThanEqualAndFechaCreacionLessThan(
+                        Integer idUsuario, LocalDateTime desde, LocalDateTime hasta);
+
+        /**
+         * Ids de las boletas de un usuario en un rango de fechas [desde, hasta), posteriores
+         * a desdeId y en orden de id (paginación por clave del archivo de PDFs)
+         */
+        @Query("SELECT b.idBoleta FROM Boleta b WHERE b.idUsuario = :idUsuario "
+                        + "AND b.fechaCreacion >= :desde AND b.fechaCreacion < :hasta "
+                        + "AND b.idBoleta > :desdeId ORDER BY b.idBoleta")
+        List<Integer> findIdsByUsuarioAndRango(@Param("idUsuario") Integer idUsuario,
+                        @Param("desde") LocalDateTime desde,
+                        @Param("hasta") LocalDateTime hasta,
+                        @Param("desdeId") Integer desdeId,
+                        Limit limit);
+
+        /**
+         * Igual que findDetalladasByIdBoletaIn, sin guardar las boletas en la caché L2
+         * (recorridos masivos que no deben desplazar las boletas consultadas a menudo)
+         */
+        @EntityGraph(Boleta.GRAFO_DETALLE)
+        @QueryHints(@QueryHint(name = "jakarta.persistence.cache.storeMode", value = "BYPASS"))
+        List<Boleta> findParaArchivoByIdBoletaIn(Collection<Integer> ids);
 }
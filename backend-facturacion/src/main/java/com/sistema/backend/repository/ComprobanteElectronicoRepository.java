@@ -0,0 +1,58 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.entity.ComprobanteElectronico;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para entidad ComprobanteElectronico
+ * @autor Paulo
+ */
+@Repository
+public interface ComprobanteElectronicoRepository extends JpaRepository<ComprobanteElectronico, Integer> {
+
+    /**
+     * Comprobantes pendientes, con reintento vencido o con la reserva vencida (worker caído)
+     */
+    @Query("SELECT c.idBoleta FROM ComprobanteElectronico c "
+            + "WHERE c.estado IN (com.sistema.backend.entity.ComprobanteElectronico.Estado.PENDIENTE, "
+            + "com.sistema.backend.entity.ComprobanteElectronico.Estado.ERROR, "
+            + "com.sistema.backend.entity.ComprobanteElectronico.Estado.ENVIANDO) "
+            + "AND c.proximoIntento <= :ahora ORDER BY c.proximoIntento")
+    List<Integer> findIdsParaReintento(@Param("ahora") LocalDateTime ahora, Limit limite);
+
+    /**
+     * Registra como PENDIENTE las boletas del lote que aún no tienen comprobante.
+     * Idempotente: el outbox y el barrido de cualquier nodo pueden traer la misma boleta.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO comprobantes_electronicos (id_boleta, estado, intentos, proximo_intento, version) "
+            + "SELECT b.id_boleta, 'PENDIENTE', 0, :ahora, 0 FROM boletas b WHERE b.id_boleta IN (:ids) "
+            + "ON CONFLICT (id_boleta) DO NOTHING", nativeQuery = true)
+    int registrarPendientes(@Param("ids") Collection<Integer> ids, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Reclama los comprobantes del lote que siguen por enviar (requiere transacción de escritura).
+     * SKIP LOCKED evita que dos workers o nodos envíen la misma boleta a SUNAT.
+     */
+    @Query(value = "SELECT * FROM comprobantes_electronicos "
+            + "WHERE id_boleta IN (:ids) AND estado IN ('PENDIENTE', 'ERROR', 'ENVIANDO') AND proximo_intento <= :ahora "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ComprobanteElectronico> reclamar(@Param("ids") Collection<Integer> ids, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Boletas confirmadas que nunca llegaron al pipeline (p.ej. caída entre el commit y la cola)
+     */
+    @Query(value = "SELECT b.id_boleta FROM boletas b "
+            + "LEFT JOIN comprobantes_electronicos c ON c.id_boleta = b.id_boleta "
+            + "WHERE c.id_boleta IS NULL AND b.fecha_creacion < :antesDe "
+            + "ORDER BY b.id_boleta LIMIT :limite", nativeQuery = true)
+    List<Integer> findBoletasSinComprobante(@Param("antesDe") LocalDateTime antesDe, @Param("limite") int limite);
+}
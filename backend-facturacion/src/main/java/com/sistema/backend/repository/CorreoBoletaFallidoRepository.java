@@ -0,0 +1,13 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.entity.CorreoBoletaFallido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para entidad CorreoBoletaFallido
+ * @autor Paulo
+ */
+@Repository
+public interface CorreoBoletaFallidoRepository extends JpaRepository<CorreoBoletaFallido, Long> {
+}
@@ -0,0 +1,70 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.entity.CorreoBoleta;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para entidad CorreoBoleta
+ * @autor Paulo
+ */
+@Repository
+public interface CorreoBoletaRepository extends JpaRepository<CorreoBoleta, Integer> {
+
+    /**
+     * Registra el correo pendiente de una boleta si tiene emailCliente.
+     * Idempotente (el outbox puede entregar el evento más de una vez).
+     * Devuelve 1 si se registró, 0 si no hay correo o ya existía.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO correos_boleta (id_boleta, destinatario, estado, intentos, proximo_intento, fecha_creacion) "
+            + "SELECT b.id_boleta, b.email_cliente, 'PENDIENTE', 0, :ahora, :ahora FROM boletas b "
+            + "WHERE b.id_boleta = :idBoleta AND b.email_cliente IS NOT NULL AND b.email_cliente <> '' "
+            + "ON CONFLICT (id_boleta) DO NOTHING", nativeQuery = true)
+    int registrarPendiente(@Param("idBoleta") Integer idBoleta, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Correos pendientes o con reintento vencido (barrido periódico)
+     */
+    @Query("SELECT c.idBoleta FROM CorreoBoleta c "
+            + "WHERE c.estado IN (com.sistema.backend.entity.CorreoBoleta.Estado.PENDIENTE, "
+            + "com.sistema.backend.entity.CorreoBoleta.Estado.ERROR) "
+            + "AND c.proximoIntento <= :ahora ORDER BY c.proximoIntento")
+    List<Integer> findIdsParaEnvio(@Param("ahora") LocalDateTime ahora, Limit limite);
+
+    /**
+     * Reclama los correos del lote que siguen por enviar (requiere transacción de escritura).
+     * SKIP LOCKED evita que dos workers o nodos envíen el mismo correo a la vez.
+     */
+    @Query(value = "SELECT * FROM correos_boleta "
+            + "WHERE id_boleta IN (:ids) AND estado IN ('PENDIENTE', 'ERROR') AND proximo_intento <= :ahora "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<CorreoBoleta> reclamar(@Param("ids") Collection<Integer> ids, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Reserva los correos reclamados mientras se envían
+     */
+    @Modifying
+    @Query("UPDATE CorreoBoleta c SET c.intentos = c.intentos + 1, c.proximoIntento = :hasta WHERE c.idBoleta IN :ids")
+    int reservar(@Param("ids") Collection<Integer> ids, @Param("hasta") LocalDateTime hasta);
+
+    @Modifying
+    @Query("UPDATE CorreoBoleta c SET c.estado = com.sistema.backend.entity.CorreoBoleta.Estado.ENVIADO, "
+            + "c.fechaEnvio = :fecha, c.proximoIntento = null, c.ultimoError = null WHERE c.idBoleta IN :ids")
+    int marcarEnviados(@Param("ids") Collection<Integer> ids, @Param("fecha") LocalDateTime fecha);
+
+    @Modifying
+    @Query("UPDATE CorreoBoleta c SET c.estado = :estado, c.ultimoError = :error, c.proximoIntento = :proximo "
+            + "WHERE c.idBoleta = :id")
+    int registrarFallo(@Param("id") Integer id, @Param("estado") CorreoBoleta.Estado estado,
+            @Param("error") String error, @Param("proximo") LocalDateTime proximo);
+}
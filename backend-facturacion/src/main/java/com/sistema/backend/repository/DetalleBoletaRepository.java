@@ -2,6 +2,8 @@ package com.sistema.backend.repository;
 
 import com.sistema.backend.entity.DetalleBoleta;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -16,4 +18,14 @@ public interface DetalleBoletaRepository extends JpaRepository<DetalleBoleta, In
     * Busca todas los detalles de una boleta asociadas a un id_boleta específico.
     */
     List<DetalleBoleta> findByBoleta_IdBoleta(Integer idBoleta);
+
+    /**
+     * Detalles de una boleta del usuario en una sola consulta (con el producto de catálogo).
+     * Vacío si la boleta no existe o es de otro usuario.
+     */
+    @Query("SELECT d FROM DetalleBoleta d LEFT JOIN FETCH d.productoCatalogo "
+            + "WHERE d.boleta.idBoleta = :idBoleta AND d.boleta.idUsuario = :idUsuario "
+            + "ORDER BY d.idDetalle")
+    List<DetalleBoleta> findByBoletaAndUsuario(@Param("idBoleta") Integer idBoleta,
+            @Param("idUsuario") Integer idUsuario);
 }
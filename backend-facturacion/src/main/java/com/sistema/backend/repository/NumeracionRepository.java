@@ -0,0 +1,76 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.service.numeracion.EstadoSerie;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso JDBC a series_boleta y a la numeración de boletas.
+ * @autor Paulo
+ */
+@Repository
+@RequiredArgsConstructor
+public class NumeracionRepository {
+
+    // Incrementa la serie y numera la boleta en un solo viaje a la base.
+    // El bloqueo de la fila de la serie dura desde aquí hasta el commit.
+    private static final String SQL_ASIGNAR =
+            "WITH siguiente AS ("
+            + "  UPDATE series_boleta SET ultimo_correlativo = ultimo_correlativo + 1 "
+            + "  WHERE serie = ? RETURNING ultimo_correlativo) "
+            + "UPDATE boletas b SET serie = ?, correlativo = s.ultimo_correlativo "
+            + "FROM siguiente s WHERE b.id_boleta = ? "
+            + "RETURNING b.correlativo";
+
+    private static final String SQL_ESTADO =
+            "SELECT s.serie, s.ultimo_correlativo, "
+            + "  (SELECT COUNT(*) FROM boletas b WHERE b.serie = s.serie), "
+            + "  (SELECT COALESCE(MAX(b.correlativo), 0) FROM boletas b WHERE b.serie = s.serie) "
+            + "FROM series_boleta s WHERE s.serie = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Asigna el siguiente correlativo de la serie a la boleta y lo devuelve
+     */
+    public int asignar(String serie, Integer idBoleta) {
+        List<Integer> correlativo = jdbcTemplate.queryForList(SQL_ASIGNAR, Integer.class, serie, serie, idBoleta);
+        if (correlativo.isEmpty()) {
+            throw new IllegalStateException("No se pudo numerar la boleta " + idBoleta + " en la serie " + serie);
+        }
+        return correlativo.get(0);
+    }
+
+    /**
+     * Crea la serie si no existe
+     */
+    public void registrarSerie(String serie) {
+        jdbcTemplate.update("INSERT INTO series_boleta (serie) VALUES (?) ON CONFLICT (serie) DO NOTHING", serie);
+    }
+
+    /**
+     * Último correlativo confirmado de cada serie
+     */
+    public Map<String, Integer> ultimosCorrelativos() {
+        Map<String, Integer> ultimos = new HashMap<>();
+        jdbcTemplate.query("SELECT serie, ultimo_correlativo FROM series_boleta",
+                rs -> {
+                    ultimos.put(rs.getString(1), rs.getInt(2));
+                });
+        return ultimos;
+    }
+
+    /**
+     * Contador de la serie frente a las boletas realmente numeradas
+     */
+    public EstadoSerie estado(String serie) {
+        List<EstadoSerie> filas = jdbcTemplate.query(SQL_ESTADO, (rs, i) -> new EstadoSerie(
+                rs.getString(1), rs.getInt(2), rs.getLong(3), rs.getInt(4)), serie);
+        return filas.isEmpty() ? null : filas.get(0);
+    }
+}
@@ -0,0 +1,80 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.entity.OutboxEvento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para entidad OutboxEvento
+ * @autor Paulo
+ */
+@Repository
+public interface OutboxEventoRepository extends JpaRepository<OutboxEvento, Long> {
+
+    /**
+     * Reclama un lote de eventos para publicar (requiere transacción de escritura).
+     *
+     * Solo se toma el evento pendiente más antiguo de cada usuario; si otro nodo
+     * ya lo tiene bloqueado, SKIP LOCKED salta a ese usuario completo. Así varios
+     * relays trabajan en paralelo sin romper el orden por usuario. Un evento en
+     * espera de reintento también bloquea a los siguientes de su usuario.
+     */
+    @Query(value = "SELECT o.* FROM outbox_eventos o "
+            + "WHERE o.id IN ("
+            + "    SELECT DISTINCT ON (p.id_usuario) p.id FROM outbox_eventos p "
+            + "    WHERE p.estado = 'PENDIENTE' "
+            + "    ORDER BY p.id_usuario, p.id) "
+            + "AND o.estado = 'PENDIENTE' "
+            + "AND (o.proximo_intento IS NULL OR o.proximo_intento <= :ahora) "
+            + "ORDER BY o.id "
+            + "LIMIT :limite "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvento> reclamarLote(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
+
+    /**
+     * Reserva los eventos reclamados hasta la fecha indicada: otro relay no los
+     * toma mientras se publican, y si este nodo cae se vuelven a entregar al vencer
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvento o SET o.intentos = o.intentos + 1, o.proximoIntento = :hasta WHERE o.id IN :ids")
+    int reservar(@Param("ids") Collection<Long> ids, @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Marca como procesados los eventos publicados
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvento o SET o.estado = com.sistema.backend.entity.OutboxEvento.Estado.PROCESADO, "
+            + "o.fechaProcesado = :fecha, o.proximoIntento = null, o.ultimoError = null WHERE o.id IN :ids")
+    int marcarProcesados(@Param("ids") Collection<Long> ids, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Registra un fallo: reintento programado (PENDIENTE) o descarte (FALLIDO)
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvento o SET o.estado = :estado, o.ultimoError = :error, o.proximoIntento = :proximo "
+            + "WHERE o.id = :id")
+    int registrarFallo(@Param("id") Long id, @Param("estado") OutboxEvento.Estado estado,
+            @Param("error") String error, @Param("proximo") LocalDateTime proximo);
+
+    /**
+     * Eventos pendientes y fecha del más antiguo (métricas de retraso)
+     */
+    @Query("SELECT COUNT(o), MIN(o.fechaCreacion) FROM OutboxEvento o "
+            + "WHERE o.estado = com.sistema.backend.entity.OutboxEvento.Estado.PENDIENTE")
+    List<Object[]> resumenPendientes();
+
+    /**
+     * Elimina los eventos ya procesados anteriores a la fecha indicada
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvento o "
+            + "WHERE o.estado = com.sistema.backend.entity.OutboxEvento.Estado.PROCESADO "
+            + "AND o.fechaProcesado < :antesDe")
+    int eliminarProcesadosAntesDe(@Param("antesDe") LocalDateTime antesDe);
+}
@@ -0,0 +1,15 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.entity.Producto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para entidad Producto
+ * @autor Paulo
+ */
+@Repository
+public interface ProductoRepository extends JpaRepository<Producto, Integer> {
+
+    boolean existsByCodigo(String codigo);
+}
@@ -0,0 +1,24 @@
+package com.sistema.backend.repository;
+
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Base de los repositorios de solo lectura (vistas materializadas):
+ * no expone save/delete y sus consultas van a la réplica.
+ * @autor Paulo
+ */
+@NoRepositoryBean
+@Transactional(readOnly = true)
+public interface ReadOnlyRepository<T, ID> extends Repository<T, ID> {
+
+    Optional<T> findById(ID id);
+
+    List<T> findAll();
+
+    long count();
+}
@@ -0,0 +1,10 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.entity.RefrescoVista;
+
+/**
+ * Repositorio de solo lectura sobre refrescos_vistas
+ * @autor Paulo
+ */
+public interface RefrescoVistaRepository extends ReadOnlyRepository<RefrescoVista, String> {
+}
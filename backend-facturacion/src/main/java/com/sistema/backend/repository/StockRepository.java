@@ -0,0 +1,84 @@
+package com.sistema.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso JDBC a stock_productos.
+ * Se usa JdbcTemplate (misma conexión y transacción que JPA) para que los
+ * descuentos no pasen por Hibernate ni invaliden regiones de la caché L2.
+ * @autor Paulo
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockRepository {
+
+    private static final String SQL_DESCONTAR =
+            "UPDATE stock_productos SET disponible = disponible - ?, fecha_actualizacion = now() "
+            + "WHERE id_producto = ? AND disponible >= ?";
+
+    private static final String SQL_TOMAR_HASTA =
+            "WITH actual AS (SELECT disponible FROM stock_productos WHERE id_producto = ? FOR UPDATE) "
+            + "UPDATE stock_productos s SET disponible = s.disponible - LEAST(a.disponible, ?), fecha_actualizacion = now() "
+            + "FROM actual a WHERE s.id_producto = ? "
+            + "RETURNING LEAST(a.disponible, ?)";
+
+    private static final String SQL_AJUSTAR =
+            "INSERT INTO stock_productos (id_producto, disponible) VALUES (?, ?) "
+            + "ON CONFLICT (id_producto) DO UPDATE "
+            + "SET disponible = stock_productos.disponible + EXCLUDED.disponible, fecha_actualizacion = now() "
+            + "RETURNING disponible";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Descuenta las cantidades en un solo batch JDBC, una sentencia condicional
+     * por producto. Las entradas deben venir ordenadas por id de producto: todos
+     * los checkouts bloquean las filas en el mismo orden y no hay deadlocks.
+     * Devuelve, por producto, 1 si se descontó o 0 si no había stock suficiente.
+     */
+    public int[] descontar(List<Map.Entry<Integer, Integer>> cantidadesOrdenadas) {
+        return jdbcTemplate.batchUpdate(SQL_DESCONTAR, cantidadesOrdenadas, cantidadesOrdenadas.size(),
+                (ps, entrada) -> {
+                    ps.setInt(1, entrada.getValue());
+                    ps.setInt(2, entrada.getKey());
+                    ps.setInt(3, entrada.getValue());
+                })[0];
+    }
+
+    /**
+     * Retira hasta "maximo" unidades (lo que haya) y devuelve cuántas retiró
+     */
+    public int tomarHasta(Integer idProducto, int maximo) {
+        try {
+            Integer tomadas = jdbcTemplate.queryForObject(SQL_TOMAR_HASTA, Integer.class,
+                    idProducto, maximo, idProducto, maximo);
+            return tomadas != null ? tomadas : 0;
+        } catch (EmptyResultDataAccessException e) {
+            return 0; // Producto sin fila de stock
+        }
+    }
+
+    /**
+     * Suma (o resta, si es negativo) unidades; crea la fila si no existe.
+     * Un resultado negativo viola el CHECK y lanza DataIntegrityViolationException.
+     */
+    public int ajustar(Integer idProducto, int delta) {
+        Integer disponible = jdbcTemplate.queryForObject(SQL_AJUSTAR, Integer.class, idProducto, delta);
+        return disponible != null ? disponible : 0;
+    }
+
+    /**
+     * Stock disponible en la base, o null si el producto no tiene fila de stock
+     */
+    public Integer consultar(Integer idProducto) {
+        List<Integer> filas = jdbcTemplate.queryForList(
+                "SELECT disponible FROM stock_productos WHERE id_producto = ?", Integer.class, idProducto);
+        return filas.isEmpty() ? null : filas.get(0);
+    }
+}
@@ -0,0 +1,40 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.entity.TokenRefresco;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositorio para entidad TokenRefresco
+ * @autor Paulo
+ */
+@Repository
+public interface TokenRefrescoRepository extends JpaRepository<TokenRefresco, Long> {
+
+    /**
+     * Token por hash, bloqueado: dos rotaciones simultáneas del mismo token se serializan
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TokenRefresco t WHERE t.hashToken = :hash")
+    Optional<TokenRefresco> findByHashTokenParaRotar(@Param("hash") String hashToken);
+
+    List<TokenRefresco> findByFamilia(UUID familia);
+
+    @Modifying
+    @Query("UPDATE TokenRefresco t SET t.revocado = true WHERE t.idUsuario = :idUsuario AND t.revocado = false")
+    int revocarDeUsuario(@Param("idUsuario") Integer idUsuario);
+
+    @Modifying
+    @Query("DELETE FROM TokenRefresco t WHERE t.expiraEn < :limite")
+    int deleteVencidos(@Param("limite") LocalDateTime limite);
+}
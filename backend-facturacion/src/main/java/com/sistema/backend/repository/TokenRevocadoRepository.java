@@ -0,0 +1,41 @@
+package com.sistema.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Acceso JDBC a tokens_revocados (denylist persistida de tokens de acceso).
+ * Solo se lee al arrancar o reconectar: en cada petición se consulta la copia en memoria.
+ * @autor Paulo
+ */
+@Repository
+@RequiredArgsConstructor
+public class TokenRevocadoRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertar(UUID jti, Instant expira) {
+        jdbcTemplate.update("INSERT INTO tokens_revocados (jti, expira_en) VALUES (?, ?) ON CONFLICT (jti) DO NOTHING",
+                jti, Timestamp.from(expira));
+    }
+
+    /**
+     * Recorre los revocados que aún no expiran (jti, expiración)
+     */
+    public void vigentes(BiConsumer<UUID, Instant> consumidor) {
+        jdbcTemplate.query("SELECT jti, expira_en FROM tokens_revocados WHERE expira_en > now()",
+                rs -> {
+                    consumidor.accept(rs.getObject(1, UUID.class), rs.getTimestamp(2).toInstant());
+                });
+    }
+
+    public int borrarVencidos() {
+        return jdbcTemplate.update("DELETE FROM tokens_revocados WHERE expira_en < now()");
+    }
+}
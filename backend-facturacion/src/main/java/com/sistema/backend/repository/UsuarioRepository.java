@@ -1,6 +1,9 @@
 package com.sistema.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.sistema.backend.entity.Usuario;
 import java.util.Optional;
@@ -31,5 +34,18 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
      * Verificar si existe usuario por número de documento
      */
     boolean existsByNumeroDocumento(String numeroDocumento);
+
+    /**
+     * Versión de tokens vigente del usuario (sin cargar la entidad)
+     */
+    @Query("SELECT u.tokenVersion FROM Usuario u WHERE u.idUsuario = :id")
+    Optional<Integer> findTokenVersion(@Param("id") Integer idUsuario);
+
+    /**
+     * Invalida todos los tokens emitidos al usuario
+     */
+    @Modifying
+    @Query("UPDATE Usuario u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.idUsuario = :id")
+    int incrementarTokenVersion(@Param("id") Integer idUsuario);
 }
 
@@ -0,0 +1,15 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.entity.VentaDiaria;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio de solo lectura sobre mv_ventas_diarias
+ * @autor Paulo
+ */
+public interface VentaDiariaRepository extends ReadOnlyRepository<VentaDiaria, LocalDate> {
+
+    List<VentaDiaria> findByFechaBetweenOrderByFecha(LocalDate desde, LocalDate hasta);
+}
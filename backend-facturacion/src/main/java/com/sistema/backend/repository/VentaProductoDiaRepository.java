@@ -0,0 +1,27 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.dto.response.ReporteProducto;
+import com.sistema.backend.entity.VentaProductoDia;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio de solo lectura sobre mv_ventas_producto
+ * @autor Paulo
+ */
+public interface VentaProductoDiaRepository extends ReadOnlyRepository<VentaProductoDia, VentaProductoDia.Clave> {
+
+    /**
+     * Totales por producto en el rango, de mayor a menor importe
+     */
+    @Query("SELECT new com.sistema.backend.dto.response.ReporteProducto("
+            + "v.idProducto, v.producto, SUM(v.unidades), SUM(v.importe), SUM(v.lineas)) "
+            + "FROM VentaProductoDia v WHERE v.fecha BETWEEN :desde AND :hasta "
+            + "GROUP BY v.idProducto, v.producto ORDER BY SUM(v.importe) DESC")
+    List<ReporteProducto> resumirPorProducto(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta,
+            Limit limite);
+}
@@ -0,0 +1,27 @@
+package com.sistema.backend.repository;
+
+import com.sistema.backend.dto.response.ReporteVendedor;
+import com.sistema.backend.entity.VentaVendedorDia;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio de solo lectura sobre mv_ventas_vendedor
+ * @autor Paulo
+ */
+public interface VentaVendedorDiaRepository extends ReadOnlyRepository<VentaVendedorDia, VentaVendedorDia.Clave> {
+
+    /**
+     * Totales por vendedor en el rango, de mayor a menor importe
+     */
+    @Query("SELECT new com.sistema.backend.dto.response.ReporteVendedor("
+            + "v.idUsuario, SUM(v.boletas), SUM(v.unidades), SUM(v.importe)) "
+            + "FROM VentaVendedorDia v WHERE v.fecha BETWEEN :desde AND :hasta "
+            + "GROUP BY v.idUsuario ORDER BY SUM(v.importe) DESC")
+    List<ReporteVendedor> resumirPorVendedor(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta,
+            Limit limite);
+}
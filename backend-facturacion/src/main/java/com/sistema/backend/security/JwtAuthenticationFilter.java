@@ -1,6 +1,7 @@
 package com.sistema.backend.security;
 
 import com.sistema.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,7 +20,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 
 /**
- * Filtro que intercepta cada petición HTTP para validar el token JWT
+ * Filtro que intercepta cada petición HTTP para validar el token JWT.
+ * Rechaza los tokens revocados (logout) o de una versión anterior del usuario
+ * (cierre de todas las sesiones) consultando solo estructuras en memoria.
  * @autor Paulo
  */
 @Component
@@ -30,6 +33,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ListaRevocacion listaRevocacion;
+
+    @Autowired
+    private VersionesToken versionesToken;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
@@ -37,9 +46,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                Integer userId = jwtUtil.getUserIdFromToken(jwt);
-                String email = jwtUtil.getEmailFromToken(jwt);
+            // Una sola verificación de firma por petición; la revocación se consulta en memoria
+            Claims claims = StringUtils.hasText(jwt) ? jwtUtil.getClaimsIfValid(jwt) : null;
+
+            if (claims != null && !listaRevocacion.estaRevocado(claims.getId())
+                    && versionesToken.esVigente(Integer.valueOf(claims.getSubject()), jwtUtil.getVersion(claims))) {
+                Integer userId = Integer.valueOf(claims.getSubject());
+                String email = claims.get(JwtUtil.CLAIM_EMAIL, String.class);
 
                 // Crear autenticación
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userId,
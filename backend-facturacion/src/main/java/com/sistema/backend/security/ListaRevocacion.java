@@ -0,0 +1,128 @@
+package com.sistema.backend.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.backend.repository.TokenRevocadoRepository;
+import com.sistema.backend.service.notificacion.NotificacionesPostgres;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denylist en memoria de tokens de acceso revocados (logout, sesión comprometida).
+ *
+ * JwtAuthenticationFilter la consulta en cada petición: un lookup por jti, sin
+ * base de datos. Cada entrada vive hasta la expiración del token (después el
+ * token ya es inválido por sí mismo), así que con tokens de acceso cortos la
+ * lista se mantiene pequeña. Las revocaciones se guardan en tokens_revocados
+ * (para los nodos que arrancan) y se difunden por LISTEN/NOTIFY al confirmar;
+ * si la escucha se corta, al reconectar se vuelve a cargar la tabla.
+ * @autor Paulo
+ */
+@Component
+@Slf4j
+public class ListaRevocacion {
+
+    public static final String CANAL = "tokens_revocados";
+
+    // jti -> expiración del token (epoch ms)
+    private final Map<UUID, Long> revocados = new ConcurrentHashMap<>();
+    private final TokenRevocadoRepository tokenRevocadoRepository;
+    private final NotificacionesPostgres notificaciones;
+    private final ObjectMapper objectMapper;
+
+    public ListaRevocacion(TokenRevocadoRepository tokenRevocadoRepository,
+            NotificacionesPostgres notificaciones,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.tokenRevocadoRepository = tokenRevocadoRepository;
+        this.notificaciones = notificaciones;
+        this.objectMapper = objectMapper;
+        meterRegistry.gauge("jwt.revocados", revocados, Map::size);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        notificaciones.suscribir(CANAL, this::alNotificar);
+        notificaciones.alReconectar(caidaMs -> cargar());
+        cargar();
+    }
+
+    /**
+     * true si el token (por su jti) fue revocado. Un jti ausente o con otro
+     * formato cuenta como revocado: esos tokens no se podrían revocar nunca.
+     */
+    public boolean estaRevocado(String jti) {
+        if (jti == null) {
+            return true;
+        }
+        try {
+            return revocados.containsKey(UUID.fromString(jti));
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Revoca el token hasta su expiración, en todos los nodos al confirmar la transacción
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void revocar(UUID jti, Instant expira) {
+        tokenRevocadoRepository.insertar(jti, expira);
+        notificaciones.notificar(CANAL, serializar(new Revocacion(jti, expira.toEpochMilli())));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revocados.put(jti, expira.toEpochMilli());
+            }
+        });
+    }
+
+    /**
+     * Quita de memoria (y de la tabla) los tokens que ya expiraron
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocados.purga-ms:60000}")
+    public void purgar() {
+        long ahora = System.currentTimeMillis();
+        revocados.values().removeIf(expira -> expira < ahora);
+        tokenRevocadoRepository.borrarVencidos();
+    }
+
+    void cargar() {
+        tokenRevocadoRepository.vigentes((jti, expira) -> revocados.put(jti, expira.toEpochMilli()));
+        log.info("🔒 Tokens revocados vigentes cargados: {}", revocados.size());
+    }
+
+    private void alNotificar(String payload) {
+        try {
+            Revocacion revocacion = objectMapper.readValue(payload, Revocacion.class);
+            revocados.put(revocacion.jti(), revocacion.expira());
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Revocación inválida: {}", payload);
+        }
+    }
+
+    private String serializar(Revocacion revocacion) {
+        try {
+            return objectMapper.writeValueAsString(revocacion);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la revocación " + revocacion, e);
+        }
+    }
+
+    // Payload del NOTIFY
+    record Revocacion(UUID jti, long expira) {
+    }
+}
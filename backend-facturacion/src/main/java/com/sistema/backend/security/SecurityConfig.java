@@ -1,14 +1,17 @@
 package com.sistema.backend.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -39,14 +42,21 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Despachos ASYNC (SseEmitter, StreamingResponseBody) y ERROR de una petición
+                        // ya autorizada: el filtro JWT no vuelve a correr y la respuesta ya está enviada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         // Endpoints públicos
                         .requestMatchers(
                                 "/api/usuarios/registro",
                                 "/api/usuarios/login",
-                                "/api/usuarios/verificar-email/**")
+                                "/api/usuarios/refrescar-token",
+                                "/api/usuarios/verificar-email/**",
+                                "/actuator/health/**")
                         .permitAll()
                         // Todos los demás requieren autenticación
-                        .anyRequest().authenticated());
+                        .anyRequest().authenticated())
+                // Sin token válido: 401 (el frontend intenta refrescar la sesión)
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
 
         // Agregar filtro JWT antes del filtro de autenticación estándar
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,75 @@
+package com.sistema.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.service.UsuarioService;
+import com.sistema.backend.service.invalidacion.BusInvalidacion;
+import com.sistema.backend.service.invalidacion.RegionInvalidable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Versión de tokens vigente por usuario (usuarios.token_version), en memoria.
+ *
+ * Un token es válido solo si su claim "ver" coincide con la versión actual del
+ * usuario. La versión se lee una vez por usuario y nodo; cuando cambia, el bus de
+ * invalidación (región "usuarios") descarta la entrada en todos los nodos, así que
+ * en el caso normal verificar un token no ejecuta SQL.
+ * @autor Paulo
+ */
+@Component
+public class VersionesToken {
+
+    // Usuario inexistente: ningún token coincide
+    private static final Integer SIN_USUARIO = -1;
+
+    private final UsuarioRepository usuarioRepository;
+    private final BusInvalidacion busInvalidacion;
+    private final Cache<Integer, Integer> versiones;
+
+    public VersionesToken(UsuarioRepository usuarioRepository,
+            BusInvalidacion busInvalidacion,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.versiones.max-usuarios:10000}") long maxUsuarios) {
+        this.usuarioRepository = usuarioRepository;
+        this.busInvalidacion = busInvalidacion;
+        this.versiones = Caffeine.newBuilder()
+                .maximumSize(maxUsuarios)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versiones, "jwt-versiones");
+    }
+
+    @PostConstruct
+    void registrarCache() {
+        busInvalidacion.registrar(UsuarioService.REGION_CACHE, new RegionInvalidable() {
+            @Override
+            public void invalidar(Set<String> claves) {
+                claves.forEach(id -> versiones.invalidate(Integer.valueOf(id)));
+            }
+
+            @Override
+            public void vaciar() {
+                versiones.invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * true si la versión del token es la vigente del usuario
+     */
+    public boolean esVigente(Integer idUsuario, Integer version) {
+        return version != null && version.equals(versiones.get(idUsuario, this::cargar));
+    }
+
+    // Fuera de transacción: va al primario (una réplica atrasada devolvería la versión anterior)
+    private Integer cargar(Integer idUsuario) {
+        return usuarioRepository.findTokenVersion(idUsuario).orElse(SIN_USUARIO);
+    }
+}
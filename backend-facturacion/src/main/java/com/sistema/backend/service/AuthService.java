@@ -5,17 +5,24 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import com.sistema.backend.dto.request.LoginRequest;
 import com.sistema.backend.dto.request.RegistroRequest;
 import com.sistema.backend.dto.response.AuthResponse;
 import com.sistema.backend.entity.Usuario;
+import com.sistema.backend.exception.SolicitudInvalidaException;
 import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.security.ListaRevocacion;
+import com.sistema.backend.security.VersionesToken;
+import com.sistema.backend.service.sesion.SesionService;
+import com.sistema.backend.service.sesion.SesionService.Sesion;
 import com.sistema.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 
 /**
  * Servicio para gestionar autenticación
- * Maneja registro, login, verificación de tokens
+ * Maneja registro, login, verificación de tokens, refresco y cierre de sesión
  * @autor Paulo
  */
 @Service
@@ -33,6 +40,18 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private SesionService sesionService;
+
+    @Autowired
+    private ListaRevocacion listaRevocacion;
+
+    @Autowired
+    private VersionesToken versionesToken;
+
     /**
      * Registrar nuevo usuario
      */
@@ -41,13 +60,13 @@ public class AuthService {
 
         // Verificar si el email ya existe
         if (usuarioRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException("El email ya está registrado");
+            throw new SolicitudInvalidaException("El email ya está registrado");
         }
 
         // Verificar si el documento ya existe
         if (request.getNumeroDocumento() != null &&
                 usuarioRepository.existsByNumeroDocumento(request.getNumeroDocumento())) {
-            throw new IllegalArgumentException("El número de documento ya está registrado");
+            throw new SolicitudInvalidaException("El número de documento ya está registrado");
         }
 
         try {
@@ -60,23 +79,12 @@ public class AuthService {
             usuario.setPassword(passwordEncoder.encode(request.getPassword()));
 
             Usuario usuarioGuardado = usuarioRepository.save(usuario);
+            usuarioService.invalidarEnCaches(usuarioGuardado.getIdUsuario());
 
             logger.info("✅ Usuario creado con ID: {}", usuarioGuardado.getIdUsuario());
 
-            // Generar token JWT
-            String token = jwtUtil.generateToken(
-                    usuarioGuardado.getIdUsuario(),
-                    usuarioGuardado.getEmail());
-
-            return AuthResponse.builder()
-                    .token(token)
-                    .idUsuario(usuarioGuardado.getIdUsuario())
-                    .email(usuarioGuardado.getEmail())
-                    .nombreCompleto(usuarioGuardado.getNombres() + " " + usuarioGuardado.getApellidos())
-                    .documento(usuarioGuardado.getNumeroDocumento())
-                    .mensaje("Usuario registrado exitosamente")
-                    .success(true)
-                    .build();
+            // Token de acceso + refresh token
+            return construirRespuesta(sesionService.abrir(usuarioGuardado), "Usuario registrado exitosamente");
 
         } catch (Exception e) {
             logger.error("❌ Error al crear usuario: {}", e.getMessage());
@@ -92,55 +100,46 @@ public class AuthService {
 
         // Buscar usuario por email
         Usuario usuario = usuarioRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new IllegalArgumentException("El usuario no esta registrado"));
+                .orElseThrow(() -> new SolicitudInvalidaException("El usuario no esta registrado"));
 
         // Verificar contraseña
         if (!passwordEncoder.matches(request.getPassword(), usuario.getPassword())) {
-            throw new IllegalArgumentException("La contraseña es incorrecta");
+            throw new SolicitudInvalidaException("La contraseña es incorrecta");
         }
 
         logger.info("✅ Login exitoso para: {}", request.getEmail());
 
-        // Generar token JWT
-        String token = jwtUtil.generateToken(usuario.getIdUsuario(), usuario.getEmail());
-
-        return AuthResponse.builder()
-                .token(token)
-                .idUsuario(usuario.getIdUsuario())
-                .email(usuario.getEmail())
-                .nombreCompleto(usuario.getNombres() + " " + usuario.getApellidos())
-                .documento(usuario.getNumeroDocumento())
-                .mensaje("Login exitoso")
-                .success(true)
-                .build();
+        // Token de acceso + refresh token
+        return construirRespuesta(sesionService.abrir(usuario), "Login exitoso");
     }
 
     /**
      * Verificar token JWT
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse verificarToken(String token) throws Exception {
         try {
             logger.info("🔍 Verificando token...");
 
-            if (!jwtUtil.validateToken(token)) {
+            Claims claims = jwtUtil.getClaimsIfValid(token);
+            if (claims == null || listaRevocacion.estaRevocado(claims.getId())) {
                 throw new Exception("Token inválido");
             }
 
-            Integer idUsuario = jwtUtil.getUserIdFromToken(token);
-            String email = jwtUtil.getEmailFromToken(token);
+            Integer idUsuario = Integer.valueOf(claims.getSubject());
+            if (!versionesToken.esVigente(idUsuario, jwtUtil.getVersion(claims))) {
+                throw new Exception("Token de una sesión cerrada");
+            }
 
             logger.info("✅ Token válido para ID: {}", idUsuario);
 
-            // Obtener usuario desde PostgreSQL
-            Usuario usuario = usuarioRepository.findById(Integer.valueOf(idUsuario))
-                    .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
-
+            // Datos del usuario tomados de los claims firmados, sin ir a PostgreSQL
             return AuthResponse.builder()
                     .token(token)
-                    .idUsuario(usuario.getIdUsuario())
-                    .email(email)
-                    .nombreCompleto(usuario.getNombres() + " " + usuario.getApellidos())
-                    .documento(usuario.getNumeroDocumento())
+                    .idUsuario(idUsuario)
+                    .email(claims.get(JwtUtil.CLAIM_EMAIL, String.class))
+                    .nombreCompleto(claims.get(JwtUtil.CLAIM_NOMBRE, String.class))
+                    .documento(claims.get(JwtUtil.CLAIM_DOCUMENTO, String.class))
                     .mensaje("Token válido")
                     .success(true)
                     .build();
@@ -152,35 +151,17 @@ public class AuthService {
     }
 
     /**
-     * Refrescar token
+     * Refrescar token: cambia el refresh token (de un solo uso) por un par nuevo
      */
-    public AuthResponse refrescarToken(String oldToken) throws Exception {
+    public AuthResponse refrescarToken(String refreshToken) throws Exception {
         try {
             logger.info("🔄 Refrescando token...");
 
-            if (!jwtUtil.validateToken(oldToken)) {
-                throw new Exception("Token inválido");
-            }
+            Sesion sesion = sesionService.rotar(refreshToken);
 
-            Integer idUsuario = jwtUtil.getUserIdFromToken(oldToken);
+            logger.info("✅ Token refrescado para ID: {}", sesion.usuario().getIdUsuario());
 
-            // Generar nuevo token
-            Usuario usuario = usuarioRepository.findById(Integer.valueOf(idUsuario))
-                    .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
-
-            String newToken = jwtUtil.generateToken(usuario.getIdUsuario(), usuario.getEmail());
-
-            logger.info("✅ Token refrescado para ID: {}", idUsuario);
-
-            return AuthResponse.builder()
-                    .token(newToken)
-                    .idUsuario(usuario.getIdUsuario())
-                    .email(usuario.getEmail())
-                    .nombreCompleto(usuario.getNombres() + " " + usuario.getApellidos())
-                    .documento(usuario.getNumeroDocumento())
-                    .mensaje("Token refrescado exitosamente")
-                    .success(true)
-                    .build();
+            return construirRespuesta(sesion, "Token refrescado exitosamente");
 
         } catch (Exception e) {
             logger.error("❌ Error al refrescar token: {}", e.getMessage());
@@ -188,6 +169,27 @@ public class AuthService {
         }
     }
 
+    /**
+     * Cerrar sesión: el token de acceso deja de valer en todos los nodos y el
+     * refresh token (si se envía) ya no se puede usar
+     */
+    public void cerrarSesion(String token, String refreshToken) {
+        Claims claims = jwtUtil.getClaimsIfValid(token);
+        if (claims == null) {
+            throw new SolicitudInvalidaException("Token inválido");
+        }
+        Integer idUsuario = Integer.valueOf(claims.getSubject());
+        sesionService.cerrar(idUsuario, claims.getId(), claims.getExpiration(), refreshToken);
+        logger.info("👋 Sesión cerrada para ID: {}", idUsuario);
+    }
+
+    /**
+     * Cerrar todas las sesiones del usuario (en todos los dispositivos)
+     */
+    public void cerrarTodasLasSesiones(Integer idUsuario) {
+        sesionService.cerrarTodas(idUsuario);
+    }
+
     /**
      * Verificar si un email está disponible
      */
@@ -195,5 +197,20 @@ public class AuthService {
     public boolean verificarEmailDisponible(String email) {
         return !usuarioRepository.existsByEmail(email);
     }
+
+    private AuthResponse construirRespuesta(Sesion sesion, String mensaje) {
+        Usuario usuario = sesion.usuario();
+        return AuthResponse.builder()
+                .token(sesion.accessToken())
+                .refreshToken(sesion.refreshToken())
+                .expiraEnSegundos(sesion.expiraEnSegundos())
+                .idUsuario(usuario.getIdUsuario())
+                .email(usuario.getEmail())
+                .nombreCompleto(usuario.getNombres() + " " + usuario.getApellidos())
+                .documento(usuario.getNumeroDocumento())
+                .mensaje(mensaje)
+                .success(true)
+                .build();
+    }
 }
 
@@ -1,20 +1,40 @@
 package com.sistema.backend.service;
 
 import com.sistema.backend.dto.response.BoletaResponse;
+import com.sistema.backend.dto.response.BoletaSummary;
 import com.sistema.backend.dto.request.DetalleRequest;
 import com.sistema.backend.dto.request.BoletaRequest;
+import com.sistema.backend.config.datasource.ReadYourWritesTracker;
 import com.sistema.backend.entity.Boleta;
 import com.sistema.backend.entity.DetalleBoleta;
+import com.sistema.backend.event.BoletaCreadaEvent;
+import com.sistema.backend.exception.SolicitudInvalidaException;
 import com.sistema.backend.repository.DetalleBoletaRepository;
 import com.sistema.backend.repository.BoletaRepository;
+import com.sistema.backend.repository.ProductoRepository;
+import com.sistema.backend.service.catalogo.CatalogoService;
+import com.sistema.backend.service.catalogo.CatalogoSnapshot;
+import com.sistema.backend.service.catalogo.ProductoCatalogo;
+import com.sistema.backend.service.feed.BoletaFeedService;
+import com.sistema.backend.service.numeracion.NumeracionService;
+import com.sistema.backend.service.outbox.OutboxService;
+import com.sistema.backend.service.stock.StockService;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -30,28 +50,45 @@ public class BoletaService {
 
     private final BoletaRepository boletaRepository;
     private final DetalleBoletaRepository detalleBoletaRepository;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final EntityManagerFactory entityManagerFactory;
+    private final OutboxService outboxService;
+    private final CatalogoService catalogoService;
+    private final ProductoRepository productoRepository;
+    private final StockService stockService;
+    private final NumeracionService numeracionService;
+    private final BoletaFeedService boletaFeedService;
+
+    // Líneas sin idProducto (nombre y precio del cliente): solo para cargos fuera del catálogo
+    @Value("${app.catalogo.permitir-lineas-libres:false}")
+    private boolean permitirLineasLibres;
 
     /**
-     * Obtener boleta por ID verificando que pertenezca al usuario
+     * Obtener boleta con detalles y vendedor ya cargados (entity graph),
+     * solo si pertenece al usuario. Vacío si no existe o es de otro usuario.
      */
-    public Boleta getBoletaByIdAndUser(Integer idBoleta, Integer idUsuario) {
-        Optional<Boleta> boletaOptional = boletaRepository.findByIdBoleta(idBoleta);
-
-        if (boletaOptional.isPresent()) {
-            Boleta boleta = boletaOptional.get();
-            if (boleta.getIdUsuario().equals(idUsuario)) {
-                return boleta;
-            } else {
-                throw new RuntimeException("La boleta no pertenece al usuario");
-            }
-        } else {
-            throw new RuntimeException("Boleta no encontrada");
+    @Transactional(readOnly = true)
+    public Optional<Boleta> getBoletaDetalladaByIdAndUser(Integer idBoleta, Integer idUsuario) {
+        if (entityManagerFactory.getCache().contains(Boleta.class, idBoleta)) {
+            // En caché L2: cabecera, colección de detalles y vendedor se resuelven sin SQL
+            return boletaRepository.findById(idBoleta)
+                    .filter(boleta -> boleta.getIdUsuario().equals(idUsuario))
+                    .map(boleta -> {
+                        Hibernate.initialize(boleta.getDetalles());
+                        Hibernate.initialize(boleta.getUsuario());
+                        // Producto de catálogo (LAZY): se usa al convertir o renderizar, ya fuera de la transacción
+                        boleta.getDetalles().forEach(detalle -> Hibernate.initialize(detalle.getProductoCatalogo()));
+                        return boleta;
+                    });
         }
+        // Primera lectura: una sola consulta con entity graph filtrada por usuario, que además puebla la caché
+        return boletaRepository.findDetalladaByIdBoletaAndIdUsuario(idBoleta, idUsuario);
     }
 
     /**
      * Obtener todas las boletas de un usuario
      */
+    @Transactional(readOnly = true)
     public List<Boleta> getBoletasByUserId(Integer idUsuario) {
         return boletaRepository.findByIdUsuario(idUsuario);
     }
@@ -59,10 +96,27 @@ public class BoletaService {
     /**
      * Obtener todas las boletas de un usuario ordenadas por fecha
      */
+    @Transactional(readOnly = true)
     public List<Boleta> getBoletasByUserIdOrdenadas(Integer idUsuario) {
         return boletaRepository.findByIdUsuarioOrderByFechaCreacionDesc(idUsuario);
     }
 
+    /**
+     * Obtener el listado ligero (sin detalles) de las boletas de un usuario
+     */
+    @Transactional(readOnly = true)
+    public List<BoletaSummary> getResumenesByUserId(Integer idUsuario) {
+        return boletaRepository.findResumenesByIdUsuario(idUsuario);
+    }
+
+    /**
+     * Obtener el listado ligero (sin detalles) ordenado por fecha
+     */
+    @Transactional(readOnly = true)
+    public List<BoletaSummary> getResumenesByUserIdOrdenados(Integer idUsuario) {
+        return boletaRepository.findResumenesByIdUsuarioOrdenados(idUsuario);
+    }
+
     /**
      * MÉTODO PRINCIPAL: Procesa una boleta completa de forma transaccional
      */
@@ -76,29 +130,56 @@ public class BoletaService {
                 return BoletaResponse.error("El carrito está vacío");
             }
 
-            // Validar que el total sea correcto
-            BigDecimal totalCalculado = calcularTotal(request.getCartItems());
+            // Resolver las líneas contra el catálogo en memoria (sin consultas por línea)
+            List<LineaResuelta> lineas = resolverLineas(request.getCartItems());
+
+            // Validar que el total sea correcto; se guarda el calculado en el servidor
+            BigDecimal totalCalculado = calcularTotal(lineas);
             if (totalCalculado.compareTo(request.getTotal()) != 0) {
                 log.warn("Total enviado ({}) no coincide con total calculado ({})",
                         request.getTotal(), totalCalculado);
             }
 
             // Crear boleta
-            Boleta boleta = crearBoleta(request, idUsuario);
+            Boleta boleta = crearBoleta(request, idUsuario, totalCalculado);
 
             // Crear detalles
-            crearDetallesBoleta(boleta, request.getCartItems());
+            crearDetallesBoleta(boleta, lineas);
 
-            log.info("✅ Boleta {} procesada exitosamente", boleta.getIdBoleta());
+            // Las próximas lecturas de este usuario van al primario (read-your-writes)
+            readYourWritesTracker.registrarEscritura(idUsuario);
+
+            // Evento en el outbox, en la misma transacción: los procesos posteriores
+            // (comprobante electrónico, correo, analítica) corren fuera del checkout
+            outboxService.registrar(BoletaCreadaEvent.TIPO, boleta.getIdBoleta(), idUsuario,
+                    new BoletaCreadaEvent(boleta.getIdBoleta(), idUsuario, boleta.getTotal(), boleta.getFechaCreacion()));
 
-            return BoletaResponse.builder()
+            // Stock al final: los bloqueos de fila solo se sostienen hasta el commit
+            descontarStock(lineas);
+
+            BoletaResponse respuesta = BoletaResponse.builder()
                     .success(true)
                     .mensaje("Boleta creada exitosamente")
                     .boletaId(boleta.getIdBoleta().longValue())
                     .build();
 
+            // Serie-correlativo justo antes del commit: sin huecos y con bloqueo mínimo de la serie
+            numeracionService.numerarAlConfirmar(boleta, respuesta::setNumero);
+
+            // Feed en vivo (GET /api/boletas/stream) de este y de los demás nodos, solo si confirma
+            boletaFeedService.publicarAlConfirmar(boleta);
+
+            log.info("✅ Boleta {} procesada exitosamente", boleta.getIdBoleta());
+            return respuesta;
+
+        } catch (SolicitudInvalidaException e) {
+            log.warn("⚠️ Carrito rechazado: {}", e.getMessage());
+            marcarRollback();
+            return BoletaResponse.error(e.getMessage());
+
         } catch (Exception e) {
             log.error("❌ Error al procesar boleta", e);
+            marcarRollback();
             return BoletaResponse.error("Error al procesar la boleta: " + e.getMessage());
         }
     }
@@ -106,50 +187,124 @@ public class BoletaService {
     /**
      * Crea la entidad Boleta
      */
-    private Boleta crearBoleta(BoletaRequest request, Integer idUsuario) {
+    private Boleta crearBoleta(BoletaRequest request, Integer idUsuario, BigDecimal total) {
         Boleta boleta = new Boleta();
         boleta.setIdUsuario(idUsuario);
-        boleta.setTotal(request.getTotal());
+        boleta.setTotal(total);
         boleta.setFechaCreacion(LocalDateTime.now());
         
         boleta.setNombreCliente(request.getNombreCliente());
         boleta.setDocumentoCliente(request.getDocumentoCliente());
         boleta.setEmailCliente(request.getEmailCliente());
 
+        // Contadores desnormalizados para los listados
+        boleta.setCantidadItems(request.getCartItems().size());
+        boleta.setUnidadesTotales(request.getCartItems().stream()
+                .mapToInt(DetalleRequest::getCantidad)
+                .sum());
+
         return boletaRepository.save(boleta);
     }
 
     /**
      * Crea los detalles de la boleta
      */
-    private void crearDetallesBoleta(Boleta boleta, List<DetalleRequest> items) {
-        for (DetalleRequest item : items) {
+    private void crearDetallesBoleta(Boleta boleta, List<LineaResuelta> lineas) {
+        for (LineaResuelta linea : lineas) {
             DetalleBoleta detalle = new DetalleBoleta();
-            detalle.setBoleta(boleta);
-            detalle.setProducto(item.getNombreProducto());
-            detalle.setCantidad(item.getCantidad());
-            detalle.setPrecioUnitario(item.getPrecioUnitario());
+            boleta.agregarDetalle(detalle);
+            if (linea.producto() != null) {
+                // Referencia sin consulta (id_producto) y el nombre vigente al vender
+                detalle.setProductoCatalogo(productoRepository.getReferenceById(linea.producto().idProducto()));
+                detalle.setProducto(linea.producto().nombre());
+            } else {
+                detalle.setProducto(linea.nombreLibre());
+            }
+            detalle.setCantidad(linea.cantidad());
+            detalle.setPrecioUnitario(linea.precioUnitario());
             detalle.calcularSubtotal();
 
             detalleBoletaRepository.save(detalle);
         }
-        log.info("✅ Detalles de la boleta creados: {} items", items.size());
+        log.info("✅ Detalles de la boleta creados: {} items", lineas.size());
+    }
+
+    /**
+     * Resuelve las líneas del carrito contra una única instantánea del catálogo.
+     * El precio de las líneas de catálogo es siempre el del servidor.
+     */
+    private List<LineaResuelta> resolverLineas(List<DetalleRequest> items) {
+        CatalogoSnapshot catalogo = catalogoService.snapshot();
+        List<LineaResuelta> lineas = new ArrayList<>(items.size());
+        for (DetalleRequest item : items) {
+            if (item.getIdProducto() != null) {
+                ProductoCatalogo producto = catalogo.buscar(item.getIdProducto());
+                if (producto == null || !producto.activo()) {
+                    throw new SolicitudInvalidaException("El producto " + item.getIdProducto() + " no existe o no está disponible");
+                }
+                if (item.getPrecioUnitario() != null && item.getPrecioUnitario().compareTo(producto.precio()) != 0) {
+                    throw new SolicitudInvalidaException("El precio de " + producto.nombre() + " cambió a S/ " + producto.precio());
+                }
+                lineas.add(new LineaResuelta(producto, null, producto.precio(), item.getCantidad()));
+            } else if (permitirLineasLibres && item.getNombreProducto() != null && item.getPrecioUnitario() != null) {
+                // Un producto del catálogo no se vende como línea libre con precio del cliente
+                ProductoCatalogo homonimo = catalogo.buscarPorNombre(item.getNombreProducto());
+                if (homonimo != null) {
+                    throw new SolicitudInvalidaException(homonimo.nombre() + " es un producto del catálogo: indique su idProducto");
+                }
+                lineas.add(new LineaResuelta(null, item.getNombreProducto(), item.getPrecioUnitario(), item.getCantidad()));
+            } else {
+                throw new SolicitudInvalidaException("Cada producto del carrito debe indicar idProducto");
+            }
+        }
+        return lineas;
     }
 
     /**
-     * Calcula el total de los items
+     * Descuenta el stock de las líneas de productos que lo controlan,
+     * sumando las unidades de un mismo producto repetido en el carrito
      */
-    private BigDecimal calcularTotal(List<DetalleRequest> items) {
-        return items.stream()
-                .map(item -> item.getPrecioUnitario().multiply(BigDecimal.valueOf(item.getCantidad())))
+    private void descontarStock(List<LineaResuelta> lineas) {
+        Map<Integer, Integer> cantidades = new HashMap<>();
+        for (LineaResuelta linea : lineas) {
+            if (linea.producto() != null && linea.producto().controlaStock()) {
+                cantidades.merge(linea.producto().idProducto(), linea.cantidad(), Integer::sum);
+            }
+        }
+        if (!cantidades.isEmpty()) {
+            stockService.descontar(cantidades);
+        }
+    }
+
+    /**
+     * El error se devuelve como respuesta, pero nada de la boleta (ni del stock) debe confirmarse
+     */
+    private void marcarRollback() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+
+    /**
+     * Calcula el total de las líneas
+     */
+    private BigDecimal calcularTotal(List<LineaResuelta> lineas) {
+        return lineas.stream()
+                .map(linea -> linea.precioUnitario().multiply(BigDecimal.valueOf(linea.cantidad())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    // Línea del carrito ya validada: producto de catálogo o texto libre
+    private record LineaResuelta(ProductoCatalogo producto, String nombreLibre, BigDecimal precioUnitario, int cantidad) {
+    }
+
     /**
-     * Obtener detalles de una boleta
+     * Obtener detalles de una boleta del usuario en un solo round trip.
+     * Vacío si la boleta no existe o es de otro usuario (toda boleta tiene al menos una línea).
      */
-    public List<DetalleBoleta> getDetallesByBoletaId(Integer idBoleta) {
-        return detalleBoletaRepository.findByBoleta_IdBoleta(idBoleta);
+    @Transactional(readOnly = true)
+    public List<DetalleBoleta> getDetallesByBoletaIdAndUser(Integer idBoleta, Integer idUsuario) {
+        return detalleBoletaRepository.findByBoletaAndUsuario(idBoleta, idUsuario);
     }
 }
 
@@ -1,13 +1,19 @@
 package com.sistema.backend.service;
 
-import java.util.Optional;
-
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import com.sistema.backend.dto.response.UsuarioResponse;
 import com.sistema.backend.dto.response.BoletaDetailsResponse.UsuarioDTO;
 import com.sistema.backend.entity.Usuario;
 import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.service.invalidacion.BusInvalidacion;
+import com.sistema.backend.service.invalidacion.RegionInvalidable;
+
+import java.util.Set;
 
 /**
  * Servicio para gestión de usuarios (CRUD y administración)
@@ -18,10 +24,47 @@ import com.sistema.backend.repository.UsuarioRepository;
 @Transactional
 public class UsuarioService {
 
+    // Región del bus de invalidación (caché L2 "usuarios" de cada nodo)
+    public static final String REGION_CACHE = "usuarios";
+
     private final UsuarioRepository usuarioRepository;
+    private final BusInvalidacion busInvalidacion;
+    private final EntityManagerFactory entityManagerFactory;
 
-    public UsuarioService(UsuarioRepository usuarioRepository) {
+    public UsuarioService(UsuarioRepository usuarioRepository,
+            BusInvalidacion busInvalidacion,
+            EntityManagerFactory entityManagerFactory) {
         this.usuarioRepository = usuarioRepository;
+        this.busInvalidacion = busInvalidacion;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * La caché L2 de usuarios es local a cada nodo: los cambios hechos en otro nodo
+     * llegan por el bus de invalidación
+     */
+    @PostConstruct
+    void registrarCache() {
+        Cache cache = entityManagerFactory.getCache();
+        busInvalidacion.registrar(REGION_CACHE, new RegionInvalidable() {
+            @Override
+            public void invalidar(Set<String> claves) {
+                claves.forEach(id -> cache.evict(Usuario.class, Integer.valueOf(id)));
+            }
+
+            @Override
+            public void vaciar() {
+                cache.evict(Usuario.class);
+            }
+        });
+    }
+
+    /**
+     * Invalida el usuario en las cachés de todos los nodos al confirmar la transacción.
+     * Toda escritura sobre usuarios debe llamarlo.
+     */
+    public void invalidarEnCaches(Integer idUsuario) {
+        busInvalidacion.invalidar(REGION_CACHE, idUsuario);
     }
 
     /**
@@ -71,9 +114,21 @@ public class UsuarioService {
      */
     @Transactional(readOnly = true)
     public UsuarioDTO obtenerUsuarioDTO(Integer id) {
-        Optional<Usuario> usuarioOpt = usuarioRepository.findById(id);
+        return construirUsuarioDTO(id, usuarioRepository.findById(id).orElse(null));
+    }
 
-        if (usuarioOpt.isEmpty()) {
+    /**
+     * Construye el DTO del vendedor a partir de una entidad ya cargada (sin consultar la BD).
+     * Si el usuario es null, devuelve un DTO con valores por defecto.
+     * 
+     * @param id      ID del usuario (vendedor)
+     * @param usuario entidad cargada o null
+     * @return UsuarioDTO con datos mapeados
+     */
+    // Solo copia campos: sin transacción ni conexión del pool (se llama tras cerrar la del servicio)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UsuarioDTO construirUsuarioDTO(Integer id, Usuario usuario) {
+        if (usuario == null) {
             // Manejo de caso donde el usuario no existe (seguro histórico)
             return UsuarioDTO.builder()
                     .id(id)
@@ -83,8 +138,6 @@ public class UsuarioService {
                     .build();
         }
 
-        Usuario usuario = usuarioOpt.get();
-
         return UsuarioDTO.builder()
                 .id(usuario.getIdUsuario())
                 .nombres(usuario.getNombres())
@@ -0,0 +1,13 @@
+package com.sistema.backend.service.analitica;
+
+/**
+ * La proyección todavía se está cargando (o reintentando la carga): las
+ * consultas responderían con datos parciales. Se traduce a 503.
+ * @autor Paulo
+ */
+public class AnaliticaNoCargadaException extends RuntimeException {
+
+    public AnaliticaNoCargadaException() {
+        super("La analítica se está cargando, intente más tarde", null, false, false);
+    }
+}
@@ -0,0 +1,29 @@
+package com.sistema.backend.service.analitica;
+
+import com.sistema.backend.entity.OutboxEvento;
+import com.sistema.backend.event.BoletaCreadaEvent;
+import com.sistema.backend.service.outbox.OutboxHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Agrega cada boleta creada a la proyección analítica
+ * @autor Paulo
+ */
+@Component
+@RequiredArgsConstructor
+public class AnaliticaOutboxHandler implements OutboxHandler {
+
+    private final AnaliticaService analiticaService;
+
+    @Override
+    public String tipo() {
+        return BoletaCreadaEvent.TIPO;
+    }
+
+    @Override
+    public void manejar(OutboxEvento evento) {
+        // Idempotente: una boleta ya cargada se ignora
+        analiticaService.registrarBoleta(evento.getIdAgregado());
+    }
+}
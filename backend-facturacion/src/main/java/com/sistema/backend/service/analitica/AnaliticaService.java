@@ -0,0 +1,225 @@
+package com.sistema.backend.service.analitica;
+
+import com.sistema.backend.entity.Usuario;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.repository.AnaliticaRepository;
+import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.service.analitica.VentasColumnares.LineaVenta;
+import com.sistema.backend.service.analitica.VentasColumnares.Totales;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Analítica de ventas (top de productos, curva por hora, ranking de vendedores)
+ * respondida desde la proyección columnar en memoria, sin consultas sobre las
+ * tablas del checkout.
+ *
+ * La proyección se carga al arrancar desde la réplica (en un hilo propio, sin
+ * retrasar el arranque) por rangos de id de boleta, cada uno en una transacción
+ * corta; si la carga falla se reintenta desde el último rango cargado. Se
+ * completa con cada boleta creada vía outbox. Hasta terminar la carga las
+ * consultas responden AnaliticaNoCargadaException en vez de datos parciales.
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class AnaliticaService {
+
+    private static final Comparator<Totales> POR_IMPORTE =
+            Comparator.comparingLong(Totales::centimos).reversed().thenComparingInt(Totales::clave);
+    private static final Comparator<Totales> POR_UNIDADES =
+            Comparator.comparingLong(Totales::unidades).reversed().thenComparingInt(Totales::clave);
+
+    private final AnaliticaRepository analiticaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate lecturaReplica;
+    private final TransactionTemplate lecturaPrimario;
+    private final VentasColumnares ventas = new VentasColumnares();
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitada;
+    private final int loteCarga;
+    private final long reintentoMs;
+    private final int maxDias;
+    private volatile boolean cargada;
+    // Última boleta cargada desde la réplica: desde aquí sigue un reintento
+    private int ultimoIdCargado;
+
+    public AnaliticaService(AnaliticaRepository analiticaRepository,
+            UsuarioRepository usuarioRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.analitica.habilitada:true}") boolean habilitada,
+            @Value("${app.analitica.lote-carga:2000}") int loteCarga,
+            @Value("${app.analitica.reintento-ms:10000}") long reintentoMs,
+            @Value("${app.analitica.max-dias:92}") int maxDias) {
+        this.analiticaRepository = analiticaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.lecturaReplica = new TransactionTemplate(transactionManager);
+        this.lecturaReplica.setReadOnly(true);
+        // Boleta recién creada: la réplica puede no tenerla todavía
+        this.lecturaPrimario = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.habilitada = habilitada;
+        this.loteCarga = loteCarga;
+        this.reintentoMs = reintentoMs;
+        this.maxDias = maxDias;
+        meterRegistry.gauge("analitica.filas", ventas, VentasColumnares::filas);
+        meterRegistry.gauge("analitica.memoria.bytes", ventas, VentasColumnares::bytes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void cargarAlIniciar() {
+        if (habilitada) {
+            Thread.ofPlatform().name("analitica-carga").daemon().start(this::cargar);
+        }
+    }
+
+    /**
+     * Carga completa por rangos de id (loteCarga boletas por transacción). Ante un
+     * error espera y reintenta desde el último rango cargado, con espera creciente.
+     */
+    void cargar() {
+        long inicio = System.nanoTime();
+        int fallos = 0;
+        while (!cargada) {
+            try {
+                cargarRangos();
+                cargada = true;
+                log.info("📊 Analítica cargada: {} líneas, {} productos, {} KB en {} ms",
+                        ventas.filas(), ventas.productos(), ventas.bytes() / 1024,
+                        Duration.ofNanos(System.nanoTime() - inicio).toMillis());
+            } catch (RuntimeException e) {
+                fallos++;
+                long espera = reintentoMs << Math.min(fallos - 1, 5);
+                log.error("❌ Error al cargar la analítica (intento {}), se reintenta en {} ms desde la boleta {}: {}",
+                        fallos, espera, ultimoIdCargado, e.getMessage());
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void cargarRangos() {
+        while (true) {
+            int desde = ultimoIdCargado;
+            List<LineaVenta> lote = lecturaReplica.execute(status -> analiticaRepository.lineasPosteriores(desde, loteCarga));
+            if (lote == null || lote.isEmpty()) {
+                return;
+            }
+            // Las boletas ya agregadas por el outbox se ignoran
+            ventas.agregar(lote);
+            ultimoIdCargado = lote.get(lote.size() - 1).idBoleta();
+        }
+    }
+
+    /**
+     * Agrega una boleta nueva (idempotente)
+     */
+    public void registrarBoleta(Integer idBoleta) {
+        if (!habilitada || ventas.contiene(idBoleta)) {
+            return;
+        }
+        List<LineaVenta> lineas = lecturaPrimario.execute(status -> analiticaRepository.lineasDeBoleta(idBoleta));
+        if (lineas != null && !lineas.isEmpty()) {
+            ventas.agregar(lineas);
+        }
+    }
+
+    /**
+     * Productos más vendidos por unidades o por importe
+     */
+    public List<ProductoVendido> topProductos(LocalDateTime desde, LocalDateTime hasta, int limite, boolean porImporte) {
+        validarConsulta(desde, hasta);
+        return medir("productos", () -> ventas.porProducto(desde, hasta).stream()
+                .sorted(porImporte ? POR_IMPORTE : POR_UNIDADES)
+                .limit(limite)
+                .map(t -> new ProductoVendido(ventas.idProducto(t.clave()), ventas.nombreProducto(t.clave()),
+                        t.unidades(), importe(t), t.lineas()))
+                .toList());
+    }
+
+    /**
+     * Curva de ventas por hora (incluye horas sin ventas)
+     */
+    public List<VentaPorHora> ventasPorHora(LocalDateTime desde, LocalDateTime hasta) {
+        validarConsulta(desde, hasta);
+        LocalDateTime base = desde.truncatedTo(ChronoUnit.HOURS);
+        return medir("por-hora", () -> ventas.porHora(desde, hasta).stream()
+                .map(t -> new VentaPorHora(base.plusHours(t.clave()), t.unidades(), importe(t), t.lineas()))
+                .toList());
+    }
+
+    /**
+     * Vendedores ordenados por importe vendido
+     */
+    public List<VendedorRanking> rankingVendedores(LocalDateTime desde, LocalDateTime hasta, int limite) {
+        validarConsulta(desde, hasta);
+        List<Totales> top = medir("vendedores", () -> ventas.porUsuario(desde, hasta).stream()
+                .sorted(POR_IMPORTE)
+                .limit(limite)
+                .toList());
+
+        // Solo se consultan los nombres del top (caché L2 de usuarios)
+        Map<Integer, Usuario> usuarios = lecturaReplica.execute(status -> usuarioRepository
+                .findAllById(top.stream().map(Totales::clave).toList()).stream()
+                .collect(Collectors.toMap(Usuario::getIdUsuario, Function.identity())));
+        return top.stream()
+                .map(t -> {
+                    Usuario usuario = usuarios != null ? usuarios.get(t.clave()) : null;
+                    String nombre = usuario != null ? usuario.getNombres() + " " + usuario.getApellidos() : null;
+                    return new VendedorRanking(t.clave(), nombre, t.unidades(), importe(t), t.lineas());
+                })
+                .toList();
+    }
+
+    public EstadoAnalitica estado() {
+        return new EstadoAnalitica(cargada, ventas.filas(), ventas.productos(), ventas.bytes());
+    }
+
+    private void validarConsulta(LocalDateTime desde, LocalDateTime hasta) {
+        if (!cargada) {
+            throw new AnaliticaNoCargadaException();
+        }
+        if (!desde.isBefore(hasta)) {
+            throw new SolicitudInvalidaException("La fecha 'desde' debe ser anterior a 'hasta'");
+        }
+        if (desde.plusDays(maxDias).isBefore(hasta)) {
+            throw new SolicitudInvalidaException("El rango no puede superar " + maxDias + " días");
+        }
+    }
+
+    private <T> T medir(String consulta, Supplier<T> ejecucion) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        try {
+            return ejecucion.get();
+        } finally {
+            muestra.stop(meterRegistry.timer("analitica.consulta", "tipo", consulta));
+        }
+    }
+
+    private static BigDecimal importe(Totales totales) {
+        return BigDecimal.valueOf(totales.centimos(), 2);
+    }
+}
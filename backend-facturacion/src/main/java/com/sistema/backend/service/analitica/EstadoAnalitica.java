@@ -0,0 +1,8 @@
+package com.sistema.backend.service.analitica;
+
+/**
+ * Estado de la proyección en memoria
+ * @autor Paulo
+ */
+public record EstadoAnalitica(boolean cargada, int filas, int productos, long bytes) {
+}
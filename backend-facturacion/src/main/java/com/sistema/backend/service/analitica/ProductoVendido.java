@@ -0,0 +1,10 @@
+package com.sistema.backend.service.analitica;
+
+import java.math.BigDecimal;
+
+/**
+ * Producto en el ranking de ventas (idProducto null en líneas de texto libre)
+ * @autor Paulo
+ */
+public record ProductoVendido(Integer idProducto, String producto, long unidades, BigDecimal importe, long lineas) {
+}
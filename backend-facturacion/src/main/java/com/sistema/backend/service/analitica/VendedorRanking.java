@@ -0,0 +1,10 @@
+package com.sistema.backend.service.analitica;
+
+import java.math.BigDecimal;
+
+/**
+ * Vendedor en el ranking por importe vendido
+ * @autor Paulo
+ */
+public record VendedorRanking(Integer idUsuario, String nombre, long unidades, BigDecimal importe, long lineas) {
+}
@@ -0,0 +1,11 @@
+package com.sistema.backend.service.analitica;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Punto de la curva de ventas por hora
+ * @autor Paulo
+ */
+public record VentaPorHora(LocalDateTime hora, long unidades, BigDecimal importe, long lineas) {
+}
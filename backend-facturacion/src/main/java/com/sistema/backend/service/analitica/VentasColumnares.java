@@ -0,0 +1,244 @@
+package com.sistema.backend.service.analitica;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Proyección columnar en memoria de las líneas vendidas (detalle_boleta).
+ *
+ * Cada columna es un arreglo primitivo (minuto, vendedor, producto, cantidad,
+ * céntimos): 24 bytes por línea, sin objetos por fila. Las consultas recorren
+ * las columnas en bloques en paralelo y acumulan en arreglos indexados por la
+ * clave de agrupación.
+ *
+ * Un solo escritor (sincronizado) agrega al final de los arreglos y publica una
+ * Vista inmutable (arreglos + tamaño) por un campo volatile; los lectores no
+ * bloquean y nunca leen más allá del tamaño publicado.
+ * @autor Paulo
+ */
+public final class VentasColumnares {
+
+    /**
+     * Línea vendida tal como llega de la base
+     */
+    public record LineaVenta(int idBoleta, LocalDateTime fecha, int idUsuario, Integer idProducto,
+            String producto, int cantidad, long centimos) {
+    }
+
+    /**
+     * Totales de un grupo (producto, vendedor u hora)
+     */
+    public record Totales(int clave, long unidades, long centimos, long lineas) {
+    }
+
+    // Filas por tarea en los recorridos paralelos
+    private static final int BLOQUE = 1 << 16;
+    private static final int CAPACIDAD_INICIAL = 1 << 14;
+
+    private record Vista(int tamano, int[] minutos, int[] usuarios, int[] productos, int[] cantidades,
+            long[] centimos, int maxUsuario, int tamanoDiccionario, String[] nombres, int[] idsProducto) {
+    }
+
+    // Solo el escritor toca estos campos
+    private final Map<Integer, Integer> diccionarioCatalogo = new HashMap<>();
+    private final Map<String, Integer> diccionarioLibre = new HashMap<>();
+    private final BitSet boletas = new BitSet();
+
+    private volatile Vista vista = new Vista(0, new int[CAPACIDAD_INICIAL], new int[CAPACIDAD_INICIAL],
+            new int[CAPACIDAD_INICIAL], new int[CAPACIDAD_INICIAL], new long[CAPACIDAD_INICIAL], 0,
+            0, new String[256], new int[256]);
+
+    /**
+     * Agrega las líneas de una o varias boletas (las de una boleta deben venir
+     * juntas). Las boletas ya cargadas se ignoran: la carga inicial y los eventos
+     * de boletas nuevas pueden solaparse. Devuelve las filas agregadas.
+     */
+    public synchronized int agregar(List<LineaVenta> lineas) {
+        Vista v = vista;
+        int tamano = v.tamano();
+        int[] minutos = v.minutos(), usuarios = v.usuarios(), productos = v.productos(), cantidades = v.cantidades();
+        long[] centimos = v.centimos();
+        int maxUsuario = v.maxUsuario();
+        int tamanoDiccionario = v.tamanoDiccionario();
+        String[] nombres = v.nombres();
+        int[] idsProducto = v.idsProducto();
+
+        int boletaActual = -1;
+        boolean omitir = false;
+        for (LineaVenta linea : lineas) {
+            if (linea.idBoleta() != boletaActual) {
+                boletaActual = linea.idBoleta();
+                omitir = boletas.get(boletaActual);
+                boletas.set(boletaActual);
+            }
+            if (omitir) {
+                continue;
+            }
+            if (tamano == minutos.length) {
+                int capacidad = minutos.length * 2;
+                minutos = Arrays.copyOf(minutos, capacidad);
+                usuarios = Arrays.copyOf(usuarios, capacidad);
+                productos = Arrays.copyOf(productos, capacidad);
+                cantidades = Arrays.copyOf(cantidades, capacidad);
+                centimos = Arrays.copyOf(centimos, capacidad);
+            }
+
+            Integer clave = linea.idProducto() != null
+                    ? diccionarioCatalogo.get(linea.idProducto())
+                    : diccionarioLibre.get(linea.producto());
+            if (clave == null) {
+                clave = tamanoDiccionario++;
+                if (clave == nombres.length) {
+                    nombres = Arrays.copyOf(nombres, nombres.length * 2);
+                    idsProducto = Arrays.copyOf(idsProducto, idsProducto.length * 2);
+                }
+                nombres[clave] = linea.producto();
+                idsProducto[clave] = linea.idProducto() != null ? linea.idProducto() : 0;
+                if (linea.idProducto() != null) {
+                    diccionarioCatalogo.put(linea.idProducto(), clave);
+                } else {
+                    diccionarioLibre.put(linea.producto(), clave);
+                }
+            }
+
+            minutos[tamano] = minuto(linea.fecha());
+            usuarios[tamano] = linea.idUsuario();
+            productos[tamano] = clave;
+            cantidades[tamano] = linea.cantidad();
+            centimos[tamano] = linea.centimos();
+            maxUsuario = Math.max(maxUsuario, linea.idUsuario());
+            tamano++;
+        }
+
+        int agregadas = tamano - v.tamano();
+        if (agregadas > 0) {
+            // Escritura volatile: publica las filas escritas arriba a los lectores
+            vista = new Vista(tamano, minutos, usuarios, productos, cantidades, centimos, maxUsuario,
+                    tamanoDiccionario, nombres, idsProducto);
+        }
+        return agregadas;
+    }
+
+    public synchronized boolean contiene(int idBoleta) {
+        return boletas.get(idBoleta);
+    }
+
+    /**
+     * Totales por producto (clave = id del diccionario) en [desde, hasta)
+     */
+    public List<Totales> porProducto(LocalDateTime desde, LocalDateTime hasta) {
+        Vista v = vista;
+        return noVacios(agrupar(v, v.productos(), 0, 1, v.tamanoDiccionario(), minuto(desde), minuto(hasta)));
+    }
+
+    /**
+     * Totales por vendedor (clave = id de usuario) en [desde, hasta)
+     */
+    public List<Totales> porUsuario(LocalDateTime desde, LocalDateTime hasta) {
+        Vista v = vista;
+        return noVacios(agrupar(v, v.usuarios(), 0, 1, v.maxUsuario() + 1, minuto(desde), minuto(hasta)));
+    }
+
+    /**
+     * Totales por hora desde la hora de "desde" (clave = índice de hora), incluidas las horas sin ventas
+     */
+    public List<Totales> porHora(LocalDateTime desde, LocalDateTime hasta) {
+        Vista v = vista;
+        int inicio = minuto(desde.truncatedTo(ChronoUnit.HOURS));
+        int fin = minuto(hasta);
+        int horas = Math.max(0, (fin - inicio + 59) / 60);
+        long[][] acumulado = agrupar(v, v.minutos(), inicio, 60, horas, minuto(desde), fin);
+        List<Totales> resultado = new ArrayList<>(horas);
+        for (int h = 0; h < horas; h++) {
+            resultado.add(new Totales(h, acumulado[0][h], acumulado[1][h], acumulado[2][h]));
+        }
+        return resultado;
+    }
+
+    public String nombreProducto(int clave) {
+        return vista.nombres()[clave];
+    }
+
+    /**
+     * Id de catálogo del producto del diccionario, o null si es una línea libre
+     */
+    public Integer idProducto(int clave) {
+        int id = vista.idsProducto()[clave];
+        return id != 0 ? id : null;
+    }
+
+    public int filas() {
+        return vista.tamano();
+    }
+
+    public int productos() {
+        return vista.tamanoDiccionario();
+    }
+
+    /**
+     * Memoria reservada por las columnas y el diccionario (sin contar los textos)
+     */
+    public long bytes() {
+        Vista v = vista;
+        return (long) v.minutos().length * (4 * Integer.BYTES + Long.BYTES)
+                + (long) v.nombres().length * (4 + Integer.BYTES);
+    }
+
+    /**
+     * Recorre las filas en bloques paralelos y acumula unidades, céntimos y líneas
+     * en la posición (clave[i] - base) / divisor, solo para minutos en [desde, hasta).
+     */
+    private static long[][] agrupar(Vista v, int[] claves, int base, int divisor, int grupos, int desde, int hasta) {
+        int tamano = v.tamano();
+        int bloques = (tamano + BLOQUE - 1) / BLOQUE;
+        int[] minutos = v.minutos();
+        int[] cantidades = v.cantidades();
+        long[] centimos = v.centimos();
+
+        return IntStream.range(0, bloques).parallel().collect(
+                () -> new long[3][grupos],
+                (acumulado, bloque) -> {
+                    long[] unidades = acumulado[0], importe = acumulado[1], lineas = acumulado[2];
+                    int fin = Math.min(tamano, (bloque + 1) * BLOQUE);
+                    for (int i = bloque * BLOQUE; i < fin; i++) {
+                        int m = minutos[i];
+                        if (m >= desde && m < hasta) {
+                            int g = (claves[i] - base) / divisor;
+                            unidades[g] += cantidades[i];
+                            importe[g] += centimos[i];
+                            lineas[g]++;
+                        }
+                    }
+                },
+                (a, b) -> {
+                    for (int k = 0; k < 3; k++) {
+                        for (int g = 0; g < grupos; g++) {
+                            a[k][g] += b[k][g];
+                        }
+                    }
+                });
+    }
+
+    private static List<Totales> noVacios(long[][] acumulado) {
+        List<Totales> resultado = new ArrayList<>();
+        for (int g = 0; g < acumulado[0].length; g++) {
+            if (acumulado[2][g] > 0) {
+                resultado.add(new Totales(g, acumulado[0][g], acumulado[1][g], acumulado[2][g]));
+            }
+        }
+        return resultado;
+    }
+
+    // Minutos desde 1970 en hora local (cabe en int hasta el año 6053)
+    private static int minuto(LocalDateTime fecha) {
+        return (int) (fecha.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+}
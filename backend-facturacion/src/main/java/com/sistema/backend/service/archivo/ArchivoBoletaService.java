@@ -0,0 +1,261 @@
+package com.sistema.backend.service.archivo;
+
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.repository.BoletaRepository;
+import com.sistema.backend.service.pdf.BoletaPdfRenderer;
+import com.sistema.backend.service.pdf.BoletaPdfService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Genera en segundo plano un ZIP con los PDFs de las boletas de un vendedor
+ * en un rango de fechas (cierre de mes).
+ *
+ * Las boletas se leen por páginas de id (paginación por clave), cada página en
+ * una transacción corta: la conexión vuelve al pool antes de renderizar. Cada
+ * bloque se renderiza en paralelo en un pool acotado, se escribe en el ZIP en
+ * orden y luego se libera. La memoria máxima depende del tamaño del bloque, no
+ * del número total de boletas, y ninguna conexión queda tomada durante el trabajo.
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class ArchivoBoletaService {
+
+    private final BoletaRepository boletaRepository;
+    private final BoletaPdfRenderer boletaPdfRenderer;
+    private final BoletaPdfService boletaPdfService;
+    private final TransactionTemplate transaccionLectura;
+
+    private final Path directorio;
+    private final int tamanoBloque;
+    private final long horasRetencion;
+
+    // Trabajos en cola/ejecución (pocos a la vez) y pool de render acotado
+    private final ThreadPoolExecutor ejecutorTrabajos;
+    private final ForkJoinPool poolRender;
+
+    private final Map<String, ArchivoJob> trabajos = new ConcurrentHashMap<>();
+
+    public ArchivoBoletaService(BoletaRepository boletaRepository,
+            BoletaPdfRenderer boletaPdfRenderer,
+            BoletaPdfService boletaPdfService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.archivo.directorio:${java.io.tmpdir}/boletas-archivo}") String directorio,
+            @Value("${app.archivo.tamano-bloque:64}") int tamanoBloque,
+            @Value("${app.archivo.paralelismo:0}") int paralelismo,
+            @Value("${app.archivo.trabajos-simultaneos:2}") int trabajosSimultaneos,
+            @Value("${app.archivo.trabajos-en-cola:20}") int trabajosEnCola,
+            @Value("${app.archivo.horas-retencion:24}") long horasRetencion) {
+        this.boletaRepository = boletaRepository;
+        this.boletaPdfRenderer = boletaPdfRenderer;
+        this.boletaPdfService = boletaPdfService;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.directorio = Paths.get(directorio);
+        this.tamanoBloque = tamanoBloque;
+        this.horasRetencion = horasRetencion;
+
+        this.ejecutorTrabajos = new ThreadPoolExecutor(trabajosSimultaneos, trabajosSimultaneos,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(trabajosEnCola));
+        this.poolRender = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Encola un nuevo trabajo de archivo para el usuario
+     */
+    public ArchivoJob crearTrabajo(Integer idUsuario, LocalDate desde, LocalDate hasta) throws IOException {
+        if (hasta.isBefore(desde)) {
+            throw new SolicitudInvalidaException("La fecha final no puede ser anterior a la inicial");
+        }
+        Files.createDirectories(directorio);
+
+        String id = UUID.randomUUID().toString();
+        Path archivo = directorio.resolve("boletas-" + idUsuario + "-" + desde + "-" + hasta + "-" + id + ".zip");
+        ArchivoJob job = new ArchivoJob(id, idUsuario, desde, hasta, archivo);
+
+        // Lanza RejectedExecutionException si la cola está llena
+        Future<?> tarea = ejecutorTrabajos.submit(() -> ejecutar(job));
+        job.setTarea(tarea);
+        trabajos.put(id, job);
+
+        log.info("🗜️ Trabajo de archivo {} encolado: usuario {}, {} a {}", id, idUsuario, desde, hasta);
+        return job;
+    }
+
+    /**
+     * Obtiene un trabajo solo si pertenece al usuario
+     */
+    public Optional<ArchivoJob> obtenerTrabajo(String jobId, Integer idUsuario) {
+        return Optional.ofNullable(trabajos.get(jobId))
+                .filter(job -> job.getIdUsuario().equals(idUsuario));
+    }
+
+    /**
+     * Solicita la cancelación; el hilo del trabajo la atiende entre boletas
+     */
+    public Optional<ArchivoJob> cancelarTrabajo(String jobId, Integer idUsuario) {
+        Optional<ArchivoJob> job = obtenerTrabajo(jobId, idUsuario);
+        job.ifPresent(ArchivoJob::cancelar);
+        return job;
+    }
+
+    private void ejecutar(ArchivoJob job) {
+        if (job.isCancelado()) {
+            return;
+        }
+        LocalDateTime desde = job.getDesde().atStartOfDay();
+        LocalDateTime hasta = job.getHasta().plusDays(1).atStartOfDay();
+
+        try {
+            long total = transaccionLectura.execute(status -> boletaRepository
+                    .countByIdUsuarioAndFechaCreacionGreaterThanEqualAndFechaCreacionLessThan(
+                            job.getIdUsuario(), desde, hasta));
+            job.iniciar(total);
+
+            try (ZipOutputStream zip = new ZipOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(job.getArchivo()), 64 * 1024))) {
+                // Los PDFs ya vienen comprimidos: priorizar velocidad
+                zip.setLevel(Deflater.BEST_SPEED);
+                int ultimoId = 0;
+                List<Boleta> bloque = leerBloque(job.getIdUsuario(), desde, hasta, ultimoId);
+                while (!bloque.isEmpty() && !job.isCancelado()) {
+                    procesarBloque(job, bloque, zip);
+                    ultimoId = bloque.get(bloque.size() - 1).getIdBoleta();
+                    bloque = bloque.size() < tamanoBloque ? List.of() : leerBloque(job.getIdUsuario(), desde, hasta, ultimoId);
+                }
+            }
+
+            if (job.isCancelado()) {
+                Files.deleteIfExists(job.getArchivo());
+                job.terminar(ArchivoJob.Estado.CANCELADO, "Cancelado por el usuario");
+                log.info("⏹️ Trabajo de archivo {} cancelado", job.getId());
+            } else {
+                job.terminar(ArchivoJob.Estado.COMPLETADO, "Archivo generado");
+                log.info("✅ Trabajo de archivo {} completado", job.getId());
+            }
+        } catch (Exception e) {
+            log.error("❌ Error en trabajo de archivo {}", job.getId(), e);
+            try {
+                Files.deleteIfExists(job.getArchivo());
+            } catch (IOException ignored) {
+                // El archivo parcial se eliminará en la limpieza periódica
+            }
+            job.terminar(ArchivoJob.Estado.ERROR, "Error al generar el archivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Siguiente página de boletas (id mayor que ultimoId) con detalles, producto y
+     * vendedor ya cargados; la transacción termina antes de renderizar
+     */
+    List<Boleta> leerBloque(Integer idUsuario, LocalDateTime desde, LocalDateTime hasta, int ultimoId) {
+        return transaccionLectura.execute(status -> {
+            List<Integer> ids = boletaRepository.findIdsByUsuarioAndRango(idUsuario, desde, hasta, ultimoId,
+                    Limit.of(tamanoBloque));
+            if (ids.isEmpty()) {
+                return List.<Boleta>of();
+            }
+            List<Boleta> bloque = new ArrayList<>(boletaRepository.findParaArchivoByIdBoletaIn(ids));
+            bloque.sort(Comparator.comparing(Boleta::getIdBoleta));
+            return bloque;
+        });
+    }
+
+    private void procesarBloque(ArchivoJob job, List<Boleta> bloque, ZipOutputStream zip) throws IOException {
+        List<Future<byte[]>> pdfs = new ArrayList<>(bloque.size());
+        for (Boleta boleta : bloque) {
+            pdfs.add(poolRender.submit(() -> renderizar(boleta)));
+        }
+
+        for (int i = 0; i < bloque.size(); i++) {
+            if (job.isCancelado()) {
+                pdfs.forEach(f -> f.cancel(false));
+                return;
+            }
+            byte[] pdf = esperar(pdfs.get(i));
+            zip.putNextEntry(new ZipEntry(String.format("boleta-%08d.pdf", bloque.get(i).getIdBoleta())));
+            zip.write(pdf);
+            zip.closeEntry();
+            job.avanzar();
+        }
+    }
+
+    private byte[] renderizar(Boleta boleta) {
+        byte[] enCache = boletaPdfService.obtenerDeCache(boleta.getIdBoleta());
+        if (enCache != null) {
+            return enCache;
+        }
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(16 * 1024);
+        boletaPdfRenderer.renderizar(boleta, salida);
+        return salida.toByteArray();
+    }
+
+    private byte[] esperar(Future<byte[]> pdf) throws IOException {
+        try {
+            return pdf.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Trabajo interrumpido", e);
+        } catch (Exception e) {
+            throw new IOException("Error al renderizar boleta", e);
+        }
+    }
+
+    /**
+     * Elimina trabajos terminados (y sus archivos) pasadas las horas de retención
+     */
+    @Scheduled(fixedDelayString = "${app.archivo.limpieza-ms:3600000}")
+    public void limpiarTrabajosVencidos() {
+        LocalDateTime limite = LocalDateTime.now().minusHours(horasRetencion);
+        trabajos.values().removeIf(job -> {
+            if (job.isTerminado() && job.getFechaFin() != null && job.getFechaFin().isBefore(limite)) {
+                try {
+                    Files.deleteIfExists(job.getArchivo());
+                } catch (IOException e) {
+                    log.warn("⚠️ No se pudo eliminar {}: {}", job.getArchivo(), e.getMessage());
+                }
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    public void detener() {
+        trabajos.values().forEach(ArchivoJob::cancelar);
+        ejecutorTrabajos.shutdownNow();
+        poolRender.shutdownNow();
+    }
+}
@@ -0,0 +1,124 @@
+package com.sistema.backend.service.archivo;
+
+import com.sistema.backend.dto.response.ArchivoJobResponse;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado de un trabajo de archivo ZIP. Lo escribe el hilo del trabajo
+ * y lo leen los endpoints de estado, por eso los campos son volatile/atómicos.
+ * @autor Paulo
+ */
+public class ArchivoJob {
+
+    public enum Estado {
+        PENDIENTE, EN_PROCESO, COMPLETADO, CANCELADO, ERROR
+    }
+
+    private final String id;
+    private final Integer idUsuario;
+    private final LocalDate desde;
+    private final LocalDate hasta;
+    private final Path archivo;
+
+    private final AtomicLong procesadas = new AtomicLong();
+    private volatile long total;
+    private volatile Estado estado = Estado.PENDIENTE;
+    private volatile String mensaje;
+    private volatile boolean cancelado;
+    private volatile LocalDateTime fechaInicio;
+    private volatile LocalDateTime fechaFin;
+    private volatile Future<?> tarea;
+
+    public ArchivoJob(String id, Integer idUsuario, LocalDate desde, LocalDate hasta, Path archivo) {
+        this.id = id;
+        this.idUsuario = idUsuario;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.archivo = archivo;
+    }
+
+    public ArchivoJobResponse toResponse() {
+        long totalActual = total;
+        long hechas = procesadas.get();
+        return ArchivoJobResponse.builder()
+                .jobId(id)
+                .estado(estado.name())
+                .total(totalActual)
+                .procesadas(hechas)
+                .porcentaje(totalActual > 0 ? (int) (hechas * 100 / totalActual) : (estado == Estado.COMPLETADO ? 100 : 0))
+                .mensaje(mensaje)
+                .fechaInicio(fechaInicio != null ? fechaInicio.toString() : null)
+                .fechaFin(fechaFin != null ? fechaFin.toString() : null)
+                .build();
+    }
+
+    void iniciar(long total) {
+        this.total = total;
+        this.estado = Estado.EN_PROCESO;
+        this.fechaInicio = LocalDateTime.now();
+    }
+
+    void terminar(Estado estadoFinal, String mensaje) {
+        this.estado = estadoFinal;
+        this.mensaje = mensaje;
+        this.fechaFin = LocalDateTime.now();
+    }
+
+    void avanzar() {
+        procesadas.incrementAndGet();
+    }
+
+    void cancelar() {
+        this.cancelado = true;
+        Future<?> actual = tarea;
+        if (actual != null && estado == Estado.PENDIENTE) {
+            actual.cancel(false);
+            terminar(Estado.CANCELADO, "Cancelado antes de iniciar");
+        }
+    }
+
+    boolean isTerminado() {
+        return estado == Estado.COMPLETADO || estado == Estado.CANCELADO || estado == Estado.ERROR;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Integer getIdUsuario() {
+        return idUsuario;
+    }
+
+    public LocalDate getDesde() {
+        return desde;
+    }
+
+    public LocalDate getHasta() {
+        return hasta;
+    }
+
+    public Path getArchivo() {
+        return archivo;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public boolean isCancelado() {
+        return cancelado;
+    }
+
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+
+    void setTarea(Future<?> tarea) {
+        this.tarea = tarea;
+    }
+}
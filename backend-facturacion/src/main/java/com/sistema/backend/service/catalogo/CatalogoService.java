@@ -0,0 +1,143 @@
+package com.sistema.backend.service.catalogo;
+
+import com.sistema.backend.dto.request.ProductoRequest;
+import com.sistema.backend.entity.Producto;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.repository.ProductoRepository;
+import com.sistema.backend.service.invalidacion.BusInvalidacion;
+import com.sistema.backend.service.invalidacion.RegionInvalidable;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Catálogo de productos en memoria.
+ *
+ * El checkout resuelve las líneas del carrito contra una instantánea inmutable
+ * del catálogo (sin consultas por línea). Cuando el catálogo cambia se carga una
+ * instantánea nueva con una sola consulta y se reemplaza de forma atómica; los
+ * checkouts en curso terminan con la que ya tenían. Los cambios se propagan a los
+ * demás nodos por el bus de invalidación (región "catalogo").
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class CatalogoService {
+
+    public static final String REGION_CACHE = "catalogo";
+
+    private final ProductoRepository productoRepository;
+    private final BusInvalidacion busInvalidacion;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transaccionPrimario;
+    private final AtomicReference<CatalogoSnapshot> actual = new AtomicReference<>(CatalogoSnapshot.VACIO);
+
+    public CatalogoService(ProductoRepository productoRepository,
+            BusInvalidacion busInvalidacion,
+            EntityManagerFactory entityManagerFactory,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.productoRepository = productoRepository;
+        this.busInvalidacion = busInvalidacion;
+        this.entityManagerFactory = entityManagerFactory;
+        // Lectura en transacción de escritura: va al primario, nunca a una réplica atrasada
+        this.transaccionPrimario = new TransactionTemplate(transactionManager);
+        meterRegistry.gauge("catalogo.productos", actual, ref -> ref.get().getTamano());
+        meterRegistry.gauge("catalogo.version", actual, ref -> ref.get().getVersion());
+    }
+
+    @PostConstruct
+    void iniciar() {
+        recargar();
+        Cache cache = entityManagerFactory.getCache();
+        busInvalidacion.registrar(REGION_CACHE, new RegionInvalidable() {
+            @Override
+            public void invalidar(Set<String> claves) {
+                // La instantánea se recarga entera: es una sola consulta
+                claves.forEach(id -> cache.evict(Producto.class, Integer.valueOf(id)));
+                recargar();
+            }
+
+            @Override
+            public void vaciar() {
+                cache.evict(Producto.class);
+                recargar();
+            }
+        });
+    }
+
+    /**
+     * Instantánea vigente; el llamador debe usar la misma durante toda la operación
+     */
+    public CatalogoSnapshot snapshot() {
+        return actual.get();
+    }
+
+    /**
+     * Carga el catálogo completo y reemplaza la instantánea.
+     * Sincronizado para que una recarga lenta no pise a una más reciente.
+     */
+    @Scheduled(fixedDelayString = "${app.catalogo.recarga-ms:60000}", initialDelayString = "${app.catalogo.recarga-ms:60000}")
+    public synchronized void recargar() {
+        List<ProductoCatalogo> productos = transaccionPrimario.execute(status ->
+                productoRepository.findAll().stream()
+                        .map(ProductoCatalogo::de)
+                        .toList());
+        CatalogoSnapshot nuevo = new CatalogoSnapshot(actual.get().getVersion() + 1, productos, LocalDateTime.now());
+        actual.set(nuevo);
+        log.debug("📦 Catálogo recargado: {} productos (versión {})", nuevo.getTamano(), nuevo.getVersion());
+    }
+
+    /**
+     * Crea un producto; la instantánea se recarga tras el commit (en todos los nodos)
+     */
+    @Transactional
+    public ProductoCatalogo crear(ProductoRequest request) {
+        if (productoRepository.existsByCodigo(request.getCodigo())) {
+            throw new SolicitudInvalidaException("Ya existe un producto con el código " + request.getCodigo());
+        }
+        Producto producto = new Producto();
+        copiar(request, producto);
+        productoRepository.save(producto);
+        busInvalidacion.invalidar(REGION_CACHE, producto.getIdProducto());
+        log.info("📦 Producto creado: {} ({})", producto.getCodigo(), producto.getIdProducto());
+        return ProductoCatalogo.de(producto);
+    }
+
+    /**
+     * Actualiza un producto; la instantánea se recarga tras el commit (en todos los nodos).
+     * Las boletas ya emitidas conservan el precio con que se vendieron.
+     */
+    @Transactional
+    public ProductoCatalogo actualizar(Integer idProducto, ProductoRequest request) {
+        Producto producto = productoRepository.findById(idProducto)
+                .orElseThrow(() -> new SolicitudInvalidaException("Producto no encontrado"));
+        if (!producto.getCodigo().equals(request.getCodigo()) && productoRepository.existsByCodigo(request.getCodigo())) {
+            throw new SolicitudInvalidaException("Ya existe un producto con el código " + request.getCodigo());
+        }
+        copiar(request, producto);
+        busInvalidacion.invalidar(REGION_CACHE, idProducto);
+        log.info("📦 Producto actualizado: {} ({})", producto.getCodigo(), idProducto);
+        return ProductoCatalogo.de(producto);
+    }
+
+    private void copiar(ProductoRequest request, Producto producto) {
+        producto.setCodigo(request.getCodigo());
+        producto.setNombre(request.getNombre());
+        producto.setPrecio(request.getPrecio());
+        producto.setActivo(request.getActivo() == null || request.getActivo());
+        producto.setControlaStock(Boolean.TRUE.equals(request.getControlaStock()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.sistema.backend.service.catalogo;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Instantánea inmutable del catálogo. Nunca se modifica: cada recarga construye
+ * una nueva y la reemplaza de forma atómica, así los lectores no necesitan bloqueos.
+ * @autor Paulo
+ */
+public final class CatalogoSnapshot {
+
+    static final CatalogoSnapshot VACIO = new CatalogoSnapshot(0, List.of(), LocalDateTime.MIN);
+
+    private final long version;
+    private final Map<Integer, ProductoCatalogo> porId;
+    private final Map<String, ProductoCatalogo> porNombre;
+    private final List<ProductoCatalogo> activos;
+    private final LocalDateTime cargadoEn;
+
+    public CatalogoSnapshot(long version, List<ProductoCatalogo> productos, LocalDateTime cargadoEn) {
+        this.version = version;
+        this.porId = Map.copyOf(productos.stream()
+                .collect(Collectors.toMap(ProductoCatalogo::idProducto, Function.identity())));
+        this.porNombre = Map.copyOf(productos.stream()
+                .collect(Collectors.toMap(p -> normalizar(p.nombre()), Function.identity(), (a, b) -> a)));
+        this.activos = productos.stream()
+                .filter(ProductoCatalogo::activo)
+                .sorted(Comparator.comparing(ProductoCatalogo::nombre))
+                .toList();
+        this.cargadoEn = cargadoEn;
+    }
+
+    /**
+     * Producto por id (activo o no), o null si no existe
+     */
+    public ProductoCatalogo buscar(Integer idProducto) {
+        return idProducto != null ? porId.get(idProducto) : null;
+    }
+
+    /**
+     * Producto con ese nombre (sin distinguir mayúsculas ni espacios extremos), o null
+     */
+    public ProductoCatalogo buscarPorNombre(String nombre) {
+        return nombre != null ? porNombre.get(normalizar(nombre)) : null;
+    }
+
+    /**
+     * Productos activos ordenados por nombre
+     */
+    public List<ProductoCatalogo> getActivos() {
+        return activos;
+    }
+
+    public int getTamano() {
+        return porId.size();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getCargadoEn() {
+        return cargadoEn;
+    }
+
+    private static String normalizar(String nombre) {
+        return nombre.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,20 @@
+package com.sistema.backend.service.catalogo;
+
+import com.sistema.backend.entity.Producto;
+
+import java.math.BigDecimal;
+
+/**
+ * Vista inmutable de un producto dentro de la instantánea del catálogo.
+ * Se comparte entre hilos sin copias; también es la respuesta de /api/productos.
+ * @autor Paulo
+ */
+public record ProductoCatalogo(Integer idProducto, String codigo, String nombre, BigDecimal precio, boolean activo,
+        boolean controlaStock) {
+
+    public static ProductoCatalogo de(Producto producto) {
+        return new ProductoCatalogo(producto.getIdProducto(), producto.getCodigo(), producto.getNombre(),
+                producto.getPrecio(), Boolean.TRUE.equals(producto.getActivo()),
+                Boolean.TRUE.equals(producto.getControlaStock()));
+    }
+}
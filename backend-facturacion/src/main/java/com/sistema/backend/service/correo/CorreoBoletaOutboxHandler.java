@@ -0,0 +1,31 @@
+package com.sistema.backend.service.correo;
+
+import com.sistema.backend.entity.OutboxEvento;
+import com.sistema.backend.event.BoletaCreadaEvent;
+import com.sistema.backend.service.outbox.OutboxHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registra el correo del comprobante para cada boleta creada
+ * @autor Paulo
+ */
+@Component
+@RequiredArgsConstructor
+public class CorreoBoletaOutboxHandler implements OutboxHandler {
+
+    private final CorreoBoletaService correoBoletaService;
+
+    @Override
+    public String tipo() {
+        return BoletaCreadaEvent.TIPO;
+    }
+
+    @Override
+    public void manejar(OutboxEvento evento) {
+        // Idempotente: registrar no duplica si el evento llega dos veces
+        if (correoBoletaService.isHabilitado()) {
+            correoBoletaService.registrar(evento.getIdAgregado());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.sistema.backend.service.correo;
+
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.DetalleBoleta;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Genera el cuerpo del correo del comprobante (texto plano + HTML)
+ * @autor Paulo
+ */
+@Component
+public class CorreoBoletaRenderer {
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    /**
+     * Renderiza el correo de una boleta con sus detalles cargados
+     */
+    public CorreoRenderizado renderizar(Boleta boleta) {
+        String numero = boleta.getNumero() != null ? boleta.getNumero() : String.format("%08d", boleta.getIdBoleta());
+        String fecha = boleta.getFechaCreacion().format(FORMATO_FECHA);
+        String cliente = boleta.getNombreCliente() != null ? boleta.getNombreCliente() : "Cliente";
+        String asunto = "Boleta de venta N° " + numero;
+
+        StringBuilder texto = new StringBuilder(256 + boleta.getDetalles().size() * 64);
+        texto.append("Hola ").append(cliente).append(",\n\n")
+                .append("Gracias por su compra. Este es el detalle de su boleta N° ").append(numero)
+                .append(" del ").append(fecha).append(".\n\n");
+
+        StringBuilder html = new StringBuilder(512 + boleta.getDetalles().size() * 160);
+        html.append("<html><body style=\"font-family:Arial,sans-serif;font-size:14px\">")
+                .append("<p>Hola ").append(escapar(cliente)).append(",</p>")
+                .append("<p>Gracias por su compra. Este es el detalle de su boleta N° ").append(numero)
+                .append(" del ").append(fecha).append(".</p>")
+                .append("<table cellpadding=\"4\" style=\"border-collapse:collapse\">")
+                .append("<tr style=\"background:#e6e6e6\"><th align=\"left\">Producto</th><th align=\"right\">Cant.</th>")
+                .append("<th align=\"right\">P. Unit.</th><th align=\"right\">Subtotal</th></tr>");
+
+        for (DetalleBoleta detalle : boleta.getDetalles()) {
+            BigDecimal subtotal = detalle.getSubtotal() != null
+                    ? detalle.getSubtotal()
+                    : detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(detalle.getCantidad()));
+
+            texto.append(detalle.getCantidad()).append(" x ").append(detalle.getProducto())
+                    .append(" (S/ ").append(formatearMonto(detalle.getPrecioUnitario())).append(") = S/ ")
+                    .append(formatearMonto(subtotal)).append('\n');
+
+            html.append("<tr><td>").append(escapar(detalle.getProducto())).append("</td>")
+                    .append("<td align=\"right\">").append(detalle.getCantidad()).append("</td>")
+                    .append("<td align=\"right\">").append(formatearMonto(detalle.getPrecioUnitario())).append("</td>")
+                    .append("<td align=\"right\">").append(formatearMonto(subtotal)).append("</td></tr>");
+        }
+
+        String total = formatearMonto(boleta.getTotal());
+        texto.append("\nTOTAL: S/ ").append(total).append('\n');
+        html.append("</table><p><b>TOTAL: S/ ").append(total).append("</b></p></body></html>");
+
+        return new CorreoRenderizado(boleta.getEmailCliente(), asunto, texto.toString(), html.toString());
+    }
+
+    private String escapar(String valor) {
+        return HtmlUtils.htmlEscape(valor, "UTF-8");
+    }
+
+    private String formatearMonto(BigDecimal monto) {
+        return monto.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
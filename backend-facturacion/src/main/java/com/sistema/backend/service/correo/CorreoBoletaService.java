@@ -0,0 +1,364 @@
+package com.sistema.backend.service.correo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.CorreoBoleta;
+import com.sistema.backend.entity.CorreoBoleta.Estado;
+import com.sistema.backend.entity.CorreoBoletaFallido;
+import com.sistema.backend.repository.BoletaRepository;
+import com.sistema.backend.repository.CorreoBoletaFallidoRepository;
+import com.sistema.backend.repository.CorreoBoletaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envío del comprobante al correo del cliente (emailCliente), fuera del checkout.
+ *
+ * Las boletas con correo llegan desde el outbox a una cola acotada. Cada worker
+ * vacía un lote, lo reclama en la base (SKIP LOCKED, para no enviar dos veces) y
+ * envía todos sus mensajes por una sola conexión SMTP. Los fallos se reintentan
+ * con backoff exponencial; al agotar los intentos pasan a correos_boleta_fallidos.
+ * El cuerpo renderizado se guarda en caché por boleta, así un reintento no vuelve
+ * a consultar la boleta.
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class CorreoBoletaService {
+
+    private static final int MAX_LARGO_ERROR = 500;
+
+    private final CorreoBoletaRepository correoBoletaRepository;
+    private final CorreoBoletaFallidoRepository correoFallidoRepository;
+    private final BoletaRepository boletaRepository;
+    private final CorreoBoletaRenderer renderer;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transaccion;
+
+    private final Cache<Integer, CorreoRenderizado> cacheCuerpos;
+    private final BlockingQueue<Integer> cola;
+    private final boolean habilitado;
+    private final String remitente;
+    private final int tamanoLote;
+    private final int workers;
+    private final int maxIntentos;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final long reservaMs;
+
+    private final Counter contadorEnviados;
+    private final Counter contadorErrores;
+    private final Counter contadorFallidos;
+    private final Timer tiempoLote;
+
+    private final List<Thread> hilos = new ArrayList<>();
+    private volatile boolean activo = true;
+
+    public CorreoBoletaService(CorreoBoletaRepository correoBoletaRepository,
+            CorreoBoletaFallidoRepository correoFallidoRepository,
+            BoletaRepository boletaRepository,
+            CorreoBoletaRenderer renderer,
+            ObjectProvider<JavaMailSender> mailSender,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.correo.habilitado:false}") boolean habilitado,
+            @Value("${app.correo.remitente:no-responder@sistema.local}") String remitente,
+            @Value("${app.correo.cola-capacidad:10000}") int capacidadCola,
+            @Value("${app.correo.tamano-lote:50}") int tamanoLote,
+            @Value("${app.correo.workers:2}") int workers,
+            @Value("${app.correo.max-intentos:6}") int maxIntentos,
+            @Value("${app.correo.backoff-base-ms:30000}") long backoffBaseMs,
+            @Value("${app.correo.backoff-max-ms:3600000}") long backoffMaxMs,
+            @Value("${app.correo.reserva-ms:300000}") long reservaMs,
+            @Value("${app.correo.cache.max-bytes:8388608}") long maxBytesCache) {
+        this.correoBoletaRepository = correoBoletaRepository;
+        this.correoFallidoRepository = correoFallidoRepository;
+        this.boletaRepository = boletaRepository;
+        this.renderer = renderer;
+        this.mailSender = mailSender.getIfAvailable();
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado && this.mailSender != null;
+        this.remitente = remitente;
+        this.cola = new LinkedBlockingQueue<>(capacidadCola);
+        this.tamanoLote = tamanoLote;
+        this.workers = workers;
+        this.maxIntentos = maxIntentos;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.reservaMs = reservaMs;
+
+        this.cacheCuerpos = Caffeine.newBuilder()
+                .maximumWeight(maxBytesCache)
+                .weigher((Integer id, CorreoRenderizado correo) -> correo.tamano())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cacheCuerpos, "correos-boleta");
+
+        this.contadorEnviados = Counter.builder("correo.envios").tag("resultado", "enviado").register(meterRegistry);
+        this.contadorErrores = Counter.builder("correo.envios").tag("resultado", "error").register(meterRegistry);
+        this.contadorFallidos = Counter.builder("correo.envios").tag("resultado", "fallido").register(meterRegistry);
+        this.tiempoLote = Timer.builder("correo.lote.duracion").register(meterRegistry);
+        meterRegistry.gauge("correo.cola.pendientes", cola, BlockingQueue::size);
+
+        if (habilitado && this.mailSender == null) {
+            log.warn("⚠️ app.correo.habilitado=true pero no hay servidor SMTP configurado (spring.mail.host)");
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        for (int i = 0; i < workers; i++) {
+            Thread hilo = new Thread(this::consumir, "correo-worker-" + i);
+            hilo.setDaemon(true);
+            hilo.start();
+            hilos.add(hilo);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        hilos.forEach(Thread::interrupt);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Registra el correo de la boleta (si tiene emailCliente) y lo encola
+     */
+    public void registrar(Integer idBoleta) {
+        if (correoBoletaRepository.registrarPendiente(idBoleta, LocalDateTime.now()) > 0) {
+            encolar(idBoleta);
+        }
+    }
+
+    /**
+     * Agrega una boleta a la cola sin bloquear; si está llena la recoge el barrido
+     */
+    public boolean encolar(Integer idBoleta) {
+        boolean aceptada = cola.offer(idBoleta);
+        if (!aceptada) {
+            log.warn("⚠️ Cola de correos llena, boleta {} queda para el barrido", idBoleta);
+        }
+        return aceptada;
+    }
+
+    /**
+     * Reencola los correos pendientes y los reintentos vencidos
+     */
+    @Scheduled(fixedDelayString = "${app.correo.barrido-ms:60000}", initialDelayString = "${app.correo.barrido-ms:60000}")
+    public void barrer() {
+        int espacio = cola.remainingCapacity();
+        if (!habilitado || espacio == 0) {
+            return;
+        }
+        Set<Integer> ids = new LinkedHashSet<>(correoBoletaRepository.findIdsParaEnvio(LocalDateTime.now(), Limit.of(espacio)));
+        ids.removeAll(cola);
+        ids.forEach(this::encolar);
+        if (!ids.isEmpty()) {
+            log.info("🔁 Barrido de correos: {} boletas reencoladas", ids.size());
+        }
+    }
+
+    private void consumir() {
+        List<Integer> lote = new ArrayList<>(tamanoLote);
+        while (activo) {
+            try {
+                Integer primero = cola.poll(1, TimeUnit.SECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, tamanoLote - 1);
+                tiempoLote.record(() -> procesarLote(lote));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("❌ Error procesando lote de correos {}", lote, e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Reclama, renderiza y envía un lote de correos por una sola conexión SMTP
+     */
+    void procesarLote(List<Integer> ids) {
+        // 1. Reclamar (y cargar las boletas que no están en caché) en una transacción corta.
+        // Los cuerpos en caché se copian aquí: si la caché los desaloja antes del paso 2,
+        // su boleta no se habría cargado
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<Integer, CorreoRenderizado> cuerpos = new HashMap<>();
+        Map<Integer, Boleta> boletas = new HashMap<>();
+        List<CorreoBoleta> correos = transaccion.execute(status -> {
+            List<CorreoBoleta> reclamados = correoBoletaRepository.reclamar(ids, ahora);
+            if (reclamados.isEmpty()) {
+                return reclamados;
+            }
+            List<Integer> idsReclamados = reclamados.stream().map(CorreoBoleta::getIdBoleta).toList();
+            correoBoletaRepository.reservar(idsReclamados, ahora.plusNanos(reservaMs * 1_000_000L));
+
+            cuerpos.putAll(cacheCuerpos.getAllPresent(idsReclamados));
+            List<Integer> sinCache = idsReclamados.stream()
+                    .filter(id -> !cuerpos.containsKey(id))
+                    .toList();
+            if (!sinCache.isEmpty()) {
+                boletaRepository.findDetalladasByIdBoletaIn(sinCache).forEach(b -> boletas.put(b.getIdBoleta(), b));
+            }
+            return reclamados;
+        });
+        if (correos == null || correos.isEmpty()) {
+            return;
+        }
+
+        // 2. Preparar los mensajes; un error aquí (p.ej. dirección inválida) es definitivo
+        Map<MimeMessage, CorreoBoleta> mensajes = new LinkedHashMap<>();
+        Map<Integer, Exception> fallos = new HashMap<>();
+        Set<Integer> definitivos = new HashSet<>();
+        for (CorreoBoleta correo : correos) {
+            correo.setIntentos(correo.getIntentos() + 1);
+            try {
+                CorreoRenderizado cuerpo = cuerpos.get(correo.getIdBoleta());
+                if (cuerpo == null) {
+                    // Sin cuerpo en caché la boleta se buscó al reclamar: si no está, no existe
+                    Boleta boleta = boletas.get(correo.getIdBoleta());
+                    if (boleta == null) {
+                        throw new IllegalStateException("La boleta " + correo.getIdBoleta() + " no existe");
+                    }
+                    cuerpo = renderer.renderizar(boleta);
+                    cacheCuerpos.put(correo.getIdBoleta(), cuerpo);
+                }
+                mensajes.put(crearMensaje(cuerpo), correo);
+            } catch (Exception e) {
+                fallos.put(correo.getIdBoleta(), e);
+                definitivos.add(correo.getIdBoleta());
+            }
+        }
+
+        // 3. Enviar todo el lote por una conexión
+        if (!mensajes.isEmpty()) {
+            try {
+                mailSender.send(mensajes.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((mensaje, error) -> {
+                    CorreoBoleta correo = mensajes.get(mensaje);
+                    if (correo != null) {
+                        fallos.put(correo.getIdBoleta(), error);
+                    }
+                });
+                if (e.getFailedMessages().isEmpty()) {
+                    mensajes.values().forEach(correo -> fallos.put(correo.getIdBoleta(), e));
+                }
+            } catch (MailException e) {
+                mensajes.values().forEach(correo -> fallos.put(correo.getIdBoleta(), e));
+            }
+        }
+
+        // 4. Guardar resultados
+        List<Integer> enviados = mensajes.values().stream()
+                .map(CorreoBoleta::getIdBoleta)
+                .filter(id -> !fallos.containsKey(id))
+                .toList();
+        LocalDateTime fin = LocalDateTime.now();
+        transaccion.executeWithoutResult(status -> {
+            if (!enviados.isEmpty()) {
+                correoBoletaRepository.marcarEnviados(enviados, fin);
+            }
+            for (CorreoBoleta correo : correos) {
+                Exception error = fallos.get(correo.getIdBoleta());
+                if (error != null) {
+                    registrarFallo(correo, error, definitivos.contains(correo.getIdBoleta()), fin);
+                }
+            }
+        });
+        contadorEnviados.increment(enviados.size());
+        if (!enviados.isEmpty()) {
+            log.info("📧 {} comprobantes enviados por correo", enviados.size());
+        }
+    }
+
+    private MimeMessage crearMensaje(CorreoRenderizado cuerpo) throws MessagingException {
+        MimeMessage mensaje = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensaje, true, "UTF-8");
+        helper.setFrom(remitente);
+        helper.setTo(cuerpo.destinatario());
+        helper.setSubject(cuerpo.asunto());
+        helper.setText(cuerpo.texto(), cuerpo.html());
+        return mensaje;
+    }
+
+    private void registrarFallo(CorreoBoleta correo, Exception e, boolean definitivo, LocalDateTime ahora) {
+        String mensaje = String.valueOf(e.getMessage());
+        if (mensaje.length() > MAX_LARGO_ERROR) {
+            mensaje = mensaje.substring(0, MAX_LARGO_ERROR);
+        }
+        int intentos = correo.getIntentos();
+        if (definitivo || intentos >= maxIntentos) {
+            contadorFallidos.increment();
+            log.error("❌ Correo de boleta {} a {} descartado tras {} intentos: {}",
+                    correo.getIdBoleta(), correo.getDestinatario(), intentos, mensaje);
+            correoBoletaRepository.registrarFallo(correo.getIdBoleta(), Estado.FALLIDO, mensaje, null);
+
+            CorreoBoletaFallido fallido = new CorreoBoletaFallido();
+            fallido.setIdBoleta(correo.getIdBoleta());
+            fallido.setDestinatario(correo.getDestinatario());
+            fallido.setIntentos(intentos);
+            fallido.setUltimoError(mensaje);
+            fallido.setFechaFallo(ahora);
+            correoFallidoRepository.save(fallido);
+            cacheCuerpos.invalidate(correo.getIdBoleta());
+        } else {
+            contadorErrores.increment();
+            log.warn("⚠️ Falló correo de boleta {} (intento {}): {}", correo.getIdBoleta(), intentos, mensaje);
+            correoBoletaRepository.registrarFallo(correo.getIdBoleta(), Estado.ERROR, mensaje,
+                    ahora.plusNanos(calcularBackoffMs(intentos) * 1_000_000L));
+        }
+    }
+
+    /**
+     * Espera antes del siguiente intento: base * 2^(intentos-1), con tope
+     */
+    long calcularBackoffMs(int intentos) {
+        int exponente = Math.max(0, Math.min(intentos - 1, 30));
+        return Math.min(backoffMaxMs, backoffBaseMs << exponente);
+    }
+}
@@ -0,0 +1,15 @@
+package com.sistema.backend.service.correo;
+
+/**
+ * Correo del comprobante ya renderizado (inmutable, se guarda en caché por boleta)
+ * @autor Paulo
+ */
+public record CorreoRenderizado(String destinatario, String asunto, String texto, String html) {
+
+    /**
+     * Tamaño aproximado en bytes (peso en la caché)
+     */
+    public int tamano() {
+        return 2 * (destinatario.length() + asunto.length() + texto.length() + html.length());
+    }
+}
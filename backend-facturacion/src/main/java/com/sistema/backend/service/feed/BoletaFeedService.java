@@ -0,0 +1,237 @@
+package com.sistema.backend.service.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.backend.dto.response.BoletaSummary;
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.repository.BoletaRepository;
+import com.sistema.backend.repository.NumeracionRepository;
+import com.sistema.backend.service.notificacion.NotificacionesPostgres;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Feed en vivo de boletas nuevas por SSE (GET /api/boletas/stream).
+ *
+ * Las boletas creadas en este nodo se publican en memoria tras el commit; las de
+ * otros nodos llegan por LISTEN/NOTIFY (el NOTIFY va en la transacción del checkout,
+ * así que solo se difunde si confirma). Cada suscriptor tiene una cola acotada;
+ * el que no consume se desconecta y reanuda con Last-Event-ID.
+ *
+ * El id de cada evento es un CursorFeed (último correlativo por serie, que sigue
+ * el orden de commit). Al reanudar se reenvía también una ventana por debajo del
+ * cursor: una boleta de otro nodo confirmada antes que la última enviada puede
+ * llegar después por LISTEN/NOTIFY. El cliente descarta las repetidas por idBoleta.
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class BoletaFeedService {
+
+    public static final String CANAL = "boletas_creadas";
+
+    private final Map<Integer, Set<SuscriptorFeed>> suscriptores = new ConcurrentHashMap<>();
+    private final BoletaRepository boletaRepository;
+    private final NumeracionRepository numeracionRepository;
+    private final NotificacionesPostgres notificaciones;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate lecturaPrimario;
+    // Un envío bloquea hasta que el cliente lee: hilos virtuales para no acotar cuántos esperan a la vez
+    private final ExecutorService envios = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("feed-envio-", 0).factory());
+    private final Counter desbordes;
+    private final long timeoutMs;
+    private final int capacidad;
+    private final int maxReanudacion;
+    private final int ventanaReanudacion;
+
+    public BoletaFeedService(BoletaRepository boletaRepository,
+            NumeracionRepository numeracionRepository,
+            NotificacionesPostgres notificaciones,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.feed.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.feed.buffer:64}") int capacidad,
+            @Value("${app.feed.max-reanudacion:500}") int maxReanudacion,
+            @Value("${app.feed.ventana-reanudacion:1000}") int ventanaReanudacion) {
+        this.boletaRepository = boletaRepository;
+        this.numeracionRepository = numeracionRepository;
+        this.notificaciones = notificaciones;
+        this.objectMapper = objectMapper;
+        // Boleta recién creada en otro nodo: la réplica puede no tenerla todavía
+        this.lecturaPrimario = new TransactionTemplate(transactionManager);
+        this.timeoutMs = timeoutMs;
+        this.capacidad = capacidad;
+        this.maxReanudacion = maxReanudacion;
+        this.ventanaReanudacion = ventanaReanudacion;
+        this.desbordes = Counter.builder("feed.desbordes")
+                .description("Suscriptores desconectados por no consumir el feed")
+                .register(meterRegistry);
+        meterRegistry.gauge("feed.suscriptores", suscriptores,
+                s -> s.values().stream().mapToInt(Set::size).sum());
+    }
+
+    @PostConstruct
+    public void escucharOtrosNodos() {
+        notificaciones.suscribir(CANAL, this::alNotificar);
+    }
+
+    @PreDestroy
+    public void detener() {
+        suscriptores.values().forEach(set -> set.forEach(SuscriptorFeed::cerrar));
+        envios.shutdown();
+    }
+
+    /**
+     * Abre el feed del usuario. Con ultimoEvento (Last-Event-ID) envía primero las
+     * boletas confirmadas después de ese cursor (hasta app.feed.max-reanudacion por serie).
+     */
+    public SseEmitter suscribir(Integer idUsuario, CursorFeed ultimoEvento) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        SuscriptorFeed suscriptor = new SuscriptorFeed(idUsuario, emitter, capacidad, envios);
+        suscriptor.alCerrar(() -> quitar(suscriptor));
+        emitter.onCompletion(suscriptor::descartar);
+        emitter.onTimeout(suscriptor::descartar);
+        emitter.onError(e -> suscriptor.descartar());
+        // Lo que llegue en vivo antes de fijar el cursor inicial se envía después de las perdidas
+        suscriptor.esperarReanudacion();
+
+        // Registrado antes de leer lo perdido: lo que se cree mientras tanto no se pierde
+        suscriptores.compute(idUsuario, (id, set) -> {
+            Set<SuscriptorFeed> delUsuario = set != null ? set : ConcurrentHashMap.newKeySet();
+            delUsuario.add(suscriptor);
+            return delUsuario;
+        });
+
+        Reanudacion reanudacion = lecturaPrimario.execute(status -> leerPerdidas(idUsuario, ultimoEvento));
+        if (!suscriptor.reanudar(reanudacion.cursor(), reanudacion.perdidas())) {
+            desbordes.increment();
+        }
+        log.debug("📡 Feed abierto para usuario {} (último evento {})", idUsuario, ultimoEvento);
+        return emitter;
+    }
+
+    private Reanudacion leerPerdidas(Integer idUsuario, CursorFeed ultimoEvento) {
+        Map<String, Integer> ultimos = numeracionRepository.ultimosCorrelativos();
+        if (ultimoEvento == null) {
+            // Conexión nueva: el cursor empieza en lo ya confirmado
+            return new Reanudacion(CursorFeed.de(ultimos), List.of());
+        }
+        // Una serie que el cursor no conocía se creó después: se lee desde el principio
+        Set<String> series = new TreeSet<>(ultimos.keySet());
+        series.addAll(ultimoEvento.series());
+        List<BoletaSummary> perdidas = new ArrayList<>();
+        for (String serie : series) {
+            int desde = Math.max(0, ultimoEvento.desde(serie) - ventanaReanudacion);
+            perdidas.addAll(boletaRepository.findResumenesPosteriores(idUsuario, serie, desde,
+                    Limit.of(maxReanudacion)));
+        }
+        return new Reanudacion(ultimoEvento, perdidas);
+    }
+
+    /**
+     * Publica la boleta en el feed cuando confirme la transacción del checkout
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publicarAlConfirmar(Boleta boleta) {
+        notificaciones.notificar(CANAL, serializar(
+                new AvisoBoleta(notificaciones.getNodo(), boleta.getIdBoleta(), boleta.getIdUsuario())));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // El número ya está asignado (beforeCommit de la numeración)
+                publicar(new BoletaSummary(boleta.getIdBoleta(), boleta.getIdUsuario(), boleta.getFechaCreacion(),
+                        boleta.getTotal(), boleta.getNombreCliente(), boleta.getDocumentoCliente(),
+                        boleta.getCantidadItems(), boleta.getUnidadesTotales(), boleta.getSerie(),
+                        boleta.getCorrelativo()));
+            }
+        });
+    }
+
+    /**
+     * Latido (comentario SSE) para que proxies y balanceadores no cierren las conexiones inactivas
+     */
+    @Scheduled(fixedDelayString = "${app.feed.latido-ms:15000}")
+    public void latir() {
+        suscriptores.values().forEach(set -> set.forEach(suscriptor -> {
+            if (!suscriptor.ofrecerLatido()) {
+                desbordes.increment();
+            }
+        }));
+    }
+
+    void publicar(BoletaSummary boleta) {
+        Set<SuscriptorFeed> delUsuario = suscriptores.get(boleta.getIdUsuario());
+        if (delUsuario == null) {
+            return;
+        }
+        for (SuscriptorFeed suscriptor : delUsuario) {
+            if (!suscriptor.ofrecerBoleta(boleta)) {
+                desbordes.increment();
+            }
+        }
+    }
+
+    private void alNotificar(String payload) {
+        AvisoBoleta aviso;
+        try {
+            aviso = objectMapper.readValue(payload, AvisoBoleta.class);
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Aviso de boleta inválido: {}", payload);
+            return;
+        }
+        // Las propias ya se publicaron tras el commit; sin suscriptores aquí no se consulta nada
+        if (notificaciones.getNodo().equals(aviso.nodo()) || !suscriptores.containsKey(aviso.idUsuario())) {
+            return;
+        }
+        envios.execute(() -> lecturaPrimario.execute(status -> boletaRepository.findResumenByIdBoleta(aviso.idBoleta()))
+                .ifPresent(this::publicar));
+    }
+
+    private void quitar(SuscriptorFeed suscriptor) {
+        suscriptores.computeIfPresent(suscriptor.getIdUsuario(), (id, set) -> {
+            set.remove(suscriptor);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private String serializar(AvisoBoleta aviso) {
+        try {
+            return objectMapper.writeValueAsString(aviso);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el aviso " + aviso, e);
+        }
+    }
+
+    private record Reanudacion(CursorFeed cursor, List<BoletaSummary> perdidas) {
+    }
+
+    // Payload del NOTIFY (acotado a ~8000 bytes: solo ids)
+    record AvisoBoleta(String nodo, Integer idBoleta, Integer idUsuario) {
+    }
+}
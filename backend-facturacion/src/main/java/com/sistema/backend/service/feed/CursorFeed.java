@@ -0,0 +1,92 @@
+package com.sistema.backend.service.feed;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Posición de un cliente en el feed: último correlativo recibido por serie
+ * (p.ej. "B001:42,B002:17"). Es el id de cada evento SSE y vuelve en Last-Event-ID.
+ *
+ * El correlativo se asigna en beforeCommit con la fila de la serie bloqueada hasta
+ * el commit, así que dentro de una serie su orden es el de confirmación; id_boleta
+ * no sirve de cursor porque se asigna al insertar y puede confirmar mucho después.
+ * No es seguro entre hilos: cada suscriptor usa el suyo bajo su propio bloqueo.
+ * @autor Paulo
+ */
+public final class CursorFeed {
+
+    private static final Pattern SEGMENTO = Pattern.compile("(B[A-Z0-9]{3}):(\\d{1,8})");
+    // NumeroBoleta.formatear
+    private static final Pattern NUMERO = Pattern.compile("(B[A-Z0-9]{3})-(\\d{8})");
+
+    private final Map<String, Integer> correlativos = new TreeMap<>();
+
+    private CursorFeed() {
+    }
+
+    public static CursorFeed de(Map<String, Integer> correlativos) {
+        CursorFeed cursor = new CursorFeed();
+        correlativos.forEach(cursor::avanzar);
+        return cursor;
+    }
+
+    /**
+     * Cursor del header Last-Event-ID; null si falta o no tiene el formato (el feed empieza sin reanudar)
+     */
+    public static CursorFeed parsear(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return null;
+        }
+        CursorFeed cursor = new CursorFeed();
+        for (String segmento : texto.trim().split(",")) {
+            Matcher m = SEGMENTO.matcher(segmento.trim());
+            if (!m.matches()) {
+                return null;
+            }
+            cursor.avanzar(m.group(1), Integer.valueOf(m.group(2)));
+        }
+        return cursor;
+    }
+
+    Set<String> series() {
+        return correlativos.keySet();
+    }
+
+    /**
+     * Último correlativo recibido de la serie (0 si el cursor no la conocía)
+     */
+    int desde(String serie) {
+        return correlativos.getOrDefault(serie, 0);
+    }
+
+    void avanzar(String serie, Integer correlativo) {
+        if (serie != null && correlativo != null) {
+            correlativos.merge(serie, correlativo, Math::max);
+        }
+    }
+
+    /**
+     * Avanza con el número de una boleta confirmada (serie-correlativo)
+     */
+    void avanzarHasta(String numero) {
+        Matcher m = numero != null ? NUMERO.matcher(numero) : null;
+        if (m != null && m.matches()) {
+            avanzar(m.group(1), Integer.valueOf(m.group(2)));
+        }
+    }
+
+    void avanzar(CursorFeed otro) {
+        otro.correlativos.forEach(this::avanzar);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner texto = new StringJoiner(",");
+        correlativos.forEach((serie, correlativo) -> texto.add(serie + ":" + correlativo));
+        return texto.toString();
+    }
+}
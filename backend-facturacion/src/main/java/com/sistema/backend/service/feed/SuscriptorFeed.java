@@ -0,0 +1,177 @@
+package com.sistema.backend.service.feed;
+
+import com.sistema.backend.dto.response.BoletaSummary;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Una conexión SSE del feed. Los eventos se encolan sin bloquear al publicador
+ * (cola acotada) y un solo envío a la vez los escribe en la conexión. Si el
+ * cliente no consume y la cola se llena, se cierra la conexión: el cliente
+ * reconecta con Last-Event-ID y recupera lo perdido desde la base.
+ * Encolar y avanzar el cursor (id de cada evento) ocurren juntos bajo el bloqueo
+ * del suscriptor, así los ids salen en el mismo orden que los eventos.
+ * @autor Paulo
+ */
+class SuscriptorFeed {
+
+    private final Integer idUsuario;
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEventBuilder> cola;
+    private final Executor envios;
+    private final AtomicBoolean enviando = new AtomicBoolean();
+    private final AtomicBoolean cerrado = new AtomicBoolean();
+    private final int capacidad;
+    // Protegidos por this
+    private final CursorFeed cursor = CursorFeed.de(Map.of());
+    // Ids reenviados al reanudar: la misma boleta puede llegar también en vivo
+    private final Set<Integer> ofrecidas = new HashSet<>();
+    // Llegadas en vivo mientras se leía lo perdido: van detrás de las perdidas
+    private final List<BoletaSummary> enEspera = new ArrayList<>();
+    private boolean reanudando;
+    private Runnable alCerrar = () -> { };
+
+    SuscriptorFeed(Integer idUsuario, SseEmitter emitter, int capacidad, Executor envios) {
+        this.idUsuario = idUsuario;
+        this.emitter = emitter;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.capacidad = capacidad;
+        this.envios = envios;
+    }
+
+    Integer getIdUsuario() {
+        return idUsuario;
+    }
+
+    void alCerrar(Runnable accion) {
+        this.alCerrar = accion;
+    }
+
+    /**
+     * Retiene las boletas en vivo hasta reanudar(); llamar antes de registrar al
+     * suscriptor para que no se adelanten a las perdidas ni se dupliquen
+     */
+    synchronized void esperarReanudacion() {
+        reanudando = true;
+    }
+
+    /**
+     * Fija el cursor inicial y encola las boletas perdidas (en orden de correlativo)
+     * y después las retenidas en vivo, sin repetir ninguna
+     */
+    synchronized boolean reanudar(CursorFeed inicial, List<BoletaSummary> perdidas) {
+        reanudando = false;
+        cursor.avanzar(inicial);
+        List<BoletaSummary> boletas = new ArrayList<>(perdidas);
+        boletas.addAll(enEspera);
+        enEspera.clear();
+        for (BoletaSummary boleta : boletas) {
+            if (!ofrecidas.add(boleta.getIdBoleta())) {
+                continue;
+            }
+            if (!ofrecer(evento(boleta))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    synchronized boolean ofrecerBoleta(BoletaSummary boleta) {
+        if (reanudando) {
+            // No caben detrás de las perdidas: mejor cerrar ya y que el cliente reanude
+            if (enEspera.size() >= capacidad) {
+                cerrar();
+                return false;
+            }
+            enEspera.add(boleta);
+            return !cerrado.get();
+        }
+        if (ofrecidas.contains(boleta.getIdBoleta())) {
+            return true;
+        }
+        return ofrecer(evento(boleta));
+    }
+
+    boolean ofrecerLatido() {
+        return ofrecer(SseEmitter.event().comment("latido"));
+    }
+
+    /**
+     * false si la cola estaba llena (la conexión queda cerrada) o ya estaba cerrada
+     */
+    private boolean ofrecer(SseEventBuilder evento) {
+        if (cerrado.get()) {
+            return false;
+        }
+        if (!cola.offer(evento)) {
+            cerrar();
+            return false;
+        }
+        programarEnvio();
+        return true;
+    }
+
+    private void programarEnvio() {
+        if (enviando.compareAndSet(false, true)) {
+            envios.execute(this::enviar);
+        }
+    }
+
+    private void enviar() {
+        try {
+            for (SseEventBuilder evento = cola.poll(); evento != null && !cerrado.get(); evento = cola.poll()) {
+                emitter.send(evento);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado
+            descartar();
+        } finally {
+            enviando.set(false);
+        }
+        // Evento encolado mientras se liberaba el envío
+        if (!cola.isEmpty() && !cerrado.get()) {
+            programarEnvio();
+        }
+    }
+
+    /**
+     * Cierra la conexión desde el servidor (desborde o apagado)
+     */
+    void cerrar() {
+        if (descartar()) {
+            emitter.complete();
+        }
+    }
+
+    /**
+     * Deja de enviar y se quita del registro; true solo la primera vez
+     */
+    boolean descartar() {
+        if (!cerrado.compareAndSet(false, true)) {
+            return false;
+        }
+        cola.clear();
+        alCerrar.run();
+        return true;
+    }
+
+    private SseEventBuilder evento(BoletaSummary boleta) {
+        cursor.avanzarHasta(boleta.getNumero());
+        return SseEmitter.event()
+                .id(cursor.toString())
+                .name("boleta")
+                .data(boleta, MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,234 @@
+package com.sistema.backend.service.invalidacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.backend.service.notificacion.NotificacionesPostgres;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bus de invalidación de cachés en memoria entre nodos (LISTEN/NOTIFY).
+ *
+ * Las escrituras llaman a invalidar(región, clave) dentro de su transacción: las
+ * claves se agrupan por transacción y salen en un solo NOTIFY antes del commit
+ * (PostgreSQL solo lo entrega si confirma). En este nodo el lote se aplica tras el
+ * commit; en los demás lo aplica un hilo propio, que fusiona los lotes que llegan
+ * mientras tanto. Si la conexión de LISTEN se pierde no hay forma de saber qué
+ * cambió en ese lapso: al reconectar se vacían todas las regiones.
+ * @autor Paulo
+ */
+@Component
+@Slf4j
+public class BusInvalidacion {
+
+    public static final String CANAL = "cache_invalidacion";
+
+    // Clave que representa la región completa
+    static final String TODO = "*";
+
+    // pg_notify admite hasta 8000 bytes; un lote mayor invalida sus regiones completas
+    private static final int MAX_PAYLOAD_BYTES = 7500;
+
+    private final Map<String, List<RegionInvalidable>> regiones = new ConcurrentHashMap<>();
+    private final NotificacionesPostgres notificaciones;
+    private final ObjectMapper objectMapper;
+    // Fuera del hilo de escucha: vaciar una región puede implicar recargarla
+    private final ExecutorService aplicador = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("invalidacion").daemon().factory());
+    private final Counter lotesEnviados;
+    private final Counter lotesRecibidos;
+    private final Counter huecos;
+
+    // Lote recibido y aún no aplicado (protegido por this)
+    private Map<String, Set<String>> pendiente;
+
+    public BusInvalidacion(NotificacionesPostgres notificaciones,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.notificaciones = notificaciones;
+        this.objectMapper = objectMapper;
+        this.lotesEnviados = Counter.builder("invalidacion.lotes").tag("sentido", "enviado")
+                .description("Lotes de invalidación publicados por este nodo")
+                .register(meterRegistry);
+        this.lotesRecibidos = Counter.builder("invalidacion.lotes").tag("sentido", "recibido")
+                .description("Lotes de invalidación recibidos de otros nodos")
+                .register(meterRegistry);
+        this.huecos = Counter.builder("invalidacion.huecos")
+                .description("Reconexiones de LISTEN (posibles avisos perdidos) que vaciaron las cachés")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        notificaciones.suscribir(CANAL, this::alNotificar);
+        notificaciones.alReconectar(this::alReconectar);
+    }
+
+    @PreDestroy
+    public void detener() {
+        aplicador.shutdown();
+    }
+
+    /**
+     * Suscribe una caché a la región
+     */
+    public void registrar(String region, RegionInvalidable cache) {
+        regiones.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(cache);
+    }
+
+    /**
+     * Invalida la clave de la región (o la región completa si la clave es null) en
+     * todos los nodos cuando confirme la transacción actual
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invalidar(String region, Object clave) {
+        fusionar(loteDeTransaccion(), region, Set.of(clave != null ? String.valueOf(clave) : TODO));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Set<String>> loteDeTransaccion() {
+        Map<String, Set<String>> lote = (Map<String, Set<String>>) TransactionSynchronizationManager.getResource(this);
+        if (lote != null) {
+            return lote;
+        }
+        Map<String, Set<String>> nuevo = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, nuevo);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                enviar(nuevo);
+            }
+
+            @Override
+            public void afterCommit() {
+                aplicar(nuevo);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BusInvalidacion.this);
+            }
+        });
+        return nuevo;
+    }
+
+    private void enviar(Map<String, Set<String>> lote) {
+        String payload = serializar(new LoteInvalidacion(notificaciones.getNodo(), lote));
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            payload = serializar(new LoteInvalidacion(notificaciones.getNodo(), regionesCompletas(lote.keySet())));
+        }
+        notificaciones.notificar(CANAL, payload);
+        lotesEnviados.increment();
+    }
+
+    private void alNotificar(String payload) {
+        LoteInvalidacion lote;
+        try {
+            lote = objectMapper.readValue(payload, LoteInvalidacion.class);
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Lote de invalidación inválido: {}", payload);
+            return;
+        }
+        // Los propios ya se aplicaron tras el commit
+        if (notificaciones.getNodo().equals(lote.nodo()) || lote.regiones() == null) {
+            return;
+        }
+        lotesRecibidos.increment();
+        encolar(lote.regiones());
+    }
+
+    private void alReconectar(Long caidaMs) {
+        huecos.increment();
+        log.warn("⚠️ LISTEN estuvo caído {} ms: se vacían las cachés {} por si se perdieron invalidaciones",
+                caidaMs, regiones.keySet());
+        encolar(regionesCompletas(regiones.keySet()));
+    }
+
+    private synchronized void encolar(Map<String, Set<String>> lote) {
+        boolean programar = pendiente == null;
+        if (programar) {
+            pendiente = new HashMap<>();
+        }
+        lote.forEach((region, claves) -> fusionar(pendiente, region, claves));
+        if (programar) {
+            aplicador.execute(this::aplicarPendiente);
+        }
+    }
+
+    private void aplicarPendiente() {
+        Map<String, Set<String>> lote;
+        synchronized (this) {
+            lote = pendiente;
+            pendiente = null;
+        }
+        aplicar(lote);
+    }
+
+    void aplicar(Map<String, Set<String>> lote) {
+        lote.forEach((region, claves) -> {
+            for (RegionInvalidable cache : regiones.getOrDefault(region, List.of())) {
+                try {
+                    if (claves.contains(TODO)) {
+                        cache.vaciar();
+                    } else {
+                        cache.invalidar(Collections.unmodifiableSet(claves));
+                    }
+                } catch (RuntimeException e) {
+                    log.error("❌ Error al invalidar la región {}: {}", region, e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    // Una región completa absorbe cualquier clave suelta
+    private static void fusionar(Map<String, Set<String>> lote, String region, Set<String> claves) {
+        Set<String> actuales = lote.computeIfAbsent(region, r -> new HashSet<>());
+        if (actuales.contains(TODO)) {
+            return;
+        }
+        if (claves.contains(TODO)) {
+            actuales.clear();
+            actuales.add(TODO);
+        } else {
+            actuales.addAll(claves);
+        }
+    }
+
+    private static Map<String, Set<String>> regionesCompletas(Set<String> nombres) {
+        Map<String, Set<String>> lote = new HashMap<>();
+        nombres.forEach(region -> lote.put(region, Set.of(TODO)));
+        return lote;
+    }
+
+    private String serializar(LoteInvalidacion lote) {
+        try {
+            return objectMapper.writeValueAsString(lote);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el lote de invalidación", e);
+        }
+    }
+
+    // Payload del NOTIFY: claves por región
+    record LoteInvalidacion(String nodo, Map<String, Set<String>> regiones) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.sistema.backend.service.invalidacion;
+
+import java.util.Set;
+
+/**
+ * Caché en memoria suscrita a una región del bus de invalidación
+ * @autor Paulo
+ */
+public interface RegionInvalidable {
+
+    /**
+     * Descarta las entradas de esas claves (cambiaron en algún nodo)
+     */
+    void invalidar(Set<String> claves);
+
+    /**
+     * Descarta todo: la región cambió entera o pudo perderse algún aviso
+     */
+    void vaciar();
+}
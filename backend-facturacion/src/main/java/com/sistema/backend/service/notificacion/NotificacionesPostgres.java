@@ -0,0 +1,221 @@
+package com.sistema.backend.service.notificacion;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Difusión entre nodos con LISTEN/NOTIFY de PostgreSQL.
+ *
+ * notificar() ejecuta pg_notify en la transacción del llamador: PostgreSQL solo
+ * entrega la notificación si la transacción confirma. Un hilo escucha los canales
+ * suscritos con una conexión propia (fuera del pool: es de larga duración y el
+ * pool la reportaría como fuga) y reconecta si se pierde. Las notificaciones
+ * emitidas mientras no hay conexión se pierden: los consumidores deben tolerarlo
+ * (alReconectar avisa del hueco tras volver a escuchar).
+ * @autor Paulo
+ */
+@Component
+@Slf4j
+public class NotificacionesPostgres {
+
+    private static final Pattern CANAL_VALIDO = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    // Identifica las notificaciones propias (el emisor también las recibe si escucha el canal)
+    private final String nodo = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> manejadores = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean habilitado;
+    private final int esperaMs;
+    private final long reconexionMs;
+    private final Queue<String> porEscuchar = new ConcurrentLinkedQueue<>();
+    private final List<Consumer<Long>> reconexiones = new CopyOnWriteArrayList<>();
+    private volatile boolean activo = true;
+    private Thread hilo;
+
+    public NotificacionesPostgres(JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            @Value("${app.notificaciones.habilitado:true}") boolean habilitado,
+            @Value("${app.notificaciones.espera-ms:500}") int esperaMs,
+            @Value("${app.notificaciones.reconexion-ms:5000}") long reconexionMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.habilitado = habilitado;
+        this.esperaMs = esperaMs;
+        this.reconexionMs = reconexionMs;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitado) {
+            log.info("Notificaciones entre nodos deshabilitadas");
+            return;
+        }
+        hilo = new Thread(this::escuchar, "pg-listen");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        if (hilo != null) {
+            hilo.interrupt();
+        }
+    }
+
+    /**
+     * Identificador de este nodo (para descartar las notificaciones propias)
+     */
+    public String getNodo() {
+        return nodo;
+    }
+
+    /**
+     * Registra un manejador del canal. Se invoca en el hilo de escucha: debe ser breve
+     * (o delegar a otro hilo) para no retrasar las demás notificaciones.
+     */
+    public void suscribir(String canal, Consumer<String> manejador) {
+        validarCanal(canal);
+        manejadores.computeIfAbsent(canal, c -> new CopyOnWriteArrayList<>()).add(manejador);
+        // La conexión solo la usa el hilo de escucha: el LISTEN se ejecuta allí
+        porEscuchar.add(canal);
+    }
+
+    /**
+     * Registra un manejador que se invoca (en el hilo de escucha) al recuperar la
+     * conexión, con los milisegundos que estuvo caída: lo notificado en ese lapso se perdió.
+     */
+    public void alReconectar(Consumer<Long> manejador) {
+        reconexiones.add(manejador);
+    }
+
+    /**
+     * Envía la notificación al confirmar la transacción actual (payload de hasta ~8000 bytes)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notificar(String canal, String payload) {
+        validarCanal(canal);
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", canal, payload);
+    }
+
+    private void escuchar() {
+        long caidaDesde = 0;
+        while (activo) {
+            try (Connection c = DriverManager.getConnection(dataSourceProperties.determineUrl(), propiedadesConexion())) {
+                porEscuchar.clear();
+                for (String canal : manejadores.keySet()) {
+                    escucharCanal(c, canal);
+                }
+                log.info("📡 Escuchando notificaciones de PostgreSQL: {}", manejadores.keySet());
+                if (caidaDesde > 0) {
+                    avisarReconexion(System.currentTimeMillis() - caidaDesde);
+                    caidaDesde = 0;
+                }
+
+                PGConnection pg = c.unwrap(PGConnection.class);
+                while (activo) {
+                    for (String canal = porEscuchar.poll(); canal != null; canal = porEscuchar.poll()) {
+                        escucharCanal(c, canal);
+                    }
+                    PGNotification[] recibidas = pg.getNotifications(esperaMs);
+                    if (recibidas != null) {
+                        for (PGNotification notificacion : recibidas) {
+                            despachar(notificacion.getName(), notificacion.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (caidaDesde == 0) {
+                    caidaDesde = System.currentTimeMillis();
+                }
+                if (activo) {
+                    log.warn("⚠️ Conexión de LISTEN perdida ({}); reintento en {} ms", e.getMessage(), reconexionMs);
+                }
+            }
+            esperar();
+        }
+    }
+
+    private void despachar(String canal, String payload) {
+        for (Consumer<String> manejador : manejadores.getOrDefault(canal, List.of())) {
+            try {
+                manejador.accept(payload);
+            } catch (RuntimeException e) {
+                log.error("❌ Error al manejar notificación de {}: {}", canal, e.getMessage(), e);
+            }
+        }
+    }
+
+    private Properties propiedadesConexion() {
+        Properties propiedades = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            propiedades.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            propiedades.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        // Identificable en pg_stat_activity
+        propiedades.setProperty("ApplicationName", "pg-listen");
+        return propiedades;
+    }
+
+    private void avisarReconexion(long caidaMs) {
+        for (Consumer<Long> manejador : reconexiones) {
+            try {
+                manejador.accept(caidaMs);
+            } catch (RuntimeException e) {
+                log.error("❌ Error al manejar reconexión de LISTEN: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void escucharCanal(Connection c, String canal) throws SQLException {
+        try (Statement statement = c.createStatement()) {
+            statement.execute("LISTEN " + canal);
+        }
+    }
+
+    private void esperar() {
+        if (!activo) {
+            return;
+        }
+        try {
+            Thread.sleep(reconexionMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            activo = false;
+        }
+    }
+
+    private static void validarCanal(String canal) {
+        // El nombre del canal va concatenado en LISTEN: solo identificadores simples
+        if (!CANAL_VALIDO.matcher(canal).matches()) {
+            throw new IllegalArgumentException("Canal de notificación inválido: " + canal);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.sistema.backend.service.numeracion;
+
+/**
+ * Estado de una serie: con la restricción única (serie, correlativo), la serie
+ * no tiene huecos si emitidas == maximo == ultimoCorrelativo.
+ * @autor Paulo
+ */
+public record EstadoSerie(String serie, int ultimoCorrelativo, long emitidas, int maximo) {
+
+    /**
+     * Números consumidos por el contador que no tienen boleta
+     */
+    public long huecos() {
+        return ultimoCorrelativo - emitidas;
+    }
+
+    public boolean sinHuecos() {
+        return emitidas == maximo && maximo == ultimoCorrelativo;
+    }
+}
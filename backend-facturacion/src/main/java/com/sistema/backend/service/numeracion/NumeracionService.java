@@ -0,0 +1,141 @@
+package com.sistema.backend.service.numeracion;
+
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.repository.NumeracionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Numeración legal de boletas (serie-correlativo, p.ej. B001-00001234) sin huecos.
+ *
+ * El correlativo se toma en beforeCommit, como último paso de la transacción
+ * del checkout: la fila de la serie queda bloqueada solo lo que dura el commit
+ * (no todo el checkout) y, si la transacción se revierte, el incremento se
+ * revierte con ella. Con varias series configuradas los checkouts se reparten
+ * entre ellas y el bloqueo se divide entre las filas.
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class NumeracionService {
+
+    private static final Pattern FORMATO_SERIE = Pattern.compile("B[A-Z0-9]{3}");
+
+    private final NumeracionRepository numeracionRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<String> series;
+    private final AtomicInteger turno = new AtomicInteger();
+    private final Map<String, AtomicLong> huecos = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Timer bloqueoSerie;
+
+    public NumeracionService(NumeracionRepository numeracionRepository,
+            EntityManagerFactory entityManagerFactory,
+            MeterRegistry meterRegistry,
+            @Value("${app.numeracion.series:B001}") List<String> series) {
+        if (series.isEmpty()) {
+            throw new IllegalArgumentException("Debe configurarse al menos una serie en app.numeracion.series");
+        }
+        for (String serie : series) {
+            if (!FORMATO_SERIE.matcher(serie).matches()) {
+                throw new IllegalArgumentException("Serie de boleta inválida: " + serie);
+            }
+        }
+        this.numeracionRepository = numeracionRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.series = List.copyOf(series);
+        this.meterRegistry = meterRegistry;
+        this.bloqueoSerie = Timer.builder("numeracion.bloqueo")
+                .description("Tiempo que la fila de la serie queda bloqueada (asignación + commit)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registrarSeries() {
+        for (String serie : series) {
+            numeracionRepository.registrarSerie(serie);
+            meterRegistry.gauge("numeracion.huecos", Tags.of(Tag.of("serie", serie)),
+                    huecos.computeIfAbsent(serie, s -> new AtomicLong()));
+        }
+    }
+
+    /**
+     * Programa la numeración de la boleta (ya insertada) para justo antes del
+     * commit. alAsignar recibe el número completo una vez asignado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void numerarAlConfirmar(Boleta boleta, Consumer<String> alAsignar) {
+        String serie = series.get(Math.floorMod(turno.getAndIncrement(), series.size()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long inicio;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                inicio = System.nanoTime();
+                int correlativo = numeracionRepository.asignar(serie, boleta.getIdBoleta());
+                boleta.setSerie(serie);
+                boleta.setCorrelativo(correlativo);
+                alAsignar.accept(boleta.getNumero());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (inicio != 0) {
+                    bloqueoSerie.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+                if (status == STATUS_COMMITTED) {
+                    // La caché L2 guardó la boleta al insertarla, todavía sin número
+                    entityManagerFactory.getCache().evict(Boleta.class, boleta.getIdBoleta());
+                }
+            }
+        });
+    }
+
+    /**
+     * Estado de una serie (contador frente a boletas numeradas)
+     */
+    public EstadoSerie estado(String serie) {
+        return numeracionRepository.estado(serie);
+    }
+
+    /**
+     * Verificación periódica de huecos en las series configuradas
+     */
+    @Scheduled(cron = "${app.numeracion.verificacion-cron:0 15 3 * * *}")
+    public void verificar() {
+        for (String serie : series) {
+            EstadoSerie estado = numeracionRepository.estado(serie);
+            if (estado == null) {
+                continue;
+            }
+            huecos.computeIfAbsent(serie, s -> new AtomicLong()).set(estado.huecos());
+            if (estado.sinHuecos()) {
+                log.debug("🔢 Serie {} sin huecos: {} boletas", serie, estado.emitidas());
+            } else {
+                log.error("❌ Serie {} con huecos: contador {}, boletas numeradas {}, máximo {}",
+                        serie, estado.ultimoCorrelativo(), estado.emitidas(), estado.maximo());
+            }
+        }
+    }
+}
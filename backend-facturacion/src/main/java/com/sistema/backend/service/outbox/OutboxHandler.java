@@ -0,0 +1,24 @@
+package com.sistema.backend.service.outbox;
+
+import com.sistema.backend.entity.OutboxEvento;
+
+/**
+ * Consumidor en proceso de los eventos del outbox.
+ *
+ * La entrega es al menos una vez: un evento puede llegar repetido (reintentos,
+ * caída del nodo a mitad del lote), así que las implementaciones deben ser
+ * idempotentes. Los eventos de un mismo usuario llegan en orden.
+ * @autor Paulo
+ */
+public interface OutboxHandler {
+
+    /**
+     * Tipo de evento que atiende (p.ej. BoletaCreadaEvent.TIPO)
+     */
+    String tipo();
+
+    /**
+     * Procesa el evento; lanzar una excepción programa un reintento
+     */
+    void manejar(OutboxEvento evento) throws Exception;
+}
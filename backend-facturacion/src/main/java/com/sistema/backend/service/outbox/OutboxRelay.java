@@ -0,0 +1,270 @@
+package com.sistema.backend.service.outbox;
+
+import com.sistema.backend.entity.OutboxEvento;
+import com.sistema.backend.entity.OutboxEvento.Estado;
+import com.sistema.backend.repository.OutboxEventoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Relay del outbox: reclama lotes de eventos pendientes con FOR UPDATE SKIP LOCKED
+ * y los publica a los OutboxHandler registrados.
+ *
+ * El lote se reclama y reserva en una transacción corta; los handlers corren
+ * fuera de transacción (sin retener conexiones ni bloqueos) y el resultado se
+ * guarda en una segunda transacción. Si el nodo cae entre ambas, la reserva
+ * vence y el evento se vuelve a entregar (al menos una vez).
+ * @autor Paulo
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final int MAX_LARGO_ERROR = 500;
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final Map<String, List<OutboxHandler>> handlersPorTipo;
+    private final TransactionTemplate transaccion;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean habilitado;
+    private final int relays;
+    private final int tamanoLote;
+    private final long intervaloMs;
+    private final long reservaMs;
+    private final int maxIntentos;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final int diasRetencion;
+
+    private final Timer retraso;
+    private final Timer tiempoLote;
+    private final Map<String, Counter> contadores = new ConcurrentHashMap<>();
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicLong antiguedadSegundos = new AtomicLong();
+
+    // Señal para despertar a los relays locales tras un commit (evita esperar al intervalo)
+    private final Semaphore senal = new Semaphore(0);
+    private final List<Thread> hilos = new ArrayList<>();
+    private volatile boolean activo = true;
+
+    public OutboxRelay(OutboxEventoRepository outboxEventoRepository,
+            ObjectProvider<OutboxHandler> handlers,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.relay.habilitado:true}") boolean habilitado,
+            @Value("${app.outbox.relays:1}") int relays,
+            @Value("${app.outbox.tamano-lote:100}") int tamanoLote,
+            @Value("${app.outbox.intervalo-ms:500}") long intervaloMs,
+            @Value("${app.outbox.reserva-ms:60000}") long reservaMs,
+            @Value("${app.outbox.max-intentos:10}") int maxIntentos,
+            @Value("${app.outbox.backoff-base-ms:1000}") long backoffBaseMs,
+            @Value("${app.outbox.backoff-max-ms:600000}") long backoffMaxMs,
+            @Value("${app.outbox.dias-retencion:7}") int diasRetencion) {
+        this.outboxEventoRepository = outboxEventoRepository;
+        this.handlersPorTipo = handlers.orderedStream()
+                .collect(Collectors.groupingBy(OutboxHandler::tipo));
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.relays = relays;
+        this.tamanoLote = tamanoLote;
+        this.intervaloMs = intervaloMs;
+        this.reservaMs = reservaMs;
+        this.maxIntentos = maxIntentos;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.diasRetencion = diasRetencion;
+
+        this.retraso = Timer.builder("outbox.retraso")
+                .description("Tiempo entre el commit del evento y su publicación")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.tiempoLote = Timer.builder("outbox.lote.duracion").register(meterRegistry);
+        meterRegistry.gauge("outbox.pendientes", pendientes);
+        meterRegistry.gauge("outbox.antiguedad.segundos", antiguedadSegundos);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            log.info("📭 Relay del outbox deshabilitado en este nodo");
+            return;
+        }
+        for (int i = 0; i < relays; i++) {
+            Thread hilo = new Thread(this::ejecutar, "outbox-relay-" + i);
+            hilo.setDaemon(true);
+            hilo.start();
+            hilos.add(hilo);
+        }
+        log.info("📬 Relay del outbox iniciado: {} hilo(s), handlers {}", relays, handlersPorTipo.keySet());
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        hilos.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Despierta a los relays locales (llamado tras el commit de un evento nuevo)
+     */
+    public void despertar() {
+        if (senal.availablePermits() == 0) {
+            senal.release();
+        }
+    }
+
+    private void ejecutar() {
+        while (activo) {
+            try {
+                int publicados = tiempoLote.recordCallable(this::procesarLote);
+                if (publicados < tamanoLote) {
+                    // Lote incompleto: no hay más trabajo inmediato
+                    senal.tryAcquire(intervaloMs, TimeUnit.MILLISECONDS);
+                    senal.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("❌ Error en el relay del outbox", e);
+                try {
+                    Thread.sleep(intervaloMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reclama, publica y confirma un lote. Devuelve el número de eventos reclamados.
+     */
+    int procesarLote() {
+        // 1. Reclamar y reservar en una transacción corta
+        LocalDateTime ahora = LocalDateTime.now();
+        List<OutboxEvento> lote = transaccion.execute(status -> {
+            List<OutboxEvento> reclamados = outboxEventoRepository.reclamarLote(ahora, tamanoLote);
+            if (!reclamados.isEmpty()) {
+                outboxEventoRepository.reservar(
+                        reclamados.stream().map(OutboxEvento::getId).toList(),
+                        ahora.plusNanos(reservaMs * 1_000_000L));
+            }
+            return reclamados;
+        });
+        if (lote == null || lote.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Publicar fuera de transacción, en orden de id (a lo más un evento por usuario)
+        List<Long> publicados = new ArrayList<>(lote.size());
+        List<OutboxEvento> fallidos = new ArrayList<>();
+        List<Exception> errores = new ArrayList<>();
+        for (OutboxEvento evento : lote) {
+            evento.setIntentos(evento.getIntentos() + 1);
+            try {
+                publicar(evento);
+                publicados.add(evento.getId());
+                retraso.record(Duration.between(evento.getFechaCreacion(), LocalDateTime.now()));
+                contador(evento.getTipo(), "publicado").increment();
+            } catch (Exception e) {
+                fallidos.add(evento);
+                errores.add(e);
+                contador(evento.getTipo(), "error").increment();
+            }
+        }
+
+        // 3. Confirmar resultados
+        LocalDateTime fin = LocalDateTime.now();
+        transaccion.executeWithoutResult(status -> {
+            if (!publicados.isEmpty()) {
+                outboxEventoRepository.marcarProcesados(publicados, fin);
+            }
+            for (int i = 0; i < fallidos.size(); i++) {
+                registrarFallo(fallidos.get(i), errores.get(i), fin);
+            }
+        });
+        return lote.size();
+    }
+
+    private void publicar(OutboxEvento evento) throws Exception {
+        for (OutboxHandler handler : handlersPorTipo.getOrDefault(evento.getTipo(), List.of())) {
+            handler.manejar(evento);
+        }
+    }
+
+    private void registrarFallo(OutboxEvento evento, Exception e, LocalDateTime ahora) {
+        String mensaje = String.valueOf(e.getMessage());
+        if (mensaje.length() > MAX_LARGO_ERROR) {
+            mensaje = mensaje.substring(0, MAX_LARGO_ERROR);
+        }
+        int intentos = evento.getIntentos();
+        if (intentos >= maxIntentos) {
+            log.error("❌ Evento {} ({}) descartado tras {} intentos: {}", evento.getId(), evento.getTipo(), intentos, mensaje);
+            outboxEventoRepository.registrarFallo(evento.getId(), Estado.FALLIDO, mensaje, null);
+        } else {
+            log.warn("⚠️ Evento {} ({}) falló, intento {}: {}", evento.getId(), evento.getTipo(), intentos, mensaje);
+            outboxEventoRepository.registrarFallo(evento.getId(), Estado.PENDIENTE, mensaje,
+                    ahora.plusNanos(calcularBackoffMs(intentos) * 1_000_000L));
+        }
+    }
+
+    /**
+     * Espera antes del siguiente intento: base * 2^(intentos-1), con tope
+     */
+    long calcularBackoffMs(int intentos) {
+        int exponente = Math.max(0, Math.min(intentos - 1, 30));
+        return Math.min(backoffMaxMs, backoffBaseMs << exponente);
+    }
+
+    private Counter contador(String tipo, String resultado) {
+        return contadores.computeIfAbsent(tipo + ":" + resultado, k -> Counter.builder("outbox.eventos")
+                .tag("tipo", tipo)
+                .tag("resultado", resultado)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Actualiza las métricas de cola: pendientes y antigüedad del más antiguo
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.metricas-ms:10000}")
+    public void actualizarMetricas() {
+        Object[] resumen = outboxEventoRepository.resumenPendientes().get(0);
+        pendientes.set(((Number) resumen[0]).longValue());
+        LocalDateTime masAntiguo = (LocalDateTime) resumen[1];
+        antiguedadSegundos.set(masAntiguo == null ? 0 : Duration.between(masAntiguo, LocalDateTime.now()).toSeconds());
+    }
+
+    /**
+     * Elimina los eventos procesados fuera del período de retención
+     */
+    @Scheduled(cron = "${app.outbox.cron-limpieza:0 30 3 * * *}")
+    public void limpiar() {
+        Integer eliminados = transaccion.execute(status ->
+                outboxEventoRepository.eliminarProcesadosAntesDe(LocalDateTime.now().minusDays(diasRetencion)));
+        log.info("🧹 Outbox: {} eventos procesados eliminados", eliminados);
+    }
+}
@@ -0,0 +1,60 @@
+package com.sistema.backend.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.backend.entity.OutboxEvento;
+import com.sistema.backend.repository.OutboxEventoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registra eventos en el outbox dentro de la transacción del llamador
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Guarda el evento junto con el cambio que lo origina: si la transacción hace
+     * rollback el evento tampoco existe. Tras el commit despierta al relay local.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvento registrar(String tipo, Integer idAgregado, Integer idUsuario, Object payload) {
+        OutboxEvento evento = new OutboxEvento();
+        evento.setTipo(tipo);
+        evento.setIdAgregado(idAgregado);
+        evento.setIdUsuario(idUsuario);
+        evento.setPayload(serializar(payload));
+        evento.setFechaCreacion(LocalDateTime.now());
+        outboxEventoRepository.save(evento);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.despertar();
+            }
+        });
+        return evento;
+    }
+
+    private String serializar(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + payload, e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.sistema.backend.service.pdf;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.DetalleBoleta;
+import com.sistema.backend.entity.Usuario;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Genera el PDF imprimible de una boleta a partir de la plantilla compilada.
+ * El documento se escribe directamente en el OutputStream recibido: las
+ * páginas se vuelcan a medida que se completan.
+ * @autor Paulo
+ */
+@Component
+public class BoletaPdfRenderer {
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // Plantilla y fuentes: una sola vez por JVM
+    private static final BoletaPdfTemplate PLANTILLA = BoletaPdfTemplate.compilar();
+
+    // En boletas grandes la tabla se vuelca al documento cada N filas para no retenerla entera en memoria
+    @Value("${app.pdf.filas-por-bloque:200}")
+    private int filasPorBloque = 200;
+
+    /**
+     * Escribe el PDF de la boleta (con detalles y usuario ya cargados)
+     */
+    public void renderizar(Boleta boleta, OutputStream out) {
+        Document document = new Document(BoletaPdfTemplate.TAMANO_PAGINA,
+                BoletaPdfTemplate.MARGEN, BoletaPdfTemplate.MARGEN,
+                BoletaPdfTemplate.MARGEN, BoletaPdfTemplate.MARGEN);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.addTitle(BoletaPdfTemplate.TITULO + " N° "
+                + (boleta.getNumero() != null ? boleta.getNumero() : boleta.getIdBoleta()));
+            document.open();
+
+            agregarCabecera(document, boleta);
+            agregarDetalles(document, boleta.getDetalles());
+            agregarTotal(document, boleta.getTotal());
+
+            document.close();
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Error al generar el PDF de la boleta " + boleta.getIdBoleta(), e);
+        }
+    }
+
+    private void agregarCabecera(Document document, Boleta boleta) throws DocumentException {
+        Paragraph titulo = new Paragraph(BoletaPdfTemplate.TITULO, PLANTILLA.getFuenteTitulo());
+        titulo.setAlignment(Element.ALIGN_CENTER);
+        document.add(titulo);
+
+        String numeroBoleta = boleta.getNumero() != null ? boleta.getNumero() : String.format("%08d", boleta.getIdBoleta());
+        Paragraph numero = new Paragraph("N° " + numeroBoleta,
+                PLANTILLA.getFuenteSubtitulo());
+        numero.setAlignment(Element.ALIGN_CENTER);
+        numero.setSpacingAfter(12f);
+        document.add(numero);
+
+        Font normal = PLANTILLA.getFuenteNormal();
+        document.add(new Paragraph("Fecha: " + boleta.getFechaCreacion().format(FORMATO_FECHA), normal));
+        document.add(new Paragraph("Cliente: " + boleta.getNombreCliente(), normal));
+        if (boleta.getDocumentoCliente() != null) {
+            document.add(new Paragraph("Documento: " + boleta.getDocumentoCliente(), normal));
+        }
+        if (boleta.getEmailCliente() != null) {
+            document.add(new Paragraph("Email: " + boleta.getEmailCliente(), normal));
+        }
+        Usuario vendedor = boleta.getUsuario();
+        if (vendedor != null) {
+            document.add(new Paragraph("Vendedor: " + vendedor.getNombres() + " " + vendedor.getApellidos(), normal));
+        }
+
+        Paragraph separador = new Paragraph(" ");
+        separador.setSpacingAfter(6f);
+        document.add(separador);
+    }
+
+    private void agregarDetalles(Document document, List<DetalleBoleta> detalles) throws DocumentException {
+        PdfPTable tabla = new PdfPTable(BoletaPdfTemplate.ANCHOS_COLUMNAS);
+        tabla.setWidthPercentage(100);
+        tabla.setHeaderRows(1);
+        tabla.setComplete(false);
+
+        for (int i = 0; i < BoletaPdfTemplate.COLUMNAS.length; i++) {
+            PdfPCell celda = celda(BoletaPdfTemplate.COLUMNAS[i], PLANTILLA.getFuenteNegrita(),
+                    BoletaPdfTemplate.ALINEACION_COLUMNAS[i]);
+            celda.setBackgroundColor(BoletaPdfTemplate.COLOR_CABECERA);
+            tabla.addCell(celda);
+        }
+
+        Font normal = PLANTILLA.getFuenteNormal();
+        int filas = 0;
+        for (DetalleBoleta detalle : detalles) {
+            BigDecimal subtotal = detalle.getSubtotal() != null
+                    ? detalle.getSubtotal()
+                    : detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(detalle.getCantidad()));
+
+            tabla.addCell(celda(detalle.getProducto(), normal, BoletaPdfTemplate.ALINEACION_COLUMNAS[0]));
+            tabla.addCell(celda(String.valueOf(detalle.getCantidad()), normal, BoletaPdfTemplate.ALINEACION_COLUMNAS[1]));
+            tabla.addCell(celda(formatearMonto(detalle.getPrecioUnitario()), normal, BoletaPdfTemplate.ALINEACION_COLUMNAS[2]));
+            tabla.addCell(celda(formatearMonto(subtotal), normal, BoletaPdfTemplate.ALINEACION_COLUMNAS[3]));
+
+            // Tabla grande: volcar las filas ya completas al documento
+            if (++filas % filasPorBloque == 0) {
+                document.add(tabla);
+            }
+        }
+
+        tabla.setComplete(true);
+        document.add(tabla);
+    }
+
+    private void agregarTotal(Document document, BigDecimal total) throws DocumentException {
+        Paragraph parrafo = new Paragraph("TOTAL: S/ " + formatearMonto(total), PLANTILLA.getFuenteSubtitulo());
+        parrafo.setAlignment(Element.ALIGN_RIGHT);
+        parrafo.setSpacingBefore(10f);
+        document.add(parrafo);
+    }
+
+    private PdfPCell celda(String texto, Font fuente, int alineacion) {
+        PdfPCell celda = new PdfPCell(new Phrase(texto, fuente));
+        celda.setHorizontalAlignment(alineacion);
+        celda.setPadding(4f);
+        return celda;
+    }
+
+    private String formatearMonto(BigDecimal monto) {
+        return monto.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
@@ -0,0 +1,117 @@
+package com.sistema.backend.service.pdf;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.backend.entity.Boleta;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Servicio de comprobantes PDF.
+ * Las boletas son inmutables, así que el PDF generado se guarda en caché por idBoleta.
+ * La caché está acotada por bytes y los PDFs demasiado grandes no se guardan.
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class BoletaPdfService {
+
+    private final BoletaPdfRenderer renderer;
+    private final Cache<Integer, byte[]> cachePdf;
+    private final int maxBytesPorPdf;
+
+    public BoletaPdfService(BoletaPdfRenderer renderer,
+            MeterRegistry meterRegistry,
+            @Value("${app.pdf.cache.max-bytes:67108864}") long maxBytesCache,
+            @Value("${app.pdf.cache.max-bytes-por-pdf:524288}") int maxBytesPorPdf) {
+        this.renderer = renderer;
+        this.maxBytesPorPdf = maxBytesPorPdf;
+        this.cachePdf = Caffeine.newBuilder()
+                .maximumWeight(maxBytesCache)
+                .weigher((Integer id, byte[] pdf) -> pdf.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cachePdf, "boletas-pdf");
+    }
+
+    /**
+     * Devuelve el PDF en caché, o null si aún no se ha generado
+     */
+    public byte[] obtenerDeCache(Integer idBoleta) {
+        return cachePdf.getIfPresent(idBoleta);
+    }
+
+    /**
+     * Genera el PDF escribiéndolo directamente en la salida y, a la vez,
+     * lo guarda en caché si no supera el tamaño máximo por PDF.
+     */
+    public void generar(Boleta boleta, OutputStream salida) throws IOException {
+        CopiaAcotadaOutputStream copia = new CopiaAcotadaOutputStream(salida, maxBytesPorPdf);
+        renderer.renderizar(boleta, copia);
+        copia.flush();
+
+        byte[] pdf = copia.getCopia();
+        if (pdf != null) {
+            cachePdf.put(boleta.getIdBoleta(), pdf);
+        } else {
+            log.info("📄 PDF de la boleta {} supera {} bytes, no se guarda en caché",
+                    boleta.getIdBoleta(), maxBytesPorPdf);
+        }
+    }
+
+    /**
+     * Escribe en la salida real y guarda una copia mientras no se supere el límite.
+     * Si se supera, descarta la copia para no retener PDFs grandes en memoria.
+     */
+    private static final class CopiaAcotadaOutputStream extends OutputStream {
+
+        private final OutputStream salida;
+        private final int limite;
+        private ByteArrayOutputStream copia = new ByteArrayOutputStream(8192);
+
+        CopiaAcotadaOutputStream(OutputStream salida, int limite) {
+            this.salida = salida;
+            this.limite = limite;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            salida.write(b);
+            if (copia != null) {
+                copia.write(b);
+                verificarLimite();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            salida.write(b, off, len);
+            if (copia != null) {
+                copia.write(b, off, len);
+                verificarLimite();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            salida.flush();
+        }
+
+        private void verificarLimite() {
+            if (copia.size() > limite) {
+                copia = null;
+            }
+        }
+
+        byte[] getCopia() {
+            return copia != null ? copia.toByteArray() : null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sistema.backend.service.pdf;
+
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.BaseFont;
+
+import java.awt.Color;
+import java.io.IOException;
+
+/**
+ * Plantilla "compilada" del comprobante: fuentes, anchos de columna y textos fijos.
+ * Se construye una sola vez por JVM y es inmutable, por lo que se comparte entre hilos.
+ * Solo lo que depende de la boleta (cliente, líneas, totales) se genera por petición.
+ * @autor Paulo
+ */
+public final class BoletaPdfTemplate {
+
+    public static final Rectangle TAMANO_PAGINA = PageSize.A4;
+    public static final float MARGEN = 36f;
+
+    public static final String TITULO = "BOLETA DE VENTA";
+    public static final String[] COLUMNAS = { "Producto", "Cant.", "P. Unit.", "Subtotal" };
+    public static final float[] ANCHOS_COLUMNAS = { 0.55f, 0.10f, 0.17f, 0.18f };
+    public static final int[] ALINEACION_COLUMNAS = {
+            Element.ALIGN_LEFT, Element.ALIGN_RIGHT, Element.ALIGN_RIGHT, Element.ALIGN_RIGHT };
+
+    public static final Color COLOR_CABECERA = new Color(230, 230, 230);
+
+    private final Font fuenteTitulo;
+    private final Font fuenteSubtitulo;
+    private final Font fuenteNormal;
+    private final Font fuenteNegrita;
+
+    private BoletaPdfTemplate(BaseFont normal, BaseFont negrita) {
+        this.fuenteTitulo = new Font(negrita, 16);
+        this.fuenteSubtitulo = new Font(negrita, 11);
+        this.fuenteNormal = new Font(normal, 9);
+        this.fuenteNegrita = new Font(negrita, 9);
+    }
+
+    /**
+     * Compila la plantilla: carga las fuentes (WinAnsi cubre tildes y ñ)
+     */
+    public static BoletaPdfTemplate compilar() {
+        try {
+            BaseFont normal = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            BaseFont negrita = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            return new BoletaPdfTemplate(normal, negrita);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudieron cargar las fuentes del comprobante", e);
+        }
+    }
+
+    public Font getFuenteTitulo() {
+        return fuenteTitulo;
+    }
+
+    public Font getFuenteSubtitulo() {
+        return fuenteSubtitulo;
+    }
+
+    public Font getFuenteNormal() {
+        return fuenteNormal;
+    }
+
+    public Font getFuenteNegrita() {
+        return fuenteNegrita;
+    }
+}
@@ -0,0 +1,128 @@
+package com.sistema.backend.service.reporte;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Refresco programado de las vistas materializadas de reportes.
+ *
+ * Cada vista se refresca con REFRESH MATERIALIZED VIEW CONCURRENTLY en su propia
+ * transacción (en el primario), así los reportes siguen leyendo la versión
+ * anterior mientras tanto. Las ejecuciones solapadas se omiten: en el nodo con
+ * un flag y entre nodos con un advisory lock de la transacción (el cron dispara
+ * en todos los nodos a la vez y solo uno refresca).
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class RefrescoVistasService {
+
+    public static final List<String> VISTAS = List.of("mv_ventas_diarias", "mv_ventas_vendedor", "mv_ventas_producto");
+
+    // Primera clave del advisory lock (la segunda es el hash de la vista)
+    private static final int CLAVE_BLOQUEO = 40_001;
+
+    private static final String SQL_REGISTRAR =
+            "INSERT INTO refrescos_vistas (vista, ultimo_refresco, duracion_ms) VALUES (?, now(), ?) "
+            + "ON CONFLICT (vista) DO UPDATE SET ultimo_refresco = EXCLUDED.ultimo_refresco, duracion_ms = EXCLUDED.duracion_ms";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaccion;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+    private final Counter omitidos;
+    private final Counter errores;
+    private final boolean habilitado;
+    private final int timeoutSegundos;
+
+    public RefrescoVistasService(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.reportes.refresco.habilitado:true}") boolean habilitado,
+            @Value("${app.reportes.refresco.timeout-s:300}") int timeoutSegundos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.timeoutSegundos = timeoutSegundos;
+        this.omitidos = Counter.builder("reportes.refresco.omitidos")
+                .description("Refrescos omitidos porque otro estaba en curso")
+                .register(meterRegistry);
+        this.errores = Counter.builder("reportes.refresco.errores")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.reportes.refresco.cron:0 */5 * * * *}")
+    public void refrescarProgramado() {
+        if (habilitado) {
+            refrescar();
+        }
+    }
+
+    /**
+     * Refresca todas las vistas. Devuelve la duración en ms de cada vista
+     * refrescada, o null si ya había un refresco en curso en este nodo.
+     */
+    public Map<String, Long> refrescar() {
+        if (!enCurso.compareAndSet(false, true)) {
+            omitidos.increment();
+            log.info("⏭️ Refresco de vistas omitido: ya hay uno en curso");
+            return null;
+        }
+        try {
+            Map<String, Long> duraciones = new LinkedHashMap<>();
+            for (String vista : VISTAS) {
+                try {
+                    Long duracion = transaccion.execute(status -> refrescarVista(vista));
+                    if (duracion != null) {
+                        duraciones.put(vista, duracion);
+                    }
+                } catch (RuntimeException e) {
+                    errores.increment();
+                    log.error("❌ Error al refrescar {}: {}", vista, e.getMessage());
+                }
+            }
+            return duraciones;
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    private Long refrescarVista(String vista) {
+        Boolean bloqueada = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, ?)", Boolean.class,
+                CLAVE_BLOQUEO, vista.hashCode());
+        if (!Boolean.TRUE.equals(bloqueada)) {
+            omitidos.increment();
+            log.debug("⏭️ {} lo está refrescando otro nodo", vista);
+            return null;
+        }
+        jdbcTemplate.execute("SET LOCAL statement_timeout = '" + timeoutSegundos + "s'");
+
+        long inicio = System.nanoTime();
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + vista);
+        long nanos = System.nanoTime() - inicio;
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(nanos);
+
+        jdbcTemplate.update(SQL_REGISTRAR, vista, duracionMs);
+        Timer.builder("reportes.refresco.duracion")
+                .tag("vista", vista)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        log.debug("🔄 {} refrescada en {} ms", vista, duracionMs);
+        return duracionMs;
+    }
+}
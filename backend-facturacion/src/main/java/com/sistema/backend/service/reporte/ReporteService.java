@@ -0,0 +1,96 @@
+package com.sistema.backend.service.reporte;
+
+import com.sistema.backend.dto.response.ReporteDiario;
+import com.sistema.backend.dto.response.ReporteProducto;
+import com.sistema.backend.dto.response.ReporteResponse;
+import com.sistema.backend.dto.response.ReporteVendedor;
+import com.sistema.backend.entity.RefrescoVista;
+import com.sistema.backend.entity.Usuario;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.repository.RefrescoVistaRepository;
+import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.repository.VentaDiariaRepository;
+import com.sistema.backend.repository.VentaProductoDiaRepository;
+import com.sistema.backend.repository.VentaVendedorDiaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reportes de ventas sobre las vistas materializadas (réplica).
+ * Cada respuesta indica cuándo se refrescó la vista que la sustenta.
+ * @autor Paulo
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ReporteService {
+
+    private final VentaDiariaRepository ventaDiariaRepository;
+    private final VentaVendedorDiaRepository ventaVendedorDiaRepository;
+    private final VentaProductoDiaRepository ventaProductoDiaRepository;
+    private final RefrescoVistaRepository refrescoVistaRepository;
+    private final UsuarioRepository usuarioRepository;
+
+    @Value("${app.reportes.max-dias:366}")
+    private int maxDias = 366;
+
+    public ReporteResponse<ReporteDiario> ventasDiarias(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        List<ReporteDiario> datos = ventaDiariaRepository.findByFechaBetweenOrderByFecha(desde, hasta).stream()
+                .map(v -> new ReporteDiario(v.getFecha(), v.getBoletas(), v.getUnidades(), v.getImporte()))
+                .toList();
+        return responder("mv_ventas_diarias", datos);
+    }
+
+    public ReporteResponse<ReporteVendedor> vendedores(LocalDate desde, LocalDate hasta, int limite) {
+        validarRango(desde, hasta);
+        List<ReporteVendedor> datos = ventaVendedorDiaRepository.resumirPorVendedor(desde, hasta, Limit.of(limite));
+
+        Map<Integer, Usuario> usuarios = usuarioRepository
+                .findAllById(datos.stream().map(ReporteVendedor::getIdUsuario).toList()).stream()
+                .collect(Collectors.toMap(Usuario::getIdUsuario, Function.identity()));
+        for (ReporteVendedor fila : datos) {
+            Usuario usuario = usuarios.get(fila.getIdUsuario());
+            if (usuario != null) {
+                fila.setNombre(usuario.getNombres() + " " + usuario.getApellidos());
+            }
+        }
+        return responder("mv_ventas_vendedor", datos);
+    }
+
+    public ReporteResponse<ReporteProducto> productos(LocalDate desde, LocalDate hasta, int limite) {
+        validarRango(desde, hasta);
+        return responder("mv_ventas_producto",
+                ventaProductoDiaRepository.resumirPorProducto(desde, hasta, Limit.of(limite)));
+    }
+
+    private <T> ReporteResponse<T> responder(String vista, List<T> datos) {
+        LocalDateTime actualizadoAl = refrescoVistaRepository.findById(vista)
+                .map(RefrescoVista::getUltimoRefresco)
+                .orElse(null);
+        Long antiguedad = actualizadoAl != null
+                ? Duration.between(actualizadoAl, LocalDateTime.now()).toSeconds()
+                : null;
+        return new ReporteResponse<>(vista, actualizadoAl, antiguedad, datos);
+    }
+
+    private void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new SolicitudInvalidaException("La fecha 'desde' no puede ser posterior a 'hasta'");
+        }
+        if (desde.plusDays(maxDias).isBefore(hasta)) {
+            throw new SolicitudInvalidaException("El rango no puede superar " + maxDias + " días");
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.sistema.backend.service.sesion;
+
+import com.sistema.backend.entity.TokenRefresco;
+import com.sistema.backend.entity.Usuario;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.repository.TokenRefrescoRepository;
+import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.security.ListaRevocacion;
+import com.sistema.backend.service.UsuarioService;
+import com.sistema.backend.util.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Sesiones con token de acceso corto + refresh token rotativo.
+ *
+ * El refresh token es un valor aleatorio opaco; en la base solo se guarda su
+ * SHA-256. Cada refresco lo marca como usado y emite un par nuevo en la misma
+ * familia. Si llega un refresh token ya usado (robado y usado por otro) se revoca
+ * la familia entera, incluidos los tokens de acceso aún vigentes.
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class SesionService {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+    private static final int BYTES_REFRESH = 32;
+
+    private final TokenRefrescoRepository tokenRefrescoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ListaRevocacion listaRevocacion;
+    private final UsuarioService usuarioService;
+    private final JwtUtil jwtUtil;
+    private final long refreshExpirationMs;
+
+    public SesionService(TokenRefrescoRepository tokenRefrescoRepository,
+            UsuarioRepository usuarioRepository,
+            ListaRevocacion listaRevocacion,
+            UsuarioService usuarioService,
+            JwtUtil jwtUtil,
+            @Value("${jwt.refresh.expiration:1209600000}") long refreshExpirationMs) {
+        this.tokenRefrescoRepository = tokenRefrescoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.listaRevocacion = listaRevocacion;
+        this.usuarioService = usuarioService;
+        this.jwtUtil = jwtUtil;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    /**
+     * Abre una sesión nueva (login o registro)
+     */
+    @Transactional
+    public Sesion abrir(Usuario usuario) {
+        return emitir(usuario, UUID.randomUUID());
+    }
+
+    /**
+     * Cambia un refresh token por un par nuevo. El token presentado queda usado.
+     * Sin rollback ante SolicitudInvalidaException: la revocación por reutilización debe persistir.
+     */
+    @Transactional(noRollbackFor = SolicitudInvalidaException.class)
+    public Sesion rotar(String refreshToken) {
+        TokenRefresco actual = tokenRefrescoRepository.findByHashTokenParaRotar(hash(refreshToken))
+                .orElseThrow(() -> new SolicitudInvalidaException("Refresh token inválido"));
+        LocalDateTime ahora = LocalDateTime.now();
+
+        if (actual.isRevocado() || actual.getUsadoEn() != null) {
+            log.warn("⚠️ Refresh token reutilizado (usuario {}): se revoca la sesión {}",
+                    actual.getIdUsuario(), actual.getFamilia());
+            revocarFamilia(actual.getFamilia());
+            throw new SolicitudInvalidaException("Refresh token ya utilizado: sesión revocada");
+        }
+        if (actual.getExpiraEn().isBefore(ahora)) {
+            throw new SolicitudInvalidaException("Refresh token expirado");
+        }
+        actual.setUsadoEn(ahora);
+
+        // Resuelto desde la caché L2 "usuarios" (invalidada entre nodos) en el caso normal
+        Usuario usuario = usuarioRepository.findById(actual.getIdUsuario())
+                .orElseThrow(() -> new SolicitudInvalidaException("Usuario no encontrado"));
+        return emitir(usuario, actual.getFamilia());
+    }
+
+    /**
+     * Cierra la sesión: revoca el token de acceso presentado y, si se envía, la
+     * familia de su refresh token (solo si es del mismo usuario)
+     */
+    @Transactional
+    public void cerrar(Integer idUsuario, String jti, Date expiraAcceso, String refreshToken) {
+        if (jti != null && expiraAcceso != null) {
+            listaRevocacion.revocar(UUID.fromString(jti), expiraAcceso.toInstant());
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            tokenRefrescoRepository.findByHashTokenParaRotar(hash(refreshToken))
+                    .filter(token -> token.getIdUsuario().equals(idUsuario))
+                    .ifPresent(token -> revocarFamilia(token.getFamilia()));
+        }
+    }
+
+    /**
+     * Cierra todas las sesiones del usuario: sube su versión de tokens (los de acceso
+     * emitidos dejan de valer en todos los nodos) y revoca sus refresh tokens
+     */
+    @Transactional
+    public void cerrarTodas(Integer idUsuario) {
+        usuarioRepository.incrementarTokenVersion(idUsuario);
+        int revocados = tokenRefrescoRepository.revocarDeUsuario(idUsuario);
+        usuarioService.invalidarEnCaches(idUsuario);
+        log.info("👋 Sesiones cerradas para usuario {} ({} refresh tokens revocados)", idUsuario, revocados);
+    }
+
+    /**
+     * Borra los refresh tokens expirados (ya no sirven ni para detectar reutilización)
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh.purga-ms:3600000}")
+    @Transactional
+    public void purgarVencidos() {
+        int borrados = tokenRefrescoRepository.deleteVencidos(LocalDateTime.now());
+        if (borrados > 0) {
+            log.debug("🧹 Refresh tokens vencidos borrados: {}", borrados);
+        }
+    }
+
+    private Sesion emitir(Usuario usuario, UUID familia) {
+        UUID jti = UUID.randomUUID();
+        Date expiraAcceso = jwtUtil.calcularExpiracion();
+        String accessToken = jwtUtil.generateToken(usuario, jti, expiraAcceso);
+        String refreshToken = generarRefreshToken();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        TokenRefresco token = new TokenRefresco();
+        token.setIdUsuario(usuario.getIdUsuario());
+        token.setHashToken(hash(refreshToken));
+        token.setFamilia(familia);
+        token.setJtiAcceso(jti);
+        token.setAccesoExpiraEn(LocalDateTime.ofInstant(expiraAcceso.toInstant(), ZoneId.systemDefault()));
+        token.setFechaCreacion(ahora);
+        token.setExpiraEn(ahora.plus(Duration.ofMillis(refreshExpirationMs)));
+        tokenRefrescoRepository.save(token);
+
+        return new Sesion(usuario, accessToken, refreshToken, jwtUtil.getExpirationMs() / 1000);
+    }
+
+    private void revocarFamilia(UUID familia) {
+        Instant ahora = Instant.now();
+        for (TokenRefresco token : tokenRefrescoRepository.findByFamilia(familia)) {
+            if (token.isRevocado()) {
+                continue;
+            }
+            token.setRevocado(true);
+            Instant expiraAcceso = token.getAccesoExpiraEn().atZone(ZoneId.systemDefault()).toInstant();
+            if (expiraAcceso.isAfter(ahora)) {
+                listaRevocacion.revocar(token.getJtiAcceso(), expiraAcceso);
+            }
+        }
+    }
+
+    private static String generarRefreshToken() {
+        byte[] bytes = new byte[BYTES_REFRESH];
+        ALEATORIO.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // 256 bits aleatorios: basta un SHA-256 sin sal (no es una contraseña)
+    static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Par de tokens emitido y el usuario de la sesión
+     */
+    public record Sesion(Usuario usuario, String accessToken, String refreshToken, long expiraEnSegundos) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.sistema.backend.service.stock;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reserva local de stock para los productos más vendidos.
+ *
+ * En lugar de bloquear la fila de stock_productos en cada checkout, el nodo
+ * retira de la base un lote de unidades y lo reparte en franjas (contadores
+ * atómicos separados por línea de caché). Cada hilo descuenta con CAS de su
+ * franja y, si no alcanza, de las vecinas; solo cuando todas se agotan un hilo
+ * (por producto) vuelve a la base por otro lote.
+ *
+ * Nunca se vende de más: cada unidad está en la base, en una franja o vendida.
+ * Si el nodo cae sin llamar a liberar(), el lote retirado se pierde para la
+ * venta (se vende de menos) hasta que se corrija el stock.
+ * @autor Paulo
+ */
+public class ReservaStockLocal {
+
+    /**
+     * Origen de las unidades (stock_productos); cada llamada es su propia transacción
+     */
+    public interface FuenteStock {
+
+        int tomarHasta(Integer idProducto, int maximo);
+
+        void devolver(Integer idProducto, int cantidad);
+    }
+
+    // 16 ints = 64 bytes: cada franja en su propia línea de caché (sin false sharing)
+    private static final int RELLENO = 16;
+
+    // Tras encontrar la base vacía no se vuelve a consultar durante este tiempo
+    private static final long ESPERA_AGOTADO_NANOS = 100_000_000L;
+
+    private final FuenteStock fuente;
+    private final int franjas;
+    private final int lote;
+    private final Map<Integer, Cupo> cupos;
+
+    public ReservaStockLocal(FuenteStock fuente, Collection<Integer> productos, int franjas, int lote) {
+        if (franjas < 1 || lote < 1) {
+            throw new IllegalArgumentException("franjas y lote deben ser positivos");
+        }
+        this.fuente = fuente;
+        this.franjas = franjas;
+        this.lote = lote;
+        this.cupos = productos.stream().distinct()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), Cupo::new));
+    }
+
+    /**
+     * Indica si el producto se vende desde la reserva local
+     */
+    public boolean gestiona(Integer idProducto) {
+        return cupos.containsKey(idProducto);
+    }
+
+    /**
+     * Descuenta unidades; false si no hay stock suficiente ni en la reserva ni en la base
+     */
+    public boolean tomar(Integer idProducto, int cantidad) {
+        Cupo cupo = cupo(idProducto);
+        return cupo.tomarDeFranjas(cantidad) || cupo.recargarYTomar(cantidad);
+    }
+
+    /**
+     * Devuelve unidades a la reserva (checkout revertido)
+     */
+    public void devolver(Integer idProducto, int cantidad) {
+        cupo(idProducto).depositar(cantidad);
+    }
+
+    /**
+     * Unidades retiradas de la base y aún sin vender en este nodo
+     */
+    public int reservado(Integer idProducto) {
+        Cupo cupo = cupos.get(idProducto);
+        return cupo != null ? cupo.total() : 0;
+    }
+
+    /**
+     * Olvida el último "agotado" para que el próximo checkout consulte la base (reposición)
+     */
+    public void reintentar(Integer idProducto) {
+        Cupo cupo = cupos.get(idProducto);
+        if (cupo != null) {
+            cupo.agotadoHasta = 0;
+        }
+    }
+
+    /**
+     * Devuelve a la base todo lo no vendido (apagado del nodo)
+     */
+    public void liberar() {
+        for (Cupo cupo : cupos.values()) {
+            cupo.liberar();
+        }
+    }
+
+    private Cupo cupo(Integer idProducto) {
+        Cupo cupo = cupos.get(idProducto);
+        if (cupo == null) {
+            throw new IllegalArgumentException("El producto " + idProducto + " no usa reserva local");
+        }
+        return cupo;
+    }
+
+    private int franjaActual() {
+        return (int) (Thread.currentThread().threadId() % franjas);
+    }
+
+    private final class Cupo {
+
+        private final Integer idProducto;
+        private final AtomicIntegerArray unidades = new AtomicIntegerArray(franjas * RELLENO);
+        private volatile long agotadoHasta;
+
+        Cupo(Integer idProducto) {
+            this.idProducto = idProducto;
+        }
+
+        boolean tomarDeFranjas(int cantidad) {
+            int inicio = franjaActual();
+            for (int i = 0; i < franjas; i++) {
+                int indice = ((inicio + i) % franjas) * RELLENO;
+                int actual;
+                while ((actual = unidades.get(indice)) >= cantidad) {
+                    if (unidades.compareAndSet(indice, actual, actual - cantidad)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Junta las franjas, completa con un lote de la base si hace falta y
+         * reparte el resto. Un solo hilo por producto a la vez.
+         */
+        synchronized boolean recargarYTomar(int cantidad) {
+            // Otro hilo pudo haber recargado mientras se esperaba el monitor
+            if (tomarDeFranjas(cantidad)) {
+                return true;
+            }
+            int total = vaciar();
+            try {
+                if (total < cantidad && System.nanoTime() - agotadoHasta >= 0) {
+                    int tomadas = fuente.tomarHasta(idProducto, Math.max(lote, cantidad - total));
+                    total += tomadas;
+                    if (total < cantidad) {
+                        agotadoHasta = System.nanoTime() + ESPERA_AGOTADO_NANOS;
+                    }
+                }
+                if (total < cantidad) {
+                    return false;
+                }
+                total -= cantidad;
+                return true;
+            } finally {
+                repartir(total);
+            }
+        }
+
+        synchronized void liberar() {
+            int resto = vaciar();
+            if (resto > 0) {
+                try {
+                    fuente.devolver(idProducto, resto);
+                } catch (RuntimeException e) {
+                    repartir(resto);
+                    throw e;
+                }
+            }
+        }
+
+        void depositar(int cantidad) {
+            unidades.addAndGet(franjaActual() * RELLENO, cantidad);
+        }
+
+        int total() {
+            int suma = 0;
+            for (int i = 0; i < franjas; i++) {
+                suma += unidades.get(i * RELLENO);
+            }
+            return suma;
+        }
+
+        private int vaciar() {
+            int suma = 0;
+            for (int i = 0; i < franjas; i++) {
+                suma += unidades.getAndSet(i * RELLENO, 0);
+            }
+            return suma;
+        }
+
+        private void repartir(int total) {
+            int porFranja = total / franjas;
+            int resto = total % franjas;
+            for (int i = 0; i < franjas; i++) {
+                int cantidad = porFranja + (i < resto ? 1 : 0);
+                if (cantidad > 0) {
+                    unidades.addAndGet(i * RELLENO, cantidad);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.sistema.backend.service.stock;
+
+import com.sistema.backend.exception.SolicitudInvalidaException;
+
+/**
+ * El carrito pide más unidades de las disponibles.
+ * Se lanza dentro de la transacción del checkout, que se revierte completa.
+ * @autor Paulo
+ */
+public class StockInsuficienteException extends SolicitudInvalidaException {
+
+    private final Integer idProducto;
+
+    public StockInsuficienteException(Integer idProducto) {
+        super("Stock insuficiente para el producto " + idProducto);
+        this.idProducto = idProducto;
+    }
+
+    public Integer getIdProducto() {
+        return idProducto;
+    }
+}
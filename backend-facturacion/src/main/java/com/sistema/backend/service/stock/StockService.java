@@ -0,0 +1,191 @@
+package com.sistema.backend.service.stock;
+
+import com.sistema.backend.dto.response.StockResponse;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.repository.StockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Descuento de stock en el checkout.
+ *
+ * Cada producto se descuenta con un UPDATE condicional (disponible >= cantidad),
+ * todos en un solo batch JDBC y en orden de id de producto: dos carritos con los
+ * mismos productos bloquean las filas en el mismo orden y no pueden bloquearse
+ * entre sí. Si algún producto no alcanza se lanza StockInsuficienteException y
+ * el checkout completo se revierte.
+ *
+ * Los productos configurados en app.stock.reserva-local.productos se venden
+ * desde una ReservaStockLocal y no tocan la fila en cada venta.
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class StockService {
+
+    // SQLSTATE de PostgreSQL: CHECK (disponible >= 0) y REFERENCES productos
+    private static final String VIOLACION_CHECK = "23514";
+    private static final String VIOLACION_FK = "23503";
+
+    private final StockRepository stockRepository;
+    private final ReservaStockLocal reservaLocal; // null si está deshabilitada
+    private final Counter rechazos;
+
+    public StockService(StockRepository stockRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.stock.reserva-local.habilitada:false}") boolean reservaHabilitada,
+            @Value("${app.stock.reserva-local.productos:}") List<Integer> productosReserva,
+            @Value("${app.stock.reserva-local.franjas:8}") int franjas,
+            @Value("${app.stock.reserva-local.lote:100}") int lote) {
+        this.stockRepository = stockRepository;
+        this.rechazos = Counter.builder("stock.rechazos")
+                .description("Checkouts rechazados por stock insuficiente")
+                .register(meterRegistry);
+
+        if (reservaHabilitada && !productosReserva.isEmpty()) {
+            // Cada lote se retira y se devuelve en su propia transacción: no espera al checkout
+            TransactionTemplate transaccionNueva = new TransactionTemplate(transactionManager);
+            transaccionNueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            this.reservaLocal = new ReservaStockLocal(new ReservaStockLocal.FuenteStock() {
+                @Override
+                public int tomarHasta(Integer idProducto, int maximo) {
+                    Integer tomadas = transaccionNueva.execute(status -> stockRepository.tomarHasta(idProducto, maximo));
+                    return tomadas != null ? tomadas : 0;
+                }
+
+                @Override
+                public void devolver(Integer idProducto, int cantidad) {
+                    transaccionNueva.executeWithoutResult(status -> stockRepository.ajustar(idProducto, cantidad));
+                }
+            }, productosReserva, franjas, lote);
+            meterRegistry.gauge("stock.reserva.local", this,
+                    servicio -> productosReserva.stream().mapToInt(reservaLocal::reservado).sum());
+            log.info("📦 Reserva local de stock para productos {} ({} franjas, lotes de {})",
+                    productosReserva, franjas, lote);
+        } else {
+            this.reservaLocal = null;
+        }
+    }
+
+    /**
+     * Descuenta las cantidades (id de producto -> unidades) dentro de la
+     * transacción del checkout. Conviene llamarlo al final de la transacción:
+     * los bloqueos de fila duran hasta el commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void descontar(Map<Integer, Integer> cantidades) {
+        Map<Integer, Integer> ordenadas = new TreeMap<>(cantidades);
+        List<Map.Entry<Integer, Integer>> enBase = new ArrayList<>(ordenadas.size());
+
+        for (Map.Entry<Integer, Integer> entrada : ordenadas.entrySet()) {
+            if (reservaLocal != null && reservaLocal.gestiona(entrada.getKey())) {
+                tomarDeReservaLocal(entrada.getKey(), entrada.getValue());
+            } else {
+                enBase.add(entrada);
+            }
+        }
+
+        if (!enBase.isEmpty()) {
+            int[] actualizadas = stockRepository.descontar(enBase);
+            for (int i = 0; i < actualizadas.length; i++) {
+                if (actualizadas[i] == 0) {
+                    rechazar(enBase.get(i).getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * Suma (o resta) unidades al stock de un producto (reposición o ajuste)
+     */
+    @Transactional
+    public StockResponse ajustar(Integer idProducto, int delta) {
+        try {
+            int disponible = stockRepository.ajustar(idProducto, delta);
+            if (reservaLocal != null && reservaLocal.gestiona(idProducto)) {
+                reservaLocal.reintentar(idProducto);
+            }
+            log.info("📦 Stock del producto {} ajustado en {} (disponible: {})", idProducto, delta, disponible);
+            return new StockResponse(idProducto, disponible, reservadoLocal(idProducto));
+        } catch (DataIntegrityViolationException e) {
+            String estado = estadoSql(e);
+            if (VIOLACION_CHECK.equals(estado)) {
+                throw new SolicitudInvalidaException("El stock del producto " + idProducto + " no puede quedar negativo");
+            }
+            if (VIOLACION_FK.equals(estado)) {
+                throw new SolicitudInvalidaException("El producto " + idProducto + " no existe");
+            }
+            throw e;
+        }
+    }
+
+    private static String estadoSql(DataIntegrityViolationException e) {
+        return e.getMostSpecificCause() instanceof SQLException sql ? sql.getSQLState() : null;
+    }
+
+    /**
+     * Stock en la base más lo reservado (sin vender) en este nodo
+     */
+    @Transactional(readOnly = true)
+    public StockResponse consultar(Integer idProducto) {
+        Integer disponible = stockRepository.consultar(idProducto);
+        return new StockResponse(idProducto, disponible != null ? disponible : 0, reservadoLocal(idProducto));
+    }
+
+    /**
+     * Al apagar el nodo, lo no vendido de la reserva local vuelve a la base
+     */
+    @PreDestroy
+    void liberarReservaLocal() {
+        if (reservaLocal != null) {
+            try {
+                reservaLocal.liberar();
+            } catch (RuntimeException e) {
+                log.error("❌ No se pudo devolver la reserva local de stock: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void tomarDeReservaLocal(Integer idProducto, int cantidad) {
+        if (!reservaLocal.tomar(idProducto, cantidad)) {
+            rechazar(idProducto);
+        }
+        // Si el checkout se revierte, las unidades vuelven a la reserva (no a la base)
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    reservaLocal.devolver(idProducto, cantidad);
+                }
+            }
+        });
+    }
+
+    private int reservadoLocal(Integer idProducto) {
+        return reservaLocal != null ? reservaLocal.reservado(idProducto) : 0;
+    }
+
+    private void rechazar(Integer idProducto) {
+        rechazos.increment();
+        throw new StockInsuficienteException(idProducto);
+    }
+}
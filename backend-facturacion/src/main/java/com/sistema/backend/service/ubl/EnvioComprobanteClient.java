@@ -0,0 +1,15 @@
+package com.sistema.backend.service.ubl;
+
+/**
+ * Envío de comprobantes firmados a la autoridad tributaria.
+ * La implementación por defecto es un stub local (no requiere SUNAT).
+ * @autor Paulo
+ */
+public interface EnvioComprobanteClient {
+
+    /**
+     * Envía el XML firmado y devuelve el código de respuesta (CDR).
+     * Lanza una excepción si el envío falla y debe reintentarse.
+     */
+    String enviar(String nombreArchivo, byte[] xmlFirmado) throws Exception;
+}
@@ -0,0 +1,31 @@
+package com.sistema.backend.service.ubl;
+
+import com.sistema.backend.entity.OutboxEvento;
+import com.sistema.backend.event.BoletaCreadaEvent;
+import com.sistema.backend.service.outbox.OutboxHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lleva las boletas creadas del outbox a la cola de facturación electrónica
+ * @autor Paulo
+ */
+@Component
+@RequiredArgsConstructor
+public class FacturacionElectronicaOutboxHandler implements OutboxHandler {
+
+    private final FacturacionElectronicaService facturacionElectronicaService;
+
+    @Override
+    public String tipo() {
+        return BoletaCreadaEvent.TIPO;
+    }
+
+    @Override
+    public void manejar(OutboxEvento evento) {
+        // Idempotente: el pipeline omite las boletas que ya tienen comprobante enviado
+        if (!facturacionElectronicaService.encolar(evento.getIdAgregado())) {
+            throw new IllegalStateException("Cola de facturación electrónica llena");
+        }
+    }
+}
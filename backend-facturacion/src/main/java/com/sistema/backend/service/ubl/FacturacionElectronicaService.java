@@ -0,0 +1,318 @@
+package com.sistema.backend.service.ubl;
+
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.ComprobanteElectronico;
+import com.sistema.backend.entity.ComprobanteElectronico.Estado;
+import com.sistema.backend.repository.BoletaRepository;
+import com.sistema.backend.repository.ComprobanteElectronicoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline de facturación electrónica: genera el XML UBL 2.1 de cada boleta,
+ * lo firma y lo envía a SUNAT fuera del checkout.
+ *
+ * Las boletas confirmadas llegan desde el outbox a una cola acotada; los workers la vacían por
+ * lotes. Antes de firmar, cada boleta se registra y se reclama en la base (SKIP LOCKED, con
+ * reserva que vence), así que la misma boleta no se envía dos veces a SUNAT aunque la traigan
+ * el outbox y el barrido de varios nodos. Los envíos fallidos se reintentan con backoff
+ * exponencial y un barrido periódico recoge las boletas que nunca llegaron a la cola y las
+ * reservas vencidas.
+ * @autor Paulo
+ */
+@Service
+@Slf4j
+public class FacturacionElectronicaService {
+
+    private static final int MAX_LARGO_ERROR = 500;
+
+    private final BoletaRepository boletaRepository;
+    private final ComprobanteElectronicoRepository comprobanteRepository;
+    private final UblInvoiceWriter ublInvoiceWriter;
+    private final XmlFirmador xmlFirmador;
+    private final EnvioComprobanteClient envioClient;
+    private final TransactionTemplate transaccionEscritura;
+
+    private final BlockingQueue<Integer> cola;
+    private final boolean habilitado;
+    private final int tamanoLote;
+    private final int workers;
+    private final int maxIntentos;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final long reservaMs;
+
+    private final Counter contadorFirmados;
+    private final Counter contadorEnviados;
+    private final Counter contadorErrores;
+    private final Timer tiempoLote;
+
+    private final List<Thread> hilos = new ArrayList<>();
+    private volatile boolean activo = true;
+
+    public FacturacionElectronicaService(BoletaRepository boletaRepository,
+            ComprobanteElectronicoRepository comprobanteRepository,
+            UblInvoiceWriter ublInvoiceWriter,
+            XmlFirmador xmlFirmador,
+            EnvioComprobanteClient envioClient,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.ubl.habilitado:true}") boolean habilitado,
+            @Value("${app.ubl.cola-capacidad:10000}") int capacidadCola,
+            @Value("${app.ubl.tamano-lote:50}") int tamanoLote,
+            @Value("${app.ubl.workers:1}") int workers,
+            @Value("${app.ubl.max-intentos:8}") int maxIntentos,
+            @Value("${app.ubl.backoff-base-ms:2000}") long backoffBaseMs,
+            @Value("${app.ubl.backoff-max-ms:3600000}") long backoffMaxMs,
+            @Value("${app.ubl.reserva-ms:300000}") long reservaMs) {
+        this.boletaRepository = boletaRepository;
+        this.comprobanteRepository = comprobanteRepository;
+        this.ublInvoiceWriter = ublInvoiceWriter;
+        this.xmlFirmador = xmlFirmador;
+        this.envioClient = envioClient;
+        this.transaccionEscritura = new TransactionTemplate(transactionManager);
+        this.cola = new LinkedBlockingQueue<>(capacidadCola);
+        this.habilitado = habilitado;
+        this.tamanoLote = tamanoLote;
+        this.workers = workers;
+        this.maxIntentos = maxIntentos;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.reservaMs = reservaMs;
+
+        this.contadorFirmados = Counter.builder("ubl.comprobantes").tag("resultado", "firmado").register(meterRegistry);
+        this.contadorEnviados = Counter.builder("ubl.comprobantes").tag("resultado", "enviado").register(meterRegistry);
+        this.contadorErrores = Counter.builder("ubl.comprobantes").tag("resultado", "error").register(meterRegistry);
+        this.tiempoLote = Timer.builder("ubl.lote.duracion").register(meterRegistry);
+        meterRegistry.gauge("ubl.cola.pendientes", cola, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            log.info("🧾 Facturación electrónica deshabilitada en este nodo");
+            return;
+        }
+        for (int i = 0; i < workers; i++) {
+            Thread hilo = new Thread(this::consumir, "ubl-worker-" + i);
+            hilo.setDaemon(true);
+            hilo.start();
+            hilos.add(hilo);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        hilos.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Agrega una boleta a la cola sin bloquear. Devuelve false si la cola está llena
+     * (el outbox reintenta y el barrido periódico la recoge igualmente).
+     */
+    public boolean encolar(Integer idBoleta) {
+        if (!habilitado) {
+            // Sin workers en este nodo: la recoge el barrido de un nodo habilitado
+            return true;
+        }
+        boolean aceptada = cola.offer(idBoleta);
+        if (!aceptada) {
+            log.warn("⚠️ Cola de facturación electrónica llena, boleta {} queda para el barrido", idBoleta);
+        }
+        return aceptada;
+    }
+
+    /**
+     * Reencola los reintentos vencidos y las boletas sin comprobante
+     */
+    @Scheduled(fixedDelayString = "${app.ubl.barrido-ms:30000}", initialDelayString = "${app.ubl.barrido-ms:30000}")
+    public void barrer() {
+        if (!habilitado) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        int espacio = cola.remainingCapacity();
+        if (espacio == 0) {
+            return;
+        }
+        List<Integer> reintentos = comprobanteRepository.findIdsParaReintento(ahora, Limit.of(espacio));
+        List<Integer> faltantes = comprobanteRepository.findBoletasSinComprobante(ahora.minusMinutes(1), espacio);
+
+        Set<Integer> ids = new LinkedHashSet<>(reintentos);
+        ids.addAll(faltantes);
+        ids.removeAll(cola);
+        ids.forEach(this::encolar);
+        if (!ids.isEmpty()) {
+            log.info("🔁 Barrido de facturación electrónica: {} reintentos, {} sin comprobante",
+                    reintentos.size(), faltantes.size());
+        }
+    }
+
+    private void consumir() {
+        List<Integer> lote = new ArrayList<>(tamanoLote);
+        while (activo) {
+            try {
+                Integer primero = cola.poll(1, TimeUnit.SECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, tamanoLote - 1);
+                tiempoLote.record(() -> procesarLote(lote));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("❌ Error procesando lote de facturación electrónica {}", lote, e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Reclama, genera, firma y envía un lote de boletas. Un fallo individual no detiene el lote.
+     */
+    void procesarLote(List<Integer> ids) {
+        // 1. Registrar y reclamar en una transacción corta: solo se envía lo que este worker reclamó
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<Integer, Boleta> porId = new HashMap<>();
+        List<ComprobanteElectronico> reclamados = transaccionEscritura.execute(status -> {
+            comprobanteRepository.registrarPendientes(ids, ahora);
+            List<ComprobanteElectronico> filas = comprobanteRepository.reclamar(ids, ahora);
+            if (filas.isEmpty()) {
+                return filas;
+            }
+            // Reserva hasta el vencimiento; si el worker cae, el barrido la recoge después
+            LocalDateTime hasta = ahora.plusNanos(reservaMs * 1_000_000L);
+            filas.forEach(c -> {
+                c.setEstado(Estado.ENVIANDO);
+                c.setProximoIntento(hasta);
+            });
+            boletaRepository.findDetalladasByIdBoletaIn(filas.stream().map(ComprobanteElectronico::getIdBoleta).toList())
+                    .forEach(b -> porId.put(b.getIdBoleta(), b));
+            return filas;
+        });
+        if (reclamados == null || reclamados.isEmpty()) {
+            return;
+        }
+
+        // 2. Generar, firmar y enviar fuera de transacción (no retiene conexiones del pool)
+        List<ComprobanteElectronico> procesados = new ArrayList<>(reclamados.size());
+        for (ComprobanteElectronico comprobante : reclamados) {
+            Boleta boleta = porId.get(comprobante.getIdBoleta());
+            if (boleta == null) {
+                continue;
+            }
+            procesar(boleta, comprobante);
+            procesados.add(comprobante);
+        }
+
+        // 3. Guardar todo el lote de una vez; si la reserva de alguno venció y otro worker
+        //    lo reclamó (versión distinta), fila por fila
+        if (procesados.isEmpty()) {
+            return;
+        }
+        try {
+            transaccionEscritura.executeWithoutResult(status -> {
+                // Las filas quedan en el contexto: el merge de saveAll no consulta una por una
+                comprobanteRepository.findAllById(procesados.stream().map(ComprobanteElectronico::getIdBoleta).toList());
+                comprobanteRepository.saveAll(procesados);
+            });
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("⚠️ Conflicto de versión al guardar el lote de comprobantes, se guardan uno a uno: {}", e.getMessage());
+            procesados.forEach(this::guardar);
+        }
+    }
+
+    private void guardar(ComprobanteElectronico comprobante) {
+        try {
+            transaccionEscritura.executeWithoutResult(status -> comprobanteRepository.save(comprobante));
+        } catch (OptimisticLockingFailureException e) {
+            // La reserva venció y otro worker lo reclamó: se queda su resultado
+            log.warn("⚠️ Comprobante de boleta {} reclamado por otro worker, se descarta este resultado",
+                    comprobante.getIdBoleta());
+        }
+    }
+
+    private void procesar(Boleta boleta, ComprobanteElectronico comprobante) {
+        try {
+            if (comprobante.getXmlFirmado() == null) {
+                ByteArrayOutputStream xml = new ByteArrayOutputStream(4096);
+                ublInvoiceWriter.escribir(boleta, xml);
+                XmlFirmador.XmlFirmado firmado = xmlFirmador.firmar(xml.toByteArray());
+
+                comprobante.setNumero(ublInvoiceWriter.numeroComprobante(boleta));
+                comprobante.setXmlFirmado(firmado.xml());
+                comprobante.setDigest(firmado.digest());
+                comprobante.setFechaGeneracion(LocalDateTime.now());
+                comprobante.setEstado(Estado.FIRMADO);
+                contadorFirmados.increment();
+            }
+
+            comprobante.setIntentos(comprobante.getIntentos() + 1);
+            String codigo = envioClient.enviar(ublInvoiceWriter.nombreArchivo(boleta), comprobante.getXmlFirmado());
+
+            comprobante.setCodigoRespuesta(codigo);
+            comprobante.setEstado(Estado.ENVIADO);
+            comprobante.setFechaEnvio(LocalDateTime.now());
+            comprobante.setUltimoError(null);
+            comprobante.setProximoIntento(null);
+            contadorEnviados.increment();
+        } catch (Exception e) {
+            registrarError(boleta, comprobante, e);
+        }
+    }
+
+    private void registrarError(Boleta boleta, ComprobanteElectronico comprobante, Exception e) {
+        contadorErrores.increment();
+        if (comprobante.getNumero() == null) {
+            comprobante.setNumero(ublInvoiceWriter.numeroComprobante(boleta));
+        }
+        String mensaje = String.valueOf(e.getMessage());
+        comprobante.setUltimoError(mensaje.length() > MAX_LARGO_ERROR ? mensaje.substring(0, MAX_LARGO_ERROR) : mensaje);
+
+        int intentos = comprobante.getIntentos();
+        if (intentos >= maxIntentos) {
+            comprobante.setEstado(Estado.FALLIDO);
+            comprobante.setProximoIntento(null);
+            log.error("❌ Comprobante de boleta {} agotó {} intentos: {}", boleta.getIdBoleta(), intentos, mensaje);
+        } else {
+            comprobante.setEstado(Estado.ERROR);
+            comprobante.setProximoIntento(LocalDateTime.now().plusNanos(calcularBackoffMs(intentos) * 1_000_000L));
+            log.warn("⚠️ Falló comprobante de boleta {} (intento {}): {}", boleta.getIdBoleta(), intentos, mensaje);
+        }
+    }
+
+    /**
+     * Espera antes del siguiente intento: base * 2^(intentos-1), con tope
+     */
+    long calcularBackoffMs(int intentos) {
+        int exponente = Math.max(0, Math.min(intentos - 1, 30));
+        return Math.min(backoffMaxMs, backoffBaseMs << exponente);
+    }
+}
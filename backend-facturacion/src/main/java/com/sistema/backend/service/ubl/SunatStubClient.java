@@ -0,0 +1,29 @@
+package com.sistema.backend.service.ubl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stub local del servicio de SUNAT: acepta todo comprobante con código "0".
+ * Con app.ubl.stub.tasa-fallos > 0 simula caídas para probar los reintentos.
+ * @autor Paulo
+ */
+@Component
+@Slf4j
+public class SunatStubClient implements EnvioComprobanteClient {
+
+    @Value("${app.ubl.stub.tasa-fallos:0.0}")
+    private double tasaFallos;
+
+    @Override
+    public String enviar(String nombreArchivo, byte[] xmlFirmado) throws Exception {
+        if (tasaFallos > 0 && ThreadLocalRandom.current().nextDouble() < tasaFallos) {
+            throw new IllegalStateException("Servicio SUNAT (stub) no disponible");
+        }
+        log.debug("📨 [stub SUNAT] {} recibido ({} bytes)", nombreArchivo, xmlFirmado.length);
+        return "0";
+    }
+}
@@ -0,0 +1,294 @@
+package com.sistema.backend.service.ubl;
+
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.DetalleBoleta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escribe una boleta como documento UBL 2.1 (Invoice, tipo 03 - boleta de venta)
+ * con un writer StAX en streaming: no se construye ningún árbol DOM.
+ * El elemento ext:ExtensionContent queda vacío para que el firmador inserte la firma.
+ * @autor Paulo
+ */
+@Component
+public class UblInvoiceWriter {
+
+    public static final String NS_INVOICE = "urn:oasis:names:specification:ubl:schema:xsd:Invoice-2";
+    public static final String NS_CAC = "urn:oasis:names:specification:ubl:schema:xsd:CommonAggregateComponents-2";
+    public static final String NS_CBC = "urn:oasis:names:specification:ubl:schema:xsd:CommonBasicComponents-2";
+    public static final String NS_EXT = "urn:oasis:names:specification:ubl:schema:xsd:CommonExtensionComponents-2";
+    public static final String NS_DS = "http://www.w3.org/2000/09/xmldsig#";
+
+    public static final String TIPO_BOLETA = "03";
+    public static final String MONEDA = "PEN";
+    public static final String ID_FIRMA = "SignatureSP";
+
+    private static final BigDecimal FACTOR_IGV = new BigDecimal("1.18");
+    private static final BigDecimal PORCENTAJE_IGV = new BigDecimal("18");
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    // La fábrica StAX es thread-safe una vez configurada
+    private static final XMLOutputFactory FABRICA = XMLOutputFactory.newFactory();
+
+    @Value("${app.ubl.emisor.ruc:20000000001}")
+    private String rucEmisor = "20000000001";
+
+    @Value("${app.ubl.emisor.razon-social:SISTEMA DE FACTURACION S.A.C.}")
+    private String razonSocialEmisor = "SISTEMA DE FACTURACION S.A.C.";
+
+    @Value("${app.ubl.serie:B001}")
+    private String serie = "B001";
+
+    /**
+     * Número legal del comprobante (serie-correlativo)
+     */
+    public String numeroComprobante(Boleta boleta) {
+        if (boleta.getNumero() != null) {
+            return boleta.getNumero();
+        }
+        // Boleta sin numerar (solo en pruebas; tras V8 todas tienen serie-correlativo)
+        return serie + "-" + String.format("%08d", boleta.getIdBoleta());
+    }
+
+    /**
+     * Nombre de archivo que exige SUNAT: RUC-TIPO-SERIE-CORRELATIVO.xml
+     */
+    public String nombreArchivo(Boleta boleta) {
+        return rucEmisor + "-" + TIPO_BOLETA + "-" + numeroComprobante(boleta) + ".xml";
+    }
+
+    /**
+     * Escribe el XML UBL de la boleta (con detalles cargados) en la salida
+     */
+    public void escribir(Boleta boleta, OutputStream salida) {
+        try {
+            XMLStreamWriter xml = FABRICA.createXMLStreamWriter(salida, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+
+            xml.setDefaultNamespace(NS_INVOICE);
+            xml.setPrefix("cac", NS_CAC);
+            xml.setPrefix("cbc", NS_CBC);
+            xml.setPrefix("ext", NS_EXT);
+            xml.setPrefix("ds", NS_DS);
+            xml.writeStartElement(NS_INVOICE, "Invoice");
+            xml.writeDefaultNamespace(NS_INVOICE);
+            xml.writeNamespace("cac", NS_CAC);
+            xml.writeNamespace("cbc", NS_CBC);
+            xml.writeNamespace("ext", NS_EXT);
+            xml.writeNamespace("ds", NS_DS);
+
+            // Hueco para la firma XMLDSig
+            xml.writeStartElement(NS_EXT, "UBLExtensions");
+            xml.writeStartElement(NS_EXT, "UBLExtension");
+            xml.writeStartElement(NS_EXT, "ExtensionContent");
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeEndElement();
+
+            cbc(xml, "UBLVersionID", "2.1");
+            cbc(xml, "CustomizationID", "2.0");
+            cbc(xml, "ID", numeroComprobante(boleta));
+            cbc(xml, "IssueDate", boleta.getFechaCreacion().toLocalDate().toString());
+            cbc(xml, "IssueTime", boleta.getFechaCreacion().format(FORMATO_HORA));
+
+            xml.writeStartElement(NS_CBC, "InvoiceTypeCode");
+            xml.writeAttribute("listID", "0101");
+            xml.writeCharacters(TIPO_BOLETA);
+            xml.writeEndElement();
+
+            cbc(xml, "DocumentCurrencyCode", MONEDA);
+            cbc(xml, "LineCountNumeric", String.valueOf(boleta.getDetalles().size()));
+
+            escribirReferenciaFirma(xml);
+            escribirEmisor(xml);
+            escribirCliente(xml, boleta);
+
+            // Totales: los precios incluyen IGV
+            BigDecimal totalConIgv = BigDecimal.ZERO;
+            BigDecimal totalBase = BigDecimal.ZERO;
+            for (DetalleBoleta detalle : boleta.getDetalles()) {
+                BigDecimal subtotal = subtotal(detalle);
+                totalConIgv = totalConIgv.add(subtotal);
+                totalBase = totalBase.add(base(subtotal));
+            }
+            BigDecimal totalIgv = totalConIgv.subtract(totalBase);
+
+            escribirTotalImpuestos(xml, totalBase, totalIgv);
+
+            xml.writeStartElement(NS_CAC, "LegalMonetaryTotal");
+            monto(xml, "LineExtensionAmount", totalBase);
+            monto(xml, "TaxInclusiveAmount", totalConIgv);
+            monto(xml, "PayableAmount", totalConIgv);
+            xml.writeEndElement();
+
+            int linea = 1;
+            for (DetalleBoleta detalle : boleta.getDetalles()) {
+                escribirLinea(xml, linea++, detalle);
+            }
+
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Error al escribir el XML UBL de la boleta " + boleta.getIdBoleta(), e);
+        }
+    }
+
+    private void escribirReferenciaFirma(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement(NS_CAC, "Signature");
+        cbc(xml, "ID", ID_FIRMA);
+        xml.writeStartElement(NS_CAC, "SignatoryParty");
+        xml.writeStartElement(NS_CAC, "PartyIdentification");
+        cbc(xml, "ID", rucEmisor);
+        xml.writeEndElement();
+        xml.writeStartElement(NS_CAC, "PartyName");
+        cbc(xml, "Name", razonSocialEmisor);
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeStartElement(NS_CAC, "DigitalSignatureAttachment");
+        xml.writeStartElement(NS_CAC, "ExternalReference");
+        cbc(xml, "URI", "#" + ID_FIRMA);
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private void escribirEmisor(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement(NS_CAC, "AccountingSupplierParty");
+        xml.writeStartElement(NS_CAC, "Party");
+        xml.writeStartElement(NS_CAC, "PartyIdentification");
+        idConEsquema(xml, rucEmisor, "6");
+        xml.writeEndElement();
+        xml.writeStartElement(NS_CAC, "PartyLegalEntity");
+        cbc(xml, "RegistrationName", razonSocialEmisor);
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private void escribirCliente(XMLStreamWriter xml, Boleta boleta) throws XMLStreamException {
+        String documento = boleta.getDocumentoCliente();
+        boolean tieneDocumento = documento != null && !documento.isBlank();
+        // Catálogo 06: 1 = DNI, 6 = RUC, 0 = sin documento
+        String tipoDocumento = !tieneDocumento ? "0" : documento.length() == 11 ? "6" : "1";
+
+        xml.writeStartElement(NS_CAC, "AccountingCustomerParty");
+        xml.writeStartElement(NS_CAC, "Party");
+        xml.writeStartElement(NS_CAC, "PartyIdentification");
+        idConEsquema(xml, tieneDocumento ? documento : "-", tipoDocumento);
+        xml.writeEndElement();
+        xml.writeStartElement(NS_CAC, "PartyLegalEntity");
+        cbc(xml, "RegistrationName", boleta.getNombreCliente());
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private void escribirTotalImpuestos(XMLStreamWriter xml, BigDecimal base, BigDecimal igv) throws XMLStreamException {
+        xml.writeStartElement(NS_CAC, "TaxTotal");
+        monto(xml, "TaxAmount", igv);
+        xml.writeStartElement(NS_CAC, "TaxSubtotal");
+        monto(xml, "TaxableAmount", base);
+        monto(xml, "TaxAmount", igv);
+        escribirCategoriaIgv(xml);
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private void escribirCategoriaIgv(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement(NS_CAC, "TaxCategory");
+        cbc(xml, "Percent", PORCENTAJE_IGV.toPlainString());
+        // Catálogo 07: 10 = gravado, operación onerosa
+        cbc(xml, "TaxExemptionReasonCode", "10");
+        xml.writeStartElement(NS_CAC, "TaxScheme");
+        cbc(xml, "ID", "1000");
+        cbc(xml, "Name", "IGV");
+        cbc(xml, "TaxTypeCode", "VAT");
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private void escribirLinea(XMLStreamWriter xml, int numero, DetalleBoleta detalle) throws XMLStreamException {
+        BigDecimal subtotal = subtotal(detalle);
+        BigDecimal base = base(subtotal);
+        BigDecimal igv = subtotal.subtract(base);
+        BigDecimal valorUnitario = detalle.getPrecioUnitario().divide(FACTOR_IGV, 2, RoundingMode.HALF_UP);
+
+        xml.writeStartElement(NS_CAC, "InvoiceLine");
+        cbc(xml, "ID", String.valueOf(numero));
+
+        xml.writeStartElement(NS_CBC, "InvoicedQuantity");
+        xml.writeAttribute("unitCode", "NIU");
+        xml.writeCharacters(String.valueOf(detalle.getCantidad()));
+        xml.writeEndElement();
+
+        monto(xml, "LineExtensionAmount", base);
+
+        // Precio unitario con IGV (catálogo 16: 01)
+        xml.writeStartElement(NS_CAC, "PricingReference");
+        xml.writeStartElement(NS_CAC, "AlternativeConditionPrice");
+        monto(xml, "PriceAmount", detalle.getPrecioUnitario());
+        cbc(xml, "PriceTypeCode", "01");
+        xml.writeEndElement();
+        xml.writeEndElement();
+
+        xml.writeStartElement(NS_CAC, "TaxTotal");
+        monto(xml, "TaxAmount", igv);
+        xml.writeStartElement(NS_CAC, "TaxSubtotal");
+        monto(xml, "TaxableAmount", base);
+        monto(xml, "TaxAmount", igv);
+        escribirCategoriaIgv(xml);
+        xml.writeEndElement();
+        xml.writeEndElement();
+
+        xml.writeStartElement(NS_CAC, "Item");
+        cbc(xml, "Description", detalle.getProducto());
+        xml.writeEndElement();
+
+        xml.writeStartElement(NS_CAC, "Price");
+        monto(xml, "PriceAmount", valorUnitario);
+        xml.writeEndElement();
+
+        xml.writeEndElement();
+    }
+
+    private BigDecimal subtotal(DetalleBoleta detalle) {
+        return detalle.getSubtotal() != null
+                ? detalle.getSubtotal()
+                : detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(detalle.getCantidad()));
+    }
+
+    private BigDecimal base(BigDecimal conIgv) {
+        return conIgv.divide(FACTOR_IGV, 2, RoundingMode.HALF_UP);
+    }
+
+    private void cbc(XMLStreamWriter xml, String elemento, String valor) throws XMLStreamException {
+        xml.writeStartElement(NS_CBC, elemento);
+        xml.writeCharacters(valor);
+        xml.writeEndElement();
+    }
+
+    private void idConEsquema(XMLStreamWriter xml, String valor, String esquema) throws XMLStreamException {
+        xml.writeStartElement(NS_CBC, "ID");
+        xml.writeAttribute("schemeID", esquema);
+        xml.writeCharacters(valor);
+        xml.writeEndElement();
+    }
+
+    private void monto(XMLStreamWriter xml, String elemento, BigDecimal valor) throws XMLStreamException {
+        xml.writeStartElement(NS_CBC, elemento);
+        xml.writeAttribute("currencyID", MONEDA);
+        xml.writeCharacters(valor.setScale(2, RoundingMode.HALF_UP).toPlainString());
+        xml.writeEndElement();
+    }
+}
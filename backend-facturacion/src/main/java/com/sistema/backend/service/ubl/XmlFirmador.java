@@ -0,0 +1,148 @@
+package com.sistema.backend.service.ubl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.crypto.dsig.CanonicalizationMethod;
+import javax.xml.crypto.dsig.DigestMethod;
+import javax.xml.crypto.dsig.Reference;
+import javax.xml.crypto.dsig.SignatureMethod;
+import javax.xml.crypto.dsig.SignedInfo;
+import javax.xml.crypto.dsig.Transform;
+import javax.xml.crypto.dsig.XMLSignature;
+import javax.xml.crypto.dsig.XMLSignatureFactory;
+import javax.xml.crypto.dsig.dom.DOMSignContext;
+import javax.xml.crypto.dsig.keyinfo.KeyInfo;
+import javax.xml.crypto.dsig.keyinfo.KeyInfoFactory;
+import javax.xml.crypto.dsig.spec.C14NMethodParameterSpec;
+import javax.xml.crypto.dsig.spec.TransformParameterSpec;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Firma XMLDSig (enveloped, RSA-SHA256) de los comprobantes UBL con un keystore local.
+ * La firma se inserta en ext:ExtensionContent, como exige SUNAT.
+ * Llaves, certificado y KeyInfo se preparan una sola vez; la firma necesita
+ * el documento en DOM, así que solo este paso lo parsea.
+ * @autor Paulo
+ */
+@Component
+public class XmlFirmador {
+
+    private final XMLSignatureFactory fabricaFirma = XMLSignatureFactory.getInstance("DOM");
+    private final DocumentBuilderFactory fabricaDocumentos;
+    private final ThreadLocal<DocumentBuilder> parser;
+    private final ThreadLocal<Transformer> serializador;
+
+    private final PrivateKey llavePrivada;
+    private final X509Certificate certificado;
+    private final KeyInfo keyInfo;
+
+    public XmlFirmador(
+            @Value("${app.ubl.keystore.path:classpath:ubl/firma-dev.p12}") Resource keystore,
+            @Value("${app.ubl.keystore.password:cambiar-en-produccion}") String password,
+            @Value("${app.ubl.keystore.alias:firma}") String alias) throws Exception {
+        KeyStore ks = KeyStore.getInstance("PKCS12");
+        try (InputStream in = keystore.getInputStream()) {
+            ks.load(in, password.toCharArray());
+        }
+        this.llavePrivada = (PrivateKey) ks.getKey(alias, password.toCharArray());
+        this.certificado = (X509Certificate) ks.getCertificate(alias);
+        if (llavePrivada == null || certificado == null) {
+            throw new IllegalStateException("El keystore no contiene la llave '" + alias + "'");
+        }
+
+        KeyInfoFactory kif = fabricaFirma.getKeyInfoFactory();
+        this.keyInfo = kif.newKeyInfo(List.of(kif.newX509Data(List.of(certificado))));
+
+        this.fabricaDocumentos = DocumentBuilderFactory.newInstance();
+        fabricaDocumentos.setNamespaceAware(true);
+        fabricaDocumentos.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        fabricaDocumentos.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        this.parser = ThreadLocal.withInitial(() -> {
+            try {
+                return fabricaDocumentos.newDocumentBuilder();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        this.serializador = ThreadLocal.withInitial(() -> {
+            try {
+                Transformer t = TransformerFactory.newInstance().newTransformer();
+                t.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+                return t;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * Firma el XML UBL y devuelve el documento firmado junto con su DigestValue
+     */
+    public XmlFirmado firmar(byte[] xml) throws Exception {
+        DocumentBuilder builder = parser.get();
+        builder.reset();
+        Document documento = builder.parse(new ByteArrayInputStream(xml));
+
+        NodeList contenidos = documento.getElementsByTagNameNS(UblInvoiceWriter.NS_EXT, "ExtensionContent");
+        if (contenidos.getLength() == 0) {
+            throw new IllegalArgumentException("El XML no tiene ext:ExtensionContent para la firma");
+        }
+        Element destino = (Element) contenidos.item(0);
+
+        // Reference/SignedInfo guardan el digest calculado: se crean por firma (no son compartibles)
+        Reference referencia = fabricaFirma.newReference("",
+                fabricaFirma.newDigestMethod(DigestMethod.SHA256, null),
+                List.of(fabricaFirma.newTransform(Transform.ENVELOPED, (TransformParameterSpec) null)),
+                null, null);
+        SignedInfo signedInfo = fabricaFirma.newSignedInfo(
+                fabricaFirma.newCanonicalizationMethod(CanonicalizationMethod.INCLUSIVE,
+                        (C14NMethodParameterSpec) null),
+                fabricaFirma.newSignatureMethod(SignatureMethod.RSA_SHA256, null),
+                Collections.singletonList(referencia));
+
+        DOMSignContext contexto = new DOMSignContext(llavePrivada, destino);
+        contexto.setDefaultNamespacePrefix("ds");
+        XMLSignature firma = fabricaFirma.newXMLSignature(signedInfo, keyInfo, null, UblInvoiceWriter.ID_FIRMA, null);
+        firma.sign(contexto);
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(xml.length + 4096);
+        Transformer transformer = serializador.get();
+        transformer.reset();
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        transformer.transform(new DOMSource(documento), new StreamResult(salida));
+
+        String digest = Base64.getEncoder().encodeToString(referencia.getDigestValue());
+        return new XmlFirmado(salida.toByteArray(), digest);
+    }
+
+    public X509Certificate getCertificado() {
+        return certificado;
+    }
+
+    /**
+     * XML firmado y su DigestValue (el "hash" que se imprime en la boleta)
+     */
+    public record XmlFirmado(byte[] xml, String digest) {
+    }
+}
@@ -1,7 +1,9 @@
 package com.sistema.backend.util;
 
+import com.sistema.backend.entity.Usuario;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,9 +12,13 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 /**
- * Utilidad para generar y validar tokens JWT
+ * Utilidad para generar y validar tokens JWT (de acceso, de vida corta).
+ * Cada token lleva un jti para poder revocarlo (ListaRevocacion), la versión de
+ * tokens del usuario (VersionesToken) y los datos que muestra el frontend, de
+ * modo que verificarlo no requiere consultar la base.
  * @autor Paulo
  */
 @Component
@@ -20,75 +26,81 @@ public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_NOMBRE = "nombre";
+    public static final String CLAIM_DOCUMENTO = "doc";
+    public static final String CLAIM_VERSION = "ver";
+
     @Value("${jwt.secret:jamasDescifrarasEstaClaveSeguraPorqueJWT2024EstaEsMuyLarga}")
     private String jwtSecret;
 
-    @Value("${jwt.expiration:86400000}") // 24 horas en milisegundos
+    @Value("${jwt.expiration:900000}") // 15 minutos en milisegundos
     private long jwtExpirationMs;
 
+    // Clave y parser se construyen una vez: se usan en cada petición
+    private SecretKey key;
+    private JwtParser parser;
+
+    @PostConstruct
+    void iniciar() {
+        key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(key).build();
+    }
+
     /**
      * Generar token JWT para un usuario
      */
-    public String generateToken(Integer idUsuario, String email) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
+    public String generateToken(Usuario usuario, UUID jti, Date expiryDate) {
         return Jwts.builder()
-                .subject(String.valueOf(idUsuario))
-                .claim("email", email)
-                .issuedAt(now)
+                .id(jti.toString())
+                .subject(String.valueOf(usuario.getIdUsuario()))
+                .claim(CLAIM_EMAIL, usuario.getEmail())
+                .claim(CLAIM_NOMBRE, usuario.getNombres() + " " + usuario.getApellidos())
+                .claim(CLAIM_DOCUMENTO, usuario.getNumeroDocumento())
+                .claim(CLAIM_VERSION, usuario.getTokenVersion())
+                .issuedAt(new Date())
                 .expiration(expiryDate)
                 .signWith(key)
                 .compact();
     }
 
     /**
-     * Obtener ID de usuario desde el token
+     * Expiración para un token emitido ahora
      */
-    public Integer getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return Integer.valueOf(claims.getSubject());
+    public Date calcularExpiracion() {
+        return new Date(System.currentTimeMillis() + jwtExpirationMs);
+    }
+
+    public long getExpirationMs() {
+        return jwtExpirationMs;
     }
 
     /**
-     * Obtener email desde el token
+     * Versión de tokens del usuario con que se emitió (null en tokens anteriores al claim)
      */
-    public String getEmailFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("email", String.class);
+    public Integer getVersion(Claims claims) {
+        return claims.get(CLAIM_VERSION, Integer.class);
     }
 
     /**
-     * Validar token JWT
+     * Claims del token si es válido (firma y expiración); null si no lo es.
+     * Una sola verificación por petición.
      */
-    public boolean validateToken(String token) {
+    public Claims getClaimsIfValid(String token) {
         try {
-            getClaimsFromToken(token);
-            return true;
-        } catch (MalformedJwtException e) {
-            logger.error("Token JWT malformado: {}", e.getMessage());
+            return getClaimsFromToken(token);
         } catch (ExpiredJwtException e) {
-            logger.error("Token JWT expirado: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            logger.error("Token JWT no soportado: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            logger.error("JWT claims vacío: {}", e.getMessage());
+            logger.debug("Token JWT expirado: {}", e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.error("Token JWT inválido: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 
     /**
      * Extraer claims del token
      */
     private Claims getClaimsFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
@@ -0,0 +1,28 @@
+-- ===================================
+-- SESIONES: REFRESH TOKENS ROTATIVOS Y TOKENS DE ACCESO REVOCADOS
+-- Los refresh tokens se guardan como hash SHA-256 (nunca el valor). Cada uso
+-- emite uno nuevo en la misma familia; reutilizar uno ya usado revoca la familia.
+-- ===================================
+CREATE TABLE IF NOT EXISTS tokens_refresco (
+    id_token          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_usuario        INTEGER NOT NULL REFERENCES usuarios (id_usuario),
+    hash_token        CHAR(64) NOT NULL UNIQUE,
+    familia           UUID NOT NULL,
+    jti_acceso        UUID NOT NULL,
+    acceso_expira_en  TIMESTAMP(6) NOT NULL,
+    fecha_creacion    TIMESTAMP(6) NOT NULL,
+    expira_en         TIMESTAMP(6) NOT NULL,
+    usado_en          TIMESTAMP(6),
+    revocado          BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS idx_tokens_refresco_familia ON tokens_refresco (familia);
+CREATE INDEX IF NOT EXISTS idx_tokens_refresco_expira ON tokens_refresco (expira_en);
+
+-- Denylist de tokens de acceso (por jti) hasta su expiración; cada nodo la mantiene en memoria
+CREATE TABLE IF NOT EXISTS tokens_revocados (
+    jti       UUID PRIMARY KEY,
+    expira_en TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_tokens_revocados_expira ON tokens_revocados (expira_en);
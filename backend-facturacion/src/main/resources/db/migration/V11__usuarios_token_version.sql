@@ -0,0 +1,6 @@
+-- ===================================
+-- VERSIÓN DE TOKENS POR USUARIO
+-- Va en el JWT (claim "ver"); incrementarla invalida todos los tokens emitidos
+-- antes sin consultar la base en cada petición (cada nodo la tiene en memoria).
+-- ===================================
+ALTER TABLE usuarios ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
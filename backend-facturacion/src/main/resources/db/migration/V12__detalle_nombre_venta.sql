@@ -0,0 +1,16 @@
+-- ===================================
+-- NOMBRE DEL PRODUCTO AL MOMENTO DE LA VENTA
+-- Las líneas de catálogo guardan también el nombre con el que se vendieron:
+-- renombrar un producto ya no cambia boletas emitidas (PDF, correo, UBL).
+-- id_producto sigue siendo la referencia al catálogo.
+-- ===================================
+
+-- Líneas anteriores: el único nombre conocido es el actual del catálogo
+UPDATE detalle_boleta d
+SET producto = p.nombre
+FROM productos p
+WHERE p.id_producto = d.id_producto
+  AND d.producto IS NULL;
+
+ALTER TABLE detalle_boleta DROP CONSTRAINT IF EXISTS ck_detalle_boleta_producto;
+ALTER TABLE detalle_boleta ALTER COLUMN producto SET NOT NULL;
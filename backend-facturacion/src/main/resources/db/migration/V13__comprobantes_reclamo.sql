@@ -0,0 +1,15 @@
+-- ===================================
+-- RECLAMO DE COMPROBANTES ANTES DEL ENVÍO
+-- La fila se registra (PENDIENTE) y se reclama (ENVIANDO, con vencimiento) antes
+-- de firmar y enviar a SUNAT: dos workers o nodos no envían la misma boleta.
+-- ===================================
+ALTER TABLE comprobantes_electronicos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- El número se completa al generar el XML
+ALTER TABLE comprobantes_electronicos ALTER COLUMN numero DROP NOT NULL;
+
+-- Barrido: pendientes, reintentos vencidos y reservas vencidas
+DROP INDEX IF EXISTS idx_comprobantes_reintento;
+CREATE INDEX IF NOT EXISTS idx_comprobantes_reintento
+    ON comprobantes_electronicos (proximo_intento)
+    WHERE estado IN ('PENDIENTE', 'ERROR', 'ENVIANDO');
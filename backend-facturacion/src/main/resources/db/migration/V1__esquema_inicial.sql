@@ -0,0 +1,31 @@
+-- ===================================
+-- ESQUEMA INICIAL
+-- Equivalente a lo que generaba ddl-auto=update. Idempotente para bases existentes.
+-- ===================================
+CREATE TABLE IF NOT EXISTS usuarios (
+    id_usuario       INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email            VARCHAR(150) NOT NULL UNIQUE,
+    nombres          VARCHAR(100) NOT NULL,
+    apellidos        VARCHAR(100) NOT NULL,
+    numero_documento VARCHAR(20) UNIQUE,
+    password         VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS boletas (
+    id_boleta         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_usuario        INTEGER NOT NULL REFERENCES usuarios (id_usuario),
+    total             NUMERIC(10, 2) NOT NULL,
+    fecha_creacion    TIMESTAMP(6) NOT NULL,
+    nombre_cliente    VARCHAR(150) NOT NULL,
+    documento_cliente VARCHAR(20),
+    email_cliente     VARCHAR(150)
+);
+
+CREATE TABLE IF NOT EXISTS detalle_boleta (
+    id_detalle      INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_boleta       INTEGER NOT NULL REFERENCES boletas (id_boleta),
+    producto        VARCHAR(150) NOT NULL,
+    precio_unitario NUMERIC(10, 2) NOT NULL,
+    cantidad        INTEGER NOT NULL,
+    subtotal        NUMERIC(10, 2) NOT NULL
+);
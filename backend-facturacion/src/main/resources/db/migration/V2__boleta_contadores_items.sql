@@ -0,0 +1,18 @@
+-- ===================================
+-- CONTADORES DESNORMALIZADOS EN LA CABECERA DE BOLETA
+-- Permiten mostrar "N items" en los listados sin leer detalle_boleta.
+-- ===================================
+ALTER TABLE boletas ADD COLUMN IF NOT EXISTS cantidad_items INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE boletas ADD COLUMN IF NOT EXISTS unidades_totales INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill de las boletas existentes
+UPDATE boletas b
+SET cantidad_items   = d.items,
+    unidades_totales = d.unidades
+FROM (SELECT id_boleta, COUNT(*) AS items, COALESCE(SUM(cantidad), 0) AS unidades
+      FROM detalle_boleta
+      GROUP BY id_boleta) d
+WHERE d.id_boleta = b.id_boleta;
+
+-- Los listados filtran por usuario y ordenan por fecha
+CREATE INDEX IF NOT EXISTS idx_boletas_usuario_fecha ON boletas (id_usuario, fecha_creacion DESC);
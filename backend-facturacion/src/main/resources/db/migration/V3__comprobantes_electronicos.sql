@@ -0,0 +1,22 @@
+-- ===================================
+-- COMPROBANTES ELECTRÓNICOS (UBL 2.1 FIRMADO)
+-- Uno por boleta; lo genera el pipeline en segundo plano tras el commit.
+-- ===================================
+CREATE TABLE IF NOT EXISTS comprobantes_electronicos (
+    id_boleta        INTEGER PRIMARY KEY REFERENCES boletas (id_boleta),
+    numero           VARCHAR(20) NOT NULL,
+    estado           VARCHAR(20) NOT NULL,
+    xml_firmado      BYTEA,
+    digest           VARCHAR(100),
+    codigo_respuesta VARCHAR(10),
+    intentos         INTEGER NOT NULL DEFAULT 0,
+    ultimo_error     VARCHAR(500),
+    proximo_intento  TIMESTAMP(6),
+    fecha_generacion TIMESTAMP(6),
+    fecha_envio      TIMESTAMP(6)
+);
+
+-- Barrido de reintentos
+CREATE INDEX IF NOT EXISTS idx_comprobantes_reintento
+    ON comprobantes_electronicos (proximo_intento)
+    WHERE estado = 'ERROR';
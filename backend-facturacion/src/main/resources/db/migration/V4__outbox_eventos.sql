@@ -0,0 +1,27 @@
+-- ===================================
+-- OUTBOX TRANSACCIONAL
+-- Se escribe en la misma transacción que la boleta; el relay lo publica después.
+-- ===================================
+CREATE TABLE IF NOT EXISTS outbox_eventos (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tipo             VARCHAR(50)  NOT NULL,
+    id_agregado      INTEGER      NOT NULL,
+    id_usuario       INTEGER      NOT NULL,
+    payload          TEXT         NOT NULL,
+    estado           VARCHAR(20)  NOT NULL DEFAULT 'PENDIENTE',
+    intentos         INTEGER      NOT NULL DEFAULT 0,
+    ultimo_error     VARCHAR(500),
+    proximo_intento  TIMESTAMP(6),
+    fecha_creacion   TIMESTAMP(6) NOT NULL,
+    fecha_procesado  TIMESTAMP(6)
+);
+
+-- Cabeza de la cola por usuario (DISTINCT ON id_usuario ORDER BY id_usuario, id)
+CREATE INDEX IF NOT EXISTS idx_outbox_pendientes
+    ON outbox_eventos (id_usuario, id)
+    WHERE estado = 'PENDIENTE';
+
+-- Limpieza de eventos procesados
+CREATE INDEX IF NOT EXISTS idx_outbox_procesados
+    ON outbox_eventos (fecha_procesado)
+    WHERE estado = 'PROCESADO';
@@ -0,0 +1,28 @@
+-- ===================================
+-- CORREOS DE COMPROBANTE AL CLIENTE
+-- Estado de envío por boleta; la tabla de fallidos es la cola de mensajes muertos.
+-- ===================================
+CREATE TABLE IF NOT EXISTS correos_boleta (
+    id_boleta        INTEGER PRIMARY KEY REFERENCES boletas (id_boleta),
+    destinatario     VARCHAR(150) NOT NULL,
+    estado           VARCHAR(20)  NOT NULL,
+    intentos         INTEGER      NOT NULL DEFAULT 0,
+    ultimo_error     VARCHAR(500),
+    proximo_intento  TIMESTAMP(6),
+    fecha_creacion   TIMESTAMP(6) NOT NULL,
+    fecha_envio      TIMESTAMP(6)
+);
+
+-- Barrido de pendientes y reintentos
+CREATE INDEX IF NOT EXISTS idx_correos_boleta_pendientes
+    ON correos_boleta (proximo_intento)
+    WHERE estado IN ('PENDIENTE', 'ERROR');
+
+CREATE TABLE IF NOT EXISTS correos_boleta_fallidos (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_boleta        INTEGER      NOT NULL REFERENCES boletas (id_boleta),
+    destinatario     VARCHAR(150) NOT NULL,
+    intentos         INTEGER      NOT NULL,
+    ultimo_error     VARCHAR(500),
+    fecha_fallo      TIMESTAMP(6) NOT NULL
+);
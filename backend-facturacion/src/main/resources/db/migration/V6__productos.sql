@@ -0,0 +1,20 @@
+-- ===================================
+-- CATÁLOGO DE PRODUCTOS
+-- Las líneas de boleta referencian el producto por id; el texto libre queda
+-- solo para las líneas anteriores al catálogo.
+-- ===================================
+CREATE TABLE IF NOT EXISTS productos (
+    id_producto         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    codigo              VARCHAR(30)    NOT NULL UNIQUE,
+    nombre              VARCHAR(150)   NOT NULL,
+    precio              NUMERIC(10, 2) NOT NULL CHECK (precio >= 0),
+    activo              BOOLEAN        NOT NULL DEFAULT TRUE,
+    fecha_actualizacion TIMESTAMP(6)   NOT NULL
+);
+
+ALTER TABLE detalle_boleta ADD COLUMN IF NOT EXISTS id_producto INTEGER REFERENCES productos (id_producto);
+ALTER TABLE detalle_boleta ALTER COLUMN producto DROP NOT NULL;
+ALTER TABLE detalle_boleta ADD CONSTRAINT ck_detalle_boleta_producto
+    CHECK (id_producto IS NOT NULL OR producto IS NOT NULL);
+
+CREATE INDEX IF NOT EXISTS idx_detalle_boleta_producto ON detalle_boleta (id_producto);
@@ -0,0 +1,13 @@
+-- ===================================
+-- STOCK DE PRODUCTOS
+-- El contador vive en su propia tabla: se actualiza en cada checkout y así no
+-- invalida la caché de segundo nivel de productos ni bloquea sus filas.
+-- ===================================
+ALTER TABLE productos ADD COLUMN IF NOT EXISTS controla_stock BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- fillfactor 50: deja espacio en la página para actualizaciones HOT (sin tocar índices)
+CREATE TABLE IF NOT EXISTS stock_productos (
+    id_producto         INTEGER PRIMARY KEY REFERENCES productos (id_producto),
+    disponible          INTEGER      NOT NULL CHECK (disponible >= 0),
+    fecha_actualizacion TIMESTAMP(6) NOT NULL DEFAULT now()
+) WITH (fillfactor = 50);
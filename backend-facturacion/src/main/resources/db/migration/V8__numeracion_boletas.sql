@@ -0,0 +1,29 @@
+-- ===================================
+-- NUMERACIÓN LEGAL (SERIE-CORRELATIVO)
+-- El correlativo se asigna justo antes del commit del checkout, en la misma
+-- transacción: si la boleta se revierte, el número no se consume (sin huecos).
+-- ===================================
+CREATE TABLE IF NOT EXISTS series_boleta (
+    serie              VARCHAR(4) PRIMARY KEY,
+    ultimo_correlativo INTEGER NOT NULL DEFAULT 0 CHECK (ultimo_correlativo BETWEEN 0 AND 99999999)
+) WITH (fillfactor = 50);
+
+ALTER TABLE boletas ADD COLUMN IF NOT EXISTS serie VARCHAR(4);
+ALTER TABLE boletas ADD COLUMN IF NOT EXISTS correlativo INTEGER;
+
+-- Boletas ya emitidas: se numeran en la serie inicial por orden de emisión
+WITH numeradas AS (
+    SELECT id_boleta, ROW_NUMBER() OVER (ORDER BY fecha_creacion, id_boleta) AS correlativo
+    FROM boletas
+    WHERE serie IS NULL
+)
+UPDATE boletas b
+SET serie = 'B001', correlativo = n.correlativo
+FROM numeradas n
+WHERE b.id_boleta = n.id_boleta;
+
+INSERT INTO series_boleta (serie, ultimo_correlativo)
+SELECT 'B001', COALESCE(MAX(correlativo), 0) FROM boletas WHERE serie = 'B001'
+ON CONFLICT (serie) DO NOTHING;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_boletas_serie_correlativo ON boletas (serie, correlativo);
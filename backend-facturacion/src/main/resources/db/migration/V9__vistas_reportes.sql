@@ -0,0 +1,51 @@
+-- ===================================
+-- VISTAS MATERIALIZADAS DE REPORTES
+-- Se refrescan con REFRESH ... CONCURRENTLY (ver RefrescoVistasService): las
+-- lecturas no se bloquean durante el refresco. CONCURRENTLY exige un índice único.
+-- ===================================
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_ventas_diarias AS
+SELECT b.fecha_creacion::date      AS fecha,
+       COUNT(*)                    AS boletas,
+       SUM(b.unidades_totales)     AS unidades,
+       SUM(b.total)                AS importe
+FROM boletas b
+GROUP BY 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_mv_ventas_diarias ON mv_ventas_diarias (fecha);
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_ventas_vendedor AS
+SELECT b.fecha_creacion::date      AS fecha,
+       b.id_usuario,
+       COUNT(*)                    AS boletas,
+       SUM(b.unidades_totales)     AS unidades,
+       SUM(b.total)                AS importe
+FROM boletas b
+GROUP BY 1, 2;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_mv_ventas_vendedor ON mv_ventas_vendedor (fecha, id_usuario);
+
+-- id_producto 0 agrupa las líneas de texto libre (anteriores al catálogo) por nombre
+CREATE MATERIALIZED VIEW IF NOT EXISTS mv_ventas_producto AS
+SELECT b.fecha_creacion::date               AS fecha,
+       COALESCE(d.id_producto, 0)           AS id_producto,
+       COALESCE(p.nombre, d.producto)       AS producto,
+       SUM(d.cantidad)                      AS unidades,
+       SUM(d.subtotal)                      AS importe,
+       COUNT(*)                             AS lineas
+FROM detalle_boleta d
+JOIN boletas b ON b.id_boleta = d.id_boleta
+LEFT JOIN productos p ON p.id_producto = d.id_producto
+GROUP BY 1, 2, 3;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_mv_ventas_producto ON mv_ventas_producto (fecha, id_producto, producto);
+
+-- Último refresco de cada vista (frescura visible desde cualquier nodo y réplica)
+CREATE TABLE IF NOT EXISTS refrescos_vistas (
+    vista           VARCHAR(60) PRIMARY KEY,
+    ultimo_refresco TIMESTAMP(6) NOT NULL,
+    duracion_ms     BIGINT       NOT NULL
+);
+
+INSERT INTO refrescos_vistas (vista, ultimo_refresco, duracion_ms)
+VALUES ('mv_ventas_diarias', now(), 0), ('mv_ventas_vendedor', now(), 0), ('mv_ventas_producto', now(), 0)
+ON CONFLICT (vista) DO NOTHING;
@@ -0,0 +1,53 @@
+package com.sistema.backend.config.arranque;
+
+import com.sistema.backend.security.ListaRevocacion;
+import com.sistema.backend.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Readiness bloqueada hasta terminar el calentamiento y beans excluidos del arranque diferido
+ */
+class CalentamientoHealthIndicatorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void quedaFueraDeServicioHastaTerminarAunqueFalleUnPaso() {
+        List<String> ejecutados = new ArrayList<>();
+        ObjectProvider<PasoCalentamiento> pasos = mock(ObjectProvider.class);
+        when(pasos.orderedStream()).thenReturn(Stream.of(
+                PasoCalentamiento.de("falla", () -> {
+                    throw new IllegalStateException("sin base");
+                }),
+                PasoCalentamiento.de("ok", () -> ejecutados.add("ok"))));
+        CalentamientoHealthIndicator indicador = new CalentamientoHealthIndicator(pasos, new SimpleMeterRegistry(), true);
+
+        assertThat(indicador.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        indicador.calentar();
+
+        assertThat(ejecutados).containsExactly("ok");
+        assertThat(indicador.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(indicador.health().getDetails())
+                .containsEntry("completados", List.of("ok"))
+                .containsEntry("fallidos", List.of("falla"));
+    }
+
+    @Test
+    void losBeansConPostConstructOScheduledNoSeDifieren() {
+        assertThat(ArranqueConfig.tieneEfectosAlArrancar(ListaRevocacion.class)).isTrue();
+        assertThat(ArranqueConfig.tieneEfectosAlArrancar(JwtUtil.class)).isTrue();
+        assertThat(ArranqueConfig.tieneEfectosAlArrancar(PasoCalentamiento.class)).isFalse();
+        assertThat(ArranqueConfig.tieneEfectosAlArrancar(null)).isFalse();
+    }
+}
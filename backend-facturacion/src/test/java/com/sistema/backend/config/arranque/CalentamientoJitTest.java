@@ -0,0 +1,61 @@
+package com.sistema.backend.config.arranque;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.backend.controller.BoletaDtoConverter;
+import com.sistema.backend.dto.response.BoletaDetailsResponse.UsuarioDTO;
+import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.service.BoletaService;
+import com.sistema.backend.service.UsuarioService;
+import com.sistema.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Iteraciones configurables y consultas solo con ids sintéticos (sin base de datos)
+ */
+class CalentamientoJitTest {
+
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final UsuarioService usuarioService = mock(UsuarioService.class);
+    private final BoletaService boletaService = mock(BoletaService.class);
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final Claims claims = mock(Claims.class);
+
+    private CalentamientoJit crear(int iteraciones, int consultas) {
+        when(usuarioService.construirUsuarioDTO(any(), any())).thenReturn(UsuarioDTO.builder().id(-1).build());
+        when(jwtUtil.generateToken(any(), any(), any())).thenReturn("token");
+        when(jwtUtil.getClaimsIfValid("token")).thenReturn(claims);
+        when(jwtUtil.getVersion(claims)).thenReturn(0);
+        return new CalentamientoJit(jwtUtil, new BoletaDtoConverter(usuarioService), new ObjectMapper(),
+                boletaService, usuarioRepository, iteraciones, consultas);
+    }
+
+    @Test
+    void ejecutaLasIteracionesYConsultasConfiguradas() throws Exception {
+        crear(25, 3).ejecutar();
+
+        verify(jwtUtil, times(25)).generateToken(any(), any(), any());
+        verify(usuarioService, times(25)).construirUsuarioDTO(eq(-1), any());
+        verify(usuarioRepository, times(3)).findByEmail(anyString());
+        verify(boletaService, times(3)).getResumenesByUserId(-1);
+        verify(boletaService, times(3)).getBoletaDetalladaByIdAndUser(-1, -1);
+        verify(boletaService, times(3)).getDetallesByBoletaIdAndUser(-1, -1);
+    }
+
+    @Test
+    void fallaSiElTokenSinteticoNoSeVerifica() {
+        CalentamientoJit calentamiento = crear(1, 0);
+        when(jwtUtil.getClaimsIfValid("token")).thenReturn(null);
+
+        assertThatThrownBy(calentamiento::ejecutar).isInstanceOf(IllegalStateException.class);
+    }
+}
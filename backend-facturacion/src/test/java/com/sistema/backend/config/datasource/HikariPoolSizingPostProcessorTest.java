@@ -0,0 +1,23 @@
+package com.sistema.backend.config.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HikariPoolSizingPostProcessorTest {
+
+    @Test
+    void tamanoPorNucleosSinConcurrenciaEsperada() {
+        assertThat(HikariPoolSizingPostProcessor.calcularTamano(4, 1, 0)).isEqualTo(9);
+    }
+
+    @Test
+    void tamanoLimitadoPorConcurrenciaEsperada() {
+        assertThat(HikariPoolSizingPostProcessor.calcularTamano(16, 1, 10)).isEqualTo(10);
+    }
+
+    @Test
+    void tamanoNuncaMenorQueElMinimo() {
+        assertThat(HikariPoolSizingPostProcessor.calcularTamano(1, 0, 1)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,49 @@
+package com.sistema.backend.config.nativo;
+
+import com.sistema.backend.dto.response.AuthResponse;
+import com.sistema.backend.dto.response.BoletaDetailsResponse;
+import com.sistema.backend.event.BoletaCreadaEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lo que la imagen nativa necesita y Spring AOT no deduce (sin compilar la imagen)
+ */
+class NativoRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativoRuntimeHintsTest() {
+        new NativoRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registraLosTiposJsonDeRespuestasEventosYNotify() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(AuthResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BoletaDetailsResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BoletaCreadaEvent.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.sistema.backend.security.ListaRevocacion$Revocacion"))).accepts(hints);
+    }
+
+    @Test
+    void registraLasClasesQueJjwtYJCacheCarganPorNombre() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"))).accepts(hints);
+    }
+
+    @Test
+    void registraLosRecursosLeidosDelClasspath() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("hibernate-l2-cache.conf")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("com/lowagie/text/pdf/fonts/Helvetica.afm")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("ubl/firma-dev.p12")).accepts(hints);
+    }
+}
@@ -0,0 +1,64 @@
+package com.sistema.backend.dto.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.backend.entity.Boleta;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara el tamaño del JSON del listado antiguo (BoletaDetailsResponse con detalles
+ * y vendedor) contra la proyección ligera BoletaSummary.
+ */
+class BoletaSummaryPayloadTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void resumenEsMasLigeroQueRespuestaDetallada() throws Exception {
+        int boletas = 50;
+        int itemsPorBoleta = 5;
+
+        List<BoletaDetailsResponse> detalladas = new ArrayList<>();
+        List<BoletaSummary> resumenes = new ArrayList<>();
+
+        for (int i = 1; i <= boletas; i++) {
+            LocalDateTime fecha = LocalDateTime.of(2025, 10, 16, 22, 34, 34);
+            List<BoletaDetailsResponse.DetalleBoletaDTO> detalles = new ArrayList<>();
+            for (int j = 1; j <= itemsPorBoleta; j++) {
+                detalles.add(BoletaDetailsResponse.DetalleBoletaDTO.builder()
+                        .idDetalle(i * 10 + j)
+                        .producto("Producto de prueba " + j)
+                        .precio_unitario(new BigDecimal("12.50"))
+                        .cantidad(2)
+                        .subtotal(new BigDecimal("25.00"))
+                        .build());
+            }
+            detalladas.add(BoletaDetailsResponse.builder()
+                    .idBoleta(i)
+                    .numero(Boleta.formatearNumero("B001", i))
+                    .idUsuario(1)
+                    .fecha_creacion(fecha.toString())
+                    .total(new BigDecimal("125.00"))
+                    .nombreCliente("Cliente " + i)
+                    .documentoCliente("12345678")
+                    .emailCliente("cliente" + i + "@correo.com")
+                    .detalles(detalles)
+                    .usuarioVendedor(BoletaDetailsResponse.UsuarioDTO.builder()
+                            .id(1).nombres("Paulo").apellidos("Vendedor").numero_documento("87654321").build())
+                    .build());
+            resumenes.add(new BoletaSummary(i, 1, fecha, new BigDecimal("125.00"),
+                    "Cliente " + i, "12345678", itemsPorBoleta, itemsPorBoleta * 2, "B001", i));
+        }
+
+        int bytesDetallado = objectMapper.writeValueAsBytes(detalladas).length;
+        int bytesResumen = objectMapper.writeValueAsBytes(resumenes).length;
+
+        assertThat(bytesResumen).isLessThan(bytesDetallado / 2);
+    }
+}
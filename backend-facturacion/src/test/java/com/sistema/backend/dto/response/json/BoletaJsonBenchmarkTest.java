@@ -0,0 +1,80 @@
+package com.sistema.backend.dto.response.json;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sistema.backend.controller.BoletaJsonWriter;
+import com.sistema.backend.dto.response.BoletaSummary;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark del listado de boletas: serialización reflexiva de Jackson contra los
+ * serializadores escritos a mano con el ObjectWriter precompilado, sobre 1.000 boletas.
+ * Ejecutar con: mvn -B test -Pbenchmark -Dtest=BoletaJsonBenchmarkTest
+ */
+@Tag("benchmark")
+class BoletaJsonBenchmarkTest {
+
+    private static final int BOLETAS = 1_000;
+    private static final int RONDAS = 5;
+    private static final long DURACION_RONDA_MS = 2_000;
+
+    @Test
+    void listadoDeMilBoletas() throws Exception {
+        List<BoletaSummary> listado = new ArrayList<>(BOLETAS);
+        LocalDateTime inicio = LocalDateTime.of(2025, 10, 1, 8, 0, 0, 123_456_000);
+        for (int i = 1; i <= BOLETAS; i++) {
+            listado.add(BoletaJsonSerializersTest.resumen(i, inicio.plusSeconds(i * 37L)));
+        }
+
+        // Antes: BeanSerializer por reflexión y writer resuelto en cada respuesta
+        ObjectMapper reflexivo = JsonMapper.builder()
+                .disable(MapperFeature.USE_ANNOTATIONS)
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        Escritura antes = salida -> reflexivo.writeValue(salida, listado);
+        // Ahora: el mismo camino que GET /api/boletas
+        BoletaJsonWriter writer = new BoletaJsonWriter(new ObjectMapper());
+        Escritura ahora = salida -> writer.escribirListado(listado, salida);
+
+        double mejorAntes = 0;
+        double mejorAhora = 0;
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            mejorAntes = Math.max(mejorAntes, listadosPorSegundo(antes));
+            mejorAhora = Math.max(mejorAhora, listadosPorSegundo(ahora));
+        }
+
+        System.out.printf("Listado %d boletas: reflexivo=%.0f/s, escrito a mano=%.0f/s (x%.2f)%n",
+                BOLETAS, mejorAntes, mejorAhora, mejorAhora / mejorAntes);
+        assertThat(mejorAhora).isGreaterThan(mejorAntes);
+    }
+
+    private static double listadosPorSegundo(Escritura escritura) throws IOException {
+        long fin = System.nanoTime() + DURACION_RONDA_MS * 1_000_000;
+        long listados = 0;
+        long inicio = System.nanoTime();
+        while (System.nanoTime() < fin) {
+            escritura.escribir(OutputStream.nullOutputStream());
+            listados++;
+        }
+        return listados * 1e9 / (System.nanoTime() - inicio);
+    }
+
+    @FunctionalInterface
+    private interface Escritura {
+        void escribir(OutputStream salida) throws IOException;
+    }
+}
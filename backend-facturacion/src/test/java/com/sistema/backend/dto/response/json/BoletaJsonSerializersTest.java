@@ -0,0 +1,91 @@
+package com.sistema.backend.dto.response.json;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sistema.backend.dto.response.BoletaDetailsResponse;
+import com.sistema.backend.dto.response.BoletaDetailsResponse.DetalleBoletaDTO;
+import com.sistema.backend.dto.response.BoletaDetailsResponse.UsuarioDTO;
+import com.sistema.backend.dto.response.BoletaSummary;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Los serializadores escritos a mano producen el mismo JSON que la serialización reflexiva
+ */
+class BoletaJsonSerializersTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Sin @JsonSerialize: el BeanSerializer reflexivo que se usaba antes
+    private final ObjectMapper reflexivo = JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build();
+
+    @Test
+    void fechaConElMismoTextoQueToString() throws Exception {
+        List<LocalDateTime> fechas = List.of(
+                LocalDateTime.of(2025, 10, 16, 22, 34, 34),
+                LocalDateTime.of(2025, 1, 2, 3, 4),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 0, 5),
+                LocalDateTime.of(2025, 12, 31, 23, 59, 59, 120_000_000),
+                LocalDateTime.of(2025, 12, 31, 23, 59, 0, 123_456_000),
+                LocalDateTime.of(2025, 12, 31, 23, 59, 1, 123_456_789),
+                LocalDateTime.of(33, 6, 7, 8, 9, 10),
+                LocalDateTime.of(12_345, 6, 7, 8, 9, 10));
+
+        for (LocalDateTime fecha : fechas) {
+            String json = objectMapper.writeValueAsString(resumen(1, fecha));
+            assertThat(objectMapper.readTree(json).get("fecha_creacion").asText()).isEqualTo(fecha.toString());
+        }
+    }
+
+    @Test
+    void resumenConLosCamposYElOrdenDelListado() throws Exception {
+        String json = objectMapper.writeValueAsString(List.of(
+                resumen(7, LocalDateTime.of(2025, 10, 16, 22, 34, 34, 500_000_000)),
+                new BoletaSummary(8, 1, null, null, null, null, null, null, "B001", 8)));
+
+        assertThat(json).isEqualTo("[{\"idBoleta\":7,\"numero\":\"B001-00000007\",\"idUsuario\":1,"
+                + "\"fecha_creacion\":\"2025-10-16T22:34:34.500\",\"total\":125.00,\"nombreCliente\":\"Cliente \\\"7\\\"\","
+                + "\"documentoCliente\":\"12345678\",\"cantidadItems\":5,\"unidadesTotales\":10},"
+                + "{\"idBoleta\":8,\"numero\":\"B001-00000008\",\"idUsuario\":1,\"fecha_creacion\":null,\"total\":null,"
+                + "\"nombreCliente\":null,\"documentoCliente\":null,\"cantidadItems\":null,\"unidadesTotales\":null}]");
+    }
+
+    @Test
+    void detalladaIgualQueLaSerializacionReflexiva() throws Exception {
+        List<DetalleBoletaDTO> detalles = new ArrayList<>(Arrays.asList(
+                DetalleBoletaDTO.builder().idDetalle(1).idProducto(3).producto("Café ñandú")
+                        .precio_unitario(new BigDecimal("12.50")).cantidad(2).subtotal(new BigDecimal("25.00")).build(),
+                DetalleBoletaDTO.builder().idDetalle(2).producto("Sin producto").build(),
+                null));
+        BoletaDetailsResponse completa = BoletaDetailsResponse.builder()
+                .idBoleta(1)
+                .numero("B001-00000001")
+                .idUsuario(4)
+                .fecha_creacion(LocalDateTime.of(2025, 10, 16, 22, 34).toString())
+                .total(new BigDecimal("1E+3"))
+                .nombreCliente("Cliente")
+                .emailCliente("cliente@correo.com")
+                .detalles(detalles)
+                .usuarioVendedor(UsuarioDTO.builder().id(4).nombres("Paulo").apellidos("Vendedor")
+                        .numero_documento("87654321").build())
+                .build();
+        BoletaDetailsResponse vacia = new BoletaDetailsResponse();
+
+        for (BoletaDetailsResponse boleta : List.of(completa, vacia)) {
+            assertThat(objectMapper.writeValueAsString(boleta)).isEqualTo(reflexivo.writeValueAsString(boleta));
+        }
+        assertThat(objectMapper.writeValueAsString(detalles)).isEqualTo(reflexivo.writeValueAsString(detalles));
+    }
+
+    static BoletaSummary resumen(int id, LocalDateTime fecha) {
+        return new BoletaSummary(id, 1, fecha, new BigDecimal("125.00"), "Cliente \"" + id + "\"", "12345678",
+                5, 10, "B001", id);
+    }
+}
@@ -0,0 +1,105 @@
+package com.sistema.backend.exception;
+
+import com.sistema.backend.dto.response.MessageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Traducción de excepciones a respuestas HTTP
+ */
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void recursoNoEncontradoEs404SinTraza() {
+        RecursoNoEncontradoException e = RecursoNoEncontradoException.boleta();
+
+        ResponseEntity<MessageResponse> respuesta = handler.noEncontrado(e);
+
+        assertThat(e.getStackTrace()).isEmpty();
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(respuesta.getBody().getMessage()).isEqualTo("Boleta no encontrada");
+    }
+
+    @Test
+    void solicitudInvalidaEs400ConSuMensaje() {
+        ResponseEntity<MessageResponse> respuesta = handler.solicitudInvalida(
+                new SolicitudInvalidaException("El rango no puede superar 366 días"));
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(respuesta.getBody().getMessage()).isEqualTo("El rango no puede superar 366 días");
+    }
+
+    @Test
+    void illegalArgumentExceptionNoEsErrorDelCliente() {
+        ExceptionHandlerMethodResolver resolver = new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
+        assertThat(resolver.resolveMethodByThrowable(new IllegalArgumentException("Serie inválida")).getName())
+                .isEqualTo("inesperado");
+        assertThat(resolver.resolveMethodByThrowable(new SolicitudInvalidaException("Producto no encontrado")).getName())
+                .isEqualTo("solicitudInvalida");
+    }
+
+    @Test
+    void conservaElEstadoDeLasExcepcionesDeSpringMvc() {
+        ResponseEntity<MessageResponse> respuesta = handler.inesperado(
+                new HttpRequestMethodNotSupportedException("DELETE", List.of(HttpMethod.GET.name())));
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.METHOD_NOT_ALLOWED);
+    }
+
+    @Test
+    void jsonMalFormadoEs400() {
+        ResponseEntity<MessageResponse> respuesta = handler.cuerpoIlegible(
+                new HttpMessageNotReadableException("JSON parse error", mock(HttpInputMessage.class)));
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(respuesta.getBody().getMessage()).doesNotContain("parse");
+    }
+
+    @Test
+    void idConTipoInvalidoEs400() throws Exception {
+        MethodParameter parametro = new MethodParameter(
+                GlobalExceptionHandlerTest.class.getDeclaredMethod("conId", Integer.class), 0);
+
+        ResponseEntity<MessageResponse> respuesta = handler.tipoInvalido(new MethodArgumentTypeMismatchException(
+                "abc", Integer.class, "id", parametro, new NumberFormatException("abc")));
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(respuesta.getBody().getMessage()).isEqualTo("Valor inválido para id: abc");
+    }
+
+    @Test
+    void respuestaYaEnviadaSeRelanzaParaAbortarLaConexion() {
+        RespuestaInterrumpidaException e = new RespuestaInterrumpidaException("PDF de boleta 5 interrumpido");
+
+        assertThatThrownBy(() -> handler.interrumpida(e)).isSameAs(e);
+    }
+
+    @Test
+    void errorInesperadoEs500SinDetalleInterno() {
+        ResponseEntity<MessageResponse> respuesta = handler.inesperado(new IllegalStateException("conexión caída"));
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(respuesta.getBody().getMessage()).doesNotContain("conexión");
+    }
+
+    @SuppressWarnings("unused")
+    private void conId(Integer id) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.sistema.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.backend.repository.TokenRevocadoRepository;
+import com.sistema.backend.service.notificacion.NotificacionesPostgres;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Denylist de tokens: revocación local tras el commit y recibida de otros nodos
+ */
+class ListaRevocacionTest {
+
+    private final TokenRevocadoRepository repositorio = mock(TokenRevocadoRepository.class);
+    private final NotificacionesPostgres notificaciones = mock(NotificacionesPostgres.class);
+    private ListaRevocacion lista;
+    private Consumer<String> alNotificar;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void crearLista() {
+        lista = new ListaRevocacion(repositorio, notificaciones, new ObjectMapper(), new SimpleMeterRegistry());
+        lista.iniciar();
+        ArgumentCaptor<Consumer<String>> manejador = ArgumentCaptor.forClass(Consumer.class);
+        verify(notificaciones).suscribir(eq(ListaRevocacion.CANAL), manejador.capture());
+        alNotificar = manejador.getValue();
+    }
+
+    @Test
+    void revocaTrasElCommitYLoDifunde() {
+        UUID jti = UUID.randomUUID();
+        Instant expira = Instant.now().plusSeconds(600);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lista.revocar(jti, expira);
+            assertThat(lista.estaRevocado(jti.toString())).isFalse();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(lista.estaRevocado(jti.toString())).isTrue();
+        verify(repositorio).insertar(jti, expira);
+        verify(notificaciones).notificar(eq(ListaRevocacion.CANAL), anyString());
+    }
+
+    @Test
+    void aplicaRevocacionesDeOtrosNodosYRechazaTokensSinJti() {
+        UUID jti = UUID.randomUUID();
+        alNotificar.accept("{\"jti\":\"" + jti + "\",\"expira\":" + (System.currentTimeMillis() + 60_000) + "}");
+
+        assertThat(lista.estaRevocado(jti.toString())).isTrue();
+        assertThat(lista.estaRevocado(UUID.randomUUID().toString())).isFalse();
+        assertThat(lista.estaRevocado(null)).isTrue();
+        assertThat(lista.estaRevocado("no-es-uuid")).isTrue();
+    }
+}
@@ -0,0 +1,63 @@
+package com.sistema.backend.security;
+
+import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.service.UsuarioService;
+import com.sistema.backend.service.invalidacion.BusInvalidacion;
+import com.sistema.backend.service.invalidacion.RegionInvalidable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Una consulta por usuario y recarga solo al invalidar la región "usuarios" (sin base de datos)
+ */
+class VersionesTokenTest {
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final BusInvalidacion busInvalidacion = mock(BusInvalidacion.class);
+    private VersionesToken versionesToken;
+    private RegionInvalidable region;
+
+    @BeforeEach
+    void crear() {
+        versionesToken = new VersionesToken(usuarioRepository, busInvalidacion, new SimpleMeterRegistry(), 100);
+        versionesToken.registrarCache();
+        ArgumentCaptor<RegionInvalidable> captor = ArgumentCaptor.forClass(RegionInvalidable.class);
+        verify(busInvalidacion).registrar(eq(UsuarioService.REGION_CACHE), captor.capture());
+        region = captor.getValue();
+    }
+
+    @Test
+    void consultaLaVersionUnaSolaVezHastaQueSeInvalida() {
+        when(usuarioRepository.findTokenVersion(5)).thenReturn(Optional.of(0)).thenReturn(Optional.of(1));
+
+        assertThat(versionesToken.esVigente(5, 0)).isTrue();
+        assertThat(versionesToken.esVigente(5, 0)).isTrue();
+        verify(usuarioRepository, times(1)).findTokenVersion(5);
+
+        // Cerrar todas las sesiones sube la versión e invalida la entrada
+        region.invalidar(Set.of("5"));
+        assertThat(versionesToken.esVigente(5, 0)).isFalse();
+        assertThat(versionesToken.esVigente(5, 1)).isTrue();
+        verify(usuarioRepository, times(2)).findTokenVersion(5);
+    }
+
+    @Test
+    void sinVersionOUsuarioInexistenteNoEsVigente() {
+        when(usuarioRepository.findTokenVersion(9)).thenReturn(Optional.empty());
+
+        assertThat(versionesToken.esVigente(9, 0)).isFalse();
+        assertThat(versionesToken.esVigente(9, null)).isFalse();
+    }
+}
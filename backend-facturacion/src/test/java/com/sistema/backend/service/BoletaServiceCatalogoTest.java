@@ -0,0 +1,213 @@
+package com.sistema.backend.service;
+
+import com.sistema.backend.config.datasource.ReadYourWritesTracker;
+import com.sistema.backend.dto.request.BoletaRequest;
+import com.sistema.backend.dto.request.DetalleRequest;
+import com.sistema.backend.dto.response.BoletaResponse;
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.DetalleBoleta;
+import com.sistema.backend.entity.Producto;
+import com.sistema.backend.repository.BoletaRepository;
+import com.sistema.backend.repository.DetalleBoletaRepository;
+import com.sistema.backend.repository.ProductoRepository;
+import com.sistema.backend.service.catalogo.CatalogoService;
+import com.sistema.backend.service.catalogo.CatalogoSnapshot;
+import com.sistema.backend.service.catalogo.ProductoCatalogo;
+import com.sistema.backend.service.feed.BoletaFeedService;
+import com.sistema.backend.service.numeracion.NumeracionService;
+import com.sistema.backend.service.outbox.OutboxService;
+import com.sistema.backend.service.stock.StockInsuficienteException;
+import com.sistema.backend.service.stock.StockService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Checkout contra la instantánea del catálogo: precios del servidor, sin consultas por línea
+ */
+class BoletaServiceCatalogoTest {
+
+    private final BoletaRepository boletaRepository = mock(BoletaRepository.class);
+    private final DetalleBoletaRepository detalleRepository = mock(DetalleBoletaRepository.class);
+    private final ProductoRepository productoRepository = mock(ProductoRepository.class);
+    private final CatalogoService catalogoService = mock(CatalogoService.class);
+    private final StockService stockService = mock(StockService.class);
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private BoletaService servicio;
+
+    @BeforeEach
+    void crearServicio() {
+        servicio = new BoletaService(boletaRepository, detalleRepository, mock(ReadYourWritesTracker.class),
+                entityManagerFactory, mock(OutboxService.class), catalogoService, productoRepository, stockService,
+                mock(NumeracionService.class), mock(BoletaFeedService.class));
+
+        when(catalogoService.snapshot()).thenReturn(new CatalogoSnapshot(1, List.of(
+                new ProductoCatalogo(1, "P-001", "Arroz 1kg", new BigDecimal("4.50"), true, false),
+                new ProductoCatalogo(2, "P-002", "Aceite 1L", new BigDecimal("9.90"), true, true),
+                new ProductoCatalogo(3, "P-003", "Descontinuado", new BigDecimal("1.00"), false, false)),
+                LocalDateTime.now()));
+        when(boletaRepository.save(any(Boleta.class))).thenAnswer(inv -> {
+            Boleta boleta = inv.getArgument(0);
+            boleta.setIdBoleta(100);
+            return boleta;
+        });
+        when(productoRepository.getReferenceById(anyInt())).thenAnswer(inv -> {
+            Producto producto = new Producto();
+            producto.setIdProducto(inv.getArgument(0));
+            return producto;
+        });
+    }
+
+    @Test
+    void usaPreciosDelCatalogoYReferenciaPorId() {
+        BoletaResponse respuesta = servicio.procesarBoleta(request(new BigDecimal("18.90"),
+                linea(1, null, 2), linea(2, new BigDecimal("9.90"), 1)), 7);
+
+        assertThat(respuesta.isSuccess()).isTrue();
+        ArgumentCaptor<Boleta> boleta = ArgumentCaptor.forClass(Boleta.class);
+        verify(boletaRepository).save(boleta.capture());
+        assertThat(boleta.getValue().getTotal()).isEqualByComparingTo("18.90");
+
+        ArgumentCaptor<DetalleBoleta> detalles = ArgumentCaptor.forClass(DetalleBoleta.class);
+        verify(detalleRepository, times(2)).save(detalles.capture());
+        assertThat(detalles.getAllValues()).extracting(DetalleBoleta::getIdProducto).containsExactly(1, 2);
+        // Nombre de la venta guardado en la línea: un renombre posterior no la cambia
+        assertThat(detalles.getAllValues()).extracting(DetalleBoleta::getProducto)
+                .containsExactly("Arroz 1kg", "Aceite 1L");
+        assertThat(detalles.getAllValues()).extracting(DetalleBoleta::getSubtotal)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("9.00"), new BigDecimal("9.90"));
+        verify(productoRepository, never()).findById(any());
+        verify(productoRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void rechazaPrecioDistintoAlDelCatalogo() {
+        BoletaResponse respuesta = servicio.procesarBoleta(request(new BigDecimal("3.00"),
+                linea(1, new BigDecimal("3.00"), 1)), 7);
+
+        assertThat(respuesta.isSuccess()).isFalse();
+        assertThat(respuesta.getMensaje()).contains("Arroz 1kg");
+        verify(boletaRepository, never()).save(any());
+    }
+
+    @Test
+    void rechazaProductoInactivoOInexistente() {
+        assertThat(servicio.procesarBoleta(request(BigDecimal.ONE, linea(3, null, 1)), 7).isSuccess()).isFalse();
+        assertThat(servicio.procesarBoleta(request(BigDecimal.ONE, linea(99, null, 1)), 7).isSuccess()).isFalse();
+        verify(boletaRepository, never()).save(any());
+    }
+
+    @Test
+    void rechazaLineasLibresPorDefecto() {
+        DetalleRequest libre = new DetalleRequest(null, "Servicio de delivery", new BigDecimal("5.00"), 1);
+
+        assertThat(servicio.procesarBoleta(request(new BigDecimal("5.00"), libre), 7).isSuccess()).isFalse();
+        verify(boletaRepository, never()).save(any());
+    }
+
+    @Test
+    void lineaLibreConNombreDelCatalogoSeRechaza() {
+        ReflectionTestUtils.setField(servicio, "permitirLineasLibres", true);
+        DetalleRequest libre = new DetalleRequest(null, " arroz 1KG", new BigDecimal("0.10"), 1);
+
+        BoletaResponse respuesta = servicio.procesarBoleta(request(new BigDecimal("0.10"), libre), 7);
+
+        assertThat(respuesta.isSuccess()).isFalse();
+        assertThat(respuesta.getMensaje()).contains("Arroz 1kg");
+        verify(boletaRepository, never()).save(any());
+    }
+
+    @Test
+    void aceptaLineasLibresSinCatalogo() {
+        ReflectionTestUtils.setField(servicio, "permitirLineasLibres", true);
+        DetalleRequest libre = new DetalleRequest(null, "Servicio de delivery", new BigDecimal("5.00"), 1);
+
+        assertThat(servicio.procesarBoleta(request(new BigDecimal("5.00"), libre), 7).isSuccess()).isTrue();
+
+        ArgumentCaptor<DetalleBoleta> detalle = ArgumentCaptor.forClass(DetalleBoleta.class);
+        verify(detalleRepository).save(detalle.capture());
+        assertThat(detalle.getValue().getIdProducto()).isNull();
+        assertThat(detalle.getValue().getProducto()).isEqualTo("Servicio de delivery");
+    }
+
+    @Test
+    void descuentaStockSumandoLineasDelMismoProducto() {
+        BoletaResponse respuesta = servicio.procesarBoleta(request(new BigDecimal("34.20"),
+                linea(2, null, 2), linea(1, null, 1), linea(2, null, 1)), 7);
+
+        assertThat(respuesta.isSuccess()).isTrue();
+        // El producto 1 no controla stock
+        verify(stockService).descontar(Map.of(2, 3));
+    }
+
+    @Test
+    void rechazaCarritoSinStock() {
+        doThrow(new StockInsuficienteException(2)).when(stockService).descontar(any());
+
+        BoletaResponse respuesta = servicio.procesarBoleta(request(new BigDecimal("9.90"), linea(2, null, 1)), 7);
+
+        assertThat(respuesta.isSuccess()).isFalse();
+        assertThat(respuesta.getMensaje()).contains("Stock insuficiente");
+    }
+
+    @Test
+    void segundaLecturaDesdeCacheInicializaElProductoDeCatalogo() {
+        Producto proxy = mock(Producto.class, withSettings().extraInterfaces(HibernateProxy.class));
+        LazyInitializer inicializador = mock(LazyInitializer.class);
+        when(((HibernateProxy) proxy).asHibernateProxy()).thenReturn((HibernateProxy) proxy);
+        when(((HibernateProxy) proxy).getHibernateLazyInitializer()).thenReturn(inicializador);
+        Boleta boleta = new Boleta();
+        boleta.setIdBoleta(100);
+        boleta.setIdUsuario(7);
+        DetalleBoleta detalle = new DetalleBoleta();
+        detalle.setProductoCatalogo(proxy);
+        boleta.agregarDetalle(detalle);
+
+        Cache cache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.contains(Boleta.class, 100)).thenReturn(false, true);
+        when(boletaRepository.findDetalladaByIdBoletaAndIdUsuario(100, 7)).thenReturn(Optional.of(boleta));
+        when(boletaRepository.findById(100)).thenReturn(Optional.of(boleta));
+
+        // Primera lectura: entity graph (con el producto); segunda: caché L2
+        assertThat(servicio.getBoletaDetalladaByIdAndUser(100, 7)).isPresent();
+        verify(inicializador, never()).initialize();
+        assertThat(servicio.getBoletaDetalladaByIdAndUser(100, 7)).isPresent();
+        verify(inicializador).initialize();
+    }
+
+    private DetalleRequest linea(Integer idProducto, BigDecimal precio, int cantidad) {
+        return new DetalleRequest(idProducto, null, precio, cantidad);
+    }
+
+    private BoletaRequest request(BigDecimal total, DetalleRequest... lineas) {
+        BoletaRequest request = new BoletaRequest();
+        request.setCartItems(List.of(lineas));
+        request.setTotal(total);
+        request.setNombreCliente("Cliente Final");
+        return request;
+    }
+}
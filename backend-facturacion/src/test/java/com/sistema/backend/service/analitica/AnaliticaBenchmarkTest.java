@@ -0,0 +1,95 @@
+package com.sistema.backend.service.analitica;
+
+import com.sistema.backend.service.analitica.VentasColumnares.LineaVenta;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de la proyección columnar: memoria por línea y latencia de las consultas.
+ * Ejecutar con: mvn -B test -Pbenchmark -Dtest=AnaliticaBenchmarkTest
+ */
+@Tag("benchmark")
+class AnaliticaBenchmarkTest {
+
+    private static final int LINEAS = 5_000_000;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void memoriaYLatenciaConCincoMillonesDeLineas() {
+        Runtime runtime = Runtime.getRuntime();
+        long antes = memoriaUsada(runtime);
+
+        VentasColumnares ventas = new VentasColumnares();
+        SplittableRandom random = new SplittableRandom(42);
+        List<LineaVenta> lote = new ArrayList<>(10_000);
+        long inicioCarga = System.nanoTime();
+        for (int i = 0; i < LINEAS; i++) {
+            int idBoleta = i / 3 + 1; // ~3 líneas por boleta
+            int producto = (int) Math.abs(random.nextGaussian() * 400) % 2_000 + 1;
+            if (lote.size() >= 10_000 && lote.get(lote.size() - 1).idBoleta() != idBoleta) {
+                ventas.agregar(lote);
+                lote.clear();
+            }
+            lote.add(new LineaVenta(idBoleta, INICIO.plusSeconds(idBoleta * 19L), random.nextInt(1, 51),
+                    producto, "Producto " + producto, random.nextInt(1, 6), random.nextLong(100, 10_000)));
+        }
+        ventas.agregar(lote);
+        lote.clear();
+        long cargaMs = (System.nanoTime() - inicioCarga) / 1_000_000;
+        long despues = memoriaUsada(runtime);
+        assertThat(ventas.filas()).isEqualTo(LINEAS);
+
+        LocalDateTime desde = INICIO;
+        LocalDateTime hasta = INICIO.plusDays(92);
+        System.out.printf("Analítica %d líneas (%d productos), carga %d ms%n", ventas.filas(), ventas.productos(), cargaMs);
+        System.out.printf("  Memoria: columnas %.1f MB (capacidad; %.1f bytes/línea), heap medido %.1f MB%n",
+                ventas.bytes() / 1e6, ventas.bytes() / (double) LINEAS, (despues - antes) / 1e6);
+
+        // Comparación: el mismo dato como objetos (1M filas, extrapolado)
+        long antesObjetos = memoriaUsada(runtime);
+        List<LineaVenta> objetos = new ArrayList<>(1_000_000);
+        for (int i = 0; i < 1_000_000; i++) {
+            objetos.add(new LineaVenta(i / 3 + 1, INICIO.plusSeconds(i * 7L), i % 50, i % 2_000 + 1000,
+                    "Producto " + (i % 2_000), 1, i));
+        }
+        double bytesObjeto = (memoriaUsada(runtime) - antesObjetos) / 1e6;
+        System.out.printf("  Como List<LineaVenta>: %.1f bytes/línea (~%.0f MB para %d líneas)%n",
+                bytesObjeto, bytesObjeto * LINEAS / 1e6, LINEAS);
+        assertThat(objetos).hasSize(1_000_000);
+        objetos = null;
+
+        medir("top productos (92 días)", () -> ventas.porProducto(desde, hasta));
+        medir("ranking vendedores (92 días)", () -> ventas.porUsuario(desde, hasta));
+        medir("curva por hora (92 días)", () -> ventas.porHora(desde, hasta));
+        medir("curva por hora (1 día)", () -> ventas.porHora(desde.plusDays(30), desde.plusDays(31)));
+    }
+
+    private void medir(String consulta, Supplier<?> ejecucion) {
+        for (int i = 0; i < 20; i++) {
+            ejecucion.get(); // Calentamiento del JIT
+        }
+        long[] tiempos = new long[30];
+        for (int i = 0; i < tiempos.length; i++) {
+            long inicio = System.nanoTime();
+            ejecucion.get();
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        System.out.printf("  %-30s p50 %6.2f ms  p90 %6.2f ms%n", consulta,
+                tiempos[tiempos.length / 2] / 1e6, tiempos[tiempos.length * 9 / 10] / 1e6);
+    }
+
+    private static long memoriaUsada(Runtime runtime) {
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
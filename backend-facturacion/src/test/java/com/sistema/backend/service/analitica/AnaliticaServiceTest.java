@@ -0,0 +1,66 @@
+package com.sistema.backend.service.analitica;
+
+import com.sistema.backend.repository.AnaliticaRepository;
+import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.service.analitica.VentasColumnares.LineaVenta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Carga por rangos de id con reintento, y sin datos parciales antes de terminar (sin base de datos)
+ */
+class AnaliticaServiceTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2025, 10, 16, 0, 0);
+
+    private final AnaliticaRepository analiticaRepository = mock(AnaliticaRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AnaliticaService servicio;
+
+    AnaliticaServiceTest() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        servicio = new AnaliticaService(analiticaRepository, mock(UsuarioRepository.class), transactionManager,
+                new SimpleMeterRegistry(), true, 2, 1, 92);
+    }
+
+    @Test
+    void reintentaDesdeElUltimoRangoYSoloRespondeAlTerminar() {
+        when(analiticaRepository.lineasPosteriores(0, 2)).thenReturn(List.of(linea(1), linea(1), linea(2)));
+        when(analiticaRepository.lineasPosteriores(2, 2))
+                .thenThrow(new DataAccessResourceFailureException("réplica caída"))
+                .thenReturn(List.of(linea(3)));
+        when(analiticaRepository.lineasPosteriores(3, 2)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> servicio.topProductos(DIA, DIA.plusDays(1), 10, true))
+                .isInstanceOf(AnaliticaNoCargadaException.class);
+
+        servicio.cargar();
+
+        assertThat(servicio.estado()).isEqualTo(new EstadoAnalitica(true, 4, 1, servicio.estado().bytes()));
+        // Una transacción por rango (el fallido incluido); el primer rango no se relee
+        verify(analiticaRepository, times(1)).lineasPosteriores(0, 2);
+        verify(analiticaRepository, times(2)).lineasPosteriores(2, 2);
+        verify(transactionManager, times(4)).getTransaction(any());
+        assertThat(servicio.topProductos(DIA, DIA.plusDays(1), 10, true))
+                .singleElement()
+                .satisfies(p -> assertThat(p.unidades()).isEqualTo(4));
+    }
+
+    private static LineaVenta linea(int idBoleta) {
+        return new LineaVenta(idBoleta, DIA.plusHours(idBoleta), 7, 1, "Arroz 1kg", 1, 450);
+    }
+}
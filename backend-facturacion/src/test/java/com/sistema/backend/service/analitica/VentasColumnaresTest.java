@@ -0,0 +1,74 @@
+package com.sistema.backend.service.analitica;
+
+import com.sistema.backend.service.analitica.VentasColumnares.LineaVenta;
+import com.sistema.backend.service.analitica.VentasColumnares.Totales;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Agregaciones de la proyección columnar
+ */
+class VentasColumnaresTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2025, 10, 16, 0, 0);
+
+    @Test
+    void agrupaPorProductoYVendedorDentroDelRango() {
+        VentasColumnares ventas = new VentasColumnares();
+        ventas.agregar(List.of(
+                new LineaVenta(1, DIA.plusHours(9), 7, 1, "Arroz 1kg", 2, 900),
+                new LineaVenta(1, DIA.plusHours(9), 7, null, "Delivery", 1, 500),
+                new LineaVenta(2, DIA.plusHours(10), 8, 1, "Arroz 1kg", 3, 1350),
+                new LineaVenta(3, DIA.plusDays(2), 8, 1, "Arroz 1kg", 5, 2250)));
+
+        List<Totales> productos = ventas.porProducto(DIA, DIA.plusDays(1));
+        assertThat(productos).hasSize(2);
+        Totales arroz = productos.get(0);
+        assertThat(ventas.idProducto(arroz.clave())).isEqualTo(1);
+        assertThat(arroz.unidades()).isEqualTo(5);
+        assertThat(arroz.centimos()).isEqualTo(2250);
+        assertThat(ventas.idProducto(productos.get(1).clave())).isNull();
+        assertThat(ventas.nombreProducto(productos.get(1).clave())).isEqualTo("Delivery");
+
+        assertThat(ventas.porUsuario(DIA, DIA.plusDays(1)))
+                .extracting(Totales::clave, Totales::centimos)
+                .containsExactly(tuple(7, 1400L), tuple(8, 1350L));
+    }
+
+    @Test
+    void curvaPorHoraIncluyeHorasSinVentas() {
+        VentasColumnares ventas = new VentasColumnares();
+        ventas.agregar(List.of(
+                new LineaVenta(1, DIA.plusHours(9).plusMinutes(59), 7, 1, "Arroz", 1, 100),
+                new LineaVenta(2, DIA.plusHours(11), 7, 1, "Arroz", 2, 200)));
+
+        List<Totales> horas = ventas.porHora(DIA.plusHours(9).plusMinutes(30), DIA.plusHours(12));
+
+        assertThat(horas).extracting(Totales::unidades).containsExactly(1L, 0L, 2L);
+    }
+
+    @Test
+    void ignoraBoletasRepetidasYCreceSobreLaCapacidadInicial() {
+        VentasColumnares ventas = new VentasColumnares();
+        List<LineaVenta> lineas = new ArrayList<>();
+        for (int i = 1; i <= 50_000; i++) {
+            lineas.add(new LineaVenta(i, DIA.plusSeconds(i), i % 5, i % 300, "P" + (i % 300), 1, 100));
+        }
+        assertThat(ventas.agregar(lineas)).isEqualTo(50_000);
+
+        // Carga inicial y evento de la misma boleta: no se duplica
+        assertThat(ventas.agregar(lineas.subList(0, 10))).isZero();
+        assertThat(ventas.contiene(10)).isTrue();
+
+        assertThat(ventas.filas()).isEqualTo(50_000);
+        assertThat(ventas.productos()).isEqualTo(300);
+        assertThat(ventas.porProducto(DIA, DIA.plusDays(1)).stream().mapToLong(Totales::unidades).sum())
+                .isEqualTo(50_000);
+    }
+}
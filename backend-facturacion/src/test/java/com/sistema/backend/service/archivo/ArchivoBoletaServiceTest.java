@@ -0,0 +1,114 @@
+package com.sistema.backend.service.archivo;
+
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.repository.BoletaRepository;
+import com.sistema.backend.service.pdf.BoletaPdfRenderer;
+import com.sistema.backend.service.pdf.BoletaPdfService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Paginación por id en transacciones cortas y render fuera de ellas (sin base de datos)
+ */
+class ArchivoBoletaServiceTest {
+
+    private final BoletaRepository boletaRepository = mock(BoletaRepository.class);
+    private final BoletaPdfRenderer renderer = mock(BoletaPdfRenderer.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AtomicBoolean enTransaccion = new AtomicBoolean();
+    private ArchivoBoletaService servicio;
+
+    @TempDir
+    Path directorio;
+
+    @AfterEach
+    void detener() {
+        servicio.detener();
+    }
+
+    @Test
+    void recorrePaginasDeIdsYRenderizaSinConexionTomada() throws Exception {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> {
+            enTransaccion.set(true);
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(inv -> {
+            enTransaccion.set(false);
+            return null;
+        }).when(transactionManager).commit(any());
+
+        when(boletaRepository.findIdsByUsuarioAndRango(eq(7), any(), any(), eq(0), eq(Limit.of(2))))
+                .thenReturn(List.of(1, 2));
+        when(boletaRepository.findIdsByUsuarioAndRango(eq(7), any(), any(), eq(2), eq(Limit.of(2))))
+                .thenReturn(List.of(5));
+        when(boletaRepository.findParaArchivoByIdBoletaIn(anyCollection())).thenAnswer(inv -> {
+            List<Boleta> boletas = new ArrayList<>();
+            for (Integer id : inv.<List<Integer>>getArgument(0)) {
+                boletas.add(0, boleta(id)); // Orden arbitrario: el servicio ordena por id
+            }
+            return boletas;
+        });
+
+        List<Boolean> renderEnTransaccion = new ArrayList<>();
+        doAnswer(inv -> {
+            synchronized (renderEnTransaccion) {
+                renderEnTransaccion.add(enTransaccion.get());
+            }
+            inv.<OutputStream>getArgument(1).write(new byte[] {'%', 'P', 'D', 'F'});
+            return null;
+        }).when(renderer).renderizar(any(), any());
+
+        servicio = new ArchivoBoletaService(boletaRepository, renderer, mock(BoletaPdfService.class),
+                transactionManager, directorio.toString(), 2, 2, 1, 5, 24);
+        ArchivoJob job = servicio.crearTrabajo(7, LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31));
+        long limite = System.currentTimeMillis() + 10_000;
+        while (!job.isTerminado() && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+
+        assertThat(job.getEstado()).isEqualTo(ArchivoJob.Estado.COMPLETADO);
+        assertThat(entradas(job.getArchivo()))
+                .containsExactly("boleta-00000001.pdf", "boleta-00000002.pdf", "boleta-00000005.pdf");
+        // Conteo + dos páginas; la segunda vino incompleta, no hay tercera consulta
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(boletaRepository, times(2)).findIdsByUsuarioAndRango(eq(7), any(), any(), any(), any());
+        assertThat(renderEnTransaccion).hasSize(3).containsOnly(false);
+    }
+
+    private static Boleta boleta(int id) {
+        Boleta boleta = new Boleta();
+        boleta.setIdBoleta(id);
+        boleta.setIdUsuario(7);
+        return boleta;
+    }
+
+    private static List<String> entradas(Path zip) throws IOException {
+        try (ZipFile archivo = new ZipFile(zip.toFile())) {
+            return archivo.stream().map(ZipEntry::getName).toList();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.sistema.backend.service.correo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.CorreoBoleta;
+import com.sistema.backend.entity.CorreoBoletaFallido;
+import com.sistema.backend.entity.DetalleBoleta;
+import com.sistema.backend.repository.BoletaRepository;
+import com.sistema.backend.repository.CorreoBoletaFallidoRepository;
+import com.sistema.backend.repository.CorreoBoletaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Envío por lotes contra un servidor SMTP en memoria (GreenMail)
+ */
+class CorreoBoletaServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final CorreoBoletaRepository correoRepository = mock(CorreoBoletaRepository.class);
+    private final CorreoBoletaFallidoRepository fallidoRepository = mock(CorreoBoletaFallidoRepository.class);
+    private final BoletaRepository boletaRepository = mock(BoletaRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private CorreoBoletaService servicio;
+
+    @BeforeEach
+    void crearServicio() {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(smtp.getSmtp().getPort());
+        sender.setDefaultEncoding("UTF-8");
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("mailSender", sender);
+
+        servicio = new CorreoBoletaService(correoRepository, fallidoRepository, boletaRepository,
+                new CorreoBoletaRenderer(), beans.getBeanProvider(JavaMailSender.class),
+                transactionManager, new SimpleMeterRegistry(),
+                false, "ventas@sistema.local", 100, 50, 1, 3, 1_000, 60_000, 60_000, 1_048_576);
+    }
+
+    @Test
+    void enviaElLoteYMarcaEnviados() throws Exception {
+        List<Integer> ids = List.of(1, 2, 3);
+        when(correoRepository.reclamar(anyCollection(), any())).thenReturn(
+                List.of(correo(1, "a@cliente.pe"), correo(2, "b@cliente.pe"), correo(3, "c@cliente.pe")));
+        when(boletaRepository.findDetalladasByIdBoletaIn(anyCollection())).thenReturn(
+                List.of(boleta(1, "a@cliente.pe"), boleta(2, "b@cliente.pe"), boleta(3, "c@cliente.pe")));
+
+        servicio.procesarLote(ids);
+
+        MimeMessage[] recibidos = smtp.getReceivedMessages();
+        assertThat(recibidos).hasSize(3);
+        assertThat(recibidos[0].getSubject()).startsWith("Boleta de venta N° 0000000");
+        assertThat(GreenMailUtil.getBody(recibidos[0])).contains("&amp; Cia", "TOTAL: S/ 75.00");
+        verify(correoRepository).marcarEnviados(eq(ids), any());
+    }
+
+    @Test
+    void reintentoUsaElCuerpoEnCache() {
+        when(correoRepository.reclamar(anyCollection(), any())).thenReturn(List.of(correo(1, "a@cliente.pe")));
+        when(boletaRepository.findDetalladasByIdBoletaIn(anyCollection())).thenReturn(List.of(boleta(1, "a@cliente.pe")));
+
+        servicio.procesarLote(List.of(1));
+        servicio.procesarLote(List.of(1));
+
+        assertThat(smtp.getReceivedMessages()).hasSize(2);
+        verify(boletaRepository, times(1)).findDetalladasByIdBoletaIn(anyCollection());
+    }
+
+    @Test
+    void cuerpoDesalojadoTrasReclamarSeEnviaIgual() {
+        when(correoRepository.reclamar(anyCollection(), any())).thenReturn(List.of(correo(1, "a@cliente.pe")));
+        when(boletaRepository.findDetalladasByIdBoletaIn(anyCollection())).thenReturn(List.of(boleta(1, "a@cliente.pe")));
+        servicio.procesarLote(List.of(1));
+
+        // La caché desaloja el cuerpo justo después de la transacción del reclamo
+        Cache<?, ?> cache = (Cache<?, ?>) ReflectionTestUtils.getField(servicio, "cacheCuerpos");
+        doAnswer(invocacion -> {
+            cache.invalidateAll();
+            return null;
+        }).when(transactionManager).commit(any());
+        servicio.procesarLote(List.of(1));
+
+        assertThat(smtp.getReceivedMessages()).hasSize(2);
+        verify(correoRepository, times(2)).marcarEnviados(eq(List.of(1)), any());
+        verify(correoRepository, never()).registrarFallo(any(), any(), any(), any());
+    }
+
+    @Test
+    void direccionInvalidaVaDirectoAFallidos() {
+        when(correoRepository.reclamar(anyCollection(), any())).thenReturn(
+                List.of(correo(1, "no es un correo"), correo(2, "b@cliente.pe")));
+        when(boletaRepository.findDetalladasByIdBoletaIn(anyCollection())).thenReturn(
+                List.of(boleta(1, "no es un correo"), boleta(2, "b@cliente.pe")));
+
+        servicio.procesarLote(List.of(1, 2));
+
+        assertThat(smtp.getReceivedMessages()).hasSize(1);
+        verify(correoRepository).marcarEnviados(eq(List.of(2)), any());
+        verify(correoRepository).registrarFallo(eq(1), eq(CorreoBoleta.Estado.FALLIDO), any(), isNull());
+        verify(fallidoRepository).save(any(CorreoBoletaFallido.class));
+    }
+
+    @Test
+    void servidorCaidoProgramaReintento() {
+        smtp.stop();
+        when(correoRepository.reclamar(anyCollection(), any())).thenReturn(List.of(correo(1, "a@cliente.pe")));
+        when(boletaRepository.findDetalladasByIdBoletaIn(anyCollection())).thenReturn(List.of(boleta(1, "a@cliente.pe")));
+
+        servicio.procesarLote(List.of(1));
+
+        verify(correoRepository).registrarFallo(eq(1), eq(CorreoBoleta.Estado.ERROR), any(), any(LocalDateTime.class));
+    }
+
+    private CorreoBoleta correo(int idBoleta, String destinatario) {
+        CorreoBoleta correo = new CorreoBoleta();
+        correo.setIdBoleta(idBoleta);
+        correo.setDestinatario(destinatario);
+        correo.setEstado(CorreoBoleta.Estado.PENDIENTE);
+        correo.setFechaCreacion(LocalDateTime.now());
+        return correo;
+    }
+
+    private Boleta boleta(int idBoleta, String email) {
+        Boleta boleta = new Boleta();
+        boleta.setIdBoleta(idBoleta);
+        boleta.setIdUsuario(1);
+        boleta.setFechaCreacion(LocalDateTime.of(2025, 10, 16, 22, 34));
+        boleta.setNombreCliente("Caña & Cia");
+        boleta.setEmailCliente(email);
+        List<DetalleBoleta> detalles = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            DetalleBoleta detalle = new DetalleBoleta();
+            detalle.setProducto("Producto " + i);
+            detalle.setCantidad(2);
+            detalle.setPrecioUnitario(new BigDecimal("12.50"));
+            detalle.setSubtotal(new BigDecimal("25.00"));
+            detalles.add(detalle);
+        }
+        detalles.forEach(boleta::agregarDetalle);
+        boleta.setTotal(new BigDecimal("75.00"));
+        return boleta;
+    }
+}
@@ -0,0 +1,124 @@
+package com.sistema.backend.service.feed;
+
+import com.sistema.backend.dto.response.BoletaSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cola acotada por suscriptor: desconexión del cliente lento, reanudación sin duplicados
+ * y en orden, y cursor por serie como id de los eventos
+ */
+class SuscriptorFeedTest {
+
+    // Cliente que no consume: los envíos programados nunca corren
+    private final List<Runnable> enviosPendientes = new ArrayList<>();
+    private final Executor clienteLento = enviosPendientes::add;
+
+    @Test
+    void desconectaAlSuscriptorQueNoConsume() {
+        AtomicInteger cierres = new AtomicInteger();
+        SuscriptorFeed suscriptor = new SuscriptorFeed(7, new SseEmitter(), 2, clienteLento);
+        suscriptor.alCerrar(cierres::incrementAndGet);
+
+        assertThat(suscriptor.ofrecerBoleta(boleta(1))).isTrue();
+        assertThat(suscriptor.ofrecerLatido()).isTrue();
+        assertThat(suscriptor.ofrecerBoleta(boleta(2))).isFalse();
+
+        assertThat(cierres).hasValue(1);
+        assertThat(enviosPendientes).hasSize(1);
+        // Ya cerrado: no acepta más ni vuelve a notificar el cierre
+        assertThat(suscriptor.ofrecerLatido()).isFalse();
+        assertThat(cierres).hasValue(1);
+    }
+
+    @Test
+    void laBoletaReenviadaAlReanudarNoSeDuplicaEnVivo() {
+        SuscriptorFeed suscriptor = new SuscriptorFeed(7, new SseEmitter(), 1, clienteLento);
+
+        assertThat(suscriptor.reanudar(sinCursor(), List.of(boleta(10)))).isTrue();
+
+        // Ya enviada en la reanudación: se descarta sin ocupar la cola
+        assertThat(suscriptor.ofrecerBoleta(boleta(10))).isTrue();
+        // La cola (capacidad 1) está ocupada por la reanudación
+        assertThat(suscriptor.ofrecerBoleta(boleta(11))).isFalse();
+    }
+
+    @Test
+    void laBoletaEnVivoDuranteLaReanudacionNoSeReenvia() {
+        SuscriptorFeed suscriptor = new SuscriptorFeed(7, new SseEmitter(), 2, clienteLento);
+        suscriptor.esperarReanudacion();
+
+        // Llega en vivo mientras se leen las perdidas, que también la incluyen
+        assertThat(suscriptor.ofrecerBoleta(boleta(10))).isTrue();
+        assertThat(suscriptor.reanudar(sinCursor(), List.of(boleta(9), boleta(10)))).isTrue();
+
+        // La cola (capacidad 2) tiene 10 y 9: un reenvío de 10 la habría desbordado
+        assertThat(suscriptor.ofrecerBoleta(boleta(10))).isTrue();
+        assertThat(suscriptor.ofrecerBoleta(boleta(11))).isFalse();
+    }
+
+    @Test
+    void lasPerdidasSalenAntesQueLasLlegadasEnVivo() {
+        List<String> ids = new ArrayList<>();
+        SuscriptorFeed suscriptor = new SuscriptorFeed(7, emisorQueRegistra(ids), 8, Runnable::run);
+        suscriptor.esperarReanudacion();
+
+        assertThat(suscriptor.ofrecerBoleta(boleta(12))).isTrue();
+        assertThat(ids).isEmpty();
+        assertThat(suscriptor.reanudar(CursorFeed.parsear("B001:9"), List.of(boleta(10), boleta(11)))).isTrue();
+
+        assertThat(ids).containsExactly("B001:10", "B001:11", "B001:12");
+    }
+
+    @Test
+    void elIdDelEventoEsElCursorPorSerie() {
+        List<String> ids = new ArrayList<>();
+        SuscriptorFeed suscriptor = new SuscriptorFeed(7, emisorQueRegistra(ids), 8, Runnable::run);
+        suscriptor.esperarReanudacion();
+        suscriptor.reanudar(CursorFeed.de(Map.of("B001", 40, "B002", 7)), List.of());
+
+        suscriptor.ofrecerBoleta(boleta(50, "B002", 8));
+        // Confirmada antes (correlativo menor) pero llegada después: no retrocede el cursor
+        suscriptor.ofrecerBoleta(boleta(51, "B001", 39));
+
+        assertThat(ids).containsExactly("B001:40,B002:8", "B001:40,B002:8");
+        assertThat(CursorFeed.parsear(ids.get(1)).desde("B002")).isEqualTo(8);
+        assertThat(CursorFeed.parsear("1234")).isNull();
+        assertThat(CursorFeed.parsear("B001:12,nada")).isNull();
+    }
+
+    private CursorFeed sinCursor() {
+        return CursorFeed.de(Map.of());
+    }
+
+    // Cliente que consume: registra el id de cada evento enviado
+    private SseEmitter emisorQueRegistra(List<String> ids) {
+        return new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder evento) {
+                String texto = String.valueOf(evento.build().iterator().next().getData());
+                ids.add(texto.substring(texto.indexOf("id:") + 3, texto.indexOf('\n')));
+            }
+        };
+    }
+
+    private BoletaSummary boleta(int id) {
+        return boleta(id, "B001", id);
+    }
+
+    private BoletaSummary boleta(int id, String serie, int correlativo) {
+        return new BoletaSummary(id, 7, LocalDateTime.now(), new BigDecimal("10.00"), "Cliente", null, 1, 1,
+                serie, correlativo);
+    }
+}
@@ -0,0 +1,111 @@
+package com.sistema.backend.service.invalidacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.backend.service.notificacion.NotificacionesPostgres;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Agrupación por transacción, aplicación local/remota y vaciado al reconectar (sin base de datos)
+ */
+class BusInvalidacionTest {
+
+    private final NotificacionesPostgres notificaciones = mock(NotificacionesPostgres.class);
+    private final RegionInvalidable usuarios = mock(RegionInvalidable.class);
+    private final RegionInvalidable catalogo = mock(RegionInvalidable.class);
+    private BusInvalidacion bus;
+    private Consumer<String> alNotificar;
+    private Consumer<Long> alReconectar;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void crearBus() {
+        when(notificaciones.getNodo()).thenReturn("nodo-a");
+        bus = new BusInvalidacion(notificaciones, new ObjectMapper(), new SimpleMeterRegistry());
+        bus.iniciar();
+        bus.registrar("usuarios", usuarios);
+        bus.registrar("catalogo", catalogo);
+
+        ArgumentCaptor<Consumer<String>> manejador = ArgumentCaptor.forClass(Consumer.class);
+        verify(notificaciones).suscribir(eq(BusInvalidacion.CANAL), manejador.capture());
+        alNotificar = manejador.getValue();
+        ArgumentCaptor<Consumer<Long>> reconexion = ArgumentCaptor.forClass(Consumer.class);
+        verify(notificaciones).alReconectar(reconexion.capture());
+        alReconectar = reconexion.getValue();
+    }
+
+    @AfterEach
+    void detener() {
+        bus.detener();
+    }
+
+    @Test
+    void unaTransaccionEnviaUnSoloLoteYLoAplicaTrasElCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.invalidar("usuarios", 1);
+            bus.invalidar("usuarios", 2);
+            bus.invalidar("usuarios", 1);
+            bus.invalidar("catalogo", 7);
+            bus.invalidar("catalogo", null);
+
+            verify(notificaciones, never()).notificar(anyString(), anyString());
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacion.beforeCommit(false);
+                sincronizacion.afterCommit();
+                sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(notificaciones, times(1)).notificar(eq(BusInvalidacion.CANAL), payload.capture());
+        BusInvalidacion.LoteInvalidacion lote = new ObjectMapper()
+                .readValue(payload.getValue(), BusInvalidacion.LoteInvalidacion.class);
+        assertThat(lote.nodo()).isEqualTo("nodo-a");
+        assertThat(lote.regiones().get("usuarios")).containsExactlyInAnyOrder("1", "2");
+        assertThat(lote.regiones().get("catalogo")).containsExactly(BusInvalidacion.TODO);
+
+        verify(usuarios).invalidar(Set.of("1", "2"));
+        verify(catalogo).vaciar();
+        assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+    }
+
+    @Test
+    void aplicaLotesDeOtrosNodosEIgnoraLosPropios() {
+        alNotificar.accept("{\"nodo\":\"nodo-a\",\"regiones\":{\"usuarios\":[\"1\"]}}");
+        alNotificar.accept("{\"nodo\":\"nodo-b\",\"regiones\":{\"usuarios\":[\"3\"]}}");
+
+        verify(usuarios, timeout(2_000)).invalidar(Set.of("3"));
+        verify(usuarios, never()).invalidar(Set.of("1"));
+        verify(catalogo, never()).invalidar(any());
+    }
+
+    @Test
+    void alReconectarVaciaTodasLasRegiones() {
+        alReconectar.accept(12_000L);
+
+        verify(usuarios, timeout(2_000)).vaciar();
+        verify(catalogo, timeout(2_000)).vaciar();
+    }
+}
@@ -0,0 +1,167 @@
+package com.sistema.backend.service.numeracion;
+
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.repository.NumeracionRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 500 checkouts concurrentes (10% revertidos) contra PostgreSQL real:
+ * correlativos únicos, consecutivos desde 1 y sin huecos. throughputDeNumeracion
+ * (perfil benchmark) mide e imprime las boletas por segundo.
+ * Ejecutar con: mvn -B test -Dtest=NumeracionConcurrenciaTest
+ *   -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/bd -Dbenchmark.jdbc.usuario=... -Dbenchmark.jdbc.clave=...
+ */
+class NumeracionConcurrenciaTest {
+
+    private static final int CHECKOUTS = 500;
+    private static final String ESQUEMA = "prueba_numeracion";
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void crearEsquema() {
+        String url = System.getProperty("benchmark.jdbc.url");
+        assumeTrue(url != null, "Sin -Dbenchmark.jdbc.url: se omite la prueba contra PostgreSQL");
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(System.getProperty("benchmark.jdbc.usuario", "postgres"));
+        dataSource.setPassword(System.getProperty("benchmark.jdbc.clave", ""));
+        dataSource.setMaximumPoolSize(64);
+        dataSource.setConnectionInitSql("SET search_path TO " + ESQUEMA);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ESQUEMA);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS boletas, series_boleta");
+        // Solo las columnas que usa la numeración (mismas restricciones que V8)
+        jdbcTemplate.execute("CREATE TABLE series_boleta (serie VARCHAR(4) PRIMARY KEY, "
+                + "ultimo_correlativo INTEGER NOT NULL DEFAULT 0) WITH (fillfactor = 50)");
+        jdbcTemplate.execute("CREATE TABLE boletas (id_boleta SERIAL PRIMARY KEY, "
+                + "serie VARCHAR(4), correlativo INTEGER, UNIQUE (serie, correlativo))");
+    }
+
+    @AfterAll
+    static void cerrar() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @BeforeEach
+    void vaciarTablas() {
+        jdbcTemplate.execute("TRUNCATE boletas RESTART IDENTITY");
+        jdbcTemplate.execute("DELETE FROM series_boleta");
+    }
+
+    @Test
+    void quinientosCheckoutsConcurrentesSinHuecos() throws Exception {
+        NumeracionService servicio = servicio();
+        Corrida corrida = checkoutsConcurrentes(servicio);
+
+        int confirmadas = corrida.confirmadas();
+        List<Integer> correlativos = jdbcTemplate.queryForList(
+                "SELECT correlativo FROM boletas WHERE serie = 'B001' ORDER BY correlativo", Integer.class);
+        assertThat(correlativos).hasSize(confirmadas);
+        for (int i = 0; i < correlativos.size(); i++) {
+            assertThat(correlativos.get(i)).isEqualTo(i + 1);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM boletas WHERE serie IS NULL", Integer.class)).isZero();
+        assertThat(corrida.numeros()).hasSize(confirmadas).containsValue("B001-" + String.format("%08d", confirmadas));
+        EstadoSerie estado = servicio.estado("B001");
+        assertThat(estado.sinHuecos()).isTrue();
+    }
+
+    /**
+     * Throughput de la numeración con la fila de la serie bloqueada solo en beforeCommit.
+     * Ejecutar con: mvn -B test -Pbenchmark -Dtest=NumeracionConcurrenciaTest -Dbenchmark.jdbc.url=...
+     */
+    @Test
+    @Tag("benchmark")
+    void throughputDeNumeracion() throws Exception {
+        NumeracionService servicio = servicio();
+        Corrida corrida = checkoutsConcurrentes(servicio);
+
+        assertThat(servicio.estado("B001").sinHuecos()).isTrue();
+        System.out.printf("Numeración: %d checkouts (%d revertidos) en %.2f s = %.0f boletas/s, sin huecos%n",
+                CHECKOUTS, corrida.revertidas(), corrida.nanos() / 1e9, corrida.porSegundo());
+    }
+
+    private NumeracionService servicio() {
+        EntityManagerFactory emf = mock(EntityManagerFactory.class);
+        when(emf.getCache()).thenReturn(mock(Cache.class));
+        NumeracionService servicio = new NumeracionService(new NumeracionRepository(jdbcTemplate), emf,
+                new SimpleMeterRegistry(), List.of("B001"));
+        servicio.registrarSeries();
+        return servicio;
+    }
+
+    private Corrida checkoutsConcurrentes(NumeracionService servicio) throws Exception {
+        TransactionTemplate transaccion = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        Map<Integer, String> numeros = new ConcurrentHashMap<>();
+        AtomicInteger revertidas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CHECKOUTS);
+        for (int i = 0; i < CHECKOUTS; i++) {
+            pool.submit(() -> {
+                salida.await();
+                transaccion.executeWithoutResult(status -> {
+                    Integer id = jdbcTemplate.queryForObject(
+                            "INSERT INTO boletas DEFAULT VALUES RETURNING id_boleta", Integer.class);
+                    Boleta boleta = new Boleta();
+                    boleta.setIdBoleta(id);
+                    servicio.numerarAlConfirmar(boleta, numero -> numeros.put(id, numero));
+                    // Resto del checkout (detalles, outbox, stock)
+                    LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(2_000_000));
+                    if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                        revertidas.incrementAndGet();
+                        status.setRollbackOnly();
+                    }
+                });
+                return null;
+            });
+        }
+        long inicio = System.nanoTime();
+        salida.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        return new Corrida(numeros, revertidas.get(), System.nanoTime() - inicio);
+    }
+
+    private record Corrida(Map<Integer, String> numeros, int revertidas, long nanos) {
+        int confirmadas() {
+            return CHECKOUTS - revertidas;
+        }
+
+        double porSegundo() {
+            return confirmadas() * 1e9 / nanos;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.sistema.backend.service.outbox;
+
+import com.sistema.backend.entity.OutboxEvento;
+import com.sistema.backend.entity.OutboxEvento.Estado;
+import com.sistema.backend.repository.OutboxEventoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Publicación, reintentos y descarte de eventos del outbox (sin base de datos)
+ */
+class OutboxRelayTest {
+
+    private final OutboxEventoRepository repositorio = mock(OutboxEventoRepository.class);
+    private final List<Long> recibidos = new ArrayList<>();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void crearRelay() {
+        OutboxHandler handler = new OutboxHandler() {
+            @Override
+            public String tipo() {
+                return "PRUEBA";
+            }
+
+            @Override
+            public void manejar(OutboxEvento evento) {
+                if (evento.getIdAgregado() < 0) {
+                    throw new IllegalStateException("falla");
+                }
+                recibidos.add(evento.getId());
+            }
+        };
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("handler", handler);
+
+        relay = new OutboxRelay(repositorio, beans.getBeanProvider(OutboxHandler.class),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                false, 1, 10, 100, 60_000, 3, 1_000, 60_000, 7);
+    }
+
+    @Test
+    void publicaEnOrdenYMarcaProcesados() {
+        when(repositorio.reclamarLote(any(), anyInt())).thenReturn(List.of(evento(1L, 10), evento(2L, 20)));
+
+        assertThat(relay.procesarLote()).isEqualTo(2);
+
+        assertThat(recibidos).containsExactly(1L, 2L);
+        verify(repositorio).reservar(eq(List.of(1L, 2L)), any());
+        verify(repositorio).marcarProcesados(eq(List.of(1L, 2L)), any());
+        verify(repositorio, never()).registrarFallo(any(), any(), any(), any());
+    }
+
+    @Test
+    void fallaProgramaReintentoSinAfectarAlResto() {
+        when(repositorio.reclamarLote(any(), anyInt())).thenReturn(List.of(evento(1L, -1), evento(2L, 20)));
+
+        relay.procesarLote();
+
+        assertThat(recibidos).containsExactly(2L);
+        verify(repositorio).marcarProcesados(eq(List.of(2L)), any());
+        verify(repositorio).registrarFallo(eq(1L), eq(Estado.PENDIENTE), eq("falla"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void agotadosLosIntentosSeDescarta() {
+        OutboxEvento evento = evento(1L, -1);
+        evento.setIntentos(2);
+        when(repositorio.reclamarLote(any(), anyInt())).thenReturn(List.of(evento));
+
+        relay.procesarLote();
+
+        verify(repositorio).registrarFallo(eq(1L), eq(Estado.FALLIDO), eq("falla"), isNull());
+    }
+
+    @Test
+    void backoffExponencialConTope() {
+        assertThat(relay.calcularBackoffMs(1)).isEqualTo(1_000);
+        assertThat(relay.calcularBackoffMs(2)).isEqualTo(2_000);
+        assertThat(relay.calcularBackoffMs(5)).isEqualTo(16_000);
+        assertThat(relay.calcularBackoffMs(20)).isEqualTo(60_000);
+    }
+
+    private OutboxEvento evento(Long id, int idAgregado) {
+        OutboxEvento evento = new OutboxEvento();
+        evento.setId(id);
+        evento.setTipo("PRUEBA");
+        evento.setIdAgregado(idAgregado);
+        evento.setIdUsuario(1);
+        evento.setPayload("{}");
+        evento.setFechaCreacion(LocalDateTime.now());
+        return evento;
+    }
+}
@@ -0,0 +1,146 @@
+package com.sistema.backend.service.pdf;
+
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.DetalleBoleta;
+import com.sistema.backend.entity.Usuario;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark del generador de PDFs: PDFs por segundo por núcleo y memoria con boletas grandes.
+ * Ejecutar con: mvn -B test -Pbenchmark -Dtest=BoletaPdfRendererBenchmarkTest
+ */
+@Tag("benchmark")
+class BoletaPdfRendererBenchmarkTest {
+
+    private static final long MUESTRA = 64 * 1024;
+
+    private final BoletaPdfRenderer renderer = new BoletaPdfRenderer();
+
+    @Test
+    void pdfsPorSegundoPorNucleo() throws Exception {
+        Boleta boleta = boletaSintetica(10);
+        int nucleos = Runtime.getRuntime().availableProcessors();
+
+        // Calentamiento del JIT
+        for (int i = 0; i < 500; i++) {
+            renderer.renderizar(boleta, OutputStream.nullOutputStream());
+        }
+
+        long duracionMs = 10_000;
+        AtomicLong generados = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(nucleos);
+        long fin = System.currentTimeMillis() + duracionMs;
+        for (int t = 0; t < nucleos; t++) {
+            pool.submit(() -> {
+                while (System.currentTimeMillis() < fin) {
+                    renderer.renderizar(boleta, OutputStream.nullOutputStream());
+                    generados.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(duracionMs + 5_000, TimeUnit.MILLISECONDS)).isTrue();
+
+        double porSegundo = generados.get() * 1000.0 / duracionMs;
+        System.out.printf("PDF 10 líneas: %.0f PDFs/s con %d hilos = %.0f PDFs/s/núcleo%n",
+                porSegundo, nucleos, porSegundo / nucleos);
+        assertThat(generados.get()).isPositive();
+    }
+
+    @Test
+    void boletaGrandeNoRetieneElDocumentoEnMemoria() {
+        int lineas = 20_000;
+        Boleta boleta = boletaSintetica(lineas);
+        // Control: sin volcado por bloques la tabla entera vive hasta el final
+        BoletaPdfRenderer sinVolcado = new BoletaPdfRenderer();
+        ReflectionTestUtils.setField(sinVolcado, "filasPorBloque", Integer.MAX_VALUE);
+
+        long inicio = System.nanoTime();
+        Retencion conBloques = medirRetencion(renderer, boleta);
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        Retencion control = medirRetencion(sinVolcado, boleta);
+
+        System.out.printf("PDF %d líneas: %d KB en %d ms, retenido máx %d KB (sin volcado por bloques: %d KB)%n",
+                lineas, conBloques.bytes() / 1024, ms, conBloques.maximo() / 1024, control.maximo() / 1024);
+        assertThat(conBloques.maximo() * 4).isLessThan(control.maximo());
+    }
+
+    // Cada MUESTRA bytes escritos: GC completo y heap retenido por encima de la boleta ya construida
+    private static Retencion medirRetencion(BoletaPdfRenderer renderer, Boleta boleta) {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        memoria.gc();
+        long base = memoria.getHeapMemoryUsage().getUsed();
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong maximo = new AtomicLong();
+        OutputStream muestreo = new OutputStream() {
+            private long siguiente = MUESTRA;
+
+            @Override
+            public void write(int b) {
+                contar(1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                contar(len);
+            }
+
+            private void contar(int len) {
+                if (bytes.addAndGet(len) >= siguiente) {
+                    siguiente += MUESTRA;
+                    memoria.gc();
+                    maximo.accumulateAndGet(memoria.getHeapMemoryUsage().getUsed() - base, Math::max);
+                }
+            }
+        };
+        renderer.renderizar(boleta, muestreo);
+        return new Retencion(bytes.get(), maximo.get());
+    }
+
+    private record Retencion(long bytes, long maximo) {
+    }
+
+    private Boleta boletaSintetica(int lineas) {
+        Usuario vendedor = new Usuario();
+        vendedor.setIdUsuario(1);
+        vendedor.setNombres("Paulo");
+        vendedor.setApellidos("Vendedor");
+
+        Boleta boleta = new Boleta();
+        boleta.setIdBoleta(1234);
+        boleta.setIdUsuario(1);
+        boleta.setUsuario(vendedor);
+        boleta.setFechaCreacion(LocalDateTime.of(2025, 10, 16, 22, 34));
+        boleta.setNombreCliente("Cliente de Prueba Ñandú");
+        boleta.setDocumentoCliente("12345678");
+        boleta.setEmailCliente("cliente@correo.com");
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 1; i <= lineas; i++) {
+            DetalleBoleta detalle = new DetalleBoleta();
+            detalle.setIdDetalle(i);
+            detalle.setProducto("Producto " + i);
+            detalle.setCantidad(2);
+            detalle.setPrecioUnitario(new BigDecimal("12.50"));
+            detalle.calcularSubtotal();
+            boleta.agregarDetalle(detalle);
+            total = total.add(detalle.getSubtotal());
+        }
+        boleta.setTotal(total);
+        return boleta;
+    }
+}
@@ -0,0 +1,75 @@
+package com.sistema.backend.service.reporte;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresco de vistas: omisión de ejecuciones solapadas y métricas (sin base de datos)
+ */
+class RefrescoVistasServiceTest {
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+    private final RefrescoVistasService servicio = new RefrescoVistasService(jdbc,
+            mock(PlatformTransactionManager.class), metricas, true, 300);
+
+    @Test
+    void refrescaTodasLasVistasYRegistraDuracion() {
+        when(jdbc.queryForObject(anyString(), eq(Boolean.class), anyInt(), anyInt())).thenReturn(true);
+
+        Map<String, Long> duraciones = servicio.refrescar();
+
+        assertThat(duraciones).containsOnlyKeys(RefrescoVistasService.VISTAS);
+        verify(jdbc).execute("REFRESH MATERIALIZED VIEW CONCURRENTLY mv_ventas_diarias");
+        assertThat(metricas.get("reportes.refresco.duracion").tag("vista", "mv_ventas_producto").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void omiteLaEjecucionSolapadaEnElMismoNodo() throws Exception {
+        when(jdbc.queryForObject(anyString(), eq(Boolean.class), anyInt(), anyInt())).thenReturn(true);
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        doAnswer(inv -> {
+            dentro.countDown();
+            soltar.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(jdbc).execute("REFRESH MATERIALIZED VIEW CONCURRENTLY mv_ventas_diarias");
+
+        CompletableFuture<Map<String, Long>> primero = CompletableFuture.supplyAsync(servicio::refrescar);
+        assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(servicio.refrescar()).isNull();
+        soltar.countDown();
+
+        assertThat(primero.get(5, TimeUnit.SECONDS)).hasSize(3);
+        assertThat(metricas.get("reportes.refresco.omitidos").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void omiteLaVistaQueRefrescaOtroNodo() {
+        when(jdbc.queryForObject(anyString(), eq(Boolean.class), anyInt(), anyInt())).thenReturn(false);
+
+        assertThat(servicio.refrescar()).isEmpty();
+        verify(jdbc, never()).update(anyString(), any(Object[].class));
+        assertThat(metricas.get("reportes.refresco.omitidos").counter().count()).isEqualTo(3);
+    }
+}
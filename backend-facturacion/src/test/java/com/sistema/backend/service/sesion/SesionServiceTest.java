@@ -0,0 +1,94 @@
+package com.sistema.backend.service.sesion;
+
+import com.sistema.backend.entity.TokenRefresco;
+import com.sistema.backend.entity.Usuario;
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.repository.TokenRefrescoRepository;
+import com.sistema.backend.repository.UsuarioRepository;
+import com.sistema.backend.security.ListaRevocacion;
+import com.sistema.backend.service.UsuarioService;
+import com.sistema.backend.service.sesion.SesionService.Sesion;
+import com.sistema.backend.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rotación de refresh tokens y revocación de la sesión al reutilizarlos (sin base de datos)
+ */
+class SesionServiceTest {
+
+    private final TokenRefrescoRepository repositorio = mock(TokenRefrescoRepository.class);
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final ListaRevocacion listaRevocacion = mock(ListaRevocacion.class);
+    private final UsuarioService usuarioService = mock(UsuarioService.class);
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final List<TokenRefresco> guardados = new ArrayList<>();
+    private SesionService sesionService;
+
+    @BeforeEach
+    void crearServicio() {
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(5);
+        usuario.setEmail("vendedor@test.local");
+        when(usuarioRepository.findById(5)).thenReturn(Optional.of(usuario));
+        when(jwtUtil.calcularExpiracion()).thenReturn(new Date(System.currentTimeMillis() + 900_000));
+        when(jwtUtil.getExpirationMs()).thenReturn(900_000L);
+        when(jwtUtil.generateToken(eq(usuario), any(), any())).thenReturn("acceso");
+        when(repositorio.save(any())).thenAnswer(inv -> {
+            guardados.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(repositorio.findByHashTokenParaRotar(any())).thenAnswer(inv -> guardados.stream()
+                .filter(t -> t.getHashToken().equals(inv.getArgument(0)))
+                .findFirst());
+        when(repositorio.findByFamilia(any())).thenAnswer(inv -> guardados.stream()
+                .filter(t -> t.getFamilia().equals(inv.getArgument(0)))
+                .toList());
+
+        sesionService = new SesionService(repositorio, usuarioRepository, listaRevocacion, usuarioService, jwtUtil, 60_000);
+    }
+
+    @Test
+    void rotarMarcaElTokenComoUsadoYEmiteOtroDeLaMismaFamilia() {
+        Sesion inicial = sesionService.abrir(usuarioRepository.findById(5).orElseThrow());
+        Sesion rotada = sesionService.rotar(inicial.refreshToken());
+
+        assertThat(rotada.refreshToken()).isNotEqualTo(inicial.refreshToken());
+        assertThat(guardados).hasSize(2);
+        assertThat(guardados.get(0).getUsadoEn()).isNotNull();
+        assertThat(guardados.get(1).getFamilia()).isEqualTo(guardados.get(0).getFamilia());
+        assertThat(guardados.get(1).getHashToken()).isEqualTo(SesionService.hash(rotada.refreshToken()));
+        verify(listaRevocacion, never()).revocar(any(), any());
+    }
+
+    @Test
+    void reutilizarUnTokenUsadoRevocaLaFamiliaYSusTokensDeAcceso() {
+        Sesion inicial = sesionService.abrir(usuarioRepository.findById(5).orElseThrow());
+        Sesion rotada = sesionService.rotar(inicial.refreshToken());
+
+        assertThatThrownBy(() -> sesionService.rotar(inicial.refreshToken()))
+                .isInstanceOf(SolicitudInvalidaException.class);
+
+        assertThat(guardados).allMatch(TokenRefresco::isRevocado);
+        for (TokenRefresco token : guardados) {
+            verify(listaRevocacion).revocar(eq(token.getJtiAcceso()), any());
+        }
+        // El último emitido (el del usuario legítimo) tampoco sirve ya
+        assertThatThrownBy(() -> sesionService.rotar(rotada.refreshToken()))
+                .isInstanceOf(SolicitudInvalidaException.class);
+    }
+}
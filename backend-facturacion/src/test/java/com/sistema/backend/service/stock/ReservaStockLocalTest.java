@@ -0,0 +1,105 @@
+package com.sistema.backend.service.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reserva local por franjas: nunca vende de más y devuelve lo no vendido
+ */
+class ReservaStockLocalTest {
+
+    @Test
+    void muchosHilosVendenExactamenteElStock() throws Exception {
+        FuenteEnMemoria fuente = new FuenteEnMemoria(5_000);
+        ReservaStockLocal reserva = new ReservaStockLocal(fuente, List.of(1), 8, 64);
+        AtomicInteger vendidas = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        for (int t = 0; t < 32; t++) {
+            pool.submit(() -> {
+                int cantidad = 1 + (int) (Thread.currentThread().threadId() % 3);
+                while (reserva.tomar(1, cantidad)) {
+                    vendidas.addAndGet(cantidad);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        reserva.liberar();
+        assertThat(vendidas.get() + fuente.disponible.get()).isEqualTo(5_000);
+        assertThat(fuente.disponible.get()).isLessThan(3); // Solo queda lo que no alcanza para un pedido
+    }
+
+    @Test
+    void pedidoMayorQueUnaFranjaJuntaLasFranjas() {
+        FuenteEnMemoria fuente = new FuenteEnMemoria(10);
+        ReservaStockLocal reserva = new ReservaStockLocal(fuente, List.of(1), 4, 10);
+
+        assertThat(reserva.tomar(1, 1)).isTrue(); // Trae el lote completo y lo reparte
+        assertThat(fuente.disponible.get()).isZero();
+        assertThat(reserva.tomar(1, 9)).isTrue();
+        assertThat(reserva.tomar(1, 1)).isFalse();
+    }
+
+    @Test
+    void devolverYLiberarReintegranUnidades() {
+        FuenteEnMemoria fuente = new FuenteEnMemoria(100);
+        ReservaStockLocal reserva = new ReservaStockLocal(fuente, List.of(1), 4, 50);
+
+        assertThat(reserva.tomar(1, 5)).isTrue();
+        reserva.devolver(1, 5); // Checkout revertido
+        assertThat(reserva.reservado(1)).isEqualTo(50);
+
+        reserva.liberar();
+        assertThat(fuente.disponible.get()).isEqualTo(100);
+        assertThat(reserva.reservado(1)).isZero();
+    }
+
+    @Test
+    void trasAgotarseNoConsultaLaBaseHastaReintentar() {
+        FuenteEnMemoria fuente = new FuenteEnMemoria(0);
+        ReservaStockLocal reserva = new ReservaStockLocal(fuente, List.of(1), 2, 10);
+
+        assertThat(reserva.tomar(1, 1)).isFalse();
+        assertThat(reserva.tomar(1, 1)).isFalse();
+        assertThat(fuente.consultas.get()).isEqualTo(1);
+
+        fuente.devolver(1, 3); // Reposición
+        reserva.reintentar(1);
+        assertThat(reserva.tomar(1, 1)).isTrue();
+    }
+
+    /**
+     * Fila de stock simulada (equivale al UPDATE ... LEAST de StockRepository)
+     */
+    static class FuenteEnMemoria implements ReservaStockLocal.FuenteStock {
+
+        final AtomicInteger disponible;
+        final AtomicInteger consultas = new AtomicInteger();
+
+        FuenteEnMemoria(int inicial) {
+            this.disponible = new AtomicInteger(inicial);
+        }
+
+        @Override
+        public synchronized int tomarHasta(Integer idProducto, int maximo) {
+            consultas.incrementAndGet();
+            int tomadas = Math.min(maximo, disponible.get());
+            disponible.addAndGet(-tomadas);
+            return tomadas;
+        }
+
+        @Override
+        public synchronized void devolver(Integer idProducto, int cantidad) {
+            disponible.addAndGet(cantidad);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.sistema.backend.service.stock;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Benchmark de contención: muchos hilos comprando el mismo producto.
+ * Ejecutar con: mvn -B test -Pbenchmark -Dtest=StockContencionBenchmarkTest
+ *
+ * Para medir contra PostgreSQL real (UPDATE condicional de StockRepository):
+ * -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/bd -Dbenchmark.jdbc.usuario=... -Dbenchmark.jdbc.clave=...
+ */
+@Tag("benchmark")
+class StockContencionBenchmarkTest {
+
+    private static final int HILOS = 64;
+    private static final int STOCK = 20_000;
+
+    // Tiempo que la fila queda bloqueada por checkout (UPDATE + resto de la transacción + commit)
+    private static final long BLOQUEO_FILA_NANOS = 200_000;
+
+    @Test
+    void filaUnicaContraReservaLocal() throws Exception {
+        // 1) Cada venta bloquea la fila: las ventas del producto se serializan
+        FilaSimulada fila = new FilaSimulada(STOCK);
+        Resultado directo = comprar(() -> fila.tomarHasta(1, 1) == 1);
+        assertThat(directo.vendidas()).isEqualTo(STOCK);
+
+        // 2) Reserva local: la fila se toca una vez por lote
+        FilaSimulada filaReserva = new FilaSimulada(STOCK);
+        ReservaStockLocal reserva = new ReservaStockLocal(filaReserva, List.of(1), 8, 100);
+        Resultado local = comprar(() -> reserva.tomar(1, 1));
+        reserva.liberar();
+        assertThat(local.vendidas()).isEqualTo(STOCK);
+        assertThat(filaReserva.disponible).isZero();
+
+        System.out.printf("Stock %d, %d hilos, fila bloqueada %d µs por venta%n", STOCK, HILOS, BLOQUEO_FILA_NANOS / 1000);
+        System.out.printf("  UPDATE por venta : %8.0f ventas/s (%d bloqueos de fila)%n", directo.porSegundo(), fila.bloqueos);
+        System.out.printf("  Reserva local    : %8.0f ventas/s (%d bloqueos de fila)%n", local.porSegundo(), filaReserva.bloqueos);
+    }
+
+    @Test
+    void updateCondicionalEnPostgres() throws Exception {
+        String url = System.getProperty("benchmark.jdbc.url");
+        assumeTrue(url != null, "Sin -Dbenchmark.jdbc.url: se omite la medición contra PostgreSQL");
+        String usuario = System.getProperty("benchmark.jdbc.usuario", "postgres");
+        String clave = System.getProperty("benchmark.jdbc.clave", "");
+
+        // Tabla normal (no TEMP): todas las conexiones deben ver la misma fila
+        try (Connection c = DriverManager.getConnection(url, usuario, clave); Statement st = c.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS bench_stock_productos");
+            st.execute("CREATE UNLOGGED TABLE bench_stock_productos (id_producto INTEGER PRIMARY KEY, "
+                    + "disponible INTEGER NOT NULL CHECK (disponible >= 0)) WITH (fillfactor = 50)");
+            st.execute("INSERT INTO bench_stock_productos VALUES (1, " + STOCK / 4 + ")");
+        }
+
+        ThreadLocal<PreparedStatement> sentencias = ThreadLocal.withInitial(() -> {
+            try {
+                Connection c = DriverManager.getConnection(url, usuario, clave);
+                return c.prepareStatement(
+                        "UPDATE bench_stock_productos SET disponible = disponible - ? WHERE id_producto = ? AND disponible >= ?");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Resultado resultado = comprar(() -> {
+            try {
+                PreparedStatement ps = sentencias.get();
+                ps.setInt(1, 1);
+                ps.setInt(2, 1);
+                ps.setInt(3, 1);
+                return ps.executeUpdate() == 1;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(resultado.vendidas()).isEqualTo(STOCK / 4);
+        System.out.printf("PostgreSQL UPDATE condicional, %d hilos: %.0f ventas/s, sin sobreventa%n",
+                HILOS, resultado.porSegundo());
+    }
+
+    private Resultado comprar(Compra compra) throws Exception {
+        AtomicInteger vendidas = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        long inicio = System.nanoTime();
+        for (int t = 0; t < HILOS; t++) {
+            pool.submit(() -> {
+                while (compra.intentar()) {
+                    vendidas.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        return new Resultado(vendidas.get(), System.nanoTime() - inicio);
+    }
+
+    private interface Compra {
+        boolean intentar();
+    }
+
+    private record Resultado(int vendidas, long nanos) {
+        double porSegundo() {
+            return vendidas * 1e9 / nanos;
+        }
+    }
+
+    /**
+     * Fila de stock_productos: un bloqueo exclusivo por UPDATE, sostenido hasta el commit
+     */
+    private static class FilaSimulada implements ReservaStockLocal.FuenteStock {
+
+        int disponible;
+        int bloqueos;
+
+        FilaSimulada(int disponible) {
+            this.disponible = disponible;
+        }
+
+        @Override
+        public synchronized int tomarHasta(Integer idProducto, int maximo) {
+            bloqueos++;
+            LockSupport.parkNanos(BLOQUEO_FILA_NANOS);
+            int tomadas = Math.min(maximo, disponible);
+            disponible -= tomadas;
+            return tomadas;
+        }
+
+        @Override
+        public synchronized void devolver(Integer idProducto, int cantidad) {
+            bloqueos++;
+            disponible += cantidad;
+        }
+    }
+}
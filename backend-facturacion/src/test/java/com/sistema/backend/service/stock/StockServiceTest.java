@@ -0,0 +1,55 @@
+package com.sistema.backend.service.stock;
+
+import com.sistema.backend.exception.SolicitudInvalidaException;
+import com.sistema.backend.repository.StockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ajuste de stock: cada violación de integridad con su propio mensaje
+ */
+class StockServiceTest {
+
+    private final StockRepository stockRepository = mock(StockRepository.class);
+    private final StockService stockService = new StockService(stockRepository,
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), false, List.of(), 8, 100);
+
+    @Test
+    void stockNegativoEsSolicitudInvalida() {
+        when(stockRepository.ajustar(7, -50)).thenThrow(violacion("23514"));
+
+        assertThatThrownBy(() -> stockService.ajustar(7, -50))
+                .isInstanceOf(SolicitudInvalidaException.class)
+                .hasMessage("El stock del producto 7 no puede quedar negativo");
+    }
+
+    @Test
+    void productoInexistenteNoSeReportaComoStockNegativo() {
+        when(stockRepository.ajustar(99, 10)).thenThrow(violacion("23503"));
+
+        assertThatThrownBy(() -> stockService.ajustar(99, 10))
+                .isInstanceOf(SolicitudInvalidaException.class)
+                .hasMessage("El producto 99 no existe");
+    }
+
+    @Test
+    void otraViolacionNoSeExponeAlCliente() {
+        DataIntegrityViolationException e = violacion("23505");
+        when(stockRepository.ajustar(7, 1)).thenThrow(e);
+
+        assertThatThrownBy(() -> stockService.ajustar(7, 1)).isSameAs(e);
+    }
+
+    private static DataIntegrityViolationException violacion(String estado) {
+        return new DataIntegrityViolationException("violación", new SQLException("violación", estado));
+    }
+}
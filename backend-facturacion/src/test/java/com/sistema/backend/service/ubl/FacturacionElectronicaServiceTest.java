@@ -0,0 +1,79 @@
+package com.sistema.backend.service.ubl;
+
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.ComprobanteElectronico;
+import com.sistema.backend.entity.ComprobanteElectronico.Estado;
+import com.sistema.backend.repository.BoletaRepository;
+import com.sistema.backend.repository.ComprobanteElectronicoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Solo se envía a SUNAT lo que el worker reclamó, y un conflicto de versión se resuelve fila por fila (sin base de datos)
+ */
+class FacturacionElectronicaServiceTest {
+
+    private final BoletaRepository boletaRepository = mock(BoletaRepository.class);
+    private final ComprobanteElectronicoRepository comprobanteRepository = mock(ComprobanteElectronicoRepository.class);
+    private final XmlFirmador firmador = mock(XmlFirmador.class);
+    private final EnvioComprobanteClient envioClient = mock(EnvioComprobanteClient.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final UblInvoiceWriter writer = new UblInvoiceWriter();
+
+    @Test
+    void soloEnviaLoReclamadoYUnConflictoNoTumbaElLote() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // La boleta 2 la tiene reclamada otro worker (SKIP LOCKED no la devuelve)
+        ComprobanteElectronico uno = new ComprobanteElectronico(1);
+        ComprobanteElectronico tres = new ComprobanteElectronico(3);
+        uno.setEstado(Estado.PENDIENTE);
+        tres.setEstado(Estado.ERROR);
+        when(comprobanteRepository.reclamar(anyCollection(), any())).thenReturn(List.of(uno, tres));
+        when(boletaRepository.findDetalladasByIdBoletaIn(List.of(1, 3))).thenReturn(List.of(boleta(1), boleta(3)));
+        when(firmador.firmar(any())).thenReturn(new XmlFirmador.XmlFirmado(new byte[] {1}, "digest"));
+        when(envioClient.enviar(any(), any())).thenReturn("0");
+        when(comprobanteRepository.saveAll(anyList()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ComprobanteElectronico.class, 1));
+        // La reserva de la 1 venció y otro worker la volvió a reclamar
+        when(comprobanteRepository.save(argThat(c -> c != null && c.getIdBoleta() == 1)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ComprobanteElectronico.class, 1));
+
+        FacturacionElectronicaService servicio = new FacturacionElectronicaService(boletaRepository,
+                comprobanteRepository, writer, firmador, envioClient, transactionManager,
+                new SimpleMeterRegistry(), true, 10, 10, 1, 3, 1000, 60000, 300000);
+        servicio.procesarLote(List.of(1, 2, 3));
+
+        verify(comprobanteRepository).registrarPendientes(eq(List.of(1, 2, 3)), any());
+        verify(envioClient).enviar(eq(writer.nombreArchivo(boleta(1))), any());
+        verify(envioClient).enviar(eq(writer.nombreArchivo(boleta(3))), any());
+        verify(envioClient, times(2)).enviar(any(), any());
+        assertThat(tres.getEstado()).isEqualTo(Estado.ENVIADO);
+        verify(comprobanteRepository).save(argThat(c -> c != null && c.getIdBoleta() == 3));
+        // Reclamo + saveAll + una transacción por fila
+        verify(transactionManager, times(4)).getTransaction(any());
+    }
+
+    private static Boleta boleta(int id) {
+        Boleta boleta = UblInvoiceWriterTest.boleta(2, "Cliente", null);
+        boleta.setIdBoleta(id);
+        boleta.setSerie("B001");
+        boleta.setCorrelativo(id);
+        return boleta;
+    }
+}
@@ -0,0 +1,144 @@
+package com.sistema.backend.service.ubl;
+
+import com.sistema.backend.entity.Boleta;
+import com.sistema.backend.entity.DetalleBoleta;
+import com.sistema.backend.entity.Usuario;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.crypto.dsig.XMLSignature;
+import javax.xml.crypto.dsig.XMLSignatureFactory;
+import javax.xml.crypto.dsig.dom.DOMValidateContext;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Valida el XML firmado contra el esquema oficial UBL 2.1 y verifica la firma
+ */
+class UblInvoiceWriterTest {
+
+    private static Schema esquema;
+    private static XmlFirmador firmador;
+    private final UblInvoiceWriter writer = new UblInvoiceWriter();
+
+    @BeforeAll
+    static void cargarEsquema() throws Exception {
+        // UBL importa CCTS y XMLDSig sin schemaLocation: se cargan antes por espacio de nombres
+        esquema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(new Source[] {
+                fuente("schemas/CCTS_CCT_SchemaModule.xsd"),
+                fuente("schemas/xmldsig-core-schema.xsd"),
+                fuente("external/schemas/ubl21/maindoc/UBL-Invoice-2.1.xsd")});
+        firmador = new XmlFirmador(new ClassPathResource("ubl/firma-dev.p12"), "cambiar-en-produccion", "firma");
+    }
+
+    @Test
+    void boletaSimpleCumpleEsquema() throws Exception {
+        validar(firmar(boleta(3, "Cliente Final", "12345678")));
+    }
+
+    @Test
+    void boletaSinDocumentoCumpleEsquema() throws Exception {
+        validar(firmar(boleta(1, null, null)));
+    }
+
+    @Test
+    void clienteConRucYCaracteresEspecialesCumpleEsquema() throws Exception {
+        validar(firmar(boleta(2, "Ñandú & Hijos <S.A.C.> \"Perú\"", "20123456789")));
+    }
+
+    @Test
+    void boletaGrandeCumpleEsquema() throws Exception {
+        validar(firmar(boleta(500, "Cliente Final", "12345678")));
+    }
+
+    @Test
+    void xmlFirmadoCumpleEsquemaYFirmaEsValida() throws Exception {
+        XmlFirmador.XmlFirmado firmado = firmador.firmar(generar(boleta(5, "Cliente Final", "12345678")));
+        validar(firmado.xml());
+        assertThat(firmado.digest()).isNotBlank();
+
+        DocumentBuilderFactory fabrica = DocumentBuilderFactory.newInstance();
+        fabrica.setNamespaceAware(true);
+        Document documento = fabrica.newDocumentBuilder().parse(new ByteArrayInputStream(firmado.xml()));
+        NodeList firmas = documento.getElementsByTagNameNS(XMLSignature.XMLNS, "Signature");
+        assertThat(firmas.getLength()).isEqualTo(1);
+
+        DOMValidateContext contexto = new DOMValidateContext(
+                firmador.getCertificado().getPublicKey(), firmas.item(0));
+        XMLSignature firma = XMLSignatureFactory.getInstance("DOM").unmarshalXMLSignature(contexto);
+        assertThat(firma.validate(contexto)).isTrue();
+    }
+
+    @Test
+    void numeroYNombreDeArchivoSiguenFormatoSunat() {
+        Boleta boleta = boleta(1, null, null);
+        assertThat(writer.numeroComprobante(boleta)).isEqualTo("B001-00001234");
+        assertThat(writer.nombreArchivo(boleta)).isEqualTo("20000000001-03-B001-00001234.xml");
+    }
+
+    private static Source fuente(String recurso) {
+        URL url = UblInvoiceWriterTest.class.getClassLoader().getResource(recurso);
+        assertThat(url).as(recurso).isNotNull();
+        return new StreamSource(url.toExternalForm());
+    }
+
+    private byte[] generar(Boleta boleta) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        writer.escribir(boleta, salida);
+        return salida.toByteArray();
+    }
+
+    // ext:ExtensionContent queda vacío hasta firmar; el esquema exige su contenido
+    private byte[] firmar(Boleta boleta) throws Exception {
+        return firmador.firmar(generar(boleta)).xml();
+    }
+
+    private void validar(byte[] xml) {
+        assertThatCode(() -> esquema.newValidator().validate(new StreamSource(new ByteArrayInputStream(xml))))
+                .doesNotThrowAnyException();
+    }
+
+    static Boleta boleta(int lineas, String cliente, String documento) {
+        Usuario vendedor = new Usuario();
+        vendedor.setIdUsuario(7);
+        vendedor.setNombres("Paulo");
+        vendedor.setApellidos("Vendedor");
+
+        Boleta boleta = new Boleta();
+        boleta.setIdBoleta(1234);
+        boleta.setIdUsuario(7);
+        boleta.setUsuario(vendedor);
+        boleta.setFechaCreacion(LocalDateTime.of(2025, 3, 15, 10, 30));
+        boleta.setNombreCliente(cliente);
+        boleta.setDocumentoCliente(documento);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 1; i <= lineas; i++) {
+            DetalleBoleta detalle = new DetalleBoleta();
+            detalle.setIdDetalle(i);
+            detalle.setProducto("Producto " + i);
+            detalle.setCantidad(i % 5 + 1);
+            detalle.setPrecioUnitario(new BigDecimal("19.90"));
+            detalle.setSubtotal(detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(detalle.getCantidad())));
+            total = total.add(detalle.getSubtotal());
+            boleta.agregarDetalle(detalle);
+        }
+        boleta.setTotal(total);
+        return boleta;
+    }
+}
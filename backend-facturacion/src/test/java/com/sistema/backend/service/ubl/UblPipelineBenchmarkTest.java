@@ -0,0 +1,69 @@
+package com.sistema.backend.service.ubl;
+
+import com.sistema.backend.entity.Boleta;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de generación + firma de comprobantes UBL: comprobantes por segundo por núcleo.
+ * Ejecutar con: mvn -B test -Pbenchmark -Dtest=UblPipelineBenchmarkTest
+ */
+@Tag("benchmark")
+class UblPipelineBenchmarkTest {
+
+    private final UblInvoiceWriter writer = new UblInvoiceWriter();
+
+    @Test
+    void comprobantesPorSegundoPorNucleo() throws Exception {
+        XmlFirmador firmador = new XmlFirmador(new ClassPathResource("ubl/firma-dev.p12"), "cambiar-en-produccion", "firma");
+        Boleta boleta = UblInvoiceWriterTest.boleta(10, "Cliente Final", "12345678");
+        int nucleos = Runtime.getRuntime().availableProcessors();
+
+        // Calentamiento del JIT
+        for (int i = 0; i < 500; i++) {
+            generarYFirmar(firmador, boleta);
+        }
+
+        long duracionMs = 10_000;
+        AtomicLong generados = new AtomicLong();
+        AtomicLong nanosEscritura = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(nucleos);
+        long fin = System.currentTimeMillis() + duracionMs;
+        for (int t = 0; t < nucleos; t++) {
+            pool.submit(() -> {
+                while (System.currentTimeMillis() < fin) {
+                    long inicio = System.nanoTime();
+                    ByteArrayOutputStream xml = new ByteArrayOutputStream(4096);
+                    writer.escribir(boleta, xml);
+                    nanosEscritura.addAndGet(System.nanoTime() - inicio);
+                    firmador.firmar(xml.toByteArray());
+                    generados.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(duracionMs + 5_000, TimeUnit.MILLISECONDS)).isTrue();
+
+        double porSegundo = generados.get() * 1000.0 / duracionMs;
+        double escrituraUs = nanosEscritura.get() / 1000.0 / generados.get();
+        System.out.printf("UBL 10 líneas: %.0f comprobantes/s con %d hilos = %.0f/s/núcleo (escritura StAX %.1f µs, resto firma)%n",
+                porSegundo, nucleos, porSegundo / nucleos, escrituraUs);
+        assertThat(generados.get()).isPositive();
+    }
+
+    private void generarYFirmar(XmlFirmador firmador, Boleta boleta) throws Exception {
+        ByteArrayOutputStream xml = new ByteArrayOutputStream(4096);
+        writer.escribir(boleta, xml);
+        firmador.firmar(xml.toByteArray());
+    }
+}
@@ -1,12 +1,18 @@
 // src/app/interceptors/auth.interceptor.ts
-import { HttpInterceptorFn } from '@angular/common/http';
-import { inject } from '@angular/core';
+import { HttpErrorResponse, HttpInterceptorFn } from '@angular/common/http';
+import { Injector, inject } from '@angular/core';
 import { Router } from '@angular/router';
-import { catchError, throwError } from 'rxjs';
+import { catchError, switchMap, throwError } from 'rxjs';
+import { AuthService } from '../servicios/servicio-auth';
 
 const URL_EXCLUIDA = 'https://apiperu.dev';
+
+// Endpoints de sesión: un 401 en ellos no se intenta arreglar refrescando
+const URLS_SESION = ['/api/usuarios/login', '/api/usuarios/refrescar-token', '/api/usuarios/logout'];
+
 /**
- * Interceptor HTTP que agrega automáticamente el token JWT  a todas las peticiones HTTP
+ * Interceptor HTTP que agrega automáticamente el token JWT  a todas las peticiones HTTP.
+ * Si el token de acceso expiró (401), lo renueva con el refresh token y reintenta una vez.
  */
 export const authInterceptor: HttpInterceptorFn = (req, next) => {
     if (req.url.includes(URL_EXCLUIDA)) {
@@ -15,6 +21,8 @@ export const authInterceptor: HttpInterceptorFn = (req, next) => {
     }
 
     const router = inject(Router);
+    // AuthService se resuelve al fallar: sus propias peticiones pasan por aquí mientras se construye
+    const injector = inject(Injector);
 
     // Obtener token del localStorage
     const token = localStorage.getItem('authToken');
@@ -30,24 +38,43 @@ export const authInterceptor: HttpInterceptorFn = (req, next) => {
         console.log('Token agregado a la petición:', req.url);
     }
 
+    const limpiarYRedirigir = (authService: AuthService) => {
+        console.warn('Token inválido o expirado, redirigiendo a login...');
+
+        // Limpiar sesión
+        authService.limpiarSesionManual();
+
+        // Redirigir al login
+        router.navigate(['/autenticacion']);
+    };
+
     // Continuar con la petición y manejar errores
     return next(req).pipe(
         catchError((error) => {
             console.error('❌ Error en petición HTTP:', error);
 
-            // Si es error 401 (No autorizado), redirigir al login
-            if (error.status === 401) {
-                console.warn('Token inválido o expirado, redirigiendo a login...');
-
-                // Limpiar sesión
-                localStorage.removeItem('authToken');
-                localStorage.removeItem('currentUser');
+            // Si es error 401 (No autorizado), renovar el token y reintentar una vez
+            if (error instanceof HttpErrorResponse && error.status === 401) {
+                const authService = injector.get(AuthService);
+                if (!authService.getRefreshToken() || URLS_SESION.some((url) => req.url.includes(url))) {
+                    limpiarYRedirigir(authService);
+                    return throwError(() => error);
+                }
 
-                // Redirigir al login
-                router.navigate(['/autenticacion']);
+                return authService.refrescarToken().pipe(
+                    catchError((errorRefresco) => {
+                        limpiarYRedirigir(authService);
+                        return throwError(() => errorRefresco);
+                    }),
+                    switchMap((response) => next(req.clone({
+                        setHeaders: {
+                            Authorization: `Bearer ${response.token}`
+                        }
+                    })))
+                );
             }
 
             return throwError(() => error);
         })
     );
-};
\ No newline at end of file
+};
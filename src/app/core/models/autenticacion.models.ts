@@ -4,7 +4,9 @@
  * Respuesta de autenticación del backend
  */
 export interface AuthResponse {
-    token: string;
+    token: string;          // Token de acceso (vida corta)
+    refreshToken: string;   // De un solo uso: cada refresco entrega uno nuevo
+    expiraEnSegundos: number;
     idUsuario: number;
     email: string;
     nombreCompleto: string;
@@ -4,11 +4,24 @@
  * Request para crear detalle de boleta simula un item de carrito
  */
 export interface DetalleRequest {
-    nombreProducto: string;
-    precioUnitario: number;
+    idProducto: number; // Producto del catálogo: nombre y precio los pone el backend
+    nombreProducto?: string; // Solo informativo en líneas de catálogo
+    precioUnitario?: number; // Precio que vio el usuario; el backend rechaza si cambió
     cantidad: number;
 }
 
+/**
+ * Producto del catálogo (GET /api/productos)
+ */
+export interface Producto {
+    idProducto: number;
+    codigo: string;
+    nombre: string;
+    precio: number;
+    activo: boolean;
+    controlaStock: boolean;
+}
+
 /**
  * Request para crear boleta (checkout)
  * Usa la estructura del backend
@@ -31,6 +44,7 @@ export interface BoletaResponse {
     success: boolean;
     mensaje: string;
     boletaId: number;
+    numero?: string; // Serie-correlativo, p.ej. B001-00001234
 }
 
 /**
@@ -49,6 +63,7 @@ export interface UsuarioDTO {
  */
 export interface DetalleBoletaDTO {
     idDetalle: number;
+    idProducto?: number | null;
     producto: string;
     precio_unitario: number;
     cantidad: number;
@@ -60,6 +75,7 @@ export interface DetalleBoletaDTO {
  */
 export interface BoletaDetailsResponse {
     idBoleta: number;
+    numero?: string | null;
     idUsuario: number;
     fecha_creacion: string; // "2025-10-16 22:34:34.39801"
     total: number;
@@ -71,5 +87,20 @@ export interface BoletaDetailsResponse {
     usuarioVendedor?: UsuarioDTO;
 }
 
+/**
+ * Resumen ligero de boleta usado en los listados (sin detalles)
+ */
+export interface BoletaSummary {
+    idBoleta: number;
+    numero?: string | null;
+    idUsuario: number;
+    fecha_creacion: string;
+    total: number;
+    nombreCliente: string;
+    documentoCliente: string;
+    cantidadItems: number;
+    unidadesTotales: number;
+}
+
 // Alias para la lista de boletas en la tabla
-export type Boleta = BoletaDetailsResponse;
\ No newline at end of file
+export type Boleta = BoletaSummary;
\ No newline at end of file
@@ -3,7 +3,7 @@ import { Injectable, inject, signal } from '@angular/core';
 import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { Router } from '@angular/router';
 import { Observable, BehaviorSubject, throwError } from 'rxjs';
-import { tap, catchError, map } from 'rxjs/operators';
+import { tap, catchError, map, finalize, shareReplay } from 'rxjs/operators';
 import { environment } from '../../../environment/environment';
 
 // Modelos
@@ -32,6 +32,10 @@ export class AuthService {
   // URL de redirección
   private redirectUrl: string | null = null;
 
+  // Refresco en curso: las peticiones que fallan a la vez esperan el mismo
+  // (el refresh token es de un solo uso; dos refrescos paralelos revocarían la sesión)
+  private refrescoEnCurso$: Observable<AuthResponse> | null = null;
+
   constructor() {
     // Verificar token al iniciar
     this.verifyTokenOnInit();
@@ -68,6 +72,13 @@ export class AuthService {
     return localStorage.getItem('authToken');
   }
 
+  /**
+   * Obtener refresh token desde localStorage
+   */
+  getRefreshToken(): string | null {
+    return localStorage.getItem('refreshToken');
+  }
+
   /**
    * Verificar si el usuario está autenticado
    */
@@ -119,6 +130,14 @@ export class AuthService {
    */
   logout(): void {
     console.log('Cerrando sesión...');
+
+    // Revoca el token y el refresh token en el servidor (sin esperar la respuesta)
+    if (this.getToken()) {
+      this.http.post(`${this.apiUrl}/logout`, { refreshToken: this.getRefreshToken() }).subscribe({
+        error: (error) => console.warn('⚠️ No se pudo cerrar la sesión en el servidor:', error)
+      });
+    }
+
     this.cerrarSession();
     this.router.navigate(['/inicio']);
   }
@@ -150,25 +169,27 @@ export class AuthService {
   /**
    * REFRESCAR TOKEN
    * POST /api/usuarios/refrescar-token
+   * Cambia el refresh token por un token de acceso y un refresh token nuevos
    */
   refrescarToken(): Observable<AuthResponse> {
-    const token = this.getToken();
+    const refreshToken = this.getRefreshToken();
 
-    if (!token) {
-      return throwError(() => new Error('No hay token'));
+    if (!refreshToken) {
+      return throwError(() => new Error('No hay refresh token'));
     }
 
-    const headers = new HttpHeaders({
-      'Authorization': `Bearer ${token}`
-    });
-
-    return this.http.post<AuthResponse>(`${this.apiUrl}/refrescar-token`, {}, { headers }).pipe(
-      tap((response) => {
-        console.log('🔄 Token refrescado');
-        this.saveAuthData(response);
-      }),
-      catchError(this.handleError)
-    );
+    if (!this.refrescoEnCurso$) {
+      this.refrescoEnCurso$ = this.http.post<AuthResponse>(`${this.apiUrl}/refrescar-token`, { refreshToken }).pipe(
+        tap((response) => {
+          console.log('🔄 Token refrescado');
+          this.saveAuthData(response);
+        }),
+        catchError(this.handleError),
+        finalize(() => this.refrescoEnCurso$ = null),
+        shareReplay(1)
+      );
+    }
+    return this.refrescoEnCurso$;
   }
 
   /**
@@ -193,8 +214,9 @@ export class AuthService {
    * Guardar datos de autenticación
    */
   private saveAuthData(response: AuthResponse): void {
-    // Guardar token
+    // Guardar tokens
     localStorage.setItem('authToken', response.token);
+    localStorage.setItem('refreshToken', response.refreshToken);
 
     // Crear y guardar usuario
     const userData: UserData = {
@@ -235,6 +257,7 @@ export class AuthService {
    */
   private cerrarSession(): void {
     localStorage.removeItem('authToken');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('currentUser');
     this.currentUserSubject.next(null);
     this.currentUserSignal.set(null);
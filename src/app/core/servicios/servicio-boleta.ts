@@ -1,8 +1,8 @@
 // src/app/services/boleta.service.ts
 import { Injectable, inject } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable, throwError } from 'rxjs';
-import { catchError, tap } from 'rxjs/operators';
+import { HttpClient, HttpEvent, HttpEventType, HttpHeaders } from '@angular/common/http';
+import { Observable, defer, throwError } from 'rxjs';
+import { catchError, filter, map, mergeMap, repeat, retry, tap } from 'rxjs/operators';
 import { environment } from '../../../environment/environment';
 
 // Modelos
@@ -11,7 +11,8 @@ import {
   BoletaResponse,     
   Boleta,             
   DetalleBoletaDTO, 
-  BoletaDetailsResponse
+  BoletaDetailsResponse,
+  Producto
 } from '../models/boleta.models';
 
 @Injectable({
@@ -20,6 +21,7 @@ import {
 export class ServicioBoleta {
   private http = inject(HttpClient);
   private apiUrl = `${environment.apiUrl}/api/boletas`;
+  private productosUrl = `${environment.apiUrl}/api/productos`;
 
   /**
   * POST /api/boletas
@@ -33,6 +35,17 @@ export class ServicioBoleta {
     );
   }
 
+  /**
+   * CATÁLOGO DE PRODUCTOS
+   * GET /api/productos (activos, ordenados por nombre)
+   * Requiere autenticación
+   */
+  obtenerProductos(): Observable<Producto[]> {
+    return this.http.get<Producto[]>(this.productosUrl).pipe(
+      catchError(this.handleError)
+    );
+  }
+
   /**
    * OBTENER MIS BOLETAS
    * GET /api/boletas
@@ -62,6 +75,80 @@ export class ServicioBoleta {
     );
   }
 
+  /**
+   * FEED EN VIVO DE BOLETAS NUEVAS
+   * GET /api/boletas/stream (Server-Sent Events)
+   * Se lee con HttpClient (no EventSource) para que el interceptor agregue el JWT.
+   * Si la conexión se cierra o se cae, reconecta con Last-Event-ID y el servidor
+   * reenvía las boletas creadas mientras tanto.
+   */
+  escucharNuevasBoletas(): Observable<Boleta> {
+    let ultimoId: string | null = null;
+
+    return defer(() => {
+      let leido = 0;
+      let pendiente = '';
+      const headers = ultimoId ? new HttpHeaders({ 'Last-Event-ID': ultimoId }) : undefined;
+
+      return this.http.get(`${this.apiUrl}/stream`, {
+        headers,
+        observe: 'events',
+        reportProgress: true,
+        responseType: 'text'
+      }).pipe(
+        map((evento: HttpEvent<string>) => {
+          if (evento.type === HttpEventType.DownloadProgress) {
+            return evento.partialText ?? '';
+          }
+          return evento.type === HttpEventType.Response ? evento.body ?? '' : null;
+        }),
+        filter((texto): texto is string => texto !== null),
+        // El texto es acumulado: solo se procesa lo nuevo, en bloques separados por línea en blanco
+        mergeMap((texto) => {
+          pendiente += texto.substring(leido);
+          leido = texto.length;
+          const bloques = pendiente.split('\n\n');
+          pendiente = bloques.pop() ?? '';
+          return bloques.map((bloque) => this.parsearEventoSse(bloque));
+        }),
+        filter((evento): evento is { id: string | null; data: string } => evento !== null),
+        tap((evento) => ultimoId = evento.id ?? ultimoId),
+        map((evento) => JSON.parse(evento.data) as Boleta)
+      );
+    }).pipe(
+      // Cierre normal (timeout del servidor): reconectar enseguida
+      repeat({ delay: 1000 }),
+      // Error de red o del servidor: reintentar con pausa
+      retry({ count: 10, delay: 5000, resetOnSuccess: true })
+    );
+  }
+
+  /**
+   * Evento "boleta" de un bloque SSE; null para latidos (comentarios)
+   */
+  private parsearEventoSse(bloque: string): { id: string | null; data: string } | null {
+    let id: string | null = null;
+    let nombre = 'message';
+    const datos: string[] = [];
+
+    for (const linea of bloque.split('\n')) {
+      const separador = linea.indexOf(':');
+      if (separador === 0) {
+        continue; // Comentario (latido)
+      }
+      const campo = separador < 0 ? linea : linea.substring(0, separador);
+      const valor = separador < 0 ? '' : linea.substring(separador + 1).replace(/^ /, '');
+      if (campo === 'id') {
+        id = valor;
+      } else if (campo === 'event') {
+        nombre = valor;
+      } else if (campo === 'data') {
+        datos.push(valor);
+      }
+    }
+    return nombre === 'boleta' && datos.length > 0 ? { id, data: datos.join('\n') } : null;
+  }
+
   /**
    * OBTENER BOLETA POR ID
    * GET /api/boletas/{id}
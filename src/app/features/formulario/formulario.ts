@@ -3,7 +3,7 @@ import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { Reniec } from '../../core/servicios/servicio-reniec';
 import { ServicioBoleta } from '../../core/servicios/servicio-boleta';
-import { DetalleRequest, BoletaRequest } from '../../core/models/boleta.models';
+import { DetalleRequest, BoletaRequest, Producto } from '../../core/models/boleta.models';
 
 // Interfaz local para los datos del cliente
 interface ClienteData {
@@ -13,8 +13,9 @@ interface ClienteData {
   email: string;
 }
 
-// Interfaz local para los items del formulario
+// Interfaz local para los items del formulario (producto elegido del catálogo)
 interface ProductoItem {
+  idProducto: number | null;
   nombreProducto: string;
   precioUnitario: number;
   cantidad: number;
@@ -40,10 +41,11 @@ export class Formulario {
   // Datos del Cliente
   cliente = signal<ClienteData>({ dni: '', nombres: '', apellidos: '', email: '' });
 
+  // Catálogo: nombre y precio de cada línea salen de aquí (el backend valida el precio)
+  catalogo = signal<Producto[]>([]);
+
   // Lista de Productos (Items)
-  productos = signal<ProductoItem[]>([
-    { nombreProducto: '', precioUnitario: 0, cantidad: 1 } // Item inicial
-  ]);
+  productos = signal<ProductoItem[]>([this.itemVacio()]);
 
   // Propiedades calculadas
   totalBoleta = signal(0);
@@ -51,6 +53,38 @@ export class Formulario {
 
   constructor() {
     this.calcularTotales();
+    this.cargarCatalogo();
+  }
+
+  /**
+   * CATÁLOGO
+   * Productos activos para elegir en cada línea
+   */
+  cargarCatalogo(): void {
+    this.boletaService.obtenerProductos().subscribe({
+      next: (productos) => this.catalogo.set(productos),
+      error: (err) => {
+        this.mensajeError.set('No se pudo cargar el catálogo de productos.');
+        console.error('Error catálogo:', err);
+      }
+    });
+  }
+
+  /**
+   * Asigna el producto del catálogo a la línea (nombre y precio del servidor)
+   */
+  seleccionarProducto(index: number, idProducto: number | string | null): void {
+    const producto = this.catalogo().find(p => p.idProducto === Number(idProducto));
+    this.productos.update(items => {
+      items[index] = {
+        ...items[index],
+        idProducto: producto ? producto.idProducto : null,
+        nombreProducto: producto ? producto.nombre : '',
+        precioUnitario: producto ? producto.precio : 0
+      };
+      return [...items];
+    });
+    this.calcularTotales();
   }
 
   /**
@@ -73,7 +107,7 @@ export class Formulario {
   agregarProducto(): void {
     this.productos.update(items => [
       ...items,
-      { nombreProducto: '', precioUnitario: 0, cantidad: 1 }
+      this.itemVacio()
     ]);
     this.calcularTotales();
   }
@@ -149,11 +183,17 @@ export class Formulario {
       this.mensajeError.set('Debe completar el DNI del cliente y añadir productos válidos.');
       return;
     }
+    if (this.productos().some(p => p.idProducto === null)) {
+      this.mensajeError.set('Seleccione un producto del catálogo en cada línea.');
+      return;
+    }
 
     this.cargandoBoleta.set(true);
 
-    // Mapear ProductoItem a DetalleRequest (que espera el backend)
+    // Mapear ProductoItem a DetalleRequest: el backend toma nombre y precio del catálogo
+    // y rechaza la boleta si el precio que vio el usuario ya cambió
     const cartItems: DetalleRequest[] = this.productos().map(p => ({
+      idProducto: p.idProducto as number,
       nombreProducto: p.nombreProducto,
       precioUnitario: p.precioUnitario,
       cantidad: p.cantidad
@@ -195,10 +235,14 @@ export class Formulario {
 
   private limpiarFormulario(): void {
     this.cliente.set({ dni: '', nombres: '', apellidos: '', email: '' });
-    this.productos.set([{ nombreProducto: '', precioUnitario: 0, cantidad: 1 }]);
+    this.productos.set([this.itemVacio()]);
     this.calcularTotales();
   }
 
+  private itemVacio(): ProductoItem {
+    return { idProducto: null, nombreProducto: '', precioUnitario: 0, cantidad: 1 };
+  }
+
   // Helper para el template
   formatearPrecio(precio: number): string {
     return this.boletaService.formatearPrecio(precio);
@@ -227,7 +271,7 @@ export class Formulario {
   }
 
   /**
-   * Actualiza el valor de un campo específico (nombre, precio o cantidad)
+   * Actualiza el valor de un campo específico (la cantidad; nombre y precio vienen del catálogo)
    * para un producto dado su índice y recalcula totales.
    */
   actualizarProductoCampo(index: number, campo: keyof ProductoItem, valor: any): void {
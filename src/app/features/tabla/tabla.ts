@@ -1,4 +1,5 @@
-import { Component, inject, OnInit, signal } from '@angular/core';
+import { Component, DestroyRef, inject, OnInit, signal } from '@angular/core';
+import { takeUntilDestroyed } from '@angular/core/rxjs-interop';
 import { CommonModule } from '@angular/common';
 import { Router } from '@angular/router';
 import { ServicioBoleta } from '../../core/servicios/servicio-boleta';
@@ -14,6 +15,7 @@ import { ModalBoleta } from '../modal-boleta/modal-boleta';
 export class Tabla {
   boletaService = inject(ServicioBoleta);
   private router = inject(Router);
+  private destroyRef = inject(DestroyRef);
 
   // Signals
   boletas = signal<Boleta[]>([]);
@@ -38,6 +40,7 @@ export class Tabla {
         console.log('✅ Boletas cargadas:', boletas);
         this.boletas.set(boletas);
         this.loading.set(false);
+        this.escucharNuevasBoletas();
       },
       error: (error) => {
         console.error('❌ Error al cargar boletas:', error);
@@ -47,6 +50,21 @@ export class Tabla {
     });
   }
 
+  /**
+   * Agrega arriba las boletas nuevas que llegan por el feed (sin volver a cargar la lista)
+   */
+  private escucharNuevasBoletas(): void {
+    this.boletaService.escucharNuevasBoletas()
+      .pipe(takeUntilDestroyed(this.destroyRef))
+      .subscribe({
+        next: (boleta) => {
+          this.boletas.update((actuales) =>
+            actuales.some((b) => b.idBoleta === boleta.idBoleta) ? actuales : [boleta, ...actuales]);
+        },
+        error: (error) => console.warn('⚠️ Feed de boletas detenido:', error)
+      });
+  }
+
   /**
    * Ver detalle de boleta
    */